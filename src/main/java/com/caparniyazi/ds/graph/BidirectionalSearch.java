@@ -0,0 +1,208 @@
+package com.caparniyazi.ds.graph;
+
+import com.caparniyazi.ds.tree.IndexedPriorityQueue;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Bidirectional Dijkstra's algorithm and A* for point-to-point queries on the same graph.
+ * <p/>
+ * A forward search grows from the start vertex and a backward search grows from the destination along the
+ * reversed edges (the graph itself if it is undirected, its transpose otherwise). They take turns, each time
+ * the one with the smaller queue settles a vertex. When an edge connects a vertex reached by one search to a
+ * vertex reached by the other, the path through it is a candidate, and the shortest candidate (mu) is kept.
+ * On a road network, each search settles a disc of about half the radius, so together they settle about
+ * half the vertices that ShortestPathSearch.dijkstra() settles.
+ * <p/>
+ * A* uses the average potential of Ikeda et al.: with a heuristic h(v, w) that never overestimates
+ * the distance from v to w and is consistent (e.g., the straight-line distance or the Landmarks lower bound),
+ * <pre>
+ *     forward priority   dist(start, v) + (h(v, dest) - h(start, v)) / 2
+ *     backward priority  dist(v, dest)  + (h(start, v) - h(v, dest)) / 2
+ * </pre>
+ * The two potentials add up to 0, so both searches see the same reduced edge weights and the search can
+ * stop as soon as the smallest forward and backward priorities add up to at least mu, as in bidirectional
+ * Dijkstra's algorithm (a heuristic of 0).
+ * <p/>
+ * The arrays and queues belong to the search object and are reused by every query, marked with the number of
+ * the query as in ShortestPathSearch. A search object must not be used by several threads at the same time.
+ */
+public class BidirectionalSearch {
+    // Data fields
+    private final Side forward;
+    private final Side backward;
+    private int query;
+    private double mu;      // The length of the shortest path found so far.
+    private int meeting;    // A vertex on that path, reached by both searches.
+    private int start;
+    private int dest;
+    private IntIntToDoubleFunction heuristic;
+
+    /**
+     * The state of one direction of the search.
+     */
+    private class Side {
+        // Data fields
+        private final Graph graph;
+        private final boolean isForward;
+        private final double[] dist;
+        private final int[] pred;   // The forward search: the predecessor; the backward search: the successor.
+        private final int[] reachedIn;
+        private final IndexedPriorityQueue queue;
+        private int settledCount;
+
+        Side(Graph graph, boolean isForward) {
+            this.graph = graph;
+            this.isForward = isForward;
+            int numV = graph.getNumV();
+            dist = new double[numV];
+            pred = new int[numV];
+            reachedIn = new int[numV];
+            queue = new IndexedPriorityQueue(numV);
+        }
+
+        void reset(int root) {
+            if (query == 1) {   // The first query, or the numbers wrapped around.
+                Arrays.fill(reachedIn, 0);
+            }
+            queue.clear();
+            settledCount = 0;
+            reach(root, 0, -1);
+            queue.offer(root, potential(root));
+        }
+
+        boolean reached(int v) {
+            return reachedIn[v] == query;
+        }
+
+        void reach(int v, double distance, int predecessor) {
+            reachedIn[v] = query;
+            dist[v] = distance;
+            pred[v] = predecessor;
+        }
+
+        /**
+         * Returns the potential of a vertex in this direction, 0 for Dijkstra's algorithm.
+         */
+        double potential(int v) {
+            if (heuristic == null) {
+                return 0;
+            }
+            double p = (heuristic.applyAsDouble(v, dest) - heuristic.applyAsDouble(start, v)) / 2;
+            return isForward ? p : -p;
+        }
+
+        double minPriority() {
+            return queue.getPriority(queue.peek());
+        }
+
+        /**
+         * Settles the vertex with the smallest priority and relaxes its edges.
+         */
+        void step(Side other) {
+            int u = queue.poll();
+            settledCount++;
+            double distU = dist[u];
+
+            graph.forEachNeighbor(u, (v, weight) -> {
+                double newDist = distU + weight;
+
+                if (!reached(v)) {
+                    reach(v, newDist, u);
+                    queue.offer(v, newDist + potential(v));
+                } else if (newDist < dist[v] && queue.contains(v)) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                    queue.decreaseKey(v, newDist + potential(v));
+                }
+
+                if (other.reached(v) && dist[v] + other.dist[v] < mu) {
+                    mu = dist[v] + other.dist[v];
+                    meeting = v;
+                }
+            });
+        }
+    }
+
+    // Constructors
+    public BidirectionalSearch(Graph graph) {
+        forward = new Side(graph, true);
+        backward = new Side(graph.isDirected() ? CsrGraph.of(graph).transpose() : graph, false);
+    }
+
+    /**
+     * Finds the shortest path with bidirectional Dijkstra's algorithm.
+     *
+     * @param start The start vertex.
+     * @param dest  The destination vertex.
+     * @return The length of the shortest path, or Double.POSITIVE_INFINITY if there is no path.
+     */
+    public double dijkstra(int start, int dest) {
+        return search(start, dest, null);
+    }
+
+    /**
+     * Finds the shortest path with bidirectional A*.
+     *
+     * @param start     The start vertex.
+     * @param dest      The destination vertex.
+     * @param heuristic A consistent lower bound of the distance from the first vertex to the second.
+     * @return The length of the shortest path, or Double.POSITIVE_INFINITY if there is no path.
+     */
+    public double aStar(int start, int dest, IntIntToDoubleFunction heuristic) {
+        return search(start, dest, heuristic);
+    }
+
+    private double search(int start, int dest, IntIntToDoubleFunction heuristic) {
+        if (++query == 0) {     // After 2^32 queries the numbers wrap around.
+            query = 1;
+        }
+        this.start = start;
+        this.dest = dest;
+        this.heuristic = heuristic;
+        forward.reset(start);
+        backward.reset(dest);
+        mu = start == dest ? 0 : Double.POSITIVE_INFINITY;
+        meeting = start == dest ? start : -1;
+
+        while (!forward.queue.isEmpty() && !backward.queue.isEmpty()
+                && forward.minPriority() + backward.minPriority() < mu) {
+            if (forward.queue.size() <= backward.queue.size()) {
+                forward.step(backward);
+            } else {
+                backward.step(forward);
+            }
+        }
+        return mu;
+    }
+
+    /**
+     * Returns the shortest path found by the last query.
+     *
+     * @return The vertices of the path from the start to the destination, or an empty list if there is no path.
+     */
+    public List<Integer> getPath() {
+        LinkedList<Integer> path = new LinkedList<>();
+
+        if (meeting >= 0) {
+            for (int v = meeting; v != -1; v = forward.pred[v]) {
+                path.addFirst(v);
+            }
+            for (int v = backward.pred[meeting]; v != -1; v = backward.pred[v]) {
+                path.addLast(v);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Returns the number of vertices settled by the last query, in both directions.
+     *
+     * @return The number of settled vertices.
+     */
+    public int getSettledCount() {
+        return forward.settledCount + backward.settledCount;
+    }
+}
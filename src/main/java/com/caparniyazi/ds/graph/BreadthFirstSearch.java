@@ -1,23 +1,26 @@
 package com.caparniyazi.ds.graph;
 
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * The class to implement the breadth-first search algorithm.
+ * See ParallelBreadthFirstSearch for a version that expands each level in parallel for large graphs.
  */
 public class BreadthFirstSearch {
     // Data fields
     private final Graph graph;    // The graph to be searched.
     private final int[] parent;
     private final boolean[] identified;
-    private final List<Integer> order;
+    private final int[] queue;  // The vertices in the order they are identified: this is also the BFS order.
+    private int head;   // The next vertex to visit.
+    private int tail;   // The number of identified vertices.
 
     // Constructor
     public BreadthFirstSearch(Graph graph) {
         this.graph = graph;
         parent = new int[graph.getNumV()];
         identified = new boolean[graph.getNumV()];
-        order = new ArrayList<>();
+        queue = new int[graph.getNumV()];
     }
 
     // Public API.
@@ -30,36 +33,33 @@ public class BreadthFirstSearch {
      * @post The array parent will contain the predecessor of each vertex in the breadth-first search tree.
      */
     public int[] breadthFirstSearch(int start) {
-        Queue<Integer> theQueue = new LinkedList<>();
         Arrays.fill(parent, -1);
-
+        Arrays.fill(identified, false);     // The search object can be reused for another start vertex.
+        head = 0;
+        tail = 0;
 
         // Make the start vertex as identified, change it to light color, for example, and insert it into the queue.
         identified[start] = true;
-        theQueue.offer(start);
+        queue[tail++] = start;
 
         // Perform breadth-first search until done.
         // We need to be able to determine the first identified vertex that has not been visited so far that
         // we can visit it. To ensure that the identified vertices are visited in the correct sequence,
         // we will store them in a queue (FIFO). When we need a new node to visit, we remove it from the queue.
+        // Each vertex enters the queue once, so an int[] of numV entries is enough: no boxing, no list nodes.
 
-        while (!theQueue.isEmpty()) {
+        while (head < tail) {
             // Take a vertex, current, out of the queue, and begin visiting it.
-            int current = theQueue.remove();    // Take a vertex, u, out of the queue and visit u.
+            int current = queue[head++];    // Take a vertex, u, out of the queue and visit u.
             // We can build a tree that represents the order in which vertices would be visited in a
             // breadth-first traversal, by attaching the vertices as they are identified to the vertex from
             // which they are identified.
-            order.add(current);
 
             // Examine each vertex, neighbor, adjacent to the current.
-            Iterator<Edge> iter = graph.edgeIterator(current);
-            while (iter.hasNext()) {
-                Edge edge = iter.next();
-                int neighbor = edge.getDest();
-
+            graph.forEachNeighbor(current, (neighbor, weight) -> {
                 if (!identified[neighbor]) {    // If neighbor has not been identified
                     identified[neighbor] = true;    // Make it identified.
-                    theQueue.offer(neighbor);   // Place it into the queue.
+                    queue[tail++] = neighbor;   // Place it into the queue.
 
                     /*
                      Insert the edge (current, neighbor) into the tree by making current as the parent of neighbor.
@@ -68,7 +68,7 @@ public class BreadthFirstSearch {
                      */
                     parent[neighbor] = current;
                 }
-            }   // Finished visiting current (u).
+            });   // Finished visiting current (u).
         } // Finished the breadth-first traversal.
 
         return parent;
@@ -90,7 +90,7 @@ public class BreadthFirstSearch {
             sb.append("\n");
         }
 
-        sb.append("\nBFS Order: ").append(order);
+        sb.append("\nBFS Order: ").append(Arrays.toString(Arrays.copyOf(queue, tail)));
         return sb.toString();
     }
 }
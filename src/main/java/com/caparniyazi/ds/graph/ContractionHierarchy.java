@@ -0,0 +1,778 @@
+package com.caparniyazi.ds.graph;
+
+import com.caparniyazi.ds.tree.IndexedPriorityQueue;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A Contraction Hierarchy (Geisberger, Sanders, Schultes and Delling, 2008): a graph preprocessed once so that
+ * point-to-point shortest path queries settle a few hundred vertices instead of a large part of the graph.
+ * <p/>
+ * Preprocessing contracts the vertices in the order of their importance (rank). Contracting v removes it from
+ * the graph; for each pair of edges u -&gt; v -&gt; x, a shortcut u -&gt; x with the length of the two edges is added,
+ * unless a local Dijkstra search from u that avoids v finds a shorter path to x (a witness). The vertices with
+ * a small priority, 2 * edge difference + level, are contracted first:
+ * <pre>
+ *     edge difference     the shortcuts that contracting v would add minus the edges that it removes
+ *     level               1 + the largest level of the contracted neighbors, which spreads the contraction evenly
+ * </pre>
+ * Witness searches are limited in the vertices they settle, and when only estimating the priority, in the
+ * edges of a witness: a search that stops early may miss a witness and add a shortcut that is not needed,
+ * which is never wrong.
+ * <p/>
+ * The contraction runs in rounds on a ForkJoinPool. A round contracts every vertex whose priority is the smallest
+ * among its neighbors and among the neighbors of each of them. No two of these vertices are neighbors or have
+ * a common neighbor, so they are contracted in parallel without locks. A contraction only marks the priorities
+ * of the neighbors as stale, and the next round recomputes each stale priority once, however many of the
+ * neighbors of the vertex were contracted. A witness must be strictly shorter than the shortcut: with equal
+ * lengths, two vertices of the same round could each rely on a witness through the other.
+ * <p/>
+ * The result is the original edges plus the shortcuts, split into two upward graphs in CSR form:
+ * <pre>
+ *     up    the edges v -&gt; w with rank[w] &gt; rank[v], stored at v
+ *     down  the edges w -&gt; v with rank[w] &gt; rank[v], stored at v (the reversed edges, for the backward search)
+ * </pre>
+ * Every shortest path goes up in rank and then down, so ContractionHierarchyQuery runs a bidirectional Dijkstra
+ * search that only goes up: the forward search in up from the start, the backward search in down from the
+ * destination. Each shortcut remembers the vertex it bypasses (middle), so a path of shortcuts is unpacked
+ * back to the original edges. The hierarchy is immutable and can be saved to and loaded from a file.
+ * The edge weights must not be negative.
+ */
+public class ContractionHierarchy {
+    // Data fields
+    private static final long MAGIC = 0x4348475241504831L;  // "CHGRAPH1"
+    private static final int WITNESS_LIMIT = 500;   // The vertices settled by a witness search when contracting.
+    private static final int ESTIMATE_LIMIT = 50;   // The same, when only counting the shortcuts for the priority.
+    private static final int ESTIMATE_HOPS = 3;     // The edges of a witness when only counting the shortcuts.
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int numV;
+    private final boolean directed;
+    private final int[] rank;
+    private final UpwardGraph up;
+    private final UpwardGraph down;
+
+    /**
+     * The edges from each vertex to the vertices of higher rank, in CSR form: the edges of v are the indexes
+     * offsets[v] ... offsets[v + 1] - 1. middles[i] is the vertex bypassed by a shortcut, or -1 for an original edge.
+     */
+    record UpwardGraph(int[] offsets, int[] ends, double[] weights, int[] middles) {
+        /**
+         * Returns the index of the edge of v to the given end, or -1 if there is none.
+         */
+        int find(int v, int end) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (ends[i] == end) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // Constructors
+    private ContractionHierarchy(int numV, boolean directed, int[] rank, UpwardGraph up, UpwardGraph down) {
+        this.numV = numV;
+        this.directed = directed;
+        this.rank = rank;
+        this.up = up;
+        this.down = down;
+    }
+
+    /**
+     * Preprocesses a graph, using the common pool.
+     *
+     * @param graph The graph.
+     * @return The contraction hierarchy.
+     * @throws IllegalArgumentException if an edge has a negative weight.
+     */
+    public static ContractionHierarchy build(Graph graph) {
+        return build(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Preprocesses a graph.
+     *
+     * @param graph The graph.
+     * @param pool  The pool that runs the rounds of the contraction.
+     * @return The contraction hierarchy.
+     * @throws IllegalArgumentException if an edge has a negative weight.
+     */
+    public static ContractionHierarchy build(Graph graph, ForkJoinPool pool) {
+        return new Contractor(graph, pool).contractAll();
+    }
+
+    // Methods
+
+    public int getNumV() {
+        return numV;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Returns the position of a vertex in the contraction order (0 for the first contracted vertex).
+     *
+     * @param v The vertex.
+     * @return The rank.
+     */
+    public int getRank(int v) {
+        return rank[v];
+    }
+
+    /**
+     * Returns the number of edges of the hierarchy: the original edges, without the parallel ones, plus the shortcuts.
+     *
+     * @return The number of edges.
+     */
+    public int getNumEdges() {
+        return up.ends().length + down.ends().length;
+    }
+
+    /**
+     * Returns the number of shortcuts.
+     *
+     * @return The number of shortcuts.
+     */
+    public int getShortcutCount() {
+        int count = 0;
+
+        for (int middle : up.middles()) {
+            count += middle >= 0 ? 1 : 0;
+        }
+        for (int middle : down.middles()) {
+            count += middle >= 0 ? 1 : 0;
+        }
+        return count;
+    }
+
+    UpwardGraph up() {
+        return up;
+    }
+
+    UpwardGraph down() {
+        return down;
+    }
+
+    /**
+     * Replaces the edge u -&gt; x by the original edges of the path it stands for, appended to path.
+     *
+     * @param u      The source of the edge.
+     * @param x      The destination of the edge.
+     * @param weight The weight of the edge.
+     * @param middle The vertex bypassed by the edge, or -1 for an original edge.
+     * @param path   The list of original edges.
+     */
+    void unpack(int u, int x, double weight, int middle, List<Edge> path) {
+        if (middle < 0) {
+            path.add(new Edge(u, x, weight));
+            return;
+        }
+        // The middle vertex was contracted before u and x: u -> middle is a down edge and middle -> x an up edge of middle.
+        int first = down.find(middle, u);
+        int second = up.find(middle, x);
+        unpack(u, middle, down.weights()[first], down.middles()[first], path);
+        unpack(middle, x, up.weights()[second], up.middles()[second], path);
+    }
+
+    /**
+     * Saves the hierarchy to a file.
+     *
+     * @param file The file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeLong(MAGIC);
+            out.writeInt(numV);
+            out.writeBoolean(directed);
+
+            for (int r : rank) {
+                out.writeInt(r);
+            }
+            write(out, up);
+            write(out, down);
+        }
+    }
+
+    private static void write(DataOutputStream out, UpwardGraph graph) throws IOException {
+        out.writeInt(graph.ends().length);
+
+        for (int offset : graph.offsets()) {
+            out.writeInt(offset);
+        }
+        for (int i = 0; i < graph.ends().length; i++) {
+            out.writeInt(graph.ends()[i]);
+            out.writeDouble(graph.weights()[i]);
+            out.writeInt(graph.middles()[i]);
+        }
+    }
+
+    /**
+     * Loads a hierarchy saved by save().
+     *
+     * @param file The file.
+     * @return The hierarchy.
+     * @throws IOException if the file cannot be read or is not a hierarchy file.
+     */
+    public static ContractionHierarchy load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException("Not a contraction hierarchy file: " + file);
+            }
+            int numV = in.readInt();
+            boolean directed = in.readBoolean();
+
+            if (numV < 0) {
+                throw new IOException("Bad contraction hierarchy file header: " + file);
+            }
+            int[] rank = new int[numV];
+
+            for (int v = 0; v < numV; v++) {
+                rank[v] = in.readInt();
+            }
+            UpwardGraph up = read(in, numV, file);
+            UpwardGraph down = read(in, numV, file);
+            return new ContractionHierarchy(numV, directed, rank, up, down);
+        } catch (EOFException e) {
+            throw new IOException("Truncated contraction hierarchy file: " + file, e);
+        }
+    }
+
+    private static UpwardGraph read(DataInputStream in, int numV, Path file) throws IOException {
+        int numEdges = in.readInt();
+
+        if (numEdges < 0) {
+            throw new IOException("Bad contraction hierarchy file: " + file);
+        }
+        int[] offsets = new int[numV + 1];
+        int[] ends = new int[numEdges];
+        double[] weights = new double[numEdges];
+        int[] middles = new int[numEdges];
+
+        for (int v = 0; v <= numV; v++) {
+            offsets[v] = in.readInt();
+        }
+        for (int i = 0; i < numEdges; i++) {
+            ends[i] = in.readInt();
+            weights[i] = in.readDouble();
+            middles[i] = in.readInt();
+        }
+        return new UpwardGraph(offsets, ends, weights, middles);
+    }
+
+    /**
+     * The edges of the remaining graph during the contraction: for each vertex, growable arrays of
+     * the other ends, the weights and the middles. There is at most one edge between two vertices in a direction,
+     * the shortest one.
+     */
+    private static class EdgeLists {
+        // Data fields
+        private final int[][] ends;
+        private final double[][] weights;
+        private final int[][] middles;
+        private final int[] sizes;
+
+        EdgeLists(int numV) {
+            ends = new int[numV][];
+            weights = new double[numV][];
+            middles = new int[numV][];
+            sizes = new int[numV];
+
+            for (int v = 0; v < numV; v++) {
+                ends[v] = new int[4];
+                weights[v] = new double[4];
+                middles[v] = new int[4];
+            }
+        }
+
+        int size(int v) {
+            return sizes[v];
+        }
+
+        int end(int v, int i) {
+            return ends[v][i];
+        }
+
+        double weight(int v, int i) {
+            return weights[v][i];
+        }
+
+        /**
+         * Adds an edge of v, or shortens the edge to the same end if the new one is shorter.
+         */
+        void addOrDecrease(int v, int end, double weight, int middle) {
+            int size = sizes[v];
+
+            for (int i = 0; i < size; i++) {
+                if (ends[v][i] == end) {
+                    if (weight < weights[v][i]) {
+                        weights[v][i] = weight;
+                        middles[v][i] = middle;
+                    }
+                    return;
+                }
+            }
+
+            if (size == ends[v].length) {
+                ends[v] = Arrays.copyOf(ends[v], 2 * size);
+                weights[v] = Arrays.copyOf(weights[v], 2 * size);
+                middles[v] = Arrays.copyOf(middles[v], 2 * size);
+            }
+            ends[v][size] = end;
+            weights[v][size] = weight;
+            middles[v][size] = middle;
+            sizes[v]++;
+        }
+
+        /**
+         * Removes the edge of v to the given end, moving the last edge into its place.
+         */
+        void remove(int v, int end) {
+            int last = sizes[v] - 1;
+
+            for (int i = 0; i <= last; i++) {
+                if (ends[v][i] == end) {
+                    ends[v][i] = ends[v][last];
+                    weights[v][i] = weights[v][last];
+                    middles[v][i] = middles[v][last];
+                    sizes[v]--;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Moves the edges of v into the CSR arrays at index start and frees them.
+         */
+        void moveTo(int v, int start, int[] toEnds, double[] toWeights, int[] toMiddles) {
+            System.arraycopy(ends[v], 0, toEnds, start, sizes[v]);
+            System.arraycopy(weights[v], 0, toWeights, start, sizes[v]);
+            System.arraycopy(middles[v], 0, toMiddles, start, sizes[v]);
+            ends[v] = null;
+            weights[v] = null;
+            middles[v] = null;
+        }
+    }
+
+    private record Shortcut(int from, int to, double weight) {
+    }
+
+    /**
+     * The state of the preprocessing.
+     */
+    private static class Contractor {
+        // Data fields
+        private final Graph graph;
+        private final int numV;
+        private final ForkJoinPool pool;
+        private final EdgeLists out;    // The edges of the remaining graph, and of each vertex when it is contracted.
+        private final EdgeLists in;
+        private final int[] level;      // 1 + the largest level of the contracted neighbors.
+        private final double[] priority;
+        private final boolean[] stale;  // A neighbor was contracted since the priority was computed.
+        private final int[] leastNear;  // The vertex of the smallest priority among a vertex and its neighbors.
+        private final boolean[] selected;
+        private final Shortcut[][] found;   // The shortcuts of the selected vertices.
+        private final int[] rank;
+        private final Queue<WitnessSearch> searches = new ConcurrentLinkedQueue<>();   // Reused by the tasks.
+
+        /**
+         * An action on a vertex, with the witness search of the task that runs it.
+         */
+        private interface VertexAction {
+            void apply(int v, WitnessSearch witness);
+        }
+
+        Contractor(Graph graph, ForkJoinPool pool) {
+            this.graph = graph;
+            this.pool = pool;
+            numV = graph.getNumV();
+            out = new EdgeLists(numV);
+            in = new EdgeLists(numV);
+            level = new int[numV];
+            priority = new double[numV];
+            stale = new boolean[numV];
+            Arrays.fill(stale, true);
+            leastNear = new int[numV];
+            selected = new boolean[numV];
+            found = new Shortcut[numV][];
+            rank = new int[numV];
+
+            for (int v = 0; v < numV; v++) {
+                int source = v;
+                graph.forEachNeighbor(source, (dest, weight) -> {
+                    if (weight < 0) {
+                        throw new IllegalArgumentException("Negative weight " + weight + " on edge " + source + " -> " + dest);
+                    }
+                    if (dest != source) {   // A loop is never on a shortest path.
+                        out.addOrDecrease(source, dest, weight, -1);
+                        in.addOrDecrease(dest, source, weight, -1);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Contracts the graph in rounds. Each round recomputes the stale priorities, selects the vertices whose
+         * priority is the smallest in the neighborhood of each of their neighbors, and contracts them. No two
+         * selected vertices are neighbors or have a common neighbor, so their contractions change disjoint
+         * edge lists and run in parallel, as do the witness searches, which only read the graph.
+         */
+        ContractionHierarchy contractAll() {
+            int[] remaining = new int[numV];
+
+            for (int v = 0; v < numV; v++) {
+                remaining[v] = v;
+            }
+            int count = numV;
+            int nextRank = 0;
+
+            while (count > 0) {
+                forEach(remaining, count, (v, witness) -> {
+                    if (stale[v]) {
+                        priority[v] = priority(v, witness);
+                        stale[v] = false;
+                    }
+                });
+                forEach(remaining, count, (v, witness) -> leastNear[v] = leastNear(v));
+                forEach(remaining, count, (v, witness) -> selected[v] = isSelected(v));
+
+                // Take the selected vertices out of remaining; they are ranked in the order of the rounds.
+                int kept = 0;
+                int[] batch = new int[count];
+                int batchSize = 0;
+
+                for (int i = 0; i < count; i++) {
+                    int v = remaining[i];
+
+                    if (selected[v]) {
+                        batch[batchSize++] = v;
+                        rank[v] = nextRank++;
+                    } else {
+                        remaining[kept++] = v;
+                    }
+                }
+                count = kept;
+
+                forEach(batch, batchSize, (v, witness) -> {
+                    List<Shortcut> shortcuts = new ArrayList<>();
+                    shortcuts(v, witness, WITNESS_LIMIT, Integer.MAX_VALUE, shortcuts);
+                    found[v] = shortcuts.toArray(new Shortcut[0]);
+                });
+                // All witness searches of the round run before the graph changes.
+                forEach(batch, batchSize, (v, witness) -> {
+                    contract(v, found[v]);
+                    found[v] = null;
+                });
+            }
+            return new ContractionHierarchy(numV, graph.isDirected(), rank, toCsr(out), toCsr(in));
+        }
+
+        /**
+         * Runs the action on vertices[0 ... count - 1] on the pool.
+         */
+        private void forEach(int[] vertices, int count, VertexAction action) {
+            int chunk = Math.max(1, count / (CHUNKS_PER_THREAD * pool.getParallelism()));
+            pool.invoke(new ForEachTask(vertices, 0, count, chunk, action));
+        }
+
+        /**
+         * Returns the priority of v: twice the edge difference plus its level.
+         */
+        private double priority(int v, WitnessSearch witness) {
+            int shortcuts = shortcuts(v, witness, ESTIMATE_LIMIT, ESTIMATE_HOPS, null);
+            return 2 * (shortcuts - out.size(v) - in.size(v)) + level[v];
+        }
+
+        /**
+         * Returns true if the priority of a is smaller than that of b; ties are broken by the vertex numbers.
+         */
+        private boolean isLess(int a, int b) {
+            return priority[a] < priority[b] || (priority[a] == priority[b] && a < b);
+        }
+
+        private int leastNear(int v) {
+            int least = v;
+
+            for (int i = 0; i < out.size(v); i++) {
+                least = isLess(out.end(v, i), least) ? out.end(v, i) : least;
+            }
+            for (int i = 0; i < in.size(v); i++) {
+                least = isLess(in.end(v, i), least) ? in.end(v, i) : least;
+            }
+            return least;
+        }
+
+        /**
+         * Returns true if v has the smallest priority near itself and near each of its neighbors.
+         * Two vertices at most two edges apart are both near their common neighbor (or near each other),
+         * where only one of them can be the smallest.
+         */
+        private boolean isSelected(int v) {
+            if (leastNear[v] != v) {
+                return false;
+            }
+            for (int i = 0; i < out.size(v); i++) {
+                if (leastNear[out.end(v, i)] != v) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < in.size(v); i++) {
+                if (leastNear[in.end(v, i)] != v) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Finds the shortcuts needed to contract v.
+         * A shortcut u -&gt; v -&gt; x is needed unless a witness is strictly shorter: with equal lengths,
+         * two vertices contracted in the same round could each rely on a witness through the other.
+         *
+         * @param v        The vertex.
+         * @param witness  The witness search.
+         * @param limit    The number of vertices that a witness search may settle.
+         * @param hopLimit The number of edges of a witness.
+         * @param result   The list to receive the shortcuts, or null to only count them.
+         * @return The number of shortcuts.
+         */
+        private int shortcuts(int v, WitnessSearch witness, int limit, int hopLimit, List<Shortcut> result) {
+            int count = 0;
+
+            for (int i = 0; i < in.size(v); i++) {
+                int u = in.end(v, i);
+                double toV = in.weight(v, i);
+
+                if (!witness.run(u, v, toV, limit, hopLimit)) {
+                    continue;   // No x other than u.
+                }
+                for (int j = 0; j < out.size(v); j++) {
+                    int x = out.end(v, j);
+                    double via = toV + out.weight(v, j);
+
+                    if (x != u && witness.distance(x) >= via) {
+                        count++;
+
+                        if (result != null) {
+                            result.add(new Shortcut(u, x, via));
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Contracts v: its remaining edges become its up and down edges, it is removed from the lists of its
+         * neighbors, the shortcuts are added between them, and their priorities become stale.
+         */
+        private void contract(int v, Shortcut[] shortcuts) {
+            for (int i = 0; i < out.size(v); i++) {
+                int w = out.end(v, i);
+                in.remove(w, v);
+                markNeighbor(v, w);
+            }
+            for (int i = 0; i < in.size(v); i++) {
+                int w = in.end(v, i);
+                out.remove(w, v);
+                markNeighbor(v, w);
+            }
+            for (Shortcut shortcut : shortcuts) {
+                out.addOrDecrease(shortcut.from(), shortcut.to(), shortcut.weight(), v);
+                in.addOrDecrease(shortcut.to(), shortcut.from(), shortcut.weight(), v);
+            }
+        }
+
+        private void markNeighbor(int v, int w) {
+            if (!stale[w]) {    // Every priority is fresh at the start of a round; count w once.
+                stale[w] = true;
+                level[w] = Math.max(level[w], level[v] + 1);
+            }
+        }
+
+        /**
+         * Collects the edges of each vertex at the time it was contracted, all to vertices of higher rank.
+         */
+        private UpwardGraph toCsr(EdgeLists lists) {
+            int[] offsets = new int[numV + 1];
+
+            for (int v = 0; v < numV; v++) {
+                offsets[v + 1] = offsets[v] + lists.size(v);
+            }
+            int[] ends = new int[offsets[numV]];
+            double[] weights = new double[offsets[numV]];
+            int[] middles = new int[offsets[numV]];
+
+            for (int v = 0; v < numV; v++) {
+                lists.moveTo(v, offsets[v], ends, weights, middles);
+            }
+            return new UpwardGraph(offsets, ends, weights, middles);
+        }
+
+        /**
+         * Runs an action on the vertices start ... end - 1 of an array. Each task takes a witness search from
+         * a shared stack of them, so there are no more searches (each with arrays of numV entries) than threads.
+         */
+        private class ForEachTask extends RecursiveAction {
+            // Data fields
+            private static final long serialVersionUID = 1L;
+            private final int[] vertices;
+            private final int start;
+            private final int end;
+            private final int chunk;
+            private final VertexAction action;
+
+            ForEachTask(int[] vertices, int start, int end, int chunk, VertexAction action) {
+                this.vertices = vertices;
+                this.start = start;
+                this.end = end;
+                this.chunk = chunk;
+                this.action = action;
+            }
+
+            @Override
+            protected void compute() {
+                if (end - start > chunk) {
+                    int mid = (start + end) >>> 1;
+                    invokeAll(new ForEachTask(vertices, start, mid, chunk, action),
+                            new ForEachTask(vertices, mid, end, chunk, action));
+                    return;
+                }
+                WitnessSearch witness = searches.poll();
+
+                if (witness == null) {
+                    witness = new WitnessSearch(numV);
+                }
+                for (int i = start; i < end; i++) {
+                    action.apply(vertices[i], witness);
+                }
+                searches.add(witness);
+            }
+        }
+
+        /**
+         * A Dijkstra search in the remaining graph from u that avoids v, to find witnesses for the paths
+         * u -&gt; v -&gt; x. It stops when all the vertices x are settled, at the length of the longest path
+         * u -&gt; v -&gt; x, or after a number of settled vertices, and follows paths of a limited number of edges.
+         * Its arrays are reused with query stamps, as in ShortestPathSearch.
+         */
+        private class WitnessSearch {
+            // Data fields
+            private final double[] dist;
+            private final int[] hops;
+            private final int[] reachedIn;
+            private final int[] targetIn;   // The query in which a vertex is one of the x.
+            private final IndexedPriorityQueue queue;
+            private int query;
+
+            WitnessSearch(int numV) {
+                dist = new double[numV];
+                hops = new int[numV];
+                reachedIn = new int[numV];
+                targetIn = new int[numV];
+                queue = new IndexedPriorityQueue(numV);
+            }
+
+            /**
+             * Runs the search.
+             *
+             * @param u        The source.
+             * @param v        The vertex to avoid.
+             * @param toV      The weight of the edge u -&gt; v.
+             * @param limit    The number of vertices that the search may settle.
+             * @param hopLimit The number of edges of a path.
+             * @return false if v has no edge to a vertex other than u (there is nothing to search for).
+             */
+            boolean run(int u, int v, double toV, int limit, int hopLimit) {
+                if (++query == 0) {
+                    Arrays.fill(reachedIn, 0);
+                    Arrays.fill(targetIn, 0);
+                    query = 1;
+                }
+                double maxDist = -1;
+                int targets = 0;
+
+                for (int j = 0; j < out.size(v); j++) {
+                    int x = out.end(v, j);
+
+                    if (x != u) {
+                        maxDist = Math.max(maxDist, toV + out.weight(v, j));
+                        targetIn[x] = query;
+                        targets++;
+                    }
+                }
+                if (targets == 0) {
+                    return false;
+                }
+                queue.clear();
+                reachedIn[u] = query;
+                dist[u] = 0;
+                hops[u] = 0;
+                queue.offer(u, 0);
+                int settled = 0;
+
+                while (!queue.isEmpty() && settled++ < limit) {
+                    int w = queue.poll();
+
+                    if (dist[w] >= maxDist || (targetIn[w] == query && --targets == 0)) {
+                        break;
+                    }
+                    if (hops[w] == hopLimit) {
+                        continue;
+                    }
+                    int nextHops = hops[w] + 1;
+
+                    for (int i = 0; i < out.size(w); i++) {
+                        int y = out.end(w, i);
+
+                        if (y == v) {
+                            continue;
+                        }
+                        double newDist = dist[w] + out.weight(w, i);
+
+                        if (reachedIn[y] != query) {
+                            reachedIn[y] = query;
+                            dist[y] = newDist;
+                            hops[y] = nextHops;
+
+                            // A vertex at the hop limit is not expanded, so only the targets need to be settled.
+                            if (nextHops < hopLimit || targetIn[y] == query) {
+                                queue.offer(y, newDist);
+                            }
+                        } else if (newDist < dist[y]) {     // y is not settled: it is queued or at the limit.
+                            dist[y] = newDist;
+                            hops[y] = nextHops;
+
+                            if (queue.contains(y)) {
+                                queue.decreaseKey(y, newDist);
+                            } else if (nextHops < hopLimit) {
+                                queue.offer(y, newDist);
+                            }
+                        }
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * Returns the length of a path found to v (not always the shortest), or infinity.
+             */
+            double distance(int v) {
+                return reachedIn[v] == query ? dist[v] : Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.caparniyazi.ds.graph;
+
+import com.caparniyazi.ds.tree.IndexedPriorityQueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Point-to-point shortest path queries on a ContractionHierarchy.
+ * <p/>
+ * The forward search from the start follows the up edges and the backward search from the destination follows
+ * the down edges, so both only go to vertices of higher rank. The shortest path is the shortest combination
+ * dist(start, v) + dist(v, dest) over the vertices v reached by both searches (its highest vertex).
+ * A search stops when its smallest distance is at least the shortest path found so far, so unlike BidirectionalSearch
+ * both searches may continue after they meet; they are still small, because the hierarchy has few edges upward.
+ * <p/>
+ * The path is made of edges of the hierarchy, which getPath() unpacks to the original edges. The hierarchy can be
+ * shared by the queries of several threads, but each query object has its own arrays, reused with query stamps
+ * as in ShortestPathSearch, and must not be used by several threads at the same time.
+ */
+public class ContractionHierarchyQuery {
+    // Data fields
+    private final ContractionHierarchy hierarchy;
+    private final Side forward;
+    private final Side backward;
+    private int query;
+    private double mu;
+    private int meeting;
+
+    /**
+     * The state of one direction of the search.
+     */
+    private class Side {
+        // Data fields
+        private final ContractionHierarchy.UpwardGraph graph;
+        private final ContractionHierarchy.UpwardGraph reverse;   // The edges into each vertex from higher ranks.
+        private final double[] dist;
+        private final int[] predEdge;   // The index in graph of the edge by which a vertex was reached, or -1.
+        private final int[] pred;
+        private final int[] reachedIn;
+        private final IndexedPriorityQueue queue;
+        private int settledCount;
+
+        Side(ContractionHierarchy.UpwardGraph graph, ContractionHierarchy.UpwardGraph reverse, int numV) {
+            this.graph = graph;
+            this.reverse = reverse;
+            dist = new double[numV];
+            predEdge = new int[numV];
+            pred = new int[numV];
+            reachedIn = new int[numV];
+            queue = new IndexedPriorityQueue(numV);
+        }
+
+        void reset(int root) {
+            if (query == 1) {   // The first query, or the numbers wrapped around.
+                Arrays.fill(reachedIn, 0);
+            }
+            queue.clear();
+            settledCount = 0;
+            reachedIn[root] = query;
+            dist[root] = 0;
+            pred[root] = -1;
+            predEdge[root] = -1;
+            queue.offer(root, 0);
+        }
+
+        boolean reached(int v) {
+            return reachedIn[v] == query;
+        }
+
+        boolean isDone() {
+            return queue.isEmpty() || queue.getPriority(queue.peek()) >= mu;
+        }
+
+        void step(Side other) {
+            int u = queue.poll();
+            settledCount++;
+            double distU = dist[u];
+
+            if (other.reached(u) && distU + other.dist[u] < mu) {
+                mu = distU + other.dist[u];
+                meeting = u;
+            }
+            if (isStalled(u, distU)) {
+                return;
+            }
+            int[] ends = graph.ends();
+            double[] weights = graph.weights();
+
+            for (int i = graph.offsets()[u], last = graph.offsets()[u + 1]; i < last; i++) {
+                int v = ends[i];
+                double newDist = distU + weights[i];
+
+                if (!reached(v)) {
+                    reachedIn[v] = query;
+                    dist[v] = newDist;
+                    pred[v] = u;
+                    predEdge[v] = i;
+                    queue.offer(v, newDist);
+                } else if (newDist < dist[v] && queue.contains(v)) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                    predEdge[v] = i;
+                    queue.decreaseKey(v, newDist);
+                }
+            }
+        }
+
+        /**
+         * Stall-on-demand: u is reached by a path that only goes up, but if a vertex of higher rank that this
+         * search has reached has an edge to u that gives a shorter distance, the distance of u is not the
+         * shortest, and neither are the distances through u: its edges are not relaxed.
+         */
+        private boolean isStalled(int u, double distU) {
+            int[] ends = reverse.ends();
+            double[] weights = reverse.weights();
+
+            for (int i = reverse.offsets()[u], last = reverse.offsets()[u + 1]; i < last; i++) {
+                int w = ends[i];
+
+                if (reached(w) && dist[w] + weights[i] < distU) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Constructors
+    public ContractionHierarchyQuery(ContractionHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        forward = new Side(hierarchy.up(), hierarchy.down(), hierarchy.getNumV());
+        backward = new Side(hierarchy.down(), hierarchy.up(), hierarchy.getNumV());
+    }
+
+    /**
+     * Finds the shortest path between two vertices.
+     *
+     * @param start The start vertex.
+     * @param dest  The destination vertex.
+     * @return The length of the shortest path, or Double.POSITIVE_INFINITY if there is no path.
+     */
+    public double distance(int start, int dest) {
+        if (++query == 0) {     // After 2^32 queries the numbers wrap around.
+            query = 1;
+        }
+        mu = Double.POSITIVE_INFINITY;
+        meeting = -1;
+        forward.reset(start);
+        backward.reset(dest);
+
+        while (!forward.isDone() || !backward.isDone()) {
+            if (backward.isDone() || (!forward.isDone() && forward.queue.size() <= backward.queue.size())) {
+                forward.step(backward);
+            } else {
+                backward.step(forward);
+            }
+        }
+        return mu;
+    }
+
+    /**
+     * Returns the shortest path found by the last query as original edges of the graph.
+     *
+     * @return The edges of the path from the start to the destination, or an empty list if there is no path
+     * or the start is the destination.
+     */
+    public List<Edge> getPath() {
+        List<Edge> path = new ArrayList<>();
+
+        if (meeting < 0) {
+            return path;
+        }
+        // The forward edges are found from the meeting vertex back to the start.
+        LinkedList<Integer> forwardEdges = new LinkedList<>();
+
+        for (int v = meeting; forward.pred[v] != -1; v = forward.pred[v]) {
+            forwardEdges.addFirst(v);
+        }
+        for (int v : forwardEdges) {
+            int i = forward.predEdge[v];
+            hierarchy.unpack(forward.pred[v], v, forward.graph.weights()[i], forward.graph.middles()[i], path);
+        }
+
+        // A down edge stored at y with end x is the edge x -> y, so the backward chain is already in path order.
+        for (int v = meeting; backward.pred[v] != -1; v = backward.pred[v]) {
+            int i = backward.predEdge[v];
+            hierarchy.unpack(v, backward.pred[v], backward.graph.weights()[i], backward.graph.middles()[i], path);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the number of vertices settled by the last query, in both directions.
+     *
+     * @return The number of settled vertices.
+     */
+    public int getSettledCount() {
+        return forward.settledCount + backward.settledCount;
+    }
+}
@@ -0,0 +1,285 @@
+package com.caparniyazi.ds.graph;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * An immutable graph in Compressed Sparse Row (CSR) format: three arrays instead of Edge objects.
+ * <pre>
+ *     offsets  numV + 1 entries: the edges of vertex v are the indexes offsets[v] ... offsets[v + 1] - 1
+ *     targets  the destination of each edge
+ *     weights  the weight of each edge
+ * </pre>
+ * The edges of a vertex are adjacent in memory, so visiting them reads two arrays sequentially,
+ * while ListGraph and MapGraph follow a reference to a list node and another to an Edge object for each edge.
+ * forEachNeighbor() passes the destination and the weight as primitives and allocates nothing;
+ * edgeIterator() still creates Edge objects for the code that needs them.
+ * <p/>
+ * The graph cannot be modified: it is built from another Graph (of) or from an edge file (load),
+ * and insert() throws an UnsupportedOperationException. The edges of each vertex keep the order
+ * in which they were inserted, so searches visit the vertices in the same order as in the source graph.
+ */
+public class CsrGraph implements Graph {
+    // Data fields
+    private final int numV;
+    private final boolean directed;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    // Constructors
+    private CsrGraph(int numV, boolean directed, int[] offsets, int[] targets, double[] weights) {
+        this.numV = numV;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Copies a graph.
+     *
+     * @param graph The graph.
+     * @return The graph in CSR format.
+     */
+    public static CsrGraph of(Graph graph) {
+        int numV = graph.getNumV();
+        int[] offsets = new int[numV + 1];
+
+        for (int v = 0; v < numV; v++) {
+            int[] degree = {0};
+            graph.forEachNeighbor(v, (dest, weight) -> degree[0]++);
+            offsets[v + 1] = offsets[v] + degree[0];
+        }
+        int[] targets = new int[offsets[numV]];
+        double[] weights = new double[offsets[numV]];
+
+        for (int v = 0; v < numV; v++) {
+            int[] next = {offsets[v]};
+            graph.forEachNeighbor(v, (dest, weight) -> {
+                targets[next[0]] = dest;
+                weights[next[0]++] = weight;
+            });
+        }
+        return new CsrGraph(numV, graph.isDirected(), offsets, targets, weights);
+    }
+
+    /**
+     * Loads a graph from an edge file, in the format of loadEdgesFromFile(): one edge per line,
+     * with the source, the destination, and an optional weight (1.0 by default).
+     * An undirected graph gets the edge in both directions, like ListGraph.
+     *
+     * @param numV     The number of vertices.
+     * @param directed The directionality flag.
+     * @param scanner  The scanner object.
+     * @return The graph.
+     */
+    public static CsrGraph load(int numV, boolean directed, Scanner scanner) {
+        EdgeList edges = new EdgeList(numV, directed);
+        Graph.readEdges(scanner, edges::insert);
+        return edges.toCsr();
+    }
+
+    /**
+     * Collects the edges read by Graph.readEdges() in primitive arrays, then sorts them by source
+     * with a counting sort, which is stable and keeps the order of the edges of each vertex.
+     */
+    private static class EdgeList {
+        // Data fields
+        private final int numV;
+        private final boolean directed;
+        private int[] sources = new int[16];
+        private int[] dests = new int[16];
+        private double[] weights = new double[16];
+        private int size;
+
+        EdgeList(int numV, boolean directed) {
+            this.numV = numV;
+            this.directed = directed;
+        }
+
+        void insert(Edge e) {
+            if (e.getSource() < 0 || e.getSource() >= numV || e.getDest() < 0 || e.getDest() >= numV) {
+                throw new IllegalArgumentException("Vertex out of range [0, " + numV + "): " + e);
+            }
+            add(e.getSource(), e.getDest(), e.getWeight());
+
+            if (!directed) {
+                add(e.getDest(), e.getSource(), e.getWeight());
+            }
+        }
+
+        private void add(int source, int dest, double weight) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, 2 * size);
+                dests = Arrays.copyOf(dests, 2 * size);
+                weights = Arrays.copyOf(weights, 2 * size);
+            }
+            sources[size] = source;
+            dests[size] = dest;
+            weights[size++] = weight;
+        }
+
+        CsrGraph toCsr() {
+            int[] offsets = new int[numV + 1];
+
+            for (int i = 0; i < size; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int v = 0; v < numV; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] next = Arrays.copyOf(offsets, numV);
+            int[] targets = new int[size];
+            double[] csrWeights = new double[size];
+
+            for (int i = 0; i < size; i++) {
+                int index = next[sources[i]]++;
+                targets[index] = dests[i];
+                csrWeights[index] = weights[i];
+            }
+            return new CsrGraph(numV, directed, offsets, targets, csrWeights);
+        }
+    }
+
+    // Methods
+
+    @Override
+    public int getNumV() {
+        return numV;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Returns the number of edges (twice the number of inserted edges for an undirected graph).
+     *
+     * @return The number of edges.
+     */
+    public int getNumEdges() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the number of edges that originate from a vertex.
+     *
+     * @param source The vertex.
+     * @return The number of edges.
+     */
+    public int getDegree(int source) {
+        return offsets[source + 1] - offsets[source];
+    }
+
+    /**
+     * Returns the index of the first edge of a vertex in targets, so a loop over the edges can stop early:
+     * the edges of v are offset(v) ... offset(v + 1) - 1.
+     */
+    int offset(int v) {
+        return offsets[v];
+    }
+
+    /**
+     * Returns the destination of the edge with the given index.
+     */
+    int target(int index) {
+        return targets[index];
+    }
+
+    /**
+     * Returns the graph with every edge reversed: the edges of a vertex are its incoming edges in this graph.
+     * An undirected graph is its own transpose.
+     *
+     * @return The transposed graph.
+     */
+    public CsrGraph transpose() {
+        if (!directed) {
+            return this;
+        }
+        int[] inOffsets = new int[numV + 1];
+
+        for (int target : targets) {
+            inOffsets[target + 1]++;
+        }
+        for (int v = 0; v < numV; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] next = Arrays.copyOf(inOffsets, numV);
+        int[] sources = new int[targets.length];
+        double[] inWeights = new double[targets.length];
+
+        for (int v = 0; v < numV; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int index = next[targets[i]]++;
+                sources[index] = v;
+                inWeights[index] = weights[i];
+            }
+        }
+        return new CsrGraph(numV, true, inOffsets, sources, inWeights);
+    }
+
+    @Override
+    public void forEachNeighbor(int source, IntDoubleConsumer action) {
+        for (int i = offsets[source], end = offsets[source + 1]; i < end; i++) {
+            action.accept(targets[i], weights[i]);
+        }
+    }
+
+    @Override
+    public Iterator<Edge> edgeIterator(int source) {
+        return new Iterator<>() {
+            private int index = offsets[source];
+
+            @Override
+            public boolean hasNext() {
+                return index < offsets[source + 1];
+            }
+
+            @Override
+            public Edge next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Edge edge = new Edge(source, targets[index], weights[index]);
+                index++;
+                return edge;
+            }
+        };
+    }
+
+    /**
+     * Gets the first edge between two vertices, by a linear search of the edges of source.
+     *
+     * @param source The source vertex.
+     * @param dest   The dest vertex.
+     * @return The edge between these two vertices or null if an edge does not exist.
+     */
+    @Override
+    public Edge getEdge(int source, int dest) {
+        for (int i = offsets[source], end = offsets[source + 1]; i < end; i++) {
+            if (targets[i] == dest) {
+                return new Edge(source, dest, weights[i]);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void insert(Edge e) {
+        throw new UnsupportedOperationException("A CsrGraph cannot be modified");
+    }
+
+    @Override
+    public boolean isEdge(int source, int dest) {
+        for (int i = offsets[source], end = offsets[source + 1]; i < end; i++) {
+            if (targets[i] == dest) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,125 @@
+package com.caparniyazi.ds.graph;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the same graph stored as a ListGraph (a linked list of Edge objects per vertex) and as a CsrGraph
+ * (primitive arrays): a breadth-first search from a random vertex, and one Dijkstra query from a random vertex.
+ * <p/>
+ * The graph is random, with vertices * degree directed edges, so the edges of the ListGraph are scattered over
+ * the heap as the graph gets larger than the cache, while the edges of the CsrGraph stay in two arrays.
+ * <pre>
+ *     bfs...            BreadthFirstSearch, which visits every reachable edge once through forEachNeighbor().
+ *     bfsEdgeIterator   The same search through edgeIterator(), as before forEachNeighbor().
+ *     dijkstra...       ShortestPathSearch.dijkstra() to all vertices.
+ * </pre>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.graph.CsrGraphBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsrGraphBenchmark {
+    // Data fields
+    private static final int STARTS = 1024;
+
+    @Param({"10000", "1000000"})
+    private int vertices;
+
+    @Param({"8"})
+    private int degree;
+
+    private ListGraph listGraph;
+    private CsrGraph csrGraph;
+    private BreadthFirstSearch listBfs;
+    private BreadthFirstSearch csrBfs;
+    private ShortestPathSearch listSearch;
+    private ShortestPathSearch csrSearch;
+    private int[] starts;
+    private int[] parent;
+    private boolean[] identified;
+    private int[] queue;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        listGraph = new ListGraph(vertices, true);
+
+        for (int i = 0; i < vertices * degree; i++) {
+            listGraph.insert(new Edge(random.nextInt(vertices), random.nextInt(vertices), 1 + random.nextInt(100)));
+        }
+        csrGraph = CsrGraph.of(listGraph);
+        listBfs = new BreadthFirstSearch(listGraph);
+        csrBfs = new BreadthFirstSearch(csrGraph);
+        listSearch = new ShortestPathSearch(listGraph);
+        csrSearch = new ShortestPathSearch(csrGraph);
+        starts = random.ints(STARTS, 0, vertices).toArray();
+        parent = new int[vertices];
+        identified = new boolean[vertices];
+        queue = new int[vertices];
+    }
+
+    private int nextStart() {
+        next = (next + 1) & (STARTS - 1);
+        return starts[next];
+    }
+
+    @Benchmark
+    public int[] bfsList() {
+        return listBfs.breadthFirstSearch(nextStart());
+    }
+
+    @Benchmark
+    public int[] bfsCsr() {
+        return csrBfs.breadthFirstSearch(nextStart());
+    }
+
+    @Benchmark
+    public int[] bfsEdgeIterator() {
+        Arrays.fill(parent, -1);
+        Arrays.fill(identified, false);
+        int start = nextStart();
+        int head = 0;
+        int tail = 0;
+        identified[start] = true;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int current = queue[head++];
+
+            for (var iter = listGraph.edgeIterator(current); iter.hasNext(); ) {
+                int neighbor = iter.next().getDest();
+
+                if (!identified[neighbor]) {
+                    identified[neighbor] = true;
+                    queue[tail++] = neighbor;
+                    parent[neighbor] = current;
+                }
+            }
+        }
+        return parent;
+    }
+
+    @Benchmark
+    public int dijkstraList() {
+        listSearch.dijkstra(nextStart());
+        return listSearch.getSettledCount();
+    }
+
+    @Benchmark
+    public int dijkstraCsr() {
+        csrSearch.dijkstra(nextStart());
+        return csrSearch.getSettledCount();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
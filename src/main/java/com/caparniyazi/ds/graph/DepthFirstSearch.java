@@ -55,11 +55,7 @@ public class DepthFirstSearch {
         visited[current] = true;
         discoveryOrder[discoverIndex++] = current;
         // Examine each vertex adjacent to the current vertex.
-        Iterator<Edge> iter = graph.edgeIterator(current);
-
-        while (iter.hasNext()) {
-            int neighbor = iter.next().getDest();
-
+        graph.forEachNeighbor(current, (neighbor, weight) -> {
             // Process a neighbor that has not been visited.
             if (!visited[neighbor]) {
                 // Insert (current, neighbor) into the depth-first search tree.
@@ -67,7 +63,7 @@ public class DepthFirstSearch {
                 // Recursively apply the algorithm starting at the neighbor.
                 depthFirstSearch(neighbor);
             }
-        }
+        });
         // Mark current finished.
         finishOrder[finishIndex++] = current;
     }
@@ -2,6 +2,7 @@ package com.caparniyazi.ds.graph;
 
 import java.util.Iterator;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 /**
  * Interface to specify a Graph ADT.
@@ -18,6 +19,20 @@ public interface Graph {
 
     Iterator<Edge> edgeIterator(int source);  // Returns an iterator to the edges that originate from a given vertex.
 
+    /**
+     * Calls the action with the destination and the weight of each edge that originates from a given vertex.
+     * The default walks edgeIterator(); CsrGraph overrides it to read its arrays without allocating.
+     *
+     * @param source The source vertex.
+     * @param action The action.
+     */
+    default void forEachNeighbor(int source, IntDoubleConsumer action) {
+        for (Iterator<Edge> iter = edgeIterator(source); iter.hasNext(); ) {
+            Edge edge = iter.next();
+            action.accept(edge.getDest(), edge.getWeight());
+        }
+    }
+
     Edge getEdge(int source, int dest); // Gets the edge between two vertices.
 
     void insert(Edge e);    // Inserts a new edge into the graph.
@@ -34,6 +49,17 @@ public interface Graph {
      * @param scanner The scanner object.
      */
     default void loadEdgesFromFile(Scanner scanner) {
+        readEdges(scanner, this::insert);
+    }
+
+    /**
+     * Reads the edges in the format of loadEdgesFromFile() and passes each of them to the sink,
+     * for the loaders that do not build the graph by insert() (e.g., CsrGraph).
+     *
+     * @param scanner The scanner object.
+     * @param sink    The action called with each edge.
+     */
+    static void readEdges(Scanner scanner, Consumer<Edge> sink) {
         String line;
 
         while (scanner.hasNextLine()) {
@@ -46,7 +72,7 @@ public interface Graph {
             if (tokens.length == 3) {
                 weight = Double.parseDouble(tokens[2]);
             }
-            insert(new Edge(source, dest, weight));
+            sink.accept(new Edge(source, dest, weight));
         }
     }
 }
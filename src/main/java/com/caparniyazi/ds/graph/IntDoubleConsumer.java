@@ -0,0 +1,9 @@
+package com.caparniyazi.ds.graph;
+
+/**
+ * Accepts the destination and the weight of an edge as primitives, without an Edge object.
+ */
+@FunctionalInterface
+public interface IntDoubleConsumer {
+    void accept(int dest, double weight);
+}
@@ -0,0 +1,10 @@
+package com.caparniyazi.ds.graph;
+
+/**
+ * A heuristic for A*: the estimated distance between two vertices, without boxing them.
+ * The primitive version of BiFunction&lt;Integer, Integer, Double&gt;.
+ */
+@FunctionalInterface
+public interface IntIntToDoubleFunction {
+    double applyAsDouble(int v, int w);
+}
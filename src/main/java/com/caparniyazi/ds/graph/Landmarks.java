@@ -0,0 +1,219 @@
+package com.caparniyazi.ds.graph;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The ALT heuristic (A*, Landmarks, Triangle inequality) of Goldberg and Harrelson: a lower bound of the
+ * distance between any two vertices from the precomputed distances to and from a few landmark vertices.
+ * <p/>
+ * For a landmark L, the triangle inequality gives d(v, w) &gt;= d(v, L) - d(w, L) and d(v, w) &gt;= d(L, w) - d(L, v).
+ * The bound is the largest of these over all landmarks (and 0). It never overestimates and is consistent,
+ * so it can be used by ShortestPath.aStarAlgorithmPrimitive(), ShortestPathSearch.aStar() and BidirectionalSearch.aStar().
+ * Landmarks on the edge of the graph, "behind" the destination, give the tightest bounds; they are chosen
+ * by the farthest heuristic: each new landmark is the vertex farthest from the landmarks chosen so far.
+ * <p/>
+ * The distances are stored in two double[] of numV * count entries: the distances of vertex v are at
+ * v * count ... v * count + count - 1, so one bound reads two cache lines per vertex. They can be saved to
+ * and loaded from a file, so they are computed once per graph.
+ */
+public class Landmarks implements IntIntToDoubleFunction {
+    // Data fields
+    private static final long MAGIC = 0x4C414E444D4B3031L;  // "LANDMK01"
+
+    private final int numV;
+    private final int[] landmarks;
+    private final double[] to;      // to[v * count + i] = d(v, landmarks[i]).
+    private final double[] from;    // from[v * count + i] = d(landmarks[i], v).
+
+    // Constructors
+    private Landmarks(int numV, int[] landmarks, double[] to, double[] from) {
+        this.numV = numV;
+        this.landmarks = landmarks;
+        this.to = to;
+        this.from = from;
+    }
+
+    /**
+     * Chooses landmarks by the farthest heuristic and computes the distances to and from them, with one
+     * Dijkstra search per landmark and direction.
+     *
+     * @param graph The graph.
+     * @param count The number of landmarks.
+     * @return The landmarks.
+     * @throws IllegalArgumentException if count is not in [1, numV].
+     */
+    public static Landmarks select(Graph graph, int count) {
+        int numV = graph.getNumV();
+
+        if (count < 1 || count > numV) {
+            throw new IllegalArgumentException("The number of landmarks must be in [1, " + numV + "]: " + count);
+        }
+        CsrGraph out = graph instanceof CsrGraph csr ? csr : CsrGraph.of(graph);
+        ShortestPathSearch forward = new ShortestPathSearch(out);
+        ShortestPathSearch backward = new ShortestPathSearch(out.transpose());
+        int[] landmarks = new int[count];
+        double[] to = new double[numV * count];
+        double[] from = new double[numV * count];
+        double[] nearest = new double[numV];    // The distance from the nearest landmark.
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+
+        // The first landmark is the vertex farthest from vertex 0.
+        forward.dijkstra(0);
+        int landmark = farthest(forward, numV, null);
+
+        for (int i = 0; i < count; i++) {
+            landmarks[i] = landmark;
+            forward.dijkstra(landmark);
+            backward.dijkstra(landmark);
+
+            for (int v = 0; v < numV; v++) {
+                from[v * count + i] = forward.getDist(v);
+                to[v * count + i] = backward.getDist(v);
+                nearest[v] = Math.min(nearest[v], forward.getDist(v));
+            }
+            landmark = farthest(forward, numV, nearest);
+        }
+        return new Landmarks(numV, landmarks, to, from);
+    }
+
+    /**
+     * Returns the reachable vertex with the largest distance, the distance from the last search if nearest
+     * is null and from the nearest landmark otherwise. A vertex in another component is the farthest of all.
+     */
+    private static int farthest(ShortestPathSearch search, int numV, double[] nearest) {
+        int result = 0;
+        double max = -1;
+
+        for (int v = 0; v < numV; v++) {
+            double d = nearest == null ? search.getDist(v) : nearest[v];
+
+            if (d == Double.POSITIVE_INFINITY) {
+                return v;
+            }
+            if (d > max) {
+                max = d;
+                result = v;
+            }
+        }
+        return result;
+    }
+
+    public int getCount() {
+        return landmarks.length;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Returns a lower bound of the distance from v to w.
+     *
+     * @param v The first vertex.
+     * @param w The second vertex.
+     * @return The lower bound, at least 0.
+     */
+    public double lowerBound(int v, int w) {
+        int count = landmarks.length;
+        int vBase = v * count;
+        int wBase = w * count;
+        double bound = 0;
+
+        for (int i = 0; i < count; i++) {
+            // An infinite distance means that v or w is not connected to the landmark: the term is not a bound.
+            double toBound = to[vBase + i] - to[wBase + i];
+            double fromBound = from[wBase + i] - from[vBase + i];
+
+            if (toBound > bound && toBound != Double.POSITIVE_INFINITY) {
+                bound = toBound;
+            }
+            if (fromBound > bound && fromBound != Double.POSITIVE_INFINITY) {
+                bound = fromBound;
+            }
+        }
+        return bound;
+    }
+
+    @Override
+    public double applyAsDouble(int v, int w) {
+        return lowerBound(v, w);
+    }
+
+    /**
+     * Saves the landmarks and their distances to a file.
+     *
+     * @param file The file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeLong(MAGIC);
+            out.writeInt(numV);
+            out.writeInt(landmarks.length);
+
+            for (int landmark : landmarks) {
+                out.writeInt(landmark);
+            }
+            for (double d : to) {
+                out.writeDouble(d);
+            }
+            for (double d : from) {
+                out.writeDouble(d);
+            }
+        }
+    }
+
+    /**
+     * Loads landmarks saved by save().
+     *
+     * @param file The file.
+     * @return The landmarks.
+     * @throws IOException if the file cannot be read or is not a landmark file.
+     */
+    public static Landmarks load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException("Not a landmark file: " + file);
+            }
+            int numV = in.readInt();
+            int count = in.readInt();
+
+            if (numV < 0 || count < 0 || (long) numV * count > Integer.MAX_VALUE) {
+                throw new IOException("Bad landmark file header: " + file);
+            }
+            int[] landmarks = new int[count];
+            double[] to = new double[numV * count];
+            double[] from = new double[numV * count];
+
+            for (int i = 0; i < count; i++) {
+                landmarks[i] = in.readInt();
+            }
+            for (int i = 0; i < to.length; i++) {
+                to[i] = in.readDouble();
+            }
+            for (int i = 0; i < from.length; i++) {
+                from[i] = in.readDouble();
+            }
+            return new Landmarks(numV, landmarks, to, from);
+        } catch (EOFException e) {
+            throw new IOException("Truncated landmark file: " + file, e);
+        }
+    }
+
+    /**
+     * Checks that the landmarks were computed for a graph with this number of vertices.
+     *
+     * @param graph The graph.
+     * @return This object.
+     * @throws IllegalArgumentException if the number of vertices is different.
+     */
+    public Landmarks checkGraph(Graph graph) {
+        if (graph.getNumV() != numV) {
+            throw new IllegalArgumentException("The landmarks are for " + numV + " vertices, not " + graph.getNumV());
+        }
+        return this;
+    }
+}
@@ -79,17 +79,13 @@ public class MinimumSpanningTree {
 
         // Main loop
         while (!vMinusS.isEmpty()) {
-            // Update priority queue.
-            var iter = graph.edgeIterator(current);
-
-            while (iter.hasNext()) {
-                Edge edge = iter.next();
-                int dest = edge.getDest();
-
+            // Update priority queue. Only the edges into V-S become Edge objects.
+            int source = current;
+            graph.forEachNeighbor(source, (dest, weight) -> {
                 if (vMinusS.contains(dest)) {
-                    pq.add(edge);
+                    pq.add(new Edge(source, dest, weight));
                 }
-            }
+            });
 
             // Find the shortest edge whose source is in S and destination is in V-S.
             int dest;
@@ -0,0 +1,314 @@
+package com.caparniyazi.ds.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A level-synchronous, direction-optimizing breadth-first search that expands each level on a ForkJoinPool
+ * (Beamer, Asanovic and Patterson, Direction-Optimizing Breadth-First Search, 2012).
+ * <p/>
+ * BreadthFirstSearch visits the vertices one at a time from a queue. Here all the vertices of a level
+ * (the frontier) are expanded in parallel, and the next level starts when the whole frontier is done.
+ * Each level is expanded in one of two directions:
+ * <pre>
+ *     top-down   Each vertex of the frontier tries to claim its unvisited neighbors. Two threads can find the
+ *                same neighbor, so a vertex is claimed by setting its bit in the visited bitset with a
+ *                compare-and-set: only the winner sets its parent. Cheap when the frontier is small.
+ *     bottom-up  Each unvisited vertex looks for a parent among its incoming neighbors, and stops at the
+ *                first one that is in the frontier (a bitset). Each thread owns a range of whole bitset words,
+ *                so there is no contention. Cheap when the frontier is large: most vertices find a parent
+ *                after a few edges, while top-down would examine every edge of the frontier.
+ * </pre>
+ * The search switches to bottom-up when the edges of the frontier are more than 1/ALPHA of the edges of the
+ * unvisited vertices, and back to top-down when the frontier is shrinking and below 1/BETA of the vertices.
+ * <p/>
+ * The graph is copied to a CsrGraph (unless it is one) once, in the constructor; a directed graph also
+ * keeps its transpose for the incoming edges of bottom-up. breadthFirstSearch() returns the parent array
+ * of BreadthFirstSearch: parent[start] and the parent of an unreachable vertex are -1, and every other
+ * reachable vertex gets a neighbor one level closer to the start. When a vertex has several such neighbors,
+ * the one chosen may differ from BreadthFirstSearch's and from run to run; the levels are always the same.
+ * A search object must not be used by several threads at the same time.
+ */
+public class ParallelBreadthFirstSearch {
+    // Data fields
+    private static final int ALPHA = 14;    // The tuning constants of the paper.
+    private static final int BETA = 24;
+    private static final int THRESHOLD = 256;   // Smaller frontiers (or vertex ranges / 64) are not split.
+
+    private final CsrGraph out;
+    private final CsrGraph in;
+    private final ForkJoinPool pool;
+    private final int numV;
+    private final int[] parent;
+    private final int[] level;
+    private AtomicLongArray visited;
+    private int[] frontier;     // Top-down: the vertices of the current level.
+    private int[] next;
+    private final AtomicInteger nextSize = new AtomicInteger();
+    private final long[] frontierBits;  // Bottom-up: the vertices of the current level.
+    private final long[] nextBits;
+    private final AtomicLong nextEdges = new AtomicLong();  // The sum of the out-degrees of the next level.
+    private int levels;
+
+    // Constructors
+
+    /**
+     * Creates a search that runs on the common pool.
+     *
+     * @param graph The graph to be searched.
+     */
+    public ParallelBreadthFirstSearch(Graph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param graph The graph to be searched.
+     * @param pool  The pool that expands the levels.
+     */
+    public ParallelBreadthFirstSearch(Graph graph, ForkJoinPool pool) {
+        this.out = graph instanceof CsrGraph csr ? csr : CsrGraph.of(graph);
+        this.in = out.transpose();
+        this.pool = pool;
+        numV = graph.getNumV();
+        parent = new int[numV];
+        level = new int[numV];
+        frontier = new int[numV];
+        next = new int[numV];
+        frontierBits = new long[(numV + 63) >>> 6];
+        nextBits = new long[frontierBits.length];
+    }
+
+    /**
+     * Performs a breadth-first search of the graph.
+     *
+     * @param start The start vertex.
+     * @return The array of parents.
+     * @post The array parent will contain the predecessor of each vertex in a breadth-first search tree.
+     */
+    public int[] breadthFirstSearch(int start) {
+        Arrays.fill(parent, -1);
+        Arrays.fill(level, -1);
+        visited = new AtomicLongArray(frontierBits.length);
+        visited.set(start >>> 6, 1L << start);
+        level[start] = 0;
+        frontier[0] = start;
+        int frontierSize = 1;
+        long frontierEdges = out.getDegree(start);
+        long unexploredEdges = out.getNumEdges() - frontierEdges;
+        int previousSize = 0;
+        boolean topDown = true;
+        levels = 1;
+
+        while (frontierSize > 0) {
+            if (topDown && frontierEdges > unexploredEdges / ALPHA) {
+                topDown = false;
+                toBits(frontierSize);
+            } else if (!topDown && frontierSize < previousSize && frontierSize < numV / BETA) {
+                topDown = true;
+                frontierSize = toList();
+            }
+            previousSize = frontierSize;
+            nextEdges.set(0);
+
+            if (topDown) {
+                nextSize.set(0);
+                pool.invoke(new TopDownTask(0, frontierSize, levels));
+                frontierSize = nextSize.get();
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+            } else {
+                AtomicInteger count = new AtomicInteger();
+                pool.invoke(new BottomUpTask(0, frontierBits.length, levels, count));
+                frontierSize = count.get();
+                System.arraycopy(nextBits, 0, frontierBits, 0, nextBits.length);
+            }
+            frontierEdges = nextEdges.get();
+            unexploredEdges -= frontierEdges;
+
+            if (frontierSize > 0) {
+                levels++;
+            }
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the number of edges between the start vertex of the last search and a vertex.
+     *
+     * @param v The vertex.
+     * @return The level of the vertex, or -1 if it is unreachable.
+     */
+    public int getLevel(int v) {
+        return level[v];
+    }
+
+    /**
+     * Returns the number of levels of the last search (1 + the largest level).
+     *
+     * @return The number of levels.
+     */
+    public int getLevelCount() {
+        return levels;
+    }
+
+    /**
+     * Claims a vertex for the top-down step.
+     *
+     * @return true if this thread set the visited bit of v, false if it was already set.
+     */
+    private boolean claim(int v) {
+        int word = v >>> 6;
+        long bit = 1L << v;
+        long bits;
+
+        do {
+            bits = visited.get(word);
+
+            if ((bits & bit) != 0) {
+                return false;
+            }
+        } while (!visited.compareAndSet(word, bits, bits | bit));
+        return true;
+    }
+
+    private void toBits(int frontierSize) {
+        Arrays.fill(frontierBits, 0);
+
+        for (int i = 0; i < frontierSize; i++) {
+            frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+        }
+    }
+
+    private int toList() {
+        int size = 0;
+
+        for (int word = 0; word < frontierBits.length; word++) {
+            for (long bits = frontierBits[word]; bits != 0; bits &= bits - 1) {
+                frontier[size++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Expands frontier[start ... end - 1] and appends the claimed vertices to next.
+     */
+    private class TopDownTask extends RecursiveAction {
+        // Data fields
+        private static final long serialVersionUID = 1L;
+        private final int start;
+        private final int end;
+        private final int depth;
+
+        TopDownTask(int start, int end, int depth) {
+            this.start = start;
+            this.end = end;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > THRESHOLD) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new TopDownTask(start, mid, depth), new TopDownTask(mid, end, depth));
+                return;
+            }
+            int[] claimed = new int[16];
+            int count = 0;
+            long edges = 0;
+
+            for (int i = start; i < end; i++) {
+                int v = frontier[i];
+
+                for (int e = out.offset(v), last = out.offset(v + 1); e < last; e++) {
+                    int w = out.target(e);
+
+                    if (claim(w)) {
+                        parent[w] = v;
+                        level[w] = depth;
+                        edges += out.getDegree(w);
+
+                        if (count == claimed.length) {
+                            claimed = Arrays.copyOf(claimed, 2 * count);
+                        }
+                        claimed[count++] = w;
+                    }
+                }
+            }
+            // One atomic add per task reserves a range of next, instead of one per vertex.
+            System.arraycopy(claimed, 0, next, nextSize.getAndAdd(count), count);
+            nextEdges.addAndGet(edges);
+        }
+    }
+
+    /**
+     * Looks for the parents of the unvisited vertices in the bitset words start ... end - 1.
+     */
+    private class BottomUpTask extends RecursiveAction {
+        // Data fields
+        private static final long serialVersionUID = 1L;
+        private final int start;
+        private final int end;
+        private final int depth;
+        private final AtomicInteger found;
+
+        BottomUpTask(int start, int end, int depth, AtomicInteger found) {
+            this.start = start;
+            this.end = end;
+            this.depth = depth;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > THRESHOLD / 4) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new BottomUpTask(start, mid, depth, found), new BottomUpTask(mid, end, depth, found));
+                return;
+            }
+            int count = 0;
+            long edges = 0;
+
+            for (int word = start; word < end; word++) {
+                long visitedBits = visited.get(word);
+                long newBits = 0;
+                int base = word << 6;
+
+                for (long bits = ~visitedBits; bits != 0; bits &= bits - 1) {
+                    int v = base + Long.numberOfTrailingZeros(bits);
+
+                    if (v >= numV) {
+                        break;
+                    }
+
+                    for (int e = in.offset(v), last = in.offset(v + 1); e < last; e++) {
+                        int u = in.target(e);
+
+                        if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+                            parent[v] = u;
+                            level[v] = depth;
+                            newBits |= 1L << v;
+                            edges += out.getDegree(v);
+                            count++;
+                            break;
+                        }
+                    }
+                }
+                nextBits[word] = newBits;
+
+                if (newBits != 0) {
+                    visited.set(word, visitedBits | newBits);   // This task owns the word.
+                }
+            }
+            found.addAndGet(count);
+            nextEdges.addAndGet(edges);
+        }
+    }
+}
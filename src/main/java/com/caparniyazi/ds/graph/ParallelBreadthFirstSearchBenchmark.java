@@ -0,0 +1,86 @@
+package com.caparniyazi.ds.graph;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares BreadthFirstSearch on a CsrGraph with ParallelBreadthFirstSearch on the common pool and on a pool
+ * with one thread, which shows what the direction optimization saves without the parallelism.
+ * <p/>
+ * The graph is undirected and random with a small-world structure like a social graph: each vertex has
+ * degree / 2 edges to random vertices, so the search reaches almost every vertex in a few levels and
+ * the middle levels hold most of the graph, where bottom-up examines a fraction of the edges.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.graph.ParallelBreadthFirstSearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelBreadthFirstSearchBenchmark {
+    // Data fields
+    private static final int STARTS = 64;
+
+    @Param({"1000000"})
+    private int vertices;
+
+    @Param({"16"})
+    private int degree;
+
+    private BreadthFirstSearch sequential;
+    private ParallelBreadthFirstSearch parallel;
+    private ParallelBreadthFirstSearch singleThread;
+    private ForkJoinPool singleThreadPool;
+    private int[] starts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ListGraph listGraph = new ListGraph(vertices, false);
+
+        for (int i = 0; i < vertices * degree / 2; i++) {
+            listGraph.insert(new Edge(random.nextInt(vertices), random.nextInt(vertices)));
+        }
+        CsrGraph graph = CsrGraph.of(listGraph);
+        sequential = new BreadthFirstSearch(graph);
+        parallel = new ParallelBreadthFirstSearch(graph);
+        singleThreadPool = new ForkJoinPool(1);
+        singleThread = new ParallelBreadthFirstSearch(graph, singleThreadPool);
+        starts = random.ints(STARTS, 0, vertices).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        singleThreadPool.shutdown();
+    }
+
+    private int nextStart() {
+        next = (next + 1) & (STARTS - 1);
+        return starts[next];
+    }
+
+    @Benchmark
+    public int[] sequential() {
+        return sequential.breadthFirstSearch(nextStart());
+    }
+
+    @Benchmark
+    public int[] parallel() {
+        return parallel.breadthFirstSearch(nextStart());
+    }
+
+    @Benchmark
+    public int[] directionOptimizingOneThread() {
+        return singleThread.breadthFirstSearch(nextStart());
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
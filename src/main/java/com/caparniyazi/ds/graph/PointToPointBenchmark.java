@@ -0,0 +1,126 @@
+package com.caparniyazi.ds.graph;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency of one point-to-point query between a random origin and destination (OD pair): the
+ * distribution of the time per query (Mode.SampleTime, with percentiles), for each search and heuristic.
+ * <pre>
+ *     dijkstra, aStarEuclidean, aStarAlt   ShortestPathSearch, forward only.
+ *     bidirectional...                     BidirectionalSearch with no heuristic, the straight-line
+ *                                          distance, and the Landmarks (ALT) lower bound.
+ *     contractionHierarchy                 ContractionHierarchyQuery.
+ * </pre>
+ * The graph is the road-like grid of ShortestPathBenchmark: side x side vertices with coordinates, and edges
+ * to the right and lower neighbors with weights of at least the straight-line distance.
+ * The landmarks and the contraction hierarchy are computed once per trial; the hierarchy takes the longest.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.graph.PointToPointBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PointToPointBenchmark {
+    // Data fields
+    private static final int QUERIES = 1024;
+
+    @Param({"300"})
+    private int side;
+
+    @Param({"8"})
+    private int landmarkCount;
+
+    private CsrGraph graph;
+    private int[] origins;
+    private int[] destinations;
+    private int next;
+    private ShortestPathSearch search;
+    private BidirectionalSearch bidirectional;
+    private Landmarks landmarks;
+    private IntIntToDoubleFunction euclidean;
+    private ContractionHierarchyQuery hierarchy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int numV = side * side;
+        ListGraph listGraph = new ListGraph(numV, false);
+
+        for (int v = 0; v < numV; v++) {
+            if (v % side + 1 < side) {
+                listGraph.insert(new Edge(v, v + 1, 1 + random.nextDouble()));
+            }
+            if (v + side < numV) {
+                listGraph.insert(new Edge(v, v + side, 1 + random.nextDouble()));
+            }
+        }
+        graph = CsrGraph.of(listGraph);
+        origins = random.ints(QUERIES, 0, numV).toArray();
+        destinations = random.ints(QUERIES, 0, numV).toArray();
+        search = new ShortestPathSearch(graph);
+        bidirectional = new BidirectionalSearch(graph);
+        landmarks = Landmarks.select(graph, landmarkCount);
+        int width = side;
+        euclidean = (v, w) -> Math.hypot(v % width - w % width, v / width - w / width);
+        hierarchy = new ContractionHierarchyQuery(ContractionHierarchy.build(graph));
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public double dijkstra() {
+        int q = nextQuery();
+        return search.dijkstra(origins[q], destinations[q]);
+    }
+
+    @Benchmark
+    public double aStarEuclidean() {
+        int q = nextQuery();
+        int dest = destinations[q];
+        return search.aStar(origins[q], dest, v -> euclidean.applyAsDouble(v, dest));
+    }
+
+    @Benchmark
+    public double aStarAlt() {
+        int q = nextQuery();
+        int dest = destinations[q];
+        return search.aStar(origins[q], dest, v -> landmarks.lowerBound(v, dest));
+    }
+
+    @Benchmark
+    public double bidirectionalDijkstra() {
+        int q = nextQuery();
+        return bidirectional.dijkstra(origins[q], destinations[q]);
+    }
+
+    @Benchmark
+    public double bidirectionalEuclidean() {
+        int q = nextQuery();
+        return bidirectional.aStar(origins[q], destinations[q], euclidean);
+    }
+
+    @Benchmark
+    public double bidirectionalAlt() {
+        int q = nextQuery();
+        return bidirectional.aStar(origins[q], destinations[q], landmarks);
+    }
+
+    @Benchmark
+    public double contractionHierarchy() {
+        int q = nextQuery();
+        return hierarchy.distance(origins[q], destinations[q]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -34,7 +34,8 @@ import java.util.function.BiFunction;
 @SuppressWarnings("DuplicatedCode")
 public class ShortestPath {
     /**
-     * A-Star (A*) Shortest-Path Algorithm.
+     * A-Star (A*) Shortest-Path Algorithm with a boxed heuristic.
+     * Calls aStarAlgorithmPrimitive(), so every call of the heuristic boxes both vertices and unboxes the result.
      *
      * @param graph  The weighted graph to be searched.
      * @param start  The start vertex.
@@ -52,6 +53,33 @@ public class ShortestPath {
             int[] pred,
             double[] dist,
             double[] fScore) {
+        aStarAlgorithmPrimitive(graph, start, dest, h::apply, pred, dist, fScore);
+    }
+
+    /**
+     * A-Star (A*) Shortest-Path Algorithm with a primitive heuristic.
+     * It has its own name because a lambda such as (v, w) -&gt; 0.0 fits both heuristic types,
+     * so an overload of aStarAlgorithm() would make such calls ambiguous.
+     * Like WeightedGraph.dijkstrasAlgorithm(), it scans V–S for the next vertex, so it is O(|V|^2).
+     * See ShortestPathSearch.aStar() for the version with a priority queue, BidirectionalSearch for the
+     * search from both ends, and Landmarks for the ALT heuristic.
+     *
+     * @param graph  The weighted graph to be searched.
+     * @param start  The start vertex.
+     * @param dest   The destination vertex.
+     * @param h      The heuristic function: a lower bound of the distance from the first vertex to the second.
+     * @param pred   Output array to contain the predecessors in the shortest path.
+     * @param dist   Output array to contain the distance in the shortest path.
+     * @param fScore Output array to contain the estimated distance in the shortest path.
+     */
+    public static void aStarAlgorithmPrimitive(
+            Graph graph,
+            int start,
+            int dest,
+            IntIntToDoubleFunction h,
+            int[] pred,
+            double[] dist,
+            double[] fScore) {
         int numV = graph.getNumV();
         Set<Integer> vMinusS = new HashSet<>(numV);
 
@@ -70,7 +98,7 @@ public class ShortestPath {
 
             if (e != null) {
                 dist[v] = e.getWeight();
-                fScore[v] = dist[v] + h.apply(v, dest);
+                fScore[v] = dist[v] + h.applyAsDouble(v, dest);
             } else {
                 dist[v] = Double.POSITIVE_INFINITY;
                 fScore[v] = Double.POSITIVE_INFINITY;
@@ -110,7 +138,7 @@ public class ShortestPath {
 
                     if (dist[u] + weight < dist[v]) {
                         dist[v] = dist[u] + weight;
-                        fScore[v] = dist[v] + h.apply(v, dest);
+                        fScore[v] = dist[v] + h.applyAsDouble(v, dest);
                         pred[v] = u;
                     }
                 }
@@ -131,7 +159,7 @@ public class ShortestPath {
             int[] pred = new int[numV];
 
             // Euclidean straight-line distance heuristic.
-            BiFunction<Integer, Integer, Double> h = (v, w) -> {
+            IntIntToDoubleFunction h = (v, w) -> {
                 double x1 = coords[v][0];
                 double y1 = coords[v][1];
                 double x2 = coords[w][0];
@@ -142,7 +170,7 @@ public class ShortestPath {
             };
 
             // Call A* algorithm to define arrays pred, dist, and fScore.
-            ShortestPath.aStarAlgorithm(graph, start, dest, h, pred, dist, fScore);
+            ShortestPath.aStarAlgorithmPrimitive(graph, start, dest, h, pred, dist, fScore);
 
             // Construct the path
             Deque<Integer> path = new ArrayDeque<>();
@@ -0,0 +1,132 @@
+package com.caparniyazi.ds.graph;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Compares WeightedGraph.dijkstrasAlgorithm() and ShortestPath.aStarAlgorithm(), which scan V-S for the
+ * next vertex, with ShortestPathSearch, which uses an IndexedPriorityQueue and reuses its arrays.
+ * <p/>
+ * The graph is a road-like grid of side x side vertices with coordinates. Each vertex is connected to its
+ * right and lower neighbors by an edge whose weight is at least the straight-line distance (1), so the
+ * straight-line distance is an admissible heuristic for A*. The point-to-point queries go between random
+ * pairs of vertices.
+ * <pre>
+ *     dijkstraAll...    the shortest paths from a random vertex to all vertices.
+ *     dijkstraToDest... the shortest path to the destination (the old version cannot stop early).
+ *     aStar...          the shortest path to the destination with the straight-line distance heuristic.
+ * </pre>
+ * The old versions are O(|V|^2): "-p side=1000" (1M vertices) is only feasible for the new ones,
+ * e.g., with "-p side=1000 .*Heap".
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.graph.ShortestPathBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShortestPathBenchmark {
+    // Data fields
+    private static final int QUERIES = 1024;
+
+    @Param({"32", "100"})
+    private int side;
+
+    private Graph graph;
+    private double[][] coords;
+    private int[] starts;
+    private int[] dests;
+    private int next;
+    private ShortestPathSearch search;
+    private int[] pred;
+    private double[] dist;
+    private double[] fScore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int numV = side * side;
+        graph = new ListGraph(numV, false);
+        coords = new double[numV][2];
+
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                coords[v][0] = col;
+                coords[v][1] = row;
+
+                if (col + 1 < side) {
+                    graph.insert(new Edge(v, v + 1, 1 + random.nextDouble()));
+                }
+
+                if (row + 1 < side) {
+                    graph.insert(new Edge(v, v + side, 1 + random.nextDouble()));
+                }
+            }
+        }
+        starts = random.ints(QUERIES, 0, numV).toArray();
+        dests = random.ints(QUERIES, 0, numV).toArray();
+        search = new ShortestPathSearch(graph);
+        pred = new int[numV];
+        dist = new double[numV];
+        fScore = new double[numV];
+    }
+
+    private double distance(int v, int w) {
+        double deltaX = coords[v][0] - coords[w][0];
+        double deltaY = coords[v][1] - coords[w][1];
+        return Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public double[] dijkstraAllScan() {
+        WeightedGraph.dijkstrasAlgorithm(graph, starts[nextQuery()], pred, dist);
+        return dist;
+    }
+
+    @Benchmark
+    public double dijkstraAllHeap() {
+        int q = nextQuery();
+        search.dijkstra(starts[q]);
+        return search.getDist(dests[q]);
+    }
+
+    @Benchmark
+    public double dijkstraToDestHeap() {
+        int q = nextQuery();
+        return search.dijkstra(starts[q], dests[q]);
+    }
+
+    @Benchmark
+    public double aStarScan() {
+        int q = nextQuery();
+        BiFunction<Integer, Integer, Double> h = this::distance;
+        Arrays.fill(dist, 0);   // aStarAlgorithm() expects dist[start] == 0.
+        ShortestPath.aStarAlgorithm(graph, starts[q], dests[q], h, pred, dist, fScore);
+        return dist[dests[q]];
+    }
+
+    @Benchmark
+    public double aStarHeap() {
+        int q = nextQuery();
+        int dest = dests[q];
+        IntToDoubleFunction h = v -> distance(v, dest);
+        return search.aStar(starts[q], dest, h);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
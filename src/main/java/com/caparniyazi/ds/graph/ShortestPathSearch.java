@@ -0,0 +1,171 @@
+package com.caparniyazi.ds.graph;
+
+import com.caparniyazi.ds.tree.IndexedPriorityQueue;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Dijkstra's algorithm and A* with a priority queue, for many queries on the same graph.
+ * <p/>
+ * WeightedGraph.dijkstrasAlgorithm() and ShortestPath.aStarAlgorithm() find the next vertex by scanning
+ * all the vertices that are not yet settled (the set V-S), so they are O(|V|^2), and they box every vertex
+ * in a HashSet. Here the vertices that have been reached but not settled are kept in an
+ * IndexedPriorityQueue ordered by distance (Dijkstra) or by estimated total distance (A*): the next
+ * vertex is removed in O(log |V|), and a shorter path to a vertex lowers its priority in O(log |V|),
+ * so a search is O((|V| + |E|) log |V|). Vertices that are never reached are never touched.
+ * <p/>
+ * The search stops as soon as the destination is settled. The arrays dist and pred, and the queue,
+ * belong to the search object and are reused by every query: instead of being cleared, each entry is
+ * marked with the number of the query that wrote it, so a query costs time only for the vertices it reaches.
+ * A search object must not be used by several threads at the same time.
+ */
+public class ShortestPathSearch {
+    // Data fields
+    private final Graph graph;
+    private final double[] dist;
+    private final int[] pred;
+    private final int[] reachedIn;  // The query in which dist[v] and pred[v] were set.
+    private final IndexedPriorityQueue queue;
+    private int query;
+    private int settledCount;
+
+    // Constructors
+    public ShortestPathSearch(Graph graph) {
+        this.graph = graph;
+        int numV = graph.getNumV();
+        dist = new double[numV];
+        pred = new int[numV];
+        reachedIn = new int[numV];
+        queue = new IndexedPriorityQueue(numV);
+    }
+
+    /**
+     * Finds the shortest paths from the start vertex to all vertices.
+     *
+     * @param start The start vertex.
+     */
+    public void dijkstra(int start) {
+        search(start, -1, null);
+    }
+
+    /**
+     * Finds the shortest path from the start vertex to the destination, stopping when it is settled.
+     *
+     * @param start The start vertex.
+     * @param dest  The destination vertex.
+     * @return The length of the shortest path, or Double.POSITIVE_INFINITY if there is no path.
+     */
+    public double dijkstra(int start, int dest) {
+        return search(start, dest, null);
+    }
+
+    /**
+     * Finds the shortest path from the start vertex to the destination with A*: the next vertex is
+     * the one with the smallest distance from the start plus estimated distance to the destination.
+     * The path is the shortest one if the heuristic never overestimates the distance (e.g., the
+     * straight-line distance). If it is also consistent (h(u) <= weight(u, v) + h(v) for every edge), each
+     * vertex is settled at most once; otherwise a settled vertex to which a shorter path is found is
+     * reopened, and may be settled again.
+     *
+     * @param start     The start vertex.
+     * @param dest      The destination vertex.
+     * @param heuristic The estimated distance from a vertex to the destination, never more than the actual one.
+     * @return The length of the shortest path, or Double.POSITIVE_INFINITY if there is no path.
+     */
+    public double aStar(int start, int dest, IntToDoubleFunction heuristic) {
+        return search(start, dest, heuristic);
+    }
+
+    private double search(int start, int dest, IntToDoubleFunction heuristic) {
+        if (++query == 0) {     // After 2^32 queries the numbers wrap around.
+            Arrays.fill(reachedIn, 0);
+            query = 1;
+        }
+        queue.clear();
+        settledCount = 0;
+        reach(start, 0, -1);
+        queue.offer(start, heuristic == null ? 0 : heuristic.applyAsDouble(start));
+
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            settledCount++;
+
+            if (u == dest) {
+                return dist[u];
+            }
+            double distU = dist[u];
+
+            // Update the distances of the neighbors. Only A* with a heuristic that is not consistent can find
+            // a shorter path to a settled vertex; the vertex is then put back in the queue (reopened).
+            graph.forEachNeighbor(u, (v, weight) -> {
+                double newDist = distU + weight;
+
+                if (reachedIn[v] != query) {
+                    reach(v, newDist, u);
+                    queue.offer(v, heuristic == null ? newDist : newDist + heuristic.applyAsDouble(v));
+                } else if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                    queue.offer(v, heuristic == null ? newDist : newDist + heuristic.applyAsDouble(v));
+                }
+            });
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    private void reach(int v, double distance, int predecessor) {
+        reachedIn[v] = query;
+        dist[v] = distance;
+        pred[v] = predecessor;
+    }
+
+    /**
+     * Returns the distance of a vertex found by the last query. It is the shortest distance for the
+     * settled vertices, and an upper bound for the vertices reached but not settled before the search stopped.
+     *
+     * @param v The vertex.
+     * @return The distance, or Double.POSITIVE_INFINITY if the vertex was not reached.
+     */
+    public double getDist(int v) {
+        return reachedIn[v] == query ? dist[v] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the predecessor of a vertex on its path found by the last query.
+     *
+     * @param v The vertex.
+     * @return The predecessor, or -1 for the start vertex and the vertices that were not reached.
+     */
+    public int getPred(int v) {
+        return reachedIn[v] == query ? pred[v] : -1;
+    }
+
+    /**
+     * Returns the path from the start vertex of the last query to a vertex.
+     *
+     * @param end The last vertex of the path.
+     * @return The vertices of the path, or an empty list if the vertex was not reached.
+     */
+    public List<Integer> getPath(int end) {
+        LinkedList<Integer> path = new LinkedList<>();
+
+        if (reachedIn[end] == query) {
+            for (int v = end; v != -1; v = pred[v]) {
+                path.addFirst(v);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Returns the number of vertices settled by the last query (removed from the queue).
+     *
+     * @return The number of settled vertices.
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+}
@@ -0,0 +1,115 @@
+package com.caparniyazi.ds.graph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks BidirectionalSearch, with and without the Landmarks heuristic, against ShortestPathSearch on random
+ * graphs, then compares the number of vertices that each search settles for one query on a grid.
+ */
+public class TestBidirectionalSearch {
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(42);
+        int errors = 0;
+
+        for (int test = 0; test < 200; test++) {
+            int numV = 1 + random.nextInt(300);
+            Graph graph = new ListGraph(numV, random.nextBoolean());
+
+            for (int i = 0; i < 2 * numV; i++) {
+                graph.insert(new Edge(random.nextInt(numV), random.nextInt(numV), random.nextInt(100)));
+            }
+            ShortestPathSearch expected = new ShortestPathSearch(graph);
+            BidirectionalSearch search = new BidirectionalSearch(graph);
+            Landmarks landmarks = Landmarks.select(graph, Math.min(numV, 4));
+
+            for (int query = 0; query < 20; query++) {
+                int start = random.nextInt(numV);
+                int dest = random.nextInt(numV);
+                double length = expected.dijkstra(start, dest);
+
+                if (landmarks.lowerBound(start, dest) > length) {
+                    errors++;
+                }
+                if (search.dijkstra(start, dest) != length || pathLength(graph, search.getPath()) != length) {
+                    errors++;
+                }
+                if (!close(search.aStar(start, dest, landmarks), length)
+                        || !close(pathLength(graph, search.getPath()), length)) {
+                    errors++;
+                }
+            }
+        }
+        System.out.println("Random graphs, wrong lengths or paths: " + errors);
+
+        // A grid with coordinates, as in ShortestPathBenchmark.
+        int side = 300;
+        Graph grid = new ListGraph(side * side, false);
+
+        for (int v = 0; v < side * side; v++) {
+            if (v % side + 1 < side) {
+                grid.insert(new Edge(v, v + 1, 1 + random.nextDouble()));
+            }
+            if (v + side < side * side) {
+                grid.insert(new Edge(v, v + side, 1 + random.nextDouble()));
+            }
+        }
+        IntIntToDoubleFunction euclidean = (v, w) -> Math.hypot(v % side - w % side, v / side - w / side);
+        Landmarks landmarks = Landmarks.select(grid, 8);
+
+        // The landmarks are computed once and loaded from the file afterward.
+        Path file = Files.createTempFile("landmarks", ".bin");
+        landmarks.save(file);
+        landmarks = Landmarks.load(file).checkGraph(grid);
+        Files.delete(file);
+
+        int start = side / 4 * side + side / 4;
+        int dest = (side - side / 4) * side + side - side / 4;
+        ShortestPathSearch search = new ShortestPathSearch(grid);
+        BidirectionalSearch bidirectional = new BidirectionalSearch(grid);
+        Landmarks alt = landmarks;
+        System.out.printf("Dijkstra:               length %.2f, %,d vertices settled%n",
+                search.dijkstra(start, dest), search.getSettledCount());
+        System.out.printf("A*, Euclidean:          length %.2f, %,d vertices settled%n",
+                search.aStar(start, dest, v -> euclidean.applyAsDouble(v, dest)), search.getSettledCount());
+        System.out.printf("A*, ALT:                length %.2f, %,d vertices settled%n",
+                search.aStar(start, dest, v -> alt.lowerBound(v, dest)), search.getSettledCount());
+        System.out.printf("Bidirectional Dijkstra: length %.2f, %,d vertices settled%n",
+                bidirectional.dijkstra(start, dest), bidirectional.getSettledCount());
+        System.out.printf("Bidirectional A*, ALT:  length %.2f, %,d vertices settled%n",
+                bidirectional.aStar(start, dest, alt), bidirectional.getSettledCount());
+        System.out.println("Landmarks: " + Arrays.toString(alt.getLandmarks()));
+    }
+
+    private static double pathLength(Graph graph, List<Integer> path) {
+        if (path.isEmpty()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double length = 0;
+
+        for (int i = 1; i < path.size(); i++) {
+            double shortest = Double.POSITIVE_INFINITY;
+
+            for (var iter = graph.edgeIterator(path.get(i - 1)); iter.hasNext(); ) {
+                Edge edge = iter.next();
+
+                if (edge.getDest() == path.get(i)) {
+                    shortest = Math.min(shortest, edge.getWeight());
+                }
+            }
+            length += shortest;
+        }
+        return length;
+    }
+
+    /**
+     * A* adds the potentials in another order than Dijkstra's algorithm, so the lengths can differ in the last bits.
+     */
+    private static boolean close(double a, double b) {
+        return a == b || Math.abs(a - b) <= 1e-9 * Math.max(1, Math.abs(b));
+    }
+}
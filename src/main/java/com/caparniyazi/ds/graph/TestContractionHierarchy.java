@@ -0,0 +1,111 @@
+package com.caparniyazi.ds.graph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks ContractionHierarchyQuery against ShortestPathSearch on random graphs, with the unpacked paths, then
+ * preprocesses a grid, saves and loads the hierarchy, and compares the query times with Dijkstra's algorithm.
+ */
+public class TestContractionHierarchy {
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(42);
+        int errors = 0;
+
+        for (int test = 0; test < 200; test++) {
+            int numV = 1 + random.nextInt(300);
+            Graph graph = new ListGraph(numV, random.nextBoolean());
+
+            for (int i = 0; i < 2 * numV; i++) {
+                graph.insert(new Edge(random.nextInt(numV), random.nextInt(numV), random.nextInt(100)));
+            }
+            ShortestPathSearch expected = new ShortestPathSearch(graph);
+            ContractionHierarchyQuery query = new ContractionHierarchyQuery(ContractionHierarchy.build(graph));
+
+            for (int q = 0; q < 20; q++) {
+                int start = random.nextInt(numV);
+                int dest = random.nextInt(numV);
+                double length = expected.dijkstra(start, dest);
+
+                if (query.distance(start, dest) != length || !isPath(graph, query.getPath(), start, dest, length)) {
+                    errors++;
+                }
+            }
+        }
+        System.out.println("Random graphs, wrong lengths or paths: " + errors);
+
+        int side = 150;
+        Graph grid = new ListGraph(side * side, false);
+
+        for (int v = 0; v < side * side; v++) {
+            if (v % side + 1 < side) {
+                grid.insert(new Edge(v, v + 1, 1 + random.nextDouble()));
+            }
+            if (v + side < side * side) {
+                grid.insert(new Edge(v, v + side, 1 + random.nextDouble()));
+            }
+        }
+        long time = System.nanoTime();
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(grid);
+        System.out.printf("Grid %d x %d: preprocessing %.1f s, %,d shortcuts%n", side, side,
+                (System.nanoTime() - time) / 1e9, hierarchy.getShortcutCount());
+
+        // The hierarchy is computed once and loaded from the file afterward.
+        Path file = Files.createTempFile("hierarchy", ".bin");
+        hierarchy.save(file);
+        hierarchy = ContractionHierarchy.load(file);
+        Files.delete(file);
+
+        ContractionHierarchyQuery query = new ContractionHierarchyQuery(hierarchy);
+        ShortestPathSearch dijkstra = new ShortestPathSearch(grid);
+        int queries = 200;
+        long chTime = 0;
+        long dijkstraTime = 0;
+        long settled = 0;
+
+        for (int q = 0; q < queries; q++) {
+            int start = random.nextInt(side * side);
+            int dest = random.nextInt(side * side);
+            time = System.nanoTime();
+            double length = query.distance(start, dest);
+            chTime += System.nanoTime() - time;
+            settled += query.getSettledCount();
+            time = System.nanoTime();
+            double expectedLength = dijkstra.dijkstra(start, dest);
+            dijkstraTime += System.nanoTime() - time;
+
+            if (length != expectedLength && Math.abs(length - expectedLength) > 1e-9 * expectedLength) {
+                errors++;
+            }
+        }
+        System.out.printf("Contraction hierarchy: %.3f ms per query, %,d vertices settled per query%n",
+                chTime / 1e6 / queries, settled / queries);
+        System.out.printf("Dijkstra:              %.3f ms per query%n", dijkstraTime / 1e6 / queries);
+        System.out.println("Grid, wrong lengths: " + errors);
+    }
+
+    /**
+     * Checks that the edges are in the graph and form a path from start to dest of the given length.
+     */
+    private static boolean isPath(Graph graph, List<Edge> path, int start, int dest, double length) {
+        if (length == Double.POSITIVE_INFINITY || start == dest) {
+            return path.isEmpty();
+        }
+        int v = start;
+        double sum = 0;
+
+        for (Edge edge : path) {
+            Edge original = graph.getEdge(edge.getSource(), edge.getDest());
+
+            if (edge.getSource() != v || original == null) {
+                return false;
+            }
+            sum += edge.getWeight();
+            v = edge.getDest();
+        }
+        return v == dest && sum == length;
+    }
+}
@@ -0,0 +1,75 @@
+package com.caparniyazi.ds.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Checks that CsrGraph visits the same edges in the same order as the graph it was built from:
+ * breadth-first search, depth-first search, and Dijkstra's algorithm give the same results on both.
+ */
+public class TestCsrGraph {
+    public static void main(String[] args) {
+        // The graph of TestBreadthFirstSearch, loaded from an edge file.
+        String edges = """
+                0 1
+                0 3
+                1 2
+                1 4
+                1 6
+                1 7
+                3 2
+                2 8
+                2 9
+                4 5
+                4 6
+                4 7
+                """;
+        CsrGraph csr = CsrGraph.load(10, false, new Scanner(edges));
+        System.out.println("Vertices: " + csr.getNumV() + ", edges: " + csr.getNumEdges()
+                + ", degree of 1: " + csr.getDegree(1));
+        BreadthFirstSearch bfs = new BreadthFirstSearch(csr);
+        System.out.println(Arrays.toString(bfs.breadthFirstSearch(0)));
+        System.out.println(bfs.prettyPrintTree(0));
+
+        Random random = new Random(42);
+        int errors = 0;
+
+        for (int test = 0; test < 100; test++) {
+            int numV = 1 + random.nextInt(200);
+            Graph graph = new ListGraph(numV, random.nextBoolean());
+
+            for (int i = 0; i < 2 * numV; i++) {
+                graph.insert(new Edge(random.nextInt(numV), random.nextInt(numV), random.nextInt(100)));
+            }
+            CsrGraph copy = CsrGraph.of(graph);
+            int start = random.nextInt(numV);
+
+            if (!Arrays.equals(new BreadthFirstSearch(graph).breadthFirstSearch(start),
+                    new BreadthFirstSearch(copy).breadthFirstSearch(start))) {
+                errors++;
+            }
+
+            if (!Arrays.equals(new DepthFirstSearch(graph).getFinishOrder(), new DepthFirstSearch(copy).getFinishOrder())) {
+                errors++;
+            }
+            ShortestPathSearch listSearch = new ShortestPathSearch(graph);
+            ShortestPathSearch csrSearch = new ShortestPathSearch(copy);
+            listSearch.dijkstra(start);
+            csrSearch.dijkstra(start);
+
+            for (int v = 0; v < numV; v++) {
+                if (listSearch.getDist(v) != csrSearch.getDist(v) || listSearch.getPred(v) != csrSearch.getPred(v)) {
+                    errors++;
+                }
+            }
+        }
+        System.out.println("Random graphs, different results: " + errors);
+
+        try {
+            csr.insert(new Edge(0, 5));
+        } catch (UnsupportedOperationException e) {
+            System.out.println("insert: " + e.getMessage());
+        }
+    }
+}
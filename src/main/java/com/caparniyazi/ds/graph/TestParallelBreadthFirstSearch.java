@@ -0,0 +1,86 @@
+package com.caparniyazi.ds.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks ParallelBreadthFirstSearch against BreadthFirstSearch on random graphs: every vertex must be on the
+ * same level, and its parent must be a neighbor one level closer to the start. The graphs range from sparse
+ * (long paths, top-down only) to dense (a few levels that switch to bottom-up), with both directions.
+ */
+public class TestParallelBreadthFirstSearch {
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        int errors = 0;
+
+        for (int test = 0; test < 200; test++) {
+            int numV = 1 + random.nextInt(test < 150 ? 300 : 50_000);
+            boolean directed = random.nextBoolean();
+            int degree = 1 + random.nextInt(16);
+            Graph graph = new ListGraph(numV, directed);
+
+            for (int i = 0; i < numV * degree / 2; i++) {
+                graph.insert(new Edge(random.nextInt(numV), random.nextInt(numV)));
+            }
+            int start = random.nextInt(numV);
+            int[] expected = levels(new BreadthFirstSearch(graph).breadthFirstSearch(start), start);
+            ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(graph, pool);
+
+            for (int repeat = 0; repeat < 2; repeat++) {    // The search object is reused.
+                int[] parent = search.breadthFirstSearch(start);
+
+                for (int v = 0; v < numV; v++) {
+                    if (search.getLevel(v) != expected[v]) {
+                        errors++;
+                    } else if (v == start || expected[v] < 0) {
+                        errors += parent[v] == -1 ? 0 : 1;
+                    } else if (!graph.isEdge(parent[v], v) || expected[parent[v]] != expected[v] - 1) {
+                        errors++;
+                    }
+                }
+            }
+        }
+        System.out.println("Random graphs, wrong parents or levels: " + errors);
+
+        // A grid is a graph with many levels and small frontiers.
+        int side = 300;
+        Graph grid = new ListGraph(side * side, false);
+
+        for (int v = 0; v < side * side; v++) {
+            if (v % side + 1 < side) {
+                grid.insert(new Edge(v, v + 1));
+            }
+            if (v + side < side * side) {
+                grid.insert(new Edge(v, v + side));
+            }
+        }
+        ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(grid, pool);
+        search.breadthFirstSearch(0);
+        System.out.println("Grid " + side + " x " + side + ": " + search.getLevelCount() + " levels, level of the far corner "
+                + search.getLevel(side * side - 1));
+        pool.shutdown();
+    }
+
+    /**
+     * Returns the level of each vertex in a breadth-first search tree, or -1 for the unreachable vertices.
+     */
+    private static int[] levels(int[] parent, int start) {
+        int[] level = new int[parent.length];
+        Arrays.fill(level, -1);
+        level[start] = 0;
+
+        for (int v = 0; v < parent.length; v++) {
+            levelOf(v, parent, level);
+        }
+        return level;
+    }
+
+    private static int levelOf(int v, int[] parent, int[] level) {
+        if (level[v] < 0 && parent[v] >= 0) {
+            level[v] = levelOf(parent[v], parent, level) + 1;
+        }
+        return level[v];
+    }
+}
@@ -0,0 +1,79 @@
+package com.caparniyazi.ds.graph;
+
+import java.util.Random;
+
+/**
+ * Checks ShortestPathSearch against WeightedGraph.dijkstrasAlgorithm() on random graphs, then shows how
+ * many vertices Dijkstra's algorithm and A* settle for one query on a grid with coordinates.
+ */
+public class TestShortestPathSearch {
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int errors = 0;
+
+        for (int test = 0; test < 100; test++) {
+            int numV = 1 + random.nextInt(200);
+            Graph graph = new ListGraph(numV, random.nextBoolean());
+
+            // A ring keeps the graph connected: the old version fails on unreachable vertices.
+            for (int v = 1; v < numV; v++) {
+                graph.insert(new Edge(v - 1, v, 100 + random.nextInt(100)));
+            }
+            if (numV > 2 && !graph.isEdge(numV - 1, 0)) {
+                graph.insert(new Edge(numV - 1, 0, 100 + random.nextInt(100)));
+            }
+            for (int i = 0; i < 3 * numV; i++) {
+                int source = random.nextInt(numV);
+                int dest = random.nextInt(numV);
+
+                graph.insert(new Edge(source, dest, random.nextInt(100)));
+            }
+            int start = random.nextInt(numV);
+            int[] pred = new int[numV];
+            double[] dist = new double[numV];
+            WeightedGraph.dijkstrasAlgorithm(graph, start, pred, dist);
+
+            ShortestPathSearch search = new ShortestPathSearch(graph);
+            search.dijkstra(start);
+
+            for (int v = 0; v < numV; v++) {
+                if (search.getDist(v) != dist[v]) {
+                    errors++;
+                }
+            }
+            int dest = random.nextInt(numV);
+
+            if (search.dijkstra(start, dest) != dist[dest]) {
+                errors++;
+            }
+        }
+        System.out.println("Random graphs, wrong distances: " + errors);
+
+        final int SIDE = 300;
+        Graph grid = new ListGraph(SIDE * SIDE, false);
+
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                int v = row * SIDE + col;
+
+                if (col + 1 < SIDE) {
+                    grid.insert(new Edge(v, v + 1, 1 + random.nextDouble()));
+                }
+
+                if (row + 1 < SIDE) {
+                    grid.insert(new Edge(v, v + SIDE, 1 + random.nextDouble()));
+                }
+            }
+        }
+        int start = SIDE / 4 * SIDE + SIDE / 4;
+        int dest = 3 * SIDE / 4 * SIDE + 3 * SIDE / 4;
+        ShortestPathSearch search = new ShortestPathSearch(grid);
+
+        double length = search.dijkstra(start, dest);
+        System.out.printf("Dijkstra: length %.2f, %,d of %,d vertices settled%n", length, search.getSettledCount(), SIDE * SIDE);
+
+        length = search.aStar(start, dest, v -> Math.hypot(v % SIDE - dest % SIDE, v / SIDE - dest / SIDE));
+        System.out.printf("A*:       length %.2f, %,d of %,d vertices settled%n", length, search.getSettledCount(), SIDE * SIDE);
+        System.out.println("Path has " + search.getPath(dest).size() + " vertices");
+    }
+}
@@ -13,6 +13,8 @@ public class WeightedGraph {
      * <p>
      * Dijkstra's algorithm explores the graph in a modified breadth-first search in which the vertex
      * next visited is the one that is closest to the starting point.
+     * <p>
+     * See ShortestPathSearch for the O((|V| + |E|) log |V|) version with a priority queue.
      *
      * @param graph The weighted graph to be searched.
      * @param start The start vertex.
@@ -36,14 +38,16 @@ public class WeightedGraph {
 
         for (int v : vMinusS) {
             pred[v] = start;
-            var e = graph.getEdge(start, v);
+            dist[v] = Double.POSITIVE_INFINITY;
+        }
 
-            if (e != null) {
-                dist[v] = e.getWeight();
-            } else {
-                dist[v] = Double.POSITIVE_INFINITY;
+        // One pass over the edges of start, instead of getEdge(start, v) for every vertex v.
+        // With parallel edges, the shortest one counts.
+        graph.forEachNeighbor(start, (v, weight) -> {
+            if (v != start && weight < dist[v]) {
+                dist[v] = weight;
             }
-        }
+        });
 
         // Main loop
         while (!vMinusS.isEmpty()) {
@@ -62,20 +66,15 @@ public class WeightedGraph {
             vMinusS.remove(u);
 
             // Update the distances.
-            var iter = graph.edgeIterator(u);
-            while (iter.hasNext()) {
-                var e = iter.next();
-                int v = e.getDest();
-
+            int current = u;
+            graph.forEachNeighbor(current, (v, weight) -> {
                 if (vMinusS.contains(v)) {
-                    double weight = e.getWeight();
-
-                    if (dist[u] + weight < dist[v]) {
-                        dist[v] = dist[u] + weight;
-                        pred[v] = u;
+                    if (dist[current] + weight < dist[v]) {
+                        dist[v] = dist[current] + weight;
+                        pred[v] = current;
                     }
                 }
-            }
+            });
         }
     }
 
@@ -0,0 +1,348 @@
+package com.caparniyazi.ds.lambda;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A persistent (immutable) red-black tree.
+ * <p/>
+ * Like TreeFun, a tree is never modified: add() and remove() return a new tree. Only the nodes on the path
+ * from the root to the changed node are copied (path copying), the new tree shares all other subtrees with
+ * the old one. Since the tree stays balanced, an update copies O(log n) nodes, and every version remains
+ * valid and readable. Taking a snapshot is just keeping a reference to the current version, in O(1).
+ * All fields are final, so a version can be read by any number of threads without locks,
+ * while a writer creates new versions (e.g., published through an AtomicReference).
+ * <p/>
+ * Insertion follows Chris Okasaki (Red-Black Trees in a Functional Setting, 1999): the new node is red,
+ * and a red child with a red child below a black node is repaired by balance() in one of four symmetric
+ * cases, which all produce the same shape: a red node with two black children.
+ * Deletion follows Stefan Kahrs (Red-Black Trees with Types, 2001): removing from a black subtree
+ * shortens its black height by one, which balanceLeft()/balanceRight() repair on the way back up,
+ * and the two subtrees of a removed node are joined by fuse().
+ *
+ * @param <E> The element type.
+ */
+public class RedBlackTreeFun<E extends Comparable<E>> implements Iterable<E> {
+    // Data fields
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    private final boolean color;
+    private final E data;
+    private final RedBlackTreeFun<E> left;
+    private final RedBlackTreeFun<E> right;
+    private final int size;
+
+    @SuppressWarnings("rawtypes")   // The one empty tree serves every element type.
+    private static final RedBlackTreeFun NIL = new RedBlackTreeFun();   // The empty tree; it is black.
+
+    // Constructors
+    @SuppressWarnings("unchecked")
+    private RedBlackTreeFun() {
+        color = BLACK;
+        data = null;
+        left = NIL;
+        right = NIL;
+        size = 0;
+    }
+
+    private RedBlackTreeFun(boolean color, RedBlackTreeFun<E> left, E data, RedBlackTreeFun<E> right) {
+        this.color = color;
+        this.left = left;
+        this.data = data;
+        this.right = right;
+        this.size = 1 + left.size + right.size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E extends Comparable<E>> RedBlackTreeFun<E> empty() {
+        return NIL;
+    }
+
+    @SafeVarargs
+    public static <E extends Comparable<E>> RedBlackTreeFun<E> of(E... data) {
+        RedBlackTreeFun<E> tree = empty();
+
+        for (E element : data) {
+            tree = tree.add(element);
+        }
+        return tree;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a tree that contains the element.
+     *
+     * @param element The element.
+     * @return The new tree, or this tree if it already contains the element.
+     * O(n) = O(log n) time and new nodes.
+     */
+    public RedBlackTreeFun<E> add(E element) {
+        if (contains(element)) {
+            return this;
+        }
+        return insert(element).blacken();
+    }
+
+    private RedBlackTreeFun<E> insert(E element) {
+        if (isEmpty()) {
+            return new RedBlackTreeFun<>(RED, empty(), element, empty());
+        }
+        int comp = element.compareTo(data);
+
+        if (color == BLACK) {
+            return comp < 0 ? balance(left.insert(element), data, right) : balance(left, data, right.insert(element));
+        }
+        // A red node is repaired by its black parent.
+        return comp < 0 ? new RedBlackTreeFun<>(RED, left.insert(element), data, right)
+                : new RedBlackTreeFun<>(RED, left, data, right.insert(element));
+    }
+
+    /**
+     * Returns a tree without the element.
+     *
+     * @param element The element.
+     * @return The new tree, or this tree if it does not contain the element.
+     * O(n) = O(log n) time and new nodes.
+     */
+    public RedBlackTreeFun<E> remove(E element) {
+        if (!contains(element)) {
+            return this;
+        }
+        return delete(element).blacken();
+    }
+
+    /**
+     * Deletes the element, which is in this subtree.
+     * The result has the same black height if this node is red, or one less if it is black.
+     */
+    private RedBlackTreeFun<E> delete(E element) {
+        int comp = element.compareTo(data);
+
+        if (comp < 0) {
+            RedBlackTreeFun<E> newLeft = left.delete(element);
+            return left.color == BLACK ? balanceLeft(newLeft, data, right) : new RedBlackTreeFun<>(RED, newLeft, data, right);
+        } else if (comp > 0) {
+            RedBlackTreeFun<E> newRight = right.delete(element);
+            return right.color == BLACK ? balanceRight(left, data, newRight) : new RedBlackTreeFun<>(RED, left, data, newRight);
+        }
+        return fuse(left, right);
+    }
+
+    public boolean contains(E element) {
+        RedBlackTreeFun<E> tree = this;
+
+        while (!tree.isEmpty()) {
+            int comp = element.compareTo(tree.data);
+
+            if (comp == 0) {
+                return true;
+            }
+            tree = comp < 0 ? tree.left : tree.right;
+        }
+        return false;
+    }
+
+    public E min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("min() of an empty tree");
+        }
+        return left.isEmpty() ? data : left.min();
+    }
+
+    public E max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("max() of an empty tree");
+        }
+        return right.isEmpty() ? data : right.max();
+    }
+
+    /**
+     * Returns the number of black nodes on every path from the root to an empty tree,
+     * or -1 if the paths differ or a red node has a red child (for tests).
+     *
+     * @return The black height, or -1 if the tree is not a valid red-black tree.
+     */
+    public int blackHeight() {
+        if (isEmpty()) {
+            return 0;
+        }
+        int leftHeight = left.blackHeight();
+        int rightHeight = right.blackHeight();
+
+        if (leftHeight < 0 || leftHeight != rightHeight || (isRed() && (left.isRed() || right.isRed()))) {
+            return -1;
+        }
+        return leftHeight + (isRed() ? 0 : 1);
+    }
+
+    /**
+     * Iterates over the elements in ascending order, with an explicit stack of the left spine.
+     *
+     * @return The iterator.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private final Deque<RedBlackTreeFun<E>> stack = new ArrayDeque<>();
+
+            {
+                pushLeft(RedBlackTreeFun.this);
+            }
+
+            private void pushLeft(RedBlackTreeFun<E> tree) {
+                for (; !tree.isEmpty(); tree = tree.left) {
+                    stack.push(tree);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                RedBlackTreeFun<E> tree = stack.pop();
+                pushLeft(tree.right);
+                return tree.data;
+            }
+        };
+    }
+
+
+    // Re-balancing.
+
+    private boolean isRed() {
+        return color == RED;
+    }
+
+    private RedBlackTreeFun<E> blacken() {
+        return isRed() ? new RedBlackTreeFun<>(BLACK, left, data, right) : this;
+    }
+
+    private RedBlackTreeFun<E> redden() {
+        return new RedBlackTreeFun<>(RED, left, data, right);
+    }
+
+    /**
+     * Builds a black node, repairing a red child that has a red child (Okasaki's four cases),
+     * or two red children (needed by the deletion).
+     */
+    private static <E extends Comparable<E>> RedBlackTreeFun<E> balance(RedBlackTreeFun<E> l, E x, RedBlackTreeFun<E> r) {
+        if (l.isRed() && r.isRed()) {
+            return new RedBlackTreeFun<>(RED, l.blacken(), x, r.blacken());
+        }
+
+        if (l.isRed()) {
+            if (l.left.isRed()) {
+                return new RedBlackTreeFun<>(RED, l.left.blacken(), l.data, new RedBlackTreeFun<>(BLACK, l.right, x, r));
+            }
+
+            if (l.right.isRed()) {
+                return new RedBlackTreeFun<>(RED, new RedBlackTreeFun<>(BLACK, l.left, l.data, l.right.left), l.right.data,
+                        new RedBlackTreeFun<>(BLACK, l.right.right, x, r));
+            }
+        }
+
+        if (r.isRed()) {
+            if (r.right.isRed()) {
+                return new RedBlackTreeFun<>(RED, new RedBlackTreeFun<>(BLACK, l, x, r.left), r.data, r.right.blacken());
+            }
+
+            if (r.left.isRed()) {
+                return new RedBlackTreeFun<>(RED, new RedBlackTreeFun<>(BLACK, l, x, r.left.left), r.left.data,
+                        new RedBlackTreeFun<>(BLACK, r.left.right, r.data, r.right));
+            }
+        }
+        return new RedBlackTreeFun<>(BLACK, l, x, r);
+    }
+
+    /**
+     * The left subtree l has a black height one less than the right subtree r: repair it.
+     */
+    private static <E extends Comparable<E>> RedBlackTreeFun<E> balanceLeft(RedBlackTreeFun<E> l, E x, RedBlackTreeFun<E> r) {
+        if (l.isRed()) {
+            return new RedBlackTreeFun<>(RED, l.blacken(), x, r);
+        }
+
+        if (!r.isRed()) {   // r is black (not empty, since its black height is at least one).
+            return balance(l, x, r.redden());
+        }
+        // r is red with a black left child.
+        RedBlackTreeFun<E> rl = r.left;
+        return new RedBlackTreeFun<>(RED, new RedBlackTreeFun<>(BLACK, l, x, rl.left), rl.data,
+                balance(rl.right, r.data, r.right.redden()));
+    }
+
+    /**
+     * The right subtree r has a black height one less than the left subtree l: repair it.
+     */
+    private static <E extends Comparable<E>> RedBlackTreeFun<E> balanceRight(RedBlackTreeFun<E> l, E x, RedBlackTreeFun<E> r) {
+        if (r.isRed()) {
+            return new RedBlackTreeFun<>(RED, l, x, r.blacken());
+        }
+
+        if (!l.isRed()) {
+            return balance(l.redden(), x, r);
+        }
+        RedBlackTreeFun<E> lr = l.right;
+        return new RedBlackTreeFun<>(RED, balance(l.left.redden(), l.data, lr.left), lr.data,
+                new RedBlackTreeFun<>(BLACK, lr.right, x, r));
+    }
+
+    /**
+     * Joins two subtrees of the same black height, all elements of l being less than those of r.
+     */
+    private static <E extends Comparable<E>> RedBlackTreeFun<E> fuse(RedBlackTreeFun<E> l, RedBlackTreeFun<E> r) {
+        if (l.isEmpty()) {
+            return r;
+        }
+
+        if (r.isEmpty()) {
+            return l;
+        }
+
+        if (l.isRed() && r.isRed()) {
+            RedBlackTreeFun<E> middle = fuse(l.right, r.left);
+
+            if (middle.isRed()) {
+                return new RedBlackTreeFun<>(RED, new RedBlackTreeFun<>(RED, l.left, l.data, middle.left), middle.data,
+                        new RedBlackTreeFun<>(RED, middle.right, r.data, r.right));
+            }
+            return new RedBlackTreeFun<>(RED, l.left, l.data, new RedBlackTreeFun<>(RED, middle, r.data, r.right));
+        }
+
+        if (!l.isRed() && !r.isRed()) {
+            RedBlackTreeFun<E> middle = fuse(l.right, r.left);
+
+            if (middle.isRed()) {
+                return new RedBlackTreeFun<>(RED, new RedBlackTreeFun<>(BLACK, l.left, l.data, middle.left), middle.data,
+                        new RedBlackTreeFun<>(BLACK, middle.right, r.data, r.right));
+            }
+            return balanceLeft(l.left, l.data, new RedBlackTreeFun<>(BLACK, middle, r.data, r.right));
+        }
+
+        if (r.isRed()) {
+            return new RedBlackTreeFun<>(RED, fuse(l, r.left), r.data, r.right);
+        }
+        return new RedBlackTreeFun<>(RED, l.left, l.data, fuse(l.right, r));
+    }
+
+    @Override
+    public String toString() {
+        return !isEmpty() ? String.format("( %s %s%s %s )", left, isRed() ? "R:" : "B:", data, right) : "";
+    }
+}
@@ -0,0 +1,32 @@
+package com.caparniyazi.ds.lambda;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RedBlackTreeFunApp {
+    public static void main(String[] args) {
+        RedBlackTreeFun<Integer> myTree = RedBlackTreeFun.of(23, 5, 76, 10, 3, 45);
+        System.out.println(myTree);
+        RedBlackTreeFun<Integer> removed = myTree.remove(10);
+        System.out.println(removed);
+        System.out.println("The old version is unchanged: " + myTree);
+
+        System.out.println(removed.contains(45));
+        System.out.println(removed.max());
+
+        // Keep every 100th version of a tree built from sorted input: all of them remain valid and readable.
+        List<RedBlackTreeFun<Integer>> versions = new ArrayList<>();
+        RedBlackTreeFun<Integer> tree = RedBlackTreeFun.empty();
+
+        for (int i = 0; i < 1_000; i++) {
+            if (i % 100 == 0) {
+                versions.add(tree);
+            }
+            tree = tree.add(i);
+        }
+
+        for (RedBlackTreeFun<Integer> version : versions) {
+            System.out.printf("size = %d, black height = %d%n", version.size(), version.blackHeight());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.caparniyazi.ds.lambda;
+
+import com.caparniyazi.ds.tree.RedBlackTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compares the persistent RedBlackTreeFun with the mutable RedBlackTree as a set that is read while it
+ * is being written.
+ * <pre>
+ *     snapshot...   A consistent point-in-time view: a reference to the current version of the persistent
+ *                   tree, versus a copy of the contents of the mutable tree taken under a lock, O(n).
+ *     update...     The cost of path copying: an add() and a remove() that copy O(log n) nodes, versus
+ *                   the in-place updates of the mutable tree.
+ *     persistent    3 threads read the current version without locks while 1 thread publishes new versions
+ *                   through an AtomicReference.
+ *     readWriteLock 3 threads read the mutable tree under the read lock of a ReentrantReadWriteLock
+ *                   while 1 thread updates it under the write lock.
+ * </pre>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.lambda.RedBlackTreeFunBenchmark
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2G", "-Xmx2G"})
+public class RedBlackTreeFunBenchmark {
+    // Data fields
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private final AtomicReference<RedBlackTreeFun<Integer>> current = new AtomicReference<>();
+    private RedBlackTree<Integer> mutable;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        RedBlackTreeFun<Integer> persistent = RedBlackTreeFun.empty();
+        mutable = new RedBlackTree<>();
+
+        for (int i = 0; i < size; i += 2) { // Every other key of [0, size).
+            persistent = persistent.add(i);
+            mutable.add(i);
+        }
+        current.set(persistent);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public RedBlackTreeFun<Integer> snapshotPersistent() {
+        return current.get();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public List<Integer> snapshotCopy() {
+        lock.readLock().lock();
+        try {
+            return mutable.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public RedBlackTreeFun<Integer> updatePersistent() {
+        int key = ThreadLocalRandom.current().nextInt(size);
+        return current.get().add(key).remove(key + 1);  // Versions are discarded: the state stays the same.
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public boolean updateMutable() {
+        int key = 2 * ThreadLocalRandom.current().nextInt(size / 2) + 1;   // Add a missing key and remove it again.
+        mutable.add(key);
+        return mutable.remove(key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("persistent")
+    @GroupThreads(3)
+    public boolean persistentRead() {
+        return current.get().contains(ThreadLocalRandom.current().nextInt(size));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("persistent")
+    @GroupThreads(1)
+    public RedBlackTreeFun<Integer> persistentWrite() {
+        int key = ThreadLocalRandom.current().nextInt(size);
+        return current.updateAndGet(tree -> tree.contains(key) ? tree.remove(key) : tree.add(key));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("readWriteLock")
+    @GroupThreads(3)
+    public boolean lockedRead() {
+        int key = ThreadLocalRandom.current().nextInt(size);
+        lock.readLock().lock();
+        try {
+            return mutable.contains(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("readWriteLock")
+    @GroupThreads(1)
+    public boolean lockedWrite() {
+        int key = ThreadLocalRandom.current().nextInt(size);
+        lock.writeLock().lock();
+        try {
+            return mutable.contains(key) ? mutable.remove(key) : mutable.add(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,99 @@
+package com.caparniyazi.ds.maps;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a hash-flooding attack on HashtableChain.
+ * <p/>
+ * "Aa" and "BB" have the same String.hashCode(), so every string made of n such blocks
+ * has the same hash code, and there are 2^n of them. All the keys therefore land in one bucket.
+ * With list buckets a get() scans the whole chain (O(n)); with tree buckets it searches an AVL tree (O(log n)).
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.maps.CollisionAttackBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 2)
+public class CollisionAttackBenchmark {
+    // Data fields
+    @Param({"256", "1024", "4096"})
+    private int size;
+
+    private String[] keys;  // Keys that all have the same hash code.
+    private HashtableChain<String, Integer> lists;
+    private HashtableChain<String, Integer> trees;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = collidingKeys(size);
+        lists = new HashtableChain<>(RehashMode.IMMEDIATE, false);
+        trees = new HashtableChain<>(RehashMode.IMMEDIATE, true);
+
+        for (int i = 0; i < size; i++) {
+            lists.put(keys[i], i);
+            trees.put(keys[i], i);
+        }
+    }
+
+    /**
+     * Builds the given number of distinct strings with the same hash code.
+     *
+     * @param count The number of keys.
+     * @return The keys.
+     */
+    static String[] collidingKeys(int count) {
+        int blocks = Math.max(1, 32 - Integer.numberOfLeadingZeros(count - 1));
+        String[] result = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < blocks; b++) {
+                sb.append(((i >> b) & 1) == 0 ? "Aa" : "BB");
+            }
+            result[i] = sb.toString();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void listBucketGet(Blackhole bh) {
+        for (String key : keys) {
+            bh.consume(lists.get(key));
+        }
+    }
+
+    @Benchmark
+    public void treeBucketGet(Blackhole bh) {
+        for (String key : keys) {
+            bh.consume(trees.get(key));
+        }
+    }
+
+    @Benchmark
+    public HashtableChain<String, Integer> listBucketPut() {
+        HashtableChain<String, Integer> table = new HashtableChain<>(RehashMode.IMMEDIATE, false);
+        for (String key : keys) {
+            table.put(key, 0);
+        }
+        return table;
+    }
+
+    @Benchmark
+    public HashtableChain<String, Integer> treeBucketPut() {
+        HashtableChain<String, Integer> table = new HashtableChain<>(RehashMode.IMMEDIATE, true);
+        for (String key : keys) {
+            table.put(key, 0);
+        }
+        return table;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
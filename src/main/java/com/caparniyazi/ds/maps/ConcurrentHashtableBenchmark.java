@@ -0,0 +1,78 @@
+package com.caparniyazi.ds.maps;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write throughput of a HashtableChain guarded by one global lock versus
+ * the ConcurrentHashtableChain, with the number of threads doubling from 1 up to the number of cores.
+ * <p/>
+ * Each operation picks a random key from KEY_RANGE; readPercent of the operations are get() calls,
+ * the rest are put() calls.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentHashtableBenchmark {
+    // Data fields
+    private static final int KEY_RANGE = 1_000_000;
+
+    @Param({"90", "50"})
+    private int readPercent;
+
+    private HashtableChain<Integer, Integer> locked;
+    private ConcurrentHashtableChain<Integer, Integer> concurrent;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        locked = new HashtableChain<>();
+        concurrent = new ConcurrentHashtableChain<>();
+
+        for (int i = 0; i < KEY_RANGE; i += 2) {
+            locked.put(i, i);
+            concurrent.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public Integer globalLock() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEY_RANGE);
+
+        synchronized (locked) {
+            if (random.nextInt(100) < readPercent) {
+                return locked.get(key);
+            }
+            return locked.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public Integer bucketLocks() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEY_RANGE);
+
+        if (random.nextInt(100) < readPercent) {
+            return concurrent.get(key);
+        }
+        return concurrent.put(key, key);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(ConcurrentHashtableBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,662 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A thread-safe hash table using chaining.
+ * <p/>
+ * HashtableChain is not thread-safe, and the simplest way to share it is to guard every call
+ * with one global lock. Then only one thread at a time can use the table, even though two threads
+ * working on different buckets never touch the same data.
+ * <p/>
+ * This class locks at the granularity of a single bucket instead (each bucket is its own lock stripe):
+ * <pre>
+ *      - An empty bucket is filled with a compare-and-set (CAS) of its head, no lock is taken.
+ *      - A non-empty bucket is modified while holding the monitor of its first node.
+ *      - get() takes no lock at all: the bucket heads live in an AtomicReferenceArray and the
+ *        value and next fields of a node are volatile, so a reader always sees a consistent chain.
+ *      - The number of keys is kept in a LongAdder, so concurrent insertions do not contend on a counter.
+ *        Summing it walks all its cells, so an insertion only checks the load factor when it makes its chain
+ *        longer than LOAD_THRESHOLD: the load factor cannot exceed LOAD_THRESHOLD while no chain does.
+ * </pre>
+ * <p/>
+ * Rehashing is incremental and cooperative: when the load factor exceeds LOAD_THRESHOLD, a new table
+ * is allocated, and every subsequent put() or remove() moves at most TRANSFER_STRIDE buckets of the old
+ * table into the new one before doing its own work. A moved bucket is replaced by a ForwardingNode that
+ * redirects readers and writers to the new table. Thus no single put() pays for the whole rehash.
+ * <p/>
+ * Like java.util.concurrent.ConcurrentHashMap, this table does not allow null keys or values.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class ConcurrentHashtableChain<K, V> implements KWHashMap<K, V> {
+    // Data fields
+
+    /**
+     * A node of a chain. The key and hash never change; value and next are volatile
+     * so that lock-free readers see the updates made by writers.
+     *
+     * @param <K> Key type
+     * @param <V> Value type
+     */
+    private static class Node<K, V> {
+        // Data fields
+        private final int hash; // The non-negative hash code of the key, or MOVED.
+        private final K key;    // The key
+        private volatile V value;   // The value
+        private volatile Node<K, V> next;   // The next node of the chain.
+
+        public Node(int hash, K key, V value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The state of an ongoing rehash.
+     *
+     * @param <K> Key type
+     * @param <V> Value type
+     */
+    private static class Resize<K, V> {
+        // Data fields
+        private final AtomicReferenceArray<Node<K, V>> oldTable;
+        private final AtomicReferenceArray<Node<K, V>> newTable;
+        // The buckets in [0, transferIndex) have not been claimed by any thread yet.
+        private final AtomicInteger transferIndex;
+        private final AtomicInteger transferred = new AtomicInteger();  // The number of buckets moved.
+
+        public Resize(AtomicReferenceArray<Node<K, V>> oldTable, AtomicReferenceArray<Node<K, V>> newTable) {
+            this.oldTable = oldTable;
+            this.newTable = newTable;
+            transferIndex = new AtomicInteger(oldTable.length());
+        }
+    }
+
+    /**
+     * Placed at the head of a bucket of the old table once the bucket has been moved.
+     *
+     * @param <K> Key type
+     * @param <V> Value type
+     */
+    private static class ForwardingNode<K, V> extends Node<K, V> {
+        private final Resize<K, V> resize;
+
+        public ForwardingNode(Resize<K, V> resize) {
+            super(MOVED, null, null);
+            this.resize = resize;
+        }
+    }
+
+    private static final int MOVED = -1;    // The hash of a ForwardingNode.
+    private static final int CAPACITY = 101;    // The initial capacity of the table.
+    private static final double LOAD_THRESHOLD = 3.0;  // The max. load factor.
+    private static final int TRANSFER_STRIDE = 16;  // The max. number of buckets an operation moves.
+
+    private volatile AtomicReferenceArray<Node<K, V>> table;    // The hash table.
+    private volatile Resize<K, V> resize;   // The ongoing rehash, or null.
+    private final LongAdder numKeys = new LongAdder();  // The number of keys.
+    private final Object resizeLock = new Object(); // Guards the start and the end of a rehash.
+
+    // Constructors
+    public ConcurrentHashtableChain() {
+        table = new AtomicReferenceArray<>(CAPACITY);
+    }
+
+    /**
+     * Returns the value associated with the key without taking any lock.
+     *
+     * @param key The key being sought.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    @Override
+    public V get(Object key) {
+        int hash = hash(key);
+        AtomicReferenceArray<Node<K, V>> tab = table;
+
+        while (true) {
+            Node<K, V> node = tab.get(hash % tab.length());
+
+            if (node instanceof ForwardingNode<K, V> forwardingNode) {
+                // The bucket has been moved, continue in the new table.
+                tab = forwardingNode.resize.newTable;
+                continue;
+            }
+
+            for (; node != null; node = node.next) {
+                if (node.hash == hash && key.equals(node.key)) {
+                    return node.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Inserts the key-value pair, or replaces the value if the key is already in the table.
+     *
+     * @param key   The key of item being inserted.
+     * @param value The value for this key.
+     * @return The old value associated with this key if found; otherwise, null.
+     */
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(value, "Value must not be null");
+        int hash = hash(key);
+        helpResize();
+
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        V oldValue;
+        boolean longChain = false;
+
+        while (true) {
+            int index = hash % tab.length();
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                // Empty bucket: no lock, just CAS the new node in.
+                if (tab.compareAndSet(index, null, new Node<>(hash, key, value))) {
+                    oldValue = null;
+                    break;
+                }
+                continue;
+            }
+
+            if (head instanceof ForwardingNode<K, V> forwardingNode) {
+                tab = forwardingNode.resize.newTable;
+                continue;
+            }
+
+            synchronized (head) {
+                // The head may have been removed or forwarded while we were waiting for the lock.
+                if (tab.get(index) != head) {
+                    continue;
+                }
+                oldValue = putInChain(head, hash, key, value);
+                longChain = oldValue == null && isLongChain(head);
+                break;
+            }
+        }
+
+        if (oldValue == null) {
+            afterInsert(longChain);
+        }
+        return oldValue;
+    }
+
+    /**
+     * Counts a new key and starts a rehash if the load factor exceeds the LOAD_THRESHOLD.
+     *
+     * @param longChain true if the key made its chain longer than LOAD_THRESHOLD; only then is the load checked.
+     */
+    private void afterInsert(boolean longChain) {
+        numKeys.increment();
+
+        if (longChain && resize == null && numKeys.sum() >= LOAD_THRESHOLD * table.length()) {
+            startResize();
+        }
+    }
+
+    /**
+     * Returns the value of the key, computing and inserting it if the key is absent, atomically:
+     * two threads calling computeIfAbsent() for the same absent key end up with the same value.
+     * A non-empty bucket is searched and extended while holding its lock, so the mapping function is
+     * called at most once there. For an empty bucket, the value is computed first and then published
+     * with a CAS; if another thread fills the bucket first, the computed value is discarded and the
+     * search is repeated, so the mapping function may be called more than once for that key.
+     *
+     * @param key             The key.
+     * @param mappingFunction Computes the value of an absent key; it must not modify this table.
+     * @return The existing or computed value, or null if the computed value is null.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        int hash = hash(key);
+        helpResize();
+
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        V value;
+        boolean longChain = false;
+
+        retry:
+        while (true) {
+            int index = hash % tab.length();
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                value = mappingFunction.apply(key);
+
+                if (value == null) {
+                    return null;
+                }
+
+                if (tab.compareAndSet(index, null, new Node<>(hash, key, value))) {
+                    break;
+                }
+                continue;
+            }
+
+            if (head instanceof ForwardingNode<K, V> forwardingNode) {
+                tab = forwardingNode.resize.newTable;
+                continue;
+            }
+
+            synchronized (head) {
+                if (tab.get(index) != head) {
+                    continue;
+                }
+
+                for (Node<K, V> node = head; ; node = node.next) {
+                    if (node.hash == hash && key.equals(node.key)) {
+                        return node.value;
+                    }
+
+                    if (node.next == null) {
+                        value = mappingFunction.apply(key);
+
+                        if (value == null) {
+                            return null;
+                        }
+                        node.next = new Node<>(hash, key, value);
+                        longChain = isLongChain(head);
+                        break retry;
+                    }
+                }
+            }
+        }
+
+        afterInsert(longChain);
+        return value;
+    }
+
+    /**
+     * Inserts the value if the key is absent; otherwise, atomically combines the old and the given value
+     * with the remapping function (and removes the key if the result is null).
+     * The remapping function is called while holding the lock of the bucket.
+     *
+     * @param key               The key.
+     * @param value             The value to insert or to combine with the old value.
+     * @param remappingFunction Combines the old and the given value; it must not modify this table.
+     * @return The new value, or null if the key was removed.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value, "Value must not be null");
+        int hash = hash(key);
+        helpResize();
+
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        boolean longChain = false;
+
+        retry:
+        while (true) {
+            int index = hash % tab.length();
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                if (tab.compareAndSet(index, null, new Node<>(hash, key, value))) {
+                    break;
+                }
+                continue;
+            }
+
+            if (head instanceof ForwardingNode<K, V> forwardingNode) {
+                tab = forwardingNode.resize.newTable;
+                continue;
+            }
+
+            synchronized (head) {
+                if (tab.get(index) != head) {
+                    continue;
+                }
+
+                Node<K, V> pred = null;
+                for (Node<K, V> node = head; node != null; pred = node, node = node.next) {
+                    if (node.hash == hash && key.equals(node.key)) {
+                        V newValue = remappingFunction.apply(node.value, value);
+
+                        if (newValue != null) {
+                            node.value = newValue;
+                        } else {
+                            if (pred == null) {
+                                tab.set(index, node.next);
+                            } else {
+                                pred.next = node.next;
+                            }
+                            numKeys.decrement();
+                        }
+                        return newValue;
+                    }
+                }
+
+                // Assert: pred is the last node of the chain.
+                pred.next = new Node<>(hash, key, value);
+                longChain = isLongChain(head);
+                break retry;
+            }
+        }
+
+        afterInsert(longChain);
+        return value;
+    }
+
+    /**
+     * Performs the action for each key-value pair without taking any lock.
+     * Like the iterators of java.util.concurrent.ConcurrentHashMap, the traversal is weakly consistent:
+     * it may or may not reflect the updates made by other threads while it runs.
+     * During a rehash, the buckets already moved to the new table are visited there, so no key is
+     * visited twice.
+     *
+     * @param action The action.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        AtomicReferenceArray<Node<K, V>> tab = table;
+        BitSet forwarded = null;    // The buckets of tab that had been moved when we visited them.
+
+        for (int i = 0; i < tab.length(); i++) {
+            Node<K, V> node = tab.get(i);
+
+            if (node instanceof ForwardingNode<K, V>) {
+                if (forwarded == null) {
+                    forwarded = new BitSet(tab.length());
+                }
+                forwarded.set(i);
+                continue;
+            }
+
+            for (; node != null; node = node.next) {
+                action.accept(node.key, node.value);
+            }
+        }
+
+        if (forwarded == null) {
+            return;
+        }
+
+        // Visit the keys of the moved buckets in the table they were moved to.
+        Resize<K, V> r = ((ForwardingNode<K, V>) tab.get(forwarded.nextSetBit(0))).resize;
+        AtomicReferenceArray<Node<K, V>> newTable = r.newTable;
+
+        for (int i = 0; i < newTable.length(); i++) {
+            for (Node<K, V> node = newTable.get(i); node != null && !(node instanceof ForwardingNode); node = node.next) {
+                if (forwarded.get(node.hash % tab.length())) {
+                    action.accept(node.key, node.value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the chain has more than LOAD_THRESHOLD nodes; it looks at no more than that.
+     */
+    private static boolean isLongChain(Node<?, ?> head) {
+        int length = 0;
+
+        for (Node<?, ?> node = head; node != null; node = node.next) {
+            if (++length > LOAD_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the value of the key in the chain, or appends a new node to the end of the chain.
+     * Appending (instead of adding first as HashtableChain does) keeps the head, and thus the lock
+     * of the bucket, unchanged.
+     *
+     * @pre The caller holds the monitor of head.
+     */
+    private V putInChain(Node<K, V> head, int hash, K key, V value) {
+        for (Node<K, V> node = head; ; node = node.next) {
+            if (node.hash == hash && key.equals(node.key)) {
+                V oldValue = node.value;
+                node.value = value;
+                return oldValue;
+            }
+
+            if (node.next == null) {
+                node.next = new Node<>(hash, key, value);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Removes the mapping for the key.
+     *
+     * @param key The key of item being deleted.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    @Override
+    public V remove(Object key) {
+        int hash = hash(key);
+        helpResize();
+
+        AtomicReferenceArray<Node<K, V>> tab = table;
+
+        while (true) {
+            int index = hash % tab.length();
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                return null;    // Key is not in the table.
+            }
+
+            if (head instanceof ForwardingNode<K, V> forwardingNode) {
+                tab = forwardingNode.resize.newTable;
+                continue;
+            }
+
+            synchronized (head) {
+                if (tab.get(index) != head) {
+                    continue;
+                }
+
+                Node<K, V> pred = null;
+                for (Node<K, V> node = head; node != null; pred = node, node = node.next) {
+                    if (node.hash == hash && key.equals(node.key)) {
+                        // Unlinking does not change node.next, so a reader standing on node can go on.
+                        if (pred == null) {
+                            tab.set(index, node.next);
+                        } else {
+                            pred.next = node.next;
+                        }
+                        numKeys.decrement();
+                        return node.value;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Allocates the new table, unless another thread has already done so.
+     * Allocating is cheap; the buckets are moved later, a stride at a time.
+     */
+    private void startResize() {
+        synchronized (resizeLock) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+
+            if (resize == null && numKeys.sum() >= LOAD_THRESHOLD * tab.length()) {
+                resize = new Resize<>(tab, new AtomicReferenceArray<>(2 * tab.length() + 1));
+            }
+        }
+        helpResize();
+    }
+
+    /**
+     * If a rehash is in progress, claims and moves at most TRANSFER_STRIDE buckets.
+     * The thread that moves the last bucket installs the new table.
+     */
+    private void helpResize() {
+        Resize<K, V> r = resize;
+
+        if (r == null) {
+            return;
+        }
+
+        int hi;
+        int lo;
+
+        do {
+            hi = r.transferIndex.get();
+
+            if (hi <= 0) {
+                return; // All buckets have been claimed by other threads.
+            }
+            lo = Math.max(0, hi - TRANSFER_STRIDE);
+        } while (!r.transferIndex.compareAndSet(hi, lo));
+
+        ForwardingNode<K, V> forwardingNode = new ForwardingNode<>(r);
+        for (int i = lo; i < hi; i++) {
+            transferBucket(r, i, forwardingNode);
+        }
+
+        if (r.transferred.addAndGet(hi - lo) == r.oldTable.length()) {
+            synchronized (resizeLock) {
+                table = r.newTable;
+                resize = null;
+            }
+        }
+    }
+
+    /**
+     * Copies the nodes of one bucket of the old table into the new table and forwards the bucket.
+     * The nodes are copied rather than relinked, so lock-free readers still traversing the old chain
+     * are not affected.
+     */
+    private void transferBucket(Resize<K, V> r, int index, ForwardingNode<K, V> forwardingNode) {
+        AtomicReferenceArray<Node<K, V>> oldTable = r.oldTable;
+
+        while (true) {
+            Node<K, V> head = oldTable.get(index);
+
+            if (head == null) {
+                if (oldTable.compareAndSet(index, null, forwardingNode)) {
+                    return;
+                }
+                continue;
+            }
+
+            synchronized (head) {
+                if (oldTable.get(index) != head) {
+                    continue;
+                }
+
+                for (Node<K, V> node = head; node != null; node = node.next) {
+                    insertIntoNewTable(r.newTable, node.hash, node.key, node.value);
+                }
+                oldTable.set(index, forwardingNode);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Inserts a key that is known not to be in the new table yet.
+     * Other threads may be writing to the same bucket of the new table, so the same
+     * CAS-or-lock protocol as in put() is used.
+     */
+    private void insertIntoNewTable(AtomicReferenceArray<Node<K, V>> tab, int hash, K key, V value) {
+        int index = hash % tab.length();
+
+        while (true) {
+            Node<K, V> head = tab.get(index);
+
+            if (head == null) {
+                if (tab.compareAndSet(index, null, new Node<>(hash, key, value))) {
+                    return;
+                }
+                continue;
+            }
+
+            synchronized (head) {
+                if (tab.get(index) == head) {
+                    putInChain(head, hash, key, value);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a non-negative hash code of the key.
+     * Negative hash codes are reserved for ForwardingNodes.
+     */
+    private static int hash(Object key) {
+        Objects.requireNonNull(key, "Key must not be null");
+        return key.hashCode() & 0x7FFFFFFF;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return numKeys.sum() <= 0;
+    }
+
+    /**
+     * Returns the number of keys. The result is exact only when no other thread is modifying the table.
+     *
+     * @return The size.
+     */
+    @Override
+    public int size() {
+        long n = numKeys.sum();
+        return n < 0 ? 0 : (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a string representation of the table. It is not a consistent snapshot
+     * if other threads are modifying the table.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        boolean first = true;
+        AtomicReferenceArray<Node<K, V>> tab = table;
+
+        for (int i = 0; i < tab.length(); i++) {
+            Node<K, V> node = tab.get(i);
+
+            if (node instanceof ForwardingNode<K, V>) {
+                continue;   // The keys of this bucket are listed from the new table below.
+            }
+
+            for (; node != null; node = node.next) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(node.key).append("=").append(node.value);
+                first = false;
+            }
+        }
+
+        Resize<K, V> r = resize;
+        if (r != null && r.oldTable == tab) {
+            for (int i = 0; i < r.newTable.length(); i++) {
+                for (Node<K, V> node = r.newTable.get(i); node != null; node = node.next) {
+                    if (!first) {
+                        sb.append(", ");
+                    }
+                    sb.append(node.key).append("=").append(node.value);
+                    first = false;
+                }
+            }
+        }
+
+        sb.append("}");
+        return sb.toString();
+    }
+}
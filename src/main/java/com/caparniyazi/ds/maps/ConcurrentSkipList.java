@@ -0,0 +1,554 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, thread-safe skip-list with ordered range queries.
+ * <p/>
+ * SkipList is not thread-safe: put() splices a node into several lists one level at a time,
+ * so a concurrent reader may see a half-linked node, and two concurrent writers may lose an update.
+ * It also draws every level from one shared Random, which becomes a point of contention once
+ * several threads insert at the same time.
+ * <p/>
+ * This class keeps the same level structure (a node of level m is a member of the lists 0 .. m-1)
+ * but replaces every link by an AtomicMarkableReference, i.e., a reference and a boolean mark that are
+ * read and compare-and-set (CAS) together:
+ * <pre>
+ *      - Insertion links a new node into the level 0 list with one CAS; this is the moment the key
+ *        becomes part of the map. The upper levels are linked afterwards; they only make searches faster.
+ *      - Removal first sets the value of the node to null with a CAS (the moment the key leaves the map,
+ *        exactly one remover wins), then marks the links of the node from the top level down.
+ *        A marked link means "the node owning this link is being removed", so no new node can be
+ *        linked after it.
+ *      - Every search that meets a marked node unlinks it from its list (it helps the remover),
+ *        so nodes are physically removed lazily by whichever thread gets there first.
+ *      - get(), floor/ceiling lookups and the range iterators never write, they skip removed nodes.
+ * </pre>
+ * No thread ever holds a lock, so a thread that is suspended in the middle of an operation
+ * cannot block the others.
+ * <p/>
+ * The level of a new node is drawn from ThreadLocalRandom: 1/2 of the nodes are of level 1, 1/4 of level 2, etc.
+ * Since the size of the list is not known in advance (and changes concurrently), the head has
+ * MAX_LEVEL links rather than growing with maxCap as in SkipList.
+ * <p/>
+ * entriesInRange(), entriesTo() and entriesFrom() iterate over a range of keys; unlike subMap(), headMap() and
+ * tailMap() of a NavigableMap, they return no map views. Their iterators are weakly consistent (like those of
+ * java.util.concurrent.ConcurrentSkipListMap): they walk the level 0 list lazily, never throw
+ * ConcurrentModificationException, and reflect some of the updates made after they were created.
+ * <p/>
+ * Null keys and null values are not allowed, since a null value marks a removed node.
+ *
+ * @param <K> Type of key
+ * @param <V> Type of value
+ */
+public class ConcurrentSkipList<K extends Comparable<K>, V> implements Iterable<Map.Entry<K, V>> {
+    // Data fields
+
+    /**
+     * A node of the skip-list. links[i] is the link of the node in the level i list.
+     *
+     * @param <K> Type of key.
+     * @param <V> Type of value.
+     */
+    private static class SLNode<K, V> {
+        private final K key;    // The key, null for the head.
+        private final AtomicReference<V> value; // The value, null once the node has been removed.
+        private final AtomicMarkableReference<SLNode<K, V>>[] links;
+
+        // Create a node of level m.
+        @SuppressWarnings("unchecked")
+        public SLNode(int m, K key, V value) {
+            this.key = key;
+            this.value = new AtomicReference<>(value);
+            links = (AtomicMarkableReference<SLNode<K, V>>[]) new AtomicMarkableReference[m];
+
+            for (int i = 0; i < m; i++) {
+                links[i] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+    }
+
+    private static final int MAX_LEVEL = 32;    // Enough for 2^32 keys.
+    private final SLNode<K, V> head = new SLNode<>(MAX_LEVEL, null, null);  // Dummy(sentinel) node.
+    private final LongAdder size = new LongAdder(); // The current size of the skip-list.
+
+    /**
+     * Searches for the key and unlinks the marked nodes met on the way.
+     * On return, preds[i] is the last node of the level i list whose key is less than the key,
+     * and succs[i] is the node after preds[i] (null at the end of the list).
+     *
+     * @param key   The key being sought.
+     * @param preds The predecessors at each level (output).
+     * @param succs The successors at each level (output).
+     * @return true if succs[0] contains the key.
+     */
+    private boolean find(K key, SLNode<K, V>[] preds, SLNode<K, V>[] succs) {
+        boolean[] marked = {false};
+
+        retry:
+        while (true) {
+            SLNode<K, V> pred = head;
+
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                SLNode<K, V> curr = pred.links[level].getReference();
+
+                while (curr != null) {
+                    SLNode<K, V> succ = curr.links[level].get(marked);
+
+                    if (marked[0]) {
+                        // curr is being removed, unlink it; if pred changed meanwhile, start over.
+                        if (!pred.links[level].compareAndSet(curr, succ, false, false)) {
+                            continue retry;
+                        }
+                        curr = succ;
+                    } else if (curr.key.compareTo(key) < 0) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return succs[0] != null && succs[0].key.compareTo(key) == 0;
+        }
+    }
+
+    /**
+     * Retrieves the value of the key. No lock is taken and no link is changed.
+     *
+     * @param key The key of the item being sought.
+     * @return The value of the key if found; otherwise, null.
+     */
+    public V get(K key) {
+        Objects.requireNonNull(key, "Key must not be null");
+        SLNode<K, V> node = ceilingNode(key, true);
+
+        if (node != null && node.key.compareTo(key) == 0) {
+            return node.value.get();
+        }
+        return null;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Inserts an item in the skip-list. If the key is found in the skip-list, change its value.
+     *
+     * @param key   The key.
+     * @param value The value for the key.
+     * @return old value if key found; else, return null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "Key must not be null");
+        Objects.requireNonNull(value, "Value must not be null");
+        var preds = (SLNode<K, V>[]) new SLNode[MAX_LEVEL];
+        var succs = (SLNode<K, V>[]) new SLNode[MAX_LEVEL];
+        int levelNewNode = randomLevel();
+
+        while (true) {
+            if (find(key, preds, succs)) {
+                SLNode<K, V> node = succs[0];
+                V oldValue = node.value.get();
+
+                if (oldValue != null && node.value.compareAndSet(oldValue, value)) {
+                    return oldValue;    // Replaced the value of a live node.
+                }
+
+                if (oldValue == null) {
+                    // The node is being removed; help the remover, then retry.
+                    markLinks(node);
+                }
+                continue;
+            }
+
+            // The key is not in the list, link a new node into the level 0 list first.
+            SLNode<K, V> newNode = new SLNode<>(levelNewNode, key, value);
+            for (int i = 0; i < levelNewNode; i++) {
+                newNode.links[i].set(succs[i], false);
+            }
+
+            if (!preds[0].links[0].compareAndSet(succs[0], newNode, false, false)) {
+                continue;   // preds[0] changed, search again.
+            }
+            size.increment();
+
+            // Then link the upper levels; they are only shortcuts for the searches.
+            for (int level = 1; level < levelNewNode; level++) {
+                while (true) {
+                    SLNode<K, V> succ = succs[level];
+                    SLNode<K, V> next = newNode.links[level].getReference();
+
+                    // If the new node has been marked for removal meanwhile, stop linking it.
+                    if (newNode.links[level].isMarked()) {
+                        return null;
+                    }
+
+                    if (next != succ && !newNode.links[level].compareAndSet(next, succ, false, false)) {
+                        return null;
+                    }
+
+                    if (preds[level].links[level].compareAndSet(succ, newNode, false, false)) {
+                        break;
+                    }
+
+                    find(key, preds, succs);
+                    if (succs[0] != newNode) {
+                        return null;    // The new node has already been removed.
+                    }
+                }
+            }
+            return null;    // New node inserted.
+        }
+    }
+
+    /**
+     * Removes the key from the skip-list.
+     *
+     * @param key The key of the item being deleted.
+     * @return The value of the key if found; otherwise, null.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        Objects.requireNonNull(key, "Key must not be null");
+        var preds = (SLNode<K, V>[]) new SLNode[MAX_LEVEL];
+        var succs = (SLNode<K, V>[]) new SLNode[MAX_LEVEL];
+
+        while (true) {
+            if (!find(key, preds, succs)) {
+                return null;
+            }
+
+            SLNode<K, V> node = succs[0];
+            V oldValue = node.value.get();
+
+            if (oldValue == null) {
+                // Another thread is removing this node; help it and search again.
+                markLinks(node);
+                continue;
+            }
+
+            if (node.value.compareAndSet(oldValue, null)) {
+                // This thread won: the key is no longer in the map.
+                size.decrement();
+                markLinks(node);
+                find(key, preds, succs);    // Unlink the node from every list.
+                return oldValue;
+            }
+        }
+    }
+
+    /**
+     * Marks all links of a node from the top level down, so that no node can be linked after it.
+     *
+     * @param node The node being removed.
+     */
+    private void markLinks(SLNode<K, V> node) {
+        for (int level = node.links.length - 1; level >= 0; level--) {
+            AtomicMarkableReference<SLNode<K, V>> link = node.links[level];
+            SLNode<K, V> succ = link.getReference();
+
+            while (!link.isMarked()) {
+                link.attemptMark(succ, true);
+                succ = link.getReference();
+            }
+        }
+    }
+
+    /**
+     * Returns the first live node whose key is greater than (or equal to, if inclusive) the key.
+     *
+     * @param key       The key.
+     * @param inclusive true to accept a node with the key itself.
+     * @return The node, or null if there is none.
+     */
+    private SLNode<K, V> ceilingNode(K key, boolean inclusive) {
+        SLNode<K, V> pred = head;
+        SLNode<K, V> curr = null;
+
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            curr = pred.links[level].getReference();
+
+            while (curr != null && (inclusive ? curr.key.compareTo(key) < 0 : curr.key.compareTo(key) <= 0)) {
+                pred = curr;
+                curr = curr.links[level].getReference();
+            }
+        }
+
+        // curr is the first node at level 0 that is not below the key; skip the removed ones.
+        while (curr != null && curr.value.get() == null) {
+            curr = curr.links[0].getReference();
+        }
+        return curr;
+    }
+
+    /**
+     * Returns the last live node whose key is less than (or equal to, if inclusive) the key.
+     *
+     * @param key       The key.
+     * @param inclusive true to accept a node with the key itself.
+     * @return The node, or null if there is none.
+     */
+    private SLNode<K, V> floorNode(K key, boolean inclusive) {
+        while (true) {
+            SLNode<K, V> pred = head;
+
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                SLNode<K, V> curr = pred.links[level].getReference();
+
+                while (curr != null && (inclusive ? curr.key.compareTo(key) <= 0 : curr.key.compareTo(key) < 0)) {
+                    pred = curr;
+                    curr = curr.links[level].getReference();
+                }
+            }
+
+            if (pred == head) {
+                return null;
+            }
+
+            if (pred.value.get() != null) {
+                return pred;
+            }
+            // pred has been removed, look for the last node below it.
+            key = pred.key;
+            inclusive = false;
+        }
+    }
+
+    /**
+     * Returns the greatest key less than or equal to the given key.
+     *
+     * @param key The key.
+     * @return The floor key, or null if there is none.
+     */
+    public K floorKey(K key) {
+        SLNode<K, V> node = floorNode(Objects.requireNonNull(key), true);
+        return node == null ? null : node.key;
+    }
+
+    /**
+     * Returns the least key greater than or equal to the given key.
+     *
+     * @param key The key.
+     * @return The ceiling key, or null if there is none.
+     */
+    public K ceilingKey(K key) {
+        SLNode<K, V> node = ceilingNode(Objects.requireNonNull(key), true);
+        return node == null ? null : node.key;
+    }
+
+    /**
+     * Returns a snapshot of the entry with the greatest key less than or equal to the given key.
+     *
+     * @param key The key.
+     * @return The floor entry, or null if there is none.
+     */
+    public Map.Entry<K, V> floorEntry(K key) {
+        while (true) {
+            SLNode<K, V> node = floorNode(Objects.requireNonNull(key), true);
+            if (node == null) {
+                return null;
+            }
+
+            Map.Entry<K, V> entry = snapshot(node);
+            if (entry != null) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the entry with the least key greater than or equal to the given key.
+     *
+     * @param key The key.
+     * @return The ceiling entry, or null if there is none.
+     */
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        while (true) {
+            SLNode<K, V> node = ceilingNode(Objects.requireNonNull(key), true);
+            if (node == null) {
+                return null;
+            }
+
+            Map.Entry<K, V> entry = snapshot(node);
+            if (entry != null) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Returns an immutable copy of the key-value pair of a node.
+     *
+     * @param node The node.
+     * @return The entry, or null if the node was removed meanwhile.
+     */
+    private Map.Entry<K, V> snapshot(SLNode<K, V> node) {
+        V value = node.value.get();
+        return value == null ? null : new AbstractMap.SimpleImmutableEntry<>(node.key, value);
+    }
+
+    /**
+     * Returns the entries whose keys are in the range fromKey .. toKey, in increasing order by key.
+     *
+     * @param fromKey       The low end of the range.
+     * @param fromInclusive true if fromKey is part of the range.
+     * @param toKey         The high end of the range.
+     * @param toInclusive   true if toKey is part of the range.
+     * @return The entries of the range.
+     */
+    public Iterable<Map.Entry<K, V>> entriesInRange(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        Objects.requireNonNull(fromKey, "From key must not be null");
+        Objects.requireNonNull(toKey, "To key must not be null");
+
+        if (fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("From key is greater than to key: " + fromKey + " > " + toKey);
+        }
+        return () -> new RangeIterator(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    /**
+     * Returns the entries whose keys are less than (or equal to, if inclusive) toKey.
+     *
+     * @param toKey     The high end of the range.
+     * @param inclusive true if toKey is part of the range.
+     * @return The entries of the range.
+     */
+    public Iterable<Map.Entry<K, V>> entriesTo(K toKey, boolean inclusive) {
+        Objects.requireNonNull(toKey, "To key must not be null");
+        return () -> new RangeIterator(null, false, toKey, inclusive);
+    }
+
+    /**
+     * Returns the entries whose keys are greater than (or equal to, if inclusive) fromKey.
+     *
+     * @param fromKey   The low end of the range.
+     * @param inclusive true if fromKey is part of the range.
+     * @return The entries of the range.
+     */
+    public Iterable<Map.Entry<K, V>> entriesFrom(K fromKey, boolean inclusive) {
+        Objects.requireNonNull(fromKey, "From key must not be null");
+        return () -> new RangeIterator(fromKey, inclusive, null, false);
+    }
+
+    /**
+     * Returns an iterator over all entries, in increasing order by key.
+     *
+     * @return The iterator.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new RangeIterator(null, false, null, false);
+    }
+
+    /**
+     * A weakly consistent iterator that walks the level 0 list from the first node of the range
+     * and stops at the first node beyond its end.
+     */
+    private class RangeIterator implements Iterator<Map.Entry<K, V>> {
+        // Data fields
+        private final K toKey;  // The high end of the range, or null if unbounded.
+        private final boolean toInclusive;
+        private SLNode<K, V> current;   // The node whose entry is returned next, or null.
+        private Map.Entry<K, V> nextEntry;  // The entry returned next, or null at the end.
+
+        public RangeIterator(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            this.toKey = toKey;
+            this.toInclusive = toInclusive;
+            current = fromKey == null ? head.links[0].getReference() : ceilingNode(fromKey, fromInclusive);
+            advance();
+        }
+
+        /**
+         * Moves current to the next live node of the range and takes a snapshot of its entry.
+         */
+        private void advance() {
+            nextEntry = null;
+
+            while (current != null) {
+                if (toKey != null) {
+                    int cmp = current.key.compareTo(toKey);
+                    if (cmp > 0 || (cmp == 0 && !toInclusive)) {
+                        current = null; // Beyond the range.
+                        return;
+                    }
+                }
+
+                nextEntry = snapshot(current);
+                if (nextEntry != null) {
+                    return;
+                }
+                current = current.links[0].getReference();  // Skip a removed node.
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextEntry != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (nextEntry == null) {
+                throw new NoSuchElementException();
+            }
+
+            Map.Entry<K, V> result = nextEntry;
+            current = current.links[0].getReference();
+            advance();
+            return result;
+        }
+    }
+
+    /**
+     * Generates a level between 1 and MAX_LEVEL with a geometric distribution,
+     * i.e., 1/2 of the values returned are 1, 1/4 are 2, 1/8 are 3, etc.
+     * Each thread uses its own random number generator, so insertions do not contend here.
+     *
+     * @return The level of a new node.
+     */
+    private static int randomLevel() {
+        // The number of trailing 1 bits of a random int is geometrically distributed.
+        int level = Integer.numberOfTrailingZeros(~ThreadLocalRandom.current().nextInt()) + 1;
+        return Math.min(level, MAX_LEVEL);
+    }
+
+    /**
+     * Returns the number of keys. The result is exact only when no update is in progress.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return size.intValue();
+    }
+
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+    /**
+     * Return a simple string representation (level 0 traversal).
+     */
+    @Override
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "{", "}");
+
+        for (Map.Entry<K, V> entry : this) {
+            sj.add(entry.getKey() + "=" + entry.getValue());
+        }
+        return sj.toString();
+    }
+}
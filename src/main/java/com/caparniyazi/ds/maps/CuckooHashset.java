@@ -0,0 +1,78 @@
+package com.caparniyazi.ds.maps;
+
+/**
+ * A hash set using bucketized cuckoo hashing.
+ * An adapter class with a CuckooHashtable<K, Boolean> data field.
+ * <p/>
+ * Unlike HashsetOpen, which stores every key twice (as the key and as the value),
+ * every value here references the same Boolean.TRUE object.
+ * A membership test examines at most two buckets and the stash, no matter how full the table is.
+ *
+ * @param <K> The key type.
+ */
+public class CuckooHashset<K> {
+    // Data fields
+    private final CuckooHashtable<K, Boolean> setMap;
+
+    // Constructors
+    public CuckooHashset() {
+        setMap = new CuckooHashtable<>();
+    }
+
+    /**
+     * Creates a set large enough to hold the expected number of keys without rehashing.
+     *
+     * @param expectedKeys The number of keys expected to be stored.
+     */
+    public CuckooHashset(int expectedKeys) {
+        setMap = new CuckooHashtable<>(expectedKeys);
+    }
+
+    /**
+     * The adapter method, contains().
+     *
+     * @param key The key
+     * @return true if the key is found, false otherwise.
+     */
+    public boolean containsKey(K key) {
+        return setMap.containsKey(key);
+    }
+
+    /**
+     * The adapter method, add().
+     *
+     * @param key The key.
+     * @return true if the key is not a duplicate.
+     */
+    public boolean add(K key) {
+        // CuckooHashtable.put() returns null if the key is not a duplicate.
+        return setMap.put(key, Boolean.TRUE) == null;
+    }
+
+    /**
+     * The adapter method, remove().
+     *
+     * @param key The key.
+     * @return true if the key is found and removed.
+     */
+    public boolean remove(K key) {
+        return setMap.remove(key) != null;
+    }
+
+    public int size() {
+        return setMap.size();
+    }
+
+    public boolean isEmpty() {
+        return setMap.isEmpty();
+    }
+
+    /**
+     * Returns the fraction of the slots that are occupied.
+     *
+     * @return The load factor.
+     */
+    public double getLoadFactor() {
+        return setMap.getLoadFactor();
+    }
+}
@@ -0,0 +1,489 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash table implementation using bucketized cuckoo hashing.
+ * <p/>
+ * In open addressing with linear probing, the search for a key follows a probe chain whose length
+ * grows quickly with the load factor, so HashtableOpen keeps its load factor below 0.75 and the
+ * worst-case search is O(n).
+ * <p/>
+ * Cuckoo hashing gives every key exactly two candidate buckets, computed by two independent
+ * hash functions, and keeps the key in one of them:
+ * <pre>
+ *      bucket1 = h1(key)   bucket2 = h2(key)
+ * </pre>
+ * Each bucket has SLOTS (4) slots, laid out next to each other in the arrays, so a bucket is
+ * usually a single cache line. A search examines at most 2 * SLOTS slots plus a tiny stash,
+ * hence the worst-case search is O(1), whether the key is present or not.
+ * <p/>
+ * Insertion places the key in a free slot of one of its buckets. If both buckets are full,
+ * the new key evicts (kicks out) a random key of one bucket, like a cuckoo chick pushing an egg out of the nest.
+ * The evicted key moves to its alternative bucket, possibly evicting another key, and so on.
+ * With two hash functions and 4-slot buckets, the eviction chain almost always ends quickly even
+ * at a load factor of 0.95.
+ * If it does not end within MAX_KICKS evictions, the homeless key is put in the stash,
+ * a small array that every search also examines. Only when the stash is full is the table expanded.
+ * <p/>
+ * Since every key is in one of two known buckets, removal just empties the slot:
+ * no DELETED marker is needed.
+ * <p/>
+ * The O(1) worst case assumes that hashCode() spreads the keys: keys with equal hash codes share
+ * both buckets, and when there are more of them than the buckets can hold, the surplus goes to the stash,
+ * which then grows instead of the table.
+ * <p/>
+ * Null keys are not allowed (a null key marks an empty slot).
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class CuckooHashtable<K, V> implements KWHashMap<K, V> {
+    // Data fields
+    private static final int SLOTS = 4; // The number of slots per bucket.
+    private static final int START_BUCKETS = 32;    // Must be a power of 2.
+    private static final double LOAD_THRESHOLD = 0.95; // The max. load factor.
+    private static final int MAX_KICKS = 500;   // The max. length of an eviction chain.
+    private static final int STASH_SIZE = 4;    // The capacity of the stash.
+
+    private Object[] keys;  // keys[b * SLOTS + i] is slot i of bucket b, null if empty.
+    private Object[] values;    // values[j] belongs to keys[j].
+    private int[] hashes;   // hashes[j] is the hash code of keys[j], cached for the evictions.
+    private int bucketBits; // The number of buckets is 2^bucketBits.
+    private int numKeys;    // The number of keys, including the stash.
+
+    private Object[] stashKeys = new Object[STASH_SIZE];
+    private Object[] stashValues = new Object[STASH_SIZE];
+    private int[] stashHashes = new int[STASH_SIZE];
+    private int stashCount; // The number of keys in the stash.
+
+    // A key that did not fit anywhere; it is reinserted by the rehash that follows.
+    private Object pendingKey;
+    private Object pendingValue;
+    private int pendingHash;
+
+    private final Random random = new Random(); // Chooses the key to evict.
+
+    // Constructors
+    public CuckooHashtable() {
+        this(0);
+    }
+
+    /**
+     * Creates a table large enough to hold the expected number of keys without rehashing.
+     *
+     * @param expectedKeys The number of keys expected to be stored.
+     */
+    public CuckooHashtable(int expectedKeys) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("Expected number of keys must not be negative: " + expectedKeys);
+        }
+
+        int buckets = START_BUCKETS;
+        while (buckets * SLOTS * LOAD_THRESHOLD < expectedKeys) {
+            buckets *= 2;
+        }
+        allocate(buckets);
+    }
+
+    /**
+     * Allocates empty arrays for the given number of buckets.
+     *
+     * @param buckets The number of buckets, a power of 2.
+     */
+    private void allocate(int buckets) {
+        bucketBits = Integer.numberOfTrailingZeros(buckets);
+        keys = new Object[buckets * SLOTS];
+        values = new Object[buckets * SLOTS];
+        hashes = new int[buckets * SLOTS];
+    }
+
+    /**
+     * The first hash function: a multiplicative (Fibonacci) hash of the hash code.
+     * The high bits of the product are the best mixed, so they select the bucket.
+     *
+     * @param hash The hash code of the key.
+     * @return The index of the first bucket of the key.
+     */
+    private int bucket1(int hash) {
+        return (hash * 0x9E3779B9) >>> (32 - bucketBits);
+    }
+
+    /**
+     * The second hash function: the hash code is scrambled by a different multiplier
+     * and rotation, so that keys sharing their first bucket are spread over different second buckets.
+     *
+     * @param hash The hash code of the key.
+     * @return The index of the second bucket of the key.
+     */
+    private int bucket2(int hash) {
+        return (Integer.rotateLeft(hash * 0x85EBCA6B, 13) * 0xC2B2AE35) >>> (32 - bucketBits);
+    }
+
+    /**
+     * Finds the slot that contains the key.
+     *
+     * @param key  The key being sought.
+     * @param hash The hash code of the key.
+     * @return The index of the slot, or -1 if the key is not in the buckets (it may be in the stash).
+     */
+    private int find(Object key, int hash) {
+        int first = bucket1(hash) * SLOTS;
+
+        for (int j = first; j < first + SLOTS; j++) {
+            if (hashes[j] == hash && key.equals(keys[j])) {
+                return j;
+            }
+        }
+
+        int second = bucket2(hash) * SLOTS;
+
+        for (int j = second; j < second + SLOTS; j++) {
+            if (hashes[j] == hash && key.equals(keys[j])) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the key in the stash.
+     *
+     * @param key  The key being sought.
+     * @param hash The hash code of the key.
+     * @return The index in the stash, or -1 if the key is not in the stash.
+     */
+    private int findInStash(Object key, int hash) {
+        for (int i = 0; i < stashCount; i++) {
+            if (stashHashes[i] == hash && key.equals(stashKeys[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value associated with the key.
+     * At most 2 * SLOTS slots and the stash are examined.
+     *
+     * @param key The key being sought.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int hash = key.hashCode();
+        int index = find(key, hash);
+
+        if (index >= 0) {
+            return (V) values[index];
+        }
+
+        index = findInStash(key, hash);
+        return index >= 0 ? (V) stashValues[index] : null;
+    }
+
+    /**
+     * Returns true if the key is in the table.
+     *
+     * @param key The key being sought.
+     * @return true if the key is found.
+     */
+    public boolean containsKey(Object key) {
+        int hash = key.hashCode();
+        return find(key, hash) >= 0 || findInStash(key, hash) >= 0;
+    }
+
+    /**
+     * Inserts the key-value pair, or replaces the value if the key is already in the table.
+     *
+     * @param key   The key of item being inserted.
+     * @param value The value for this key.
+     * @return Old value associated with this key if found; otherwise, null.
+     * @post If the LOAD_THRESHOLD is exceeded or the stash overflows, the table is expanded.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Key must not be null");
+        }
+
+        int hash = key.hashCode();
+        int index = find(key, hash);
+
+        if (index >= 0) {
+            V oldValue = (V) values[index];
+            values[index] = value;
+            return oldValue;
+        }
+
+        index = findInStash(key, hash);
+
+        if (index >= 0) {
+            V oldValue = (V) stashValues[index];
+            stashValues[index] = value;
+            return oldValue;
+        }
+
+        // Assert: The key is not in the table.
+        if (numKeys + 1 > LOAD_THRESHOLD * keys.length) {
+            rehash();
+        }
+
+        insert(key, value, hash);
+        numKeys++;
+        return null;
+    }
+
+    /**
+     * Inserts a key that is known not to be in the table, expanding the table if it does not fit.
+     * When place() fails, the key itself may have been stored and an evicted key is homeless instead,
+     * so the homeless (pending) key, not the argument, is the one that the rehash reinserts.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @param hash  The hash code of the key.
+     */
+    private void insert(Object key, Object value, int hash) {
+        if (!place(key, value, hash)) {
+            rehash();
+        }
+    }
+
+    /**
+     * Places a key that is known not to be in the table, evicting keys if needed.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @param hash  The hash code of the key.
+     * @return false if neither the buckets nor the stash had room for the last evicted key.
+     */
+    private boolean place(Object key, Object value, int hash) {
+        if (placeInBucket(bucket1(hash), key, value, hash)) {
+            return true;
+        }
+
+        int bucket = bucket2(hash);
+
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            if (placeInBucket(bucket, key, value, hash)) {
+                return true;
+            }
+
+            // Both buckets are full: swap the homeless key with a random key of the bucket.
+            int victim = bucket * SLOTS + random.nextInt(SLOTS);
+            Object victimKey = keys[victim];
+            Object victimValue = values[victim];
+            int victimHash = hashes[victim];
+            keys[victim] = key;
+            values[victim] = value;
+            hashes[victim] = hash;
+
+            // The evicted key is now homeless; its only other choice is its alternative bucket.
+            key = victimKey;
+            value = victimValue;
+            hash = victimHash;
+            int b1 = bucket1(hash);
+            bucket = (b1 == bucket) ? bucket2(hash) : b1;
+        }
+
+        // The eviction chain is too long (probably a cycle), keep the homeless key in the stash.
+        if (stashCount == stashKeys.length && numKeys < keys.length / 2) {
+            /*
+             The table is less than half full, so a larger table would not help: many keys have the
+             same hash code (and hence the same two buckets). Only a larger stash can hold them.
+             */
+            stashKeys = Arrays.copyOf(stashKeys, 2 * stashKeys.length);
+            stashValues = Arrays.copyOf(stashValues, 2 * stashValues.length);
+            stashHashes = Arrays.copyOf(stashHashes, 2 * stashHashes.length);
+        }
+
+        if (stashCount < stashKeys.length) {
+            stashKeys[stashCount] = key;
+            stashValues[stashCount] = value;
+            stashHashes[stashCount] = hash;
+            stashCount++;
+            return true;
+        }
+
+        // No room left: remember the homeless key, the caller expands the table and reinserts it.
+        pendingKey = key;
+        pendingValue = value;
+        pendingHash = hash;
+        return false;
+    }
+
+    /**
+     * Places the key in a free slot of the bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @param key    The key.
+     * @param value  The value.
+     * @param hash   The hash code of the key.
+     * @return true if the bucket had a free slot.
+     */
+    private boolean placeInBucket(int bucket, Object key, Object value, int hash) {
+        int first = bucket * SLOTS;
+
+        for (int j = first; j < first + SLOTS; j++) {
+            if (keys[j] == null) {
+                keys[j] = key;
+                values[j] = value;
+                hashes[j] = hash;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the key by emptying its slot.
+     *
+     * @param key The key of item being deleted.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int hash = key.hashCode();
+        int index = find(key, hash);
+
+        if (index >= 0) {
+            V oldValue = (V) values[index];
+            keys[index] = null;
+            values[index] = null;
+            hashes[index] = 0;
+            numKeys--;
+            return oldValue;
+        }
+
+        index = findInStash(key, hash);
+
+        if (index >= 0) {
+            V oldValue = (V) stashValues[index];
+            // Move the last key of the stash into the hole.
+            stashCount--;
+            stashKeys[index] = stashKeys[stashCount];
+            stashValues[index] = stashValues[stashCount];
+            stashHashes[index] = stashHashes[stashCount];
+            stashKeys[stashCount] = null;
+            stashValues[stashCount] = null;
+            numKeys--;
+            return oldValue;
+        }
+        return null;
+    }
+
+    /**
+     * Expands(doubles) the number of buckets and reinserts every key, including the stash.
+     */
+    private void rehash() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        Object[] oldStashKeys = stashKeys;
+        Object[] oldStashValues = stashValues;
+        int[] oldStashHashes = stashHashes;
+        int oldStashCount = stashCount;
+        Object homelessKey = pendingKey;
+        Object homelessValue = pendingValue;
+        int homelessHash = pendingHash;
+
+        pendingKey = null;
+        pendingValue = null;
+        stashCount = 0;
+        stashKeys = new Object[STASH_SIZE];
+        stashValues = new Object[STASH_SIZE];
+        stashHashes = new int[STASH_SIZE];
+        allocate(2 * (oldKeys.length / SLOTS));
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null) {
+                insert(oldKeys[j], oldValues[j], oldHashes[j]);
+            }
+        }
+
+        for (int i = 0; i < oldStashCount; i++) {
+            insert(oldStashKeys[i], oldStashValues[i], oldStashHashes[i]);
+        }
+
+        if (homelessKey != null) {
+            insert(homelessKey, homelessValue, homelessHash);
+        }
+    }
+
+    /**
+     * Performs the action for each key-value pair, bucket by bucket, then for the stash.
+     *
+     * @param action The action; it must not modify this table.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int j = 0; j < keys.length; j++) {
+            if (keys[j] != null) {
+                action.accept((K) keys[j], (V) values[j]);
+            }
+        }
+
+        for (int i = 0; i < stashCount; i++) {
+            action.accept((K) stashKeys[i], (V) stashValues[i]);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return numKeys == 0;
+    }
+
+    @Override
+    public int size() {
+        return numKeys;
+    }
+
+    /**
+     * Returns the fraction of the slots that are occupied.
+     *
+     * @return The load factor.
+     */
+    public double getLoadFactor() {
+        return (double) (numKeys - stashCount) / keys.length;
+    }
+
+    /**
+     * Returns the number of keys in the stash.
+     *
+     * @return The number of keys that did not fit in their buckets.
+     */
+    public int getStashCount() {
+        return stashCount;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+
+        for (int j = 0; j < keys.length; j++) {
+            if (keys[j] != null) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(keys[j]).append("=").append(values[j]);
+                first = false;
+            }
+        }
+
+        for (int i = 0; i < stashCount; i++) {
+            if (!first) {
+                sb.append(", ");
+            }
+            sb.append(stashKeys[i]).append("=").append(stashValues[i]);
+            first = false;
+        }
+        return sb.append("}").toString();
+    }
+}
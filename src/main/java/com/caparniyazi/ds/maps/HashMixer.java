@@ -0,0 +1,60 @@
+package com.caparniyazi.ds.maps;
+
+/**
+ * A finalizer ("mixer") applied to key.hashCode() before a hash table computes the index of the key.
+ * <p/>
+ * Many hashCode() implementations are fast but poorly distributed: Integer and Long hash to (almost)
+ * themselves, so sequential ids have sequential hash codes, and the 31 * hash + field recipe used by
+ * Transaction and String maps similar objects to nearby values.
+ * When the index is hashCode() % length for a prime-like length, such keys are spread reasonably well;
+ * but with linear probing, runs of consecutive hash codes fill runs of consecutive slots (primary
+ * clustering), and with a power-of-two length the index is just the low bits of the hash code,
+ * so keys that differ only in their high bits all collide.
+ * <p/>
+ * A mixer fixes this by making every bit of the result depend on every bit of the hash code
+ * ("avalanche"): flipping one input bit flips each output bit with probability about 1/2.
+ * The mixers below are bijections, so they never create new collisions of the full 32-bit hash code.
+ * <pre>
+ *     IDENTITY  No mixing; the hash code is used as it is.
+ *     MURMUR3   The 32-bit finalizer (fmix32) of MurmurHash3: two xor-shift-multiply rounds.
+ *     XXHASH    The 32-bit avalanche step of xxHash (XXH32): three xor-shift rounds, two multiplies.
+ * </pre>
+ */
+public enum HashMixer {
+    IDENTITY {
+        @Override
+        public int mix(int h) {
+            return h;
+        }
+    },
+    MURMUR3 {
+        @Override
+        public int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return h;
+        }
+    },
+    XXHASH {
+        @Override
+        public int mix(int h) {
+            h ^= h >>> 15;
+            h *= 0x85EBCA77;    // PRIME32_2
+            h ^= h >>> 13;
+            h *= 0xC2B2AE3D;    // PRIME32_3
+            h ^= h >>> 16;
+            return h;
+        }
+    };
+
+    /**
+     * Mixes the bits of a hash code.
+     *
+     * @param h The hash code.
+     * @return The mixed hash code.
+     */
+    public abstract int mix(int h);
+}
@@ -0,0 +1,112 @@
+package com.caparniyazi.ds.maps;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of HashsetOpen, CuckooHashset and java.util.HashSet
+ * for a deduplication workload: add all keys, then test membership of present and absent keys.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.maps.HashsetBenchmark
+ * Add "-prof gc" to the arguments to see the allocation rate of the add benchmarks.
+ * See TestCuckooHashset for the memory footprint of the three sets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgs = {"-Xms4G", "-Xmx4G"})
+public class HashsetBenchmark {
+    // Data fields
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private Integer[] keys; // Random keys to insert.
+    private Integer[] missing;  // Random keys that are not in the sets.
+    private HashsetOpen<Integer> open;
+    private CuckooHashset<Integer> cuckoo;
+    private HashSet<Integer> javaSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new Integer[size];
+        missing = new Integer[size];
+
+        // Even keys are inserted, odd keys are missing.
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt() & ~1;
+            missing[i] = random.nextInt() | 1;
+        }
+
+        open = new HashsetOpen<>();
+        cuckoo = new CuckooHashset<>();
+        javaSet = new HashSet<>();
+
+        for (Integer key : keys) {
+            open.add(key);
+            cuckoo.add(key);
+            javaSet.add(key);
+        }
+    }
+
+    @Benchmark
+    public HashsetOpen<Integer> openAdd() {
+        HashsetOpen<Integer> set = new HashsetOpen<>();
+        for (Integer key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public CuckooHashset<Integer> cuckooAdd() {
+        CuckooHashset<Integer> set = new CuckooHashset<>();
+        for (Integer key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public HashSet<Integer> javaAdd() {
+        HashSet<Integer> set = new HashSet<>();
+        for (Integer key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public void openContains(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(open.containsKey(keys[i]));
+            bh.consume(open.containsKey(missing[i]));
+        }
+    }
+
+    @Benchmark
+    public void cuckooContains(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(cuckoo.containsKey(keys[i]));
+            bh.consume(cuckoo.containsKey(missing[i]));
+        }
+    }
+
+    @Benchmark
+    public void javaContains(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(javaSet.contains(keys[i]));
+            bh.consume(javaSet.contains(missing[i]));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
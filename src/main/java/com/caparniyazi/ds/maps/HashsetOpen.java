@@ -30,7 +30,7 @@ public class HashsetOpen<K> {
      */
     public boolean add(K key) {
         // HashtableOpen.put() returns null if the key is not a duplicate.
-        return setMap.put(key, key) != null;
+        return setMap.put(key, key) == null;
     }
 
     /**
@@ -43,4 +43,8 @@ public class HashsetOpen<K> {
         // HashtableOpen.remove() returns null if the key is not removed.
         return setMap.remove(key) != null;
     }
+
+    public int size() {
+        return setMap.size();
+    }
 }
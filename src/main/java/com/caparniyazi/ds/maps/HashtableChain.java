@@ -1,7 +1,15 @@
 package com.caparniyazi.ds.maps;
 
+import com.caparniyazi.ds.tree.AVLTree;
+
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Hashtable implementation using chaining.
@@ -23,6 +31,18 @@ import java.util.LinkedList;
  * <p/>
  * Time complexity on average: O(1) for get(), put() and remove() assuming even key distribution.
  * Worst-case: O(n) (if all keys hash to the same bucket).
+ * <p/>
+ * Treeified buckets:
+ * A poor hashCode(), or keys chosen by an attacker to collide, can put most keys into one bucket,
+ * and then every lookup is a linear scan of a long linked list.
+ * To bound this worst case, a bucket whose list grows beyond TREEIFY_THRESHOLD entries is converted
+ * into an AVL tree ordered by key, provided that all of its keys are of the same Comparable class.
+ * The search of a tree bucket is O(log n), so the worst case becomes O(log n) instead of O(n).
+ * When removals shrink a tree bucket to UNTREEIFY_THRESHOLD entries, it is converted back to a list,
+ * which is cheaper for a handful of entries.
+ * A tree holds at most one key of each compareTo() class, and a hit in the tree is confirmed with equals().
+ * If two keys of a bucket compare as equal but are not equal (as BigDecimal 1.0 and 1.00), the tree cannot
+ * keep both, so the bucket stays a list.
  *
  * @param <K> Key type
  * @param <V> Value type
@@ -37,7 +57,7 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
      * @param <K> Key type
      * @param <V> Value type
      */
-    private static class Entry<K, V> {
+    private static class Entry<K, V> implements Comparable<Entry<K, V>> {
         // Data fields
         private final K key;    // The key
         private V value;    // The value
@@ -83,6 +103,19 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
             return oldValue;
         }
 
+        /**
+         * Compares the keys of two entries, so that entries can be stored in a tree bucket.
+         *
+         * @param other The other entry.
+         * @return The result of comparing the keys.
+         * @pre Both keys are of the same Comparable class.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compareTo(Entry<K, V> other) {
+            return ((Comparable<Object>) key).compareTo(other.key);
+        }
+
         /**
          * Returns a string representation of this entry.
          *
@@ -94,6 +127,70 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
         }
     }
 
+    /**
+     * A bucket that has been converted into a balanced search tree.
+     *
+     * @param <K> Key type
+     * @param <V> Value type
+     */
+    private static class TreeBin<K, V> {
+        // Data fields
+        private final AVLTree<Entry<K, V>> tree = new AVLTree<>();
+        private final Class<?> keyClass;    // The class of all keys in this bucket.
+        private int size;   // The number of entries in the tree.
+
+        public TreeBin(Class<?> keyClass) {
+            this.keyClass = keyClass;
+        }
+
+        /**
+         * Finds the entry of the key.
+         *
+         * @param key The key being sought.
+         * @return The entry, or null if the key is not in this bucket.
+         */
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> find(Object key) {
+            if (key.getClass() != keyClass) {
+                return null;    // A key of another class cannot be in this bucket.
+            }
+            Entry<K, V> entry = tree.find(new Entry<>((K) key, null));
+
+            // The entry found compares as equal to the key, which does not make it equal.
+            return entry != null && entry.getKey().equals(key) ? entry : null;
+        }
+
+        /**
+         * Removes the entry of the key.
+         *
+         * @param key The key of the entry being deleted.
+         * @return The deleted entry, or null if the key is not in this bucket.
+         */
+        public Entry<K, V> delete(Object key) {
+            Entry<K, V> entry = find(key);
+
+            if (entry != null) {
+                tree.delete(entry);
+                size--;
+            }
+            return entry;
+        }
+
+        /**
+         * Adds an entry whose key is known not to be in this bucket.
+         *
+         * @param entry The entry.
+         * @return false if the tree already has a key that compares as equal, and the entry was not added.
+         */
+        public boolean add(Entry<K, V> entry) {
+            if (!tree.add(entry)) {
+                return false;
+            }
+            size++;
+            return true;
+        }
+    }
+
     /**
      * Table of chains (each chain is a LinkedList of entries).
      */
@@ -109,10 +206,45 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
      */
     private static final double LOAD_THRESHOLD = 3.0;  // The max. load factor.
 
+    // A bucket longer than TREEIFY_THRESHOLD becomes a tree; a tree of UNTREEIFY_THRESHOLD entries becomes a list.
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    private final boolean treeifyBuckets;   // false to keep every bucket as a list.
+    private TreeBin<K, V>[] trees;  // trees[i] != null if bucket i is a tree (then table[i] is null).
+
+    // Incremental rehashing: the table being emptied into table, or null if no migration is in progress.
+    private final RehashMode rehashMode;
+    private LinkedList<Entry<K, V>>[] oldTable;
+    private TreeBin<K, V>[] oldTrees;
+    private int migrateIndex;   // The buckets of oldTable below this index have been migrated.
+    private static final int MIGRATION_STEP = 4;    // The number of buckets migrated per operation.
+
     // Constructors
-    @SuppressWarnings("unchecked")
     public HashtableChain() {
+        this(RehashMode.IMMEDIATE);
+    }
+
+    /**
+     * Creates an empty table that expands with the given rehash mode.
+     *
+     * @param rehashMode The rehash mode.
+     */
+    public HashtableChain(RehashMode rehashMode) {
+        this(rehashMode, true);
+    }
+
+    /**
+     * Creates an empty table that expands with the given rehash mode.
+     *
+     * @param rehashMode     The rehash mode.
+     * @param treeifyBuckets true to convert long buckets with Comparable keys into trees.
+     */
+    @SuppressWarnings("unchecked")
+    public HashtableChain(RehashMode rehashMode, boolean treeifyBuckets) {
+        this.rehashMode = Objects.requireNonNull(rehashMode, "Rehash mode must not be null");
+        this.treeifyBuckets = treeifyBuckets;
         table = (LinkedList<Entry<K, V>>[]) new LinkedList[CAPACITY];
+        trees = (TreeBin<K, V>[]) new TreeBin[CAPACITY];
     }
 
     /**
@@ -125,6 +257,15 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
      */
     @Override
     public V get(Object key) {
+        if (oldTable != null) {
+            migrate();
+
+            Entry<K, V> entry = findInOldTable(key);
+            if (entry != null) {
+                return entry.getValue();
+            }
+        }
+
         // Compute the hash index for the key.
         int index = key.hashCode() % table.length;
 
@@ -132,6 +273,12 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
             index += table.length;  // Make it positive.
         }
 
+        if (trees[index] != null) {
+            // The bucket is a tree, search it in O(log n).
+            Entry<K, V> entry = trees[index].find(key);
+            return entry == null ? null : entry.getValue();
+        }
+
         if (table[index] == null) {
             return null;    // Key is not in the table.
         }
@@ -165,12 +312,39 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
      */
     @Override
     public V put(K key, V value) {
+        if (oldTable != null) {
+            migrate();
+
+            // If the key has not been migrated yet, update it in place.
+            Entry<K, V> entry = findInOldTable(key);
+            if (entry != null) {
+                return entry.setValue(value);
+            }
+        }
+
         int index = key.hashCode() % table.length;
 
         if (index < 0) {
             index += table.length;  // Make it positive.
         }
 
+        if (trees[index] != null) {
+            Entry<K, V> entry = trees[index].find(key);
+
+            if (entry != null) {
+                return entry.setValue(value);
+            }
+
+            // Assert: Key is not in the table, add new item.
+            addEntry(table, trees, index, new Entry<>(key, value));
+            numKeys++;
+
+            if (numKeys >= LOAD_THRESHOLD * table.length) {
+                rehash();
+            }
+            return null;
+        }
+
         if (table[index] == null) {
             table[index] = new LinkedList<>();  // Create a new linked list at table[index].
         }
@@ -187,6 +361,10 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
         table[index].addFirst(new Entry<>(key, value));
         numKeys++;
 
+        if (table[index].size() > TREEIFY_THRESHOLD) {
+            treeify(table, trees, index);
+        }
+
         // Rehash if the load factor exceeded.
         if (numKeys >= LOAD_THRESHOLD * table.length) {
             rehash();
@@ -204,20 +382,23 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
      */
     @SuppressWarnings("unchecked")
     private void rehash() {
+        if (rehashMode == RehashMode.INCREMENTAL) {
+            startMigration();
+            return;
+        }
+
         // Save a reference to the oldTable.
-        LinkedList<Entry<K, V>>[] oldTable = table;
+        LinkedList<Entry<K, V>>[] previous = table;
+        TreeBin<K, V>[] previousTrees = trees;
 
         // Double the capacity of this table.
-        table = (LinkedList<Entry<K, V>>[]) new LinkedList[2 * oldTable.length + 1];
+        table = (LinkedList<Entry<K, V>>[]) new LinkedList[2 * previous.length + 1];
+        trees = (TreeBin<K, V>[]) new TreeBin[table.length];
         // Reinsert all items in oldTable into expanded table.
         numKeys = 0;
 
-        for (LinkedList<Entry<K, V>> bucket : oldTable) {
-            if (bucket == null) {
-                continue;
-            }
-
-            for (Entry<K, V> nextItem : bucket) {
+        for (int i = 0; i < previous.length; i++) {
+            for (Entry<K, V> nextItem : entries(previous, previousTrees, i)) {
                 if (nextItem != null) {
                     put(nextItem.getKey(), nextItem.getValue());
                 }
@@ -237,11 +418,47 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
      */
     @Override
     public V remove(Object key) {
+        if (oldTable != null) {
+            migrate();
+        }
+
+        if (oldTable != null) {
+            int index = bucketIndex(key, oldTable.length);
+            LinkedList<Entry<K, V>> bucket = oldTable[index];
+
+            if (oldTrees[index] != null) {
+                Entry<K, V> entry = removeFromTree(oldTable, oldTrees, index, key);
+                if (entry != null) {
+                    numKeys--;
+                    return entry.getValue();
+                }
+            } else if (bucket != null) {
+                Iterator<Entry<K, V>> iterator = bucket.iterator();
+                while (iterator.hasNext()) {
+                    Entry<K, V> entry = iterator.next();
+                    if (entry.getKey().equals(key)) {
+                        iterator.remove();
+                        numKeys--;
+                        return entry.getValue();
+                    }
+                }
+            }
+        }
+
         int index = key.hashCode() % table.length;
 
         if (index < 0) {
             index += table.length;  // Make it positive.
         }
+
+        if (trees[index] != null) {
+            Entry<K, V> entry = removeFromTree(table, trees, index, key);
+            if (entry == null) {
+                return null;
+            }
+            numKeys--;
+            return entry.getValue();
+        }
         LinkedList<Entry<K, V>> bucket = table[index];
 
         if (bucket == null) { // Key is not in the table.
@@ -265,6 +482,458 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
         return null;
     }
 
+    /**
+     * Returns the value of the key, computing and inserting it if the key is absent.
+     * Unlike a get() followed by a put(), the bucket of the key is searched only once.
+     *
+     * @param key             The key.
+     * @param mappingFunction Computes the value of an absent key; it must not modify this table.
+     * @return The existing or computed value, or null if the computed value is null.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (oldTable != null) {
+            migrate();
+        }
+
+        Entry<K, V> entry = findInOldTable(key);
+
+        if (entry == null) {
+            entry = findEntry(table, trees, bucketIndex(key, table.length), key);
+        }
+
+        if (entry != null) {
+            if (entry.getValue() == null) {
+                entry.setValue(mappingFunction.apply(key));
+            }
+            return entry.getValue();
+        }
+
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            addNewEntry(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Inserts the value if the key is absent; otherwise, combines the old and the given value
+     * with the remapping function (and removes the key if the result is null).
+     * The bucket of the key is searched only once, so a counter can be updated with merge(key, 1, Integer::sum).
+     *
+     * @param key               The key.
+     * @param value             The value to insert or to combine with the old value.
+     * @param remappingFunction Combines the old and the given value; it must not modify this table.
+     * @return The new value, or null if the key was removed.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (oldTable != null) {
+            migrate();
+        }
+
+        LinkedList<Entry<K, V>>[] tab = oldTable;
+        TreeBin<K, V>[] bins = oldTrees;
+        Entry<K, V> entry = findInOldTable(key);
+
+        if (entry == null) {
+            tab = table;
+            bins = trees;
+            entry = findEntry(tab, bins, bucketIndex(key, tab.length), key);
+        }
+
+        if (entry == null) {
+            if (value != null) {
+                addNewEntry(key, value);
+            }
+            return value;
+        }
+
+        V newValue = entry.getValue() == null ? value : remappingFunction.apply(entry.getValue(), value);
+
+        if (newValue == null) {
+            int index = bucketIndex(key, tab.length);
+
+            if (bins[index] != null) {
+                removeFromTree(tab, bins, index, key);
+            } else {
+                tab[index].remove(entry);   // Entry does not override equals(), so this removes this very entry.
+                if (tab[index].isEmpty()) {
+                    tab[index] = null;
+                }
+            }
+            numKeys--;
+        } else {
+            entry.setValue(newValue);
+        }
+        return newValue;
+    }
+
+    /**
+     * Copies all mappings of the other table into this table.
+     * The table is expanded at most once, before the copy, to a size that keeps the load factor
+     * below the LOAD_THRESHOLD after all keys have been added, instead of being rehashed repeatedly.
+     * A migration in progress is completed first.
+     *
+     * @param other The table whose mappings are copied.
+     */
+    @Override
+    public void putAll(KWHashMap<? extends K, ? extends V> other) {
+        if (other == this) {
+            return;
+        }
+
+        if (oldTable != null) {
+            migrate(oldTable.length);
+        }
+
+        // Assume that all keys of the other table are new; this overestimates when they overlap.
+        long needed = (long) numKeys + other.size();
+        int length = table.length;
+
+        while (needed >= LOAD_THRESHOLD * length && length < Integer.MAX_VALUE / 2) {
+            length = 2 * length + 1;    // Keep the sequence of sizes of rehash().
+        }
+
+        if (length != table.length) {
+            resize(length);
+        }
+        other.forEach(this::put);
+    }
+
+    /**
+     * Performs the action for each key-value pair, bucket by bucket.
+     *
+     * @param action The action; it must not modify this table.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(table, trees, action);
+
+        if (oldTable != null) {
+            forEach(oldTable, oldTrees, action);
+        }
+    }
+
+    /**
+     * Performs the action for each key, bucket by bucket.
+     *
+     * @param action The action; it must not modify this table.
+     */
+    @Override
+    public void forEachKey(Consumer<? super K> action) {
+        forEach((key, value) -> action.accept(key));
+    }
+
+    /**
+     * Performs the action for each key-value pair of a table.
+     * A list bucket is traversed by its iterator, a tree bucket by an inorder traversal.
+     *
+     * @param tab    The table of lists.
+     * @param bins   The table of trees that goes with tab.
+     * @param action The action.
+     */
+    private void forEach(LinkedList<Entry<K, V>>[] tab, TreeBin<K, V>[] bins, BiConsumer<? super K, ? super V> action) {
+        for (int i = 0; i < tab.length; i++) {
+            if (bins[i] != null) {
+                bins[i].tree.inOrderTraverse((entry, depth) -> {
+                    if (entry != null) {
+                        action.accept(entry.getKey(), entry.getValue());
+                    }
+                });
+            } else if (tab[i] != null) {
+                for (Entry<K, V> entry : tab[i]) {
+                    action.accept(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the entry of the key in its bucket.
+     *
+     * @param tab   The table of lists.
+     * @param bins  The table of trees that goes with tab.
+     * @param index The index of the bucket of the key.
+     * @param key   The key being sought.
+     * @return The entry, or null if the key is not in the bucket.
+     */
+    private Entry<K, V> findEntry(LinkedList<Entry<K, V>>[] tab, TreeBin<K, V>[] bins, int index, Object key) {
+        if (bins[index] != null) {
+            return bins[index].find(key);
+        }
+
+        if (tab[index] != null) {
+            for (Entry<K, V> entry : tab[index]) {
+                if (entry.getKey().equals(key)) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a key that is known not to be in the table, and rehashes if needed.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    private void addNewEntry(K key, V value) {
+        addEntry(table, trees, bucketIndex(key, table.length), new Entry<>(key, value));
+        numKeys++;
+
+        if (numKeys >= LOAD_THRESHOLD * table.length) {
+            rehash();
+        }
+    }
+
+    /**
+     * Expands the table to the given size immediately, whatever the rehash mode.
+     *
+     * @param length The new size of the table.
+     * @pre No migration is in progress.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int length) {
+        LinkedList<Entry<K, V>>[] previous = table;
+        TreeBin<K, V>[] previousTrees = trees;
+        table = (LinkedList<Entry<K, V>>[]) new LinkedList[length];
+        trees = (TreeBin<K, V>[]) new TreeBin[length];
+
+        for (int i = 0; i < previous.length; i++) {
+            for (Entry<K, V> entry : entries(previous, previousTrees, i)) {
+                addEntry(table, trees, bucketIndex(entry.getKey(), length), entry);
+            }
+        }
+    }
+
+    /**
+     * Starts an incremental rehash: the current table becomes the old table and an empty table
+     * of twice the size becomes the table. No entry is moved here.
+     * If a previous migration is still in progress, it is completed first.
+     */
+    @SuppressWarnings("unchecked")
+    private void startMigration() {
+        if (oldTable != null) {
+            migrate(oldTable.length);
+        }
+
+        oldTable = table;
+        oldTrees = trees;
+        migrateIndex = 0;
+        table = (LinkedList<Entry<K, V>>[]) new LinkedList[2 * oldTable.length + 1];
+        trees = (TreeBin<K, V>[]) new TreeBin[table.length];
+    }
+
+    /**
+     * Migrates the next MIGRATION_STEP buckets of the old table.
+     */
+    private void migrate() {
+        migrate(MIGRATION_STEP);
+    }
+
+    /**
+     * Moves the entries of the next buckets of the old table into the table.
+     * The keys are known not to be in the table, so they are added without searching the bucket.
+     * When the last bucket has been migrated, the old table is released.
+     *
+     * @param buckets The max. number of buckets to migrate.
+     */
+    private void migrate(int buckets) {
+        int end = Math.min(migrateIndex + buckets, oldTable.length);
+
+        for (; migrateIndex < end; migrateIndex++) {
+            for (Entry<K, V> entry : entries(oldTable, oldTrees, migrateIndex)) {
+                addEntry(table, trees, bucketIndex(entry.getKey(), table.length), entry);
+            }
+            oldTable[migrateIndex] = null;
+            oldTrees[migrateIndex] = null;
+        }
+
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+            oldTrees = null;
+        }
+    }
+
+    /**
+     * Finds the entry of the key in the old table.
+     *
+     * @param key The key being sought.
+     * @return The entry of the key, or null if it is not in the old table (or the migration has just completed).
+     */
+    private Entry<K, V> findInOldTable(Object key) {
+        if (oldTable == null) {
+            return null;
+        }
+
+        int index = bucketIndex(key, oldTable.length);
+        LinkedList<Entry<K, V>> bucket = oldTable[index];
+
+        if (oldTrees[index] != null) {
+            return oldTrees[index].find(key);
+        }
+
+        if (bucket != null) {
+            for (Entry<K, V> entry : bucket) {
+                if (entry.getKey().equals(key)) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds an entry whose key is known not to be in the bucket, converting the bucket
+     * into a tree (or back into a list) if needed.
+     *
+     * @param tab   The table of lists.
+     * @param bins  The table of trees that goes with tab.
+     * @param index The index of the bucket.
+     * @param entry The entry.
+     */
+    private void addEntry(LinkedList<Entry<K, V>>[] tab, TreeBin<K, V>[] bins, int index, Entry<K, V> entry) {
+        if (bins[index] != null) {
+            if (entry.getKey().getClass() == bins[index].keyClass && bins[index].add(entry)) {
+                return;
+            }
+            // A key of another class, or one that compares as equal to a different key, cannot be in the tree.
+            untreeify(tab, bins, index);
+        }
+
+        if (tab[index] == null) {
+            tab[index] = new LinkedList<>();
+        }
+        tab[index].addFirst(entry);
+
+        if (tab[index].size() > TREEIFY_THRESHOLD) {
+            treeify(tab, bins, index);
+        }
+    }
+
+    /**
+     * Removes the key from a tree bucket, converting the bucket back into a list if it became small.
+     *
+     * @param tab   The table of lists.
+     * @param bins  The table of trees that goes with tab.
+     * @param index The index of the tree bucket.
+     * @param key   The key of the entry being deleted.
+     * @return The deleted entry, or null if the key is not in the bucket.
+     */
+    private Entry<K, V> removeFromTree(LinkedList<Entry<K, V>>[] tab, TreeBin<K, V>[] bins, int index, Object key) {
+        Entry<K, V> entry = bins[index].delete(key);
+
+        if (entry != null && bins[index].size <= UNTREEIFY_THRESHOLD) {
+            untreeify(tab, bins, index);
+        }
+        return entry;
+    }
+
+    /**
+     * Converts the list of a bucket into a tree, if all of its keys are of the same Comparable class
+     * and no two of them compare as equal.
+     *
+     * @param tab   The table of lists.
+     * @param bins  The table of trees that goes with tab.
+     * @param index The index of the bucket.
+     */
+    private void treeify(LinkedList<Entry<K, V>>[] tab, TreeBin<K, V>[] bins, int index) {
+        if (!treeifyBuckets) {
+            return;
+        }
+
+        Class<?> keyClass = tab[index].getFirst().getKey().getClass();
+
+        if (!Comparable.class.isAssignableFrom(keyClass)) {
+            return;
+        }
+
+        for (Entry<K, V> entry : tab[index]) {
+            if (entry.getKey().getClass() != keyClass) {
+                return; // Mixed key classes cannot be ordered.
+            }
+        }
+
+        TreeBin<K, V> bin = new TreeBin<>(keyClass);
+        for (Entry<K, V> entry : tab[index]) {
+            if (!bin.add(entry)) {
+                return; // Two different keys that compare as equal cannot both be in the tree.
+            }
+        }
+        bins[index] = bin;
+        tab[index] = null;
+    }
+
+    /**
+     * Converts a tree bucket back into a list.
+     *
+     * @param tab   The table of lists.
+     * @param bins  The table of trees that goes with tab.
+     * @param index The index of the tree bucket.
+     */
+    private void untreeify(LinkedList<Entry<K, V>>[] tab, TreeBin<K, V>[] bins, int index) {
+        tab[index] = new LinkedList<>(bins[index].tree.toList());
+        bins[index] = null;
+    }
+
+    /**
+     * Returns the entries of a bucket, whether it is a list or a tree.
+     *
+     * @param tab   The table of lists.
+     * @param bins  The table of trees that goes with tab.
+     * @param index The index of the bucket.
+     * @return The entries of the bucket.
+     */
+    private List<Entry<K, V>> entries(LinkedList<Entry<K, V>>[] tab, TreeBin<K, V>[] bins, int index) {
+        if (bins[index] != null) {
+            return bins[index].tree.toList();
+        }
+        return tab[index] == null ? List.of() : tab[index];
+    }
+
+    /**
+     * Returns the number of buckets that are trees.
+     *
+     * @return The number of tree buckets.
+     */
+    public int getTreeBucketCount() {
+        int count = 0;
+
+        for (TreeBin<K, V> bin : trees) {
+            if (bin != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of the bucket of the key in a table of the given length.
+     *
+     * @param key    The key.
+     * @param length The length of the table.
+     * @return key.hashCode() % length, made positive.
+     */
+    private static int bucketIndex(Object key, int length) {
+        int index = key.hashCode() % length;
+
+        if (index < 0) {
+            index += length;  // Make it positive.
+        }
+        return index;
+    }
+
+    /**
+     * Returns true if an incremental rehash is in progress.
+     *
+     * @return true if the old table is still alive.
+     */
+    public boolean isMigrating() {
+        return oldTable != null;
+    }
+
     @Override
     public boolean isEmpty() {
         return numKeys == 0;
@@ -279,14 +948,28 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
-        boolean first = true;
+        boolean first = appendEntries(sb, table, trees, true);
 
-        for (LinkedList<Entry<K, V>> bucket : table) {
-            if (bucket == null) {
-                continue;
-            }
+        if (oldTable != null) {
+            appendEntries(sb, oldTable, oldTrees, first);
+        }
 
-            for (Entry<K, V> entry : bucket) {
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Appends the entries of a table as "key=value" pairs.
+     *
+     * @param sb    The string builder.
+     * @param tab   The table.
+     * @param bins  The table of trees that goes with tab.
+     * @param first true if nothing has been appended yet.
+     * @return true if still nothing has been appended.
+     */
+    private boolean appendEntries(StringBuilder sb, LinkedList<Entry<K, V>>[] tab, TreeBin<K, V>[] bins, boolean first) {
+        for (int i = 0; i < tab.length; i++) {
+            for (Entry<K, V> entry : entries(tab, bins, i)) {
                 if (entry != null) {
                     if (!first) {
                         sb.append(", ");
@@ -296,8 +979,6 @@ public class HashtableChain<K, V> implements KWHashMap<K, V> {
                 }
             }
         }
-
-        sb.append("}");
-        return sb.toString();
+        return first;
     }
 }
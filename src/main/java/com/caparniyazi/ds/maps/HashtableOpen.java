@@ -1,6 +1,11 @@
 package com.caparniyazi.ds.maps;
 
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * A hash function hashes (converts) a number in a large range into a number in a smaller range.
@@ -91,16 +96,19 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
         // Data fields
         private final K key;    // The key
         private V value;    // The value
+        private final int hash; // The mixed hash code of the key, so that moving the entry does not call hashCode().
 
         /**
          * Creates a new key-value pair.
          *
          * @param key   The key
          * @param value The value.
+         * @param hash  The mixed hash code of the key.
          */
-        public Entry(K key, V value) {
+        public Entry(K key, V value, int hash) {
             this.key = key;
             this.value = value;
+            this.hash = hash;
         }
 
         /**
@@ -155,12 +163,122 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
 
     // The entry object DELETED is used to indicate that the Entry at a particular table element
     // has been deleted; a null reference indicates that a table element was never occupied.
-    private final Entry<K, V> DELETED = new Entry<>(null, null);
+    private final Entry<K, V> DELETED = new Entry<>(null, null, 0);
+
+    /**
+     * The collision resolution modes of the table.
+     * <pre>
+     *     TOMBSTONE    Linear probing; a removed entry is replaced by DELETED.
+     *     ROBIN_HOOD   Robin Hood insertion with backward-shift deletion; the table never contains DELETED.
+     * </pre>
+     */
+    public enum Mode {
+        TOMBSTONE,
+        ROBIN_HOOD
+    }
+
+    private final Mode mode;    // The collision resolution mode.
+
+    /**
+     * How the home slot of a key is computed from its mixed hash code, and how the table grows.
+     * <pre>
+     *     MODULO        hash % table.length. The table starts with START_CAPACITY slots and grows to 2n + 1
+     *                   slots (to the next prime above 2n + 1 with QUADRATIC or DOUBLE_HASHING probing).
+     *     POWER_OF_TWO  hash &amp; (table.length - 1). The table starts with POWER_OF_TWO_START_CAPACITY slots
+     *                   and doubles. A bitwise AND is much cheaper than a division, but only the low bits
+     *                   of the hash code are used, so keys that differ only in their high bits collide
+     *                   unless a HashMixer other than IDENTITY is used.
+     * </pre>
+     */
+    public enum Sizing {
+        MODULO,
+        POWER_OF_TWO
+    }
+
+    /**
+     * The probe sequence followed from the home slot of a key when that slot is occupied.
+     * <pre>
+     *     LINEAR          home, home + 1, home + 2, ...
+     *                     Cache friendly, but runs of occupied slots merge into long clusters
+     *                     (primary clustering).
+     *     QUADRATIC       home, home + 1, home + 3, home + 6, ... (the offsets are triangular numbers).
+     *                     Keys whose home slots are close soon follow different paths, but keys with the
+     *                     same home slot follow the same path (secondary clustering).
+     *     DOUBLE_HASHING  home, home + step, home + 2 * step, ..., where the step comes from a second hash.
+     *                     Even keys with the same home slot follow different paths.
+     * </pre>
+     * With a POWER_OF_TWO table both QUADRATIC and DOUBLE_HASHING (whose step is then odd) visit every slot,
+     * and so does DOUBLE_HASHING in a prime-sized MODULO table. Otherwise a sequence may revisit slots;
+     * if it has not reached the key or an empty slot after table.length probes, the search continues
+     * linearly from the home slot.
+     * <p/>
+     * ROBIN_HOOD mode requires LINEAR probing: its early exit and backward-shift deletion rely on
+     * probe lengths measured along consecutive slots.
+     */
+    public enum Probing {
+        LINEAR,
+        QUADRATIC,
+        DOUBLE_HASHING
+    }
+
+    private final HashMixer mixer;  // Applied to key.hashCode() before the home slot is computed.
+    private final Sizing sizing;
+    private final Probing probing;
+    private static final int POWER_OF_TWO_START_CAPACITY = 128;
+
+    // Incremental rehashing: the table being emptied into table, or null if no migration is in progress.
+    private final RehashMode rehashMode;
+    private Entry<K, V>[] oldTable;
+    private int migrateIndex;   // The slots of oldTable below this index have been migrated.
+    private static final int MIGRATION_STEP = 16;   // The number of slots migrated per operation.
 
     // Constructors
-    @SuppressWarnings("unchecked")
     public HashtableOpen() {
-        table = (Entry<K, V>[]) new Entry[START_CAPACITY];
+        this(Mode.TOMBSTONE);
+    }
+
+    /**
+     * Creates an empty table that resolves collisions with the given mode.
+     *
+     * @param mode The collision resolution mode.
+     */
+    public HashtableOpen(Mode mode) {
+        this(mode, RehashMode.IMMEDIATE);
+    }
+
+    /**
+     * Creates an empty table that resolves collisions with the given mode
+     * and expands with the given rehash mode.
+     *
+     * @param mode       The collision resolution mode.
+     * @param rehashMode The rehash mode.
+     */
+    public HashtableOpen(Mode mode, RehashMode rehashMode) {
+        this(mode, rehashMode, HashMixer.IDENTITY, Sizing.MODULO, Probing.LINEAR);
+    }
+
+    /**
+     * Creates an empty table with the given collision resolution, rehash, hash mixing, sizing and probing.
+     *
+     * @param mode       The collision resolution mode.
+     * @param rehashMode The rehash mode.
+     * @param mixer      The finalizer applied to the hash codes of the keys.
+     * @param sizing     How the home slot is computed and how the table grows.
+     * @param probing    The probe sequence.
+     * @throws IllegalArgumentException if mode is ROBIN_HOOD and probing is not LINEAR.
+     */
+    @SuppressWarnings("unchecked")
+    public HashtableOpen(Mode mode, RehashMode rehashMode, HashMixer mixer, Sizing sizing, Probing probing) {
+        this.mode = Objects.requireNonNull(mode, "Mode must not be null");
+        this.rehashMode = Objects.requireNonNull(rehashMode, "Rehash mode must not be null");
+        this.mixer = Objects.requireNonNull(mixer, "Mixer must not be null");
+        this.sizing = Objects.requireNonNull(sizing, "Sizing must not be null");
+        this.probing = Objects.requireNonNull(probing, "Probing must not be null");
+
+        if (mode == Mode.ROBIN_HOOD && probing != Probing.LINEAR) {
+            throw new IllegalArgumentException("Robin Hood hashing requires linear probing");
+        }
+        table = (Entry<K, V>[]) new Entry[sizing == Sizing.POWER_OF_TWO ? POWER_OF_TWO_START_CAPACITY : START_CAPACITY];
     }
 
     /**
@@ -173,6 +291,20 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
      */
     @Override
     public V get(Object key) {
+        if (oldTable != null) {
+            migrate();
+
+            int index = findInOldTable(key);
+            if (index != -1) {
+                return oldTable[index].getValue();
+            }
+        }
+
+        if (mode == Mode.ROBIN_HOOD) {
+            int index = findRobinHood(key);
+            return index == -1 ? null : table[index].getValue();
+        }
+
         // Find the first table element that is empty, or the table element that contains the key.
         int index = find(key);
 
@@ -216,8 +348,23 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
      */
     @Override
     public V put(K key, V value) {
+        if (oldTable != null) {
+            migrate();
+
+            // If the key has not been migrated yet, update it in place.
+            int index = findInOldTable(key);
+            if (index != -1) {
+                return oldTable[index].setValue(value);
+            }
+        }
+
+        if (mode == Mode.ROBIN_HOOD) {
+            return putRobinHood(key, value);
+        }
+
         // Find the first table element that is empty or the table element that contains the key.
-        int index = find(key);
+        int hash = hash(key);
+        int index = find(key, hash);
 
         // The table is full or looped over all indices without a stop condition.
         if (index == -1)
@@ -225,7 +372,7 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
 
         // If an empty element was found, insert new entry.
         if (table[index] == null) {
-            table[index] = new Entry<>(key, value);
+            table[index] = new Entry<>(key, value, hash);
             numKeys++;
 
             // Check whether rehash is needed.
@@ -255,27 +402,34 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
      * Expands(doubles) the table size when the load factor exceeds LOAD_THRESHOLD
      * and permanently removes deleted items.
      *
-     * @pre The size of the table is doubled and is an odd integer.
+     * @pre The size of the table is doubled (see nextLength()).
      * Each non-deleted entry from the original table is reinserted into the expanded table.
      * The value of numKeys is reset to the number of items actually inserted; numDeletes is rest to 0.
      */
     @SuppressWarnings("unchecked")
     private void rehash() {
+        if (rehashMode == RehashMode.INCREMENTAL) {
+            startMigration();
+            return;
+        }
+
         // Save a reference to the oldTable.
-        Entry<K, V>[] oldTable = table;
+        Entry<K, V>[] previous = table;
 
         // Double the capacity of this table.
-        table = (Entry<K, V>[]) new Entry[2 * oldTable.length + 1];
+        table = (Entry<K, V>[]) new Entry[nextLength(previous.length)];
 
         // Reinsert all items in oldTable into expanded table.
         numKeys = 0;
         numDeletes = 0;
 
-        for (Entry<K, V> entry : oldTable) {
+        for (Entry<K, V> entry : previous) {
             // Note that deleted items are not reinserted into the new table,
             // thereby saving space and reducing the length of some search chains.
+            // The keys are unique, so the entries are placed without searching for them.
             if (entry != null && entry != DELETED) {
-                put(entry.getKey(), entry.getValue());
+                place(entry);
+                numKeys++;
             }
         }
     }
@@ -302,6 +456,23 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
      */
     @Override
     public V remove(Object key) {
+        if (oldTable != null) {
+            migrate();
+
+            int index = findInOldTable(key);
+            if (index != -1) {
+                // Mark the slot DELETED so that the search chains of the old table stay intact.
+                V oldValue = oldTable[index].getValue();
+                oldTable[index] = DELETED;
+                numKeys--;
+                return oldValue;
+            }
+        }
+
+        if (mode == Mode.ROBIN_HOOD) {
+            return removeRobinHood(key);
+        }
+
         int index = find(key);
 
         // Fail fast
@@ -345,6 +516,286 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
         return numKeys;
     }
 
+    /**
+     * Returns the value of the key, computing and inserting it if the key is absent.
+     * Unlike a get() followed by a put(), the table is searched only once:
+     * the probe that fails to find the key also yields the slot where the key is inserted.
+     *
+     * @param key             The key.
+     * @param mappingFunction Computes the value of an absent key; it must not modify this table.
+     * @return The existing or computed value, or null if the computed value is null.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (oldTable != null) {
+            migrate();
+
+            int index = findInOldTable(key);
+            if (index != -1) {
+                Entry<K, V> entry = oldTable[index];
+                if (entry.getValue() == null) {
+                    entry.setValue(mappingFunction.apply(key));
+                }
+                return entry.getValue();
+            }
+        }
+
+        int hash = hash(key);
+        int index = probe(key, hash);
+
+        if (index >= 0) {
+            Entry<K, V> entry = table[index];
+            if (entry.getValue() == null) {
+                entry.setValue(mappingFunction.apply(key));
+            }
+            return entry.getValue();
+        }
+
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            insertAt(-index - 1, key, value, hash);
+        }
+        return value;
+    }
+
+    /**
+     * Inserts the value if the key is absent; otherwise, combines the old and the given value
+     * with the remapping function (and removes the key if the result is null).
+     * The table is searched only once, so a counter can be updated with merge(key, 1, Integer::sum).
+     *
+     * @param key               The key.
+     * @param value             The value to insert or to combine with the old value.
+     * @param remappingFunction Combines the old and the given value; it must not modify this table.
+     * @return The new value, or null if the key was removed.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (oldTable != null) {
+            migrate();
+
+            int index = findInOldTable(key);
+            if (index != -1) {
+                Entry<K, V> entry = oldTable[index];
+                V newValue = entry.getValue() == null ? value : remappingFunction.apply(entry.getValue(), value);
+
+                if (newValue == null) {
+                    oldTable[index] = DELETED;  // Keep the search chains of the old table intact.
+                    numKeys--;
+                } else {
+                    entry.setValue(newValue);
+                }
+                return newValue;
+            }
+        }
+
+        int hash = hash(key);
+        int index = probe(key, hash);
+
+        if (index < 0) {
+            if (value != null) {
+                insertAt(-index - 1, key, value, hash);
+            }
+            return value;
+        }
+
+        Entry<K, V> entry = table[index];
+        V newValue = entry.getValue() == null ? value : remappingFunction.apply(entry.getValue(), value);
+
+        if (newValue == null) {
+            removeAt(index);
+        } else {
+            entry.setValue(newValue);
+        }
+        return newValue;
+    }
+
+    /**
+     * Copies all mappings of the other table into this table.
+     * The table is expanded at most once, before the copy, to a size that keeps the load factor
+     * below the LOAD_THRESHOLD after all keys have been added, instead of being rehashed repeatedly.
+     * A migration in progress is completed first.
+     *
+     * @param other The table whose mappings are copied.
+     */
+    @Override
+    public void putAll(KWHashMap<? extends K, ? extends V> other) {
+        if (other == this) {
+            return;
+        }
+
+        if (oldTable != null) {
+            migrate(oldTable.length);
+        }
+
+        // Assume that all keys of the other table are new; this overestimates when they overlap.
+        long needed = (long) numKeys + numDeletes + other.size();
+        int length = table.length;
+
+        while (needed > LOAD_THRESHOLD * length && length < Integer.MAX_VALUE / 2) {
+            length = nextLength(length);    // Keep the sequence of sizes of rehash().
+        }
+
+        if (length != table.length) {
+            resize(length);
+        }
+        other.forEach(this::put);
+    }
+
+    /**
+     * Performs the action for each key-value pair, in table order.
+     * No Entry or iterator is allocated.
+     *
+     * @param action The action; it must not modify this table.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Entry<K, V> entry : table) {
+            if (entry != null && entry != DELETED) {
+                action.accept(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (oldTable != null) {
+            // The migrated slots of the old table are DELETED, so no key is visited twice.
+            for (Entry<K, V> entry : oldTable) {
+                if (entry != null && entry != DELETED) {
+                    action.accept(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each key, in table order.
+     *
+     * @param action The action; it must not modify this table.
+     */
+    @Override
+    public void forEachKey(Consumer<? super K> action) {
+        for (Entry<K, V> entry : table) {
+            if (entry != null && entry != DELETED) {
+                action.accept(entry.getKey());
+            }
+        }
+
+        if (oldTable != null) {
+            for (Entry<K, V> entry : oldTable) {
+                if (entry != null && entry != DELETED) {
+                    action.accept(entry.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the slot of the key, or the slot where the key should be inserted, with a single probe sequence.
+     * <pre>
+     *     TOMBSTONE    The search of find(): it stops at the key or at the first empty slot.
+     *     ROBIN_HOOD   The search also stops at the first resident that is richer than the key would be
+     *                  in its slot: the key cannot be further along, and the new entry takes that slot.
+     * </pre>
+     *
+     * @param key  The key of the target.
+     * @param hash The mixed hash code of the key.
+     * @return The position of the key if found; otherwise, (-(insertion slot) - 1).
+     */
+    private int probe(Object key, int hash) {
+        if (mode == Mode.ROBIN_HOOD) {
+            int index = indexFor(hash, table.length);
+
+            for (int dist = 0; ; dist++) {
+                if (table[index] == null || probeLength(index) < dist) {
+                    return -index - 1;
+                }
+
+                if (table[index].getKey().equals(key)) {
+                    return index;
+                }
+
+                if (++index >= table.length) {
+                    index = 0;
+                }
+            }
+        }
+
+        int index = find(key, hash);
+
+        if (index == -1)
+            throw new IllegalStateException("Hashtable probe failed - table is full or corrupted.");
+
+        return table[index] == null ? -index - 1 : index;
+    }
+
+    /**
+     * Inserts a new entry into the slot found by probe(), and rehashes if needed.
+     * In ROBIN_HOOD mode the slot may contain a richer resident, which is displaced further along.
+     *
+     * @param index The insertion slot.
+     * @param key   The key, known not to be in the table.
+     * @param value The value.
+     * @param hash  The mixed hash code of the key.
+     */
+    private void insertAt(int index, K key, V value, int hash) {
+        Entry<K, V> resident = table[index];
+        int residentDist = resident != null ? probeLength(index) : 0;
+        table[index] = new Entry<>(key, value, hash);
+
+        if (resident != null) {
+            placeFrom(resident, index + 1 < table.length ? index + 1 : 0, residentDist + 1);
+        }
+
+        numKeys++;
+        double loadFactor = (double) (numKeys + numDeletes) / table.length;
+
+        if (loadFactor > LOAD_THRESHOLD) {
+            rehash();
+        }
+    }
+
+    /**
+     * Removes the entry at the given slot of the table.
+     *
+     * @param index The slot of the entry.
+     */
+    private void removeAt(int index) {
+        if (mode == Mode.ROBIN_HOOD) {
+            removeRobinHoodAt(index);
+        } else {
+            table[index] = DELETED;
+            numKeys--;
+            numDeletes++;
+        }
+    }
+
+    /**
+     * Expands the table to the given size immediately, whatever the rehash mode.
+     *
+     * @param length The new size of the table.
+     * @pre No migration is in progress.
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int length) {
+        Entry<K, V>[] previous = table;
+        table = (Entry<K, V>[]) new Entry[length];
+        numDeletes = 0;
+
+        for (Entry<K, V> entry : previous) {
+            if (entry != null && entry != DELETED) {
+                place(entry);
+            }
+        }
+    }
+
+    /**
+     * Finds either the target key or the first empty slot in the search chain of the key.
+     *
+     * @param key The key of the target object.
+     * @return The position of the target or the first empty slot if the target is not in the table.
+     */
+    private int find(Object key) {
+        return find(key, hash(key));
+    }
+
     /**
      * (Probing means 'Araştırma' in Turkish)
      * In linear probing, we search sequentially for vacant cells.
@@ -370,26 +821,28 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
      * By expanding the table when the load factor exceeds the LOAD_THRESHOLD,
      * we ensure that there will always be an empty slot in the table.
      *
-     * @param key The key of the target object.
+     * @param key  The key of the target object.
+     * @param hash The mixed hash code of the key.
      * @return The position of the target or the first empty slot if the target is not in the table.
      * @pre The table is not full.
      */
-    private int find(Object key) {
+    private int find(Object key, int hash) {
+        if (probing != Probing.LINEAR) {
+            return findProbing(table, key, hash);
+        }
+
         // Calculate the starting index.
-        // Note that the method calls key's hash code to obtain the index.
-        int index = key.hashCode() % table.length;
+        // Note that the index comes from the key's hash code, after the mixer.
+        int index = indexFor(hash, table.length);
         int firstIndex = index;
 
-        if (index < 0) {
-            index += table.length;  // Make it positive.
-        }
-
         // Increment index until an empty slot is reached or the key is found.
         // If it encounters an empty slot before finding the key it's looking for,
         // it knows the search has failed.
         // There's no use looking further because the insertion algorithm would have inserted
         // the item at this slot (if not earlier).
-        while (table[index] != null && !table[index].getKey().equals(key)) {
+        // DELETED has a null key, so we compare with key.equals() to skip it safely.
+        while (table[index] != null && !key.equals(table[index].getKey())) {
             index++;
 
             // Check for wraparound
@@ -423,8 +876,570 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
         return index;
     }
 
+    /**
+     * Returns the home slot of the key, i.e., the first slot of its search chain.
+     *
+     * @param key The key.
+     * @return key.hashCode() % table.length, made positive.
+     */
+    private int homeIndex(Object key) {
+        return homeIndex(key, table.length);
+    }
+
+    /**
+     * Returns the home slot of the key in a table of the given length.
+     *
+     * @param key    The key.
+     * @param length The length of the table.
+     * @return The home slot of the mixed hash code of the key.
+     */
+    private int homeIndex(Object key, int length) {
+        return indexFor(hash(key), length);
+    }
+
+    /**
+     * Returns the mixed hash code of the key. The hash code of an entry is computed once, when it is created.
+     *
+     * @param key The key.
+     * @return The hash code of the key after the mixer.
+     */
+    private int hash(Object key) {
+        return mixer.mix(key.hashCode());
+    }
+
+
+    /**
+     * Returns the home slot of a mixed hash code in a table of the given length.
+     *
+     * @param hash   The mixed hash code.
+     * @param length The length of the table.
+     * @return hash % length made positive (MODULO), or hash &amp; (length - 1) (POWER_OF_TWO).
+     */
+    private int indexFor(int hash, int length) {
+        if (sizing == Sizing.POWER_OF_TWO) {
+            return hash & (length - 1);
+        }
+
+        int index = hash % length;
+
+        if (index < 0) {
+            index += length;  // Make it positive.
+        }
+        return index;
+    }
+
+    /**
+     * Returns the step of the DOUBLE_HASHING probe sequence of a mixed hash code.
+     * The second hash is taken from the middle bits of the Fibonacci hash (hash * 2^32 / golden ratio),
+     * which are nearly independent of the bits that select the home slot.
+     * The step is in [1, length - 1], and odd for a POWER_OF_TWO table, so that it is
+     * relatively prime to the length.
+     *
+     * @param hash   The mixed hash code.
+     * @param length The length of the table.
+     * @return The step; 1 for the other probe sequences.
+     */
+    private int stepFor(int hash, int length) {
+        if (probing != Probing.DOUBLE_HASHING) {
+            return 1;
+        }
+
+        int h2 = Integer.rotateLeft(hash * 0x9E3779B9, 16) >>> 1;
+        return sizing == Sizing.POWER_OF_TWO ? (h2 | 1) & (length - 1) : 1 + h2 % (length - 1);
+    }
+
+    /**
+     * Finds either the index of the key or the index of the first empty slot of its QUADRATIC or
+     * DOUBLE_HASHING probe sequence in the given table.
+     * Like find(), it skips DELETED entries. If the sequence has not reached the key or an empty slot
+     * after tab.length probes (it revisits slots when the step and the length are not relatively prime),
+     * the search continues with linear probing from the home slot.
+     * Insertions and searches follow the same sequence, so a key is always found where it was placed.
+     *
+     * @param tab The table (the table or the old table).
+     * @param key The key of the target object.
+     * @return The position of the key or of the first empty slot; -1 if the table is full.
+     */
+    private int findProbing(Entry<K, V>[] tab, Object key) {
+        return findProbing(tab, key, hash(key));
+    }
+
+    /**
+     * Finds the key in the given table, like findProbing(tab, key), with its mixed hash code already known.
+     *
+     * @param tab  The table (the table or the old table).
+     * @param key  The key of the target object.
+     * @param hash The mixed hash code of the key.
+     * @return The position of the key or of the first empty slot; -1 if the table is full.
+     */
+    private int findProbing(Entry<K, V>[] tab, Object key, int hash) {
+        int home = indexFor(hash, tab.length);
+        int step = stepFor(hash, tab.length);
+        int index = home;
+
+        for (int probe = 1; probe < tab.length; probe++) {
+            if (tab[index] == null || key.equals(tab[index].getKey())) {
+                return index;
+            }
+
+            // The offset of the next slot is the probe number (QUADRATIC) or the step (DOUBLE_HASHING).
+            // Both are below tab.length, so a single subtraction wraps the index around.
+            index += probing == Probing.QUADRATIC ? probe : step;
+            if (index >= tab.length) {
+                index -= tab.length;
+            }
+        }
+
+        // Fall back to linear probing.
+        index = home;
+        for (int probes = 0; tab[index] != null && !key.equals(tab[index].getKey()); probes++) {
+            if (probes == tab.length) {
+                return -1;
+            }
+
+            if (++index >= tab.length) {
+                index = 0;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of extra probes a successful search needs to reach the entry at the given
+     * index, following the probe sequence of the table.
+     *
+     * @param tab   The table.
+     * @param index The index of a non-empty, non-DELETED table element.
+     * @return The number of probes after the first one.
+     */
+    private int probeCount(Entry<K, V>[] tab, int index) {
+        if (probing == Probing.LINEAR) {
+            return probeLength(tab, index);
+        }
+
+        int hash = tab[index].hash;
+        int home = indexFor(hash, tab.length);
+        int step = stepFor(hash, tab.length);
+        int slot = home;
+
+        for (int probe = 1; probe < tab.length; probe++) {
+            if (slot == index) {
+                return probe - 1;
+            }
+
+            slot += probing == Probing.QUADRATIC ? probe : step;
+            if (slot >= tab.length) {
+                slot -= tab.length;
+            }
+        }
+
+        // The entry was placed by the linear fallback.
+        return tab.length - 1 + (index >= home ? index - home : index + tab.length - home);
+    }
+
+    /**
+     * Returns the size of the table that replaces a table of the given size when it is expanded.
+     * <pre>
+     *     MODULO        2n + 1, which keeps the size odd; with QUADRATIC or DOUBLE_HASHING probing,
+     *                   the next prime, so that every step is relatively prime to the size.
+     *     POWER_OF_TWO  2n.
+     * </pre>
+     *
+     * @param length The size of the table.
+     * @return The size of the expanded table.
+     */
+    private int nextLength(int length) {
+        if (sizing == Sizing.POWER_OF_TWO) {
+            return 2 * length;
+        }
+
+        int next = 2 * length + 1;
+
+        if (probing != Probing.LINEAR) {
+            while (!isPrime(next)) {
+                next += 2;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Returns true if the odd number n is a prime, by trial division.
+     *
+     * @param n An odd number greater than 1.
+     * @return true if n is a prime.
+     */
+    private static boolean isPrime(int n) {
+        for (int d = 3; (long) d * d <= n; d += 2) {
+            if (n % d == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the probe length of the entry at the given index, i.e., its distance from its home slot.
+     *
+     * @param index The index of a non-empty table element.
+     * @return The number of slots between the home slot of the entry and index.
+     */
+    private int probeLength(int index) {
+        return probeLength(table, index);
+    }
+
+    /**
+     * Returns the probe length of the entry at the given index of the given table.
+     *
+     * @param tab   The table.
+     * @param index The index of a non-empty, non-DELETED table element.
+     * @return The number of slots between the home slot of the entry and index.
+     */
+    private int probeLength(Entry<K, V>[] tab, int index) {
+        int home = indexFor(tab[index].hash, tab.length);
+        return index >= home ? index - home : index + tab.length - home;
+    }
+
+    /**
+     * Robin Hood hashing is linear probing with one extra rule:
+     * while walking the search chain, an item being inserted takes the slot of any resident item
+     * that is closer to its own home slot ("richer") than the inserted item is to its home slot,
+     * and the displaced item continues the walk.
+     * Taking from the rich and giving to the poor keeps all probe lengths close to the mean,
+     * so the variance of the search cost is low even at high load factors.
+     * <p/>
+     * The invariant also allows an unsuccessful search to stop early: once we meet an item
+     * whose probe length is smaller than our current distance, the key cannot be further along.
+     *
+     * @param key The key of the target.
+     * @return The position of the key, or -1 if the key is not in the table.
+     */
+    private int findRobinHood(Object key) {
+        int index = homeIndex(key);
+
+        for (int dist = 0; table[index] != null && dist <= probeLength(index); dist++) {
+            if (table[index].getKey().equals(key)) {
+                return index;
+            }
+
+            if (++index >= table.length) {
+                index = 0;  // Wrap around if we reached the end.
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts an item using Robin Hood insertion.
+     * Before the first swap we are carrying the new key, so we must also check for a duplicate;
+     * after a swap we carry an item that is already unique in the table.
+     *
+     * @param key   The key of item being inserted.
+     * @param value The value for this key.
+     * @return Old value associated with this key if found; otherwise, null.
+     */
+    private V putRobinHood(K key, V value) {
+        Entry<K, V> carried = null;   // The item being placed, created lazily.
+        int hash = hash(key);
+        int index = indexFor(hash, table.length);
+        int dist = 0;
+
+        while (table[index] != null) {
+            if (carried == null && table[index].getKey().equals(key)) {
+                return table[index].setValue(value);
+            }
+
+            int residentDist = probeLength(index);
+
+            if (residentDist < dist) {
+                // The resident is richer than the carried item, swap them.
+                Entry<K, V> resident = table[index];
+                table[index] = carried != null ? carried : new Entry<>(key, value, hash);
+                carried = resident;
+                dist = residentDist;
+            }
+
+            if (++index >= table.length) {
+                index = 0;
+            }
+            dist++;
+        }
+
+        table[index] = carried != null ? carried : new Entry<>(key, value, hash);
+        numKeys++;
+
+        // The table never contains DELETED, so numDeletes is always 0.
+        double loadFactor = (double) numKeys / table.length;
+
+        if (loadFactor > LOAD_THRESHOLD) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * Removes an item using backward-shift deletion.
+     * Instead of leaving a DELETED marker, each following item of the cluster that is not in its
+     * home slot is shifted one slot back, until we reach an empty slot or an item in its home slot.
+     * The table thus looks exactly as if the removed key had never been inserted.
+     *
+     * @param key The key of item being deleted.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    private V removeRobinHood(Object key) {
+        int index = findRobinHood(key);
+
+        if (index == -1) {
+            return null;
+        }
+        return removeRobinHoodAt(index);
+    }
+
+    /**
+     * Removes the entry at the given slot using backward-shift deletion.
+     *
+     * @param index The slot of the entry.
+     * @return The value of the removed entry.
+     */
+    private V removeRobinHoodAt(int index) {
+        V oldValue = table[index].getValue();
+        int next = index + 1 < table.length ? index + 1 : 0;
+
+        while (table[next] != null && probeLength(next) > 0) {
+            table[index] = table[next];
+            index = next;
+            next = next + 1 < table.length ? next + 1 : 0;
+        }
+
+        table[index] = null;
+        numKeys--;
+        return oldValue;
+    }
+
+    /**
+     * Returns the longest probe length in the table.
+     * The probe length of an entry is the number of slots between its home slot and its actual slot,
+     * so it is the number of extra probes a successful search for it needs.
+     * This method scans the whole table and is meant for monitoring.
+     *
+     * @return The max. probe length, 0 if the table is empty.
+     */
+    public int getMaxProbeLength() {
+        int max = 0;
+
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && table[i] != DELETED) {
+                max = Math.max(max, probeCount(table, i));
+            }
+        }
+
+        if (oldTable != null) {
+            for (int i = migrateIndex; i < oldTable.length; i++) {
+                if (oldTable[i] != null && oldTable[i] != DELETED) {
+                    max = Math.max(max, probeCount(oldTable, i));
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the mean probe length of the entries in the table.
+     * This method scans the whole table and is meant for monitoring.
+     *
+     * @return The mean probe length, 0 if the table is empty.
+     */
+    public double getMeanProbeLength() {
+        long sum = 0;
+
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && table[i] != DELETED) {
+                sum += probeCount(table, i);
+            }
+        }
+
+        if (oldTable != null) {
+            for (int i = migrateIndex; i < oldTable.length; i++) {
+                if (oldTable[i] != null && oldTable[i] != DELETED) {
+                    sum += probeCount(oldTable, i);
+                }
+            }
+        }
+        return numKeys == 0 ? 0.0 : (double) sum / numKeys;
+    }
+
+    /**
+     * Starts an incremental rehash: the current table becomes the old table and an empty table
+     * of twice the size becomes the table. No entry is moved here.
+     * If a previous migration is still in progress, it is completed first.
+     */
+    @SuppressWarnings("unchecked")
+    private void startMigration() {
+        if (oldTable != null) {
+            migrate(oldTable.length);
+        }
+
+        oldTable = table;
+        migrateIndex = 0;
+        table = (Entry<K, V>[]) new Entry[nextLength(oldTable.length)];
+        numDeletes = 0; // The DELETED entries stay behind in the old table.
+    }
+
+    /**
+     * Migrates the next MIGRATION_STEP slots of the old table.
+     */
+    private void migrate() {
+        migrate(MIGRATION_STEP);
+    }
+
+    /**
+     * Migrates the next slots of the old table into the table.
+     * A migrated slot is set to DELETED, not to null, so that the search chains of the entries
+     * still waiting in the old table are not broken.
+     * When the last slot has been migrated, the old table is released.
+     *
+     * @param slots The max. number of slots to migrate.
+     */
+    private void migrate(int slots) {
+        int end = Math.min(migrateIndex + slots, oldTable.length);
+
+        for (; migrateIndex < end; migrateIndex++) {
+            Entry<K, V> entry = oldTable[migrateIndex];
+
+            if (entry != null && entry != DELETED) {
+                place(entry);
+                oldTable[migrateIndex] = DELETED;
+            }
+        }
+
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+        }
+    }
+
+    /**
+     * Finds the key in the old table.
+     * The search walks the cluster until an empty slot, skipping DELETED entries. The early exit of
+     * Robin Hood searches cannot be used because migrated slots are DELETED.
+     *
+     * @param key The key of the target.
+     * @return The position of the key in the old table, or -1 if it is not there (or the migration has just completed).
+     */
+    private int findInOldTable(Object key) {
+        if (oldTable == null) {
+            return -1;
+        }
+
+        if (probing != Probing.LINEAR) {
+            int index = findProbing(oldTable, key);
+            return index != -1 && oldTable[index] != null ? index : -1;
+        }
+
+        int index = homeIndex(key, oldTable.length);
+
+        for (int probes = 0; oldTable[index] != null && probes < oldTable.length; probes++) {
+            if (key.equals(oldTable[index].getKey())) {
+                return index;
+            }
+
+            if (++index >= oldTable.length) {
+                index = 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Places an entry whose key is known not to be in the table, without counting it.
+     *
+     * @param entry The entry.
+     */
+    private void place(Entry<K, V> entry) {
+        if (probing != Probing.LINEAR) {
+            table[findProbing(table, entry.getKey(), entry.hash)] = entry;
+            return;
+        }
+        placeFrom(entry, indexFor(entry.hash, table.length), 0);
+    }
+
+    /**
+     * Places an entry whose key is known not to be in the table, starting the walk at the given slot.
+     *
+     * @param entry The entry.
+     * @param index The first slot to try.
+     * @param dist  The distance of that slot from the home slot of the entry.
+     */
+    private void placeFrom(Entry<K, V> entry, int index, int dist) {
+        while (table[index] != null) {
+            if (mode == Mode.ROBIN_HOOD) {
+                int residentDist = probeLength(index);
+
+                if (residentDist < dist) {
+                    Entry<K, V> resident = table[index];
+                    table[index] = entry;
+                    entry = resident;
+                    dist = residentDist;
+                }
+            }
+
+            if (++index >= table.length) {
+                index = 0;
+            }
+            dist++;
+        }
+        table[index] = entry;
+    }
+
+    /**
+     * Returns true if an incremental rehash is in progress.
+     *
+     * @return true if the old table is still alive.
+     */
+    public boolean isMigrating() {
+        return oldTable != null;
+    }
+
+    /**
+     * Returns the collision resolution mode of the table.
+     *
+     * @return The mode.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the hash mixer of the table.
+     *
+     * @return The mixer.
+     */
+    public HashMixer getMixer() {
+        return mixer;
+    }
+
+    /**
+     * Returns the sizing of the table.
+     *
+     * @return The sizing.
+     */
+    public Sizing getSizing() {
+        return sizing;
+    }
+
+    /**
+     * Returns the probe sequence of the table.
+     *
+     * @return The probing.
+     */
+    public Probing getProbing() {
+        return probing;
+    }
+
     @Override
     public String toString() {
+        if (oldTable != null) {
+            return Arrays.toString(table) + " + old " + Arrays.toString(oldTable);
+        }
         return Arrays.toString(table);
     }
 
@@ -434,6 +1449,13 @@ public class HashtableOpen<K, V> implements KWHashMap<K, V> {
         for (int i = 0; i < table.length; i++) {
             System.out.printf("%2d -> %s%n", i, table[i] == null ? "null" : table[i].toString());
         }
+
+        if (oldTable != null) {
+            System.out.println("Old table state (migrated up to " + migrateIndex + "): ");
+            for (int i = 0; i < oldTable.length; i++) {
+                System.out.printf("%2d -> %s%n", i, oldTable[i] == null ? "null" : oldTable[i].toString());
+            }
+        }
         System.out.println();
     }
 }
@@ -0,0 +1,83 @@
+package com.caparniyazi.ds.maps;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the boxed HashtableOpen<Long, Long> with the primitive LongLongHashtableOpen.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.maps.HashtableOpenBenchmark
+ * Add "-prof gc" to the arguments to see the allocation rate (bytes per operation) of each variant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 2, jvmArgs = {"-Xms4G", "-Xmx4G"})
+public class HashtableOpenBenchmark {
+    // Data fields
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private long[] keys;    // Random keys to insert.
+    private HashtableOpen<Long, Long> boxed;
+    private LongLongHashtableOpen primitive;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextLong();
+        }
+
+        boxed = new HashtableOpen<>();
+        primitive = new LongLongHashtableOpen();
+
+        for (long key : keys) {
+            boxed.put(key, key);
+            primitive.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public HashtableOpen<Long, Long> boxedPut() {
+        HashtableOpen<Long, Long> table = new HashtableOpen<>();
+        for (long key : keys) {
+            table.put(key, key);
+        }
+        return table;
+    }
+
+    @Benchmark
+    public LongLongHashtableOpen primitivePut() {
+        LongLongHashtableOpen table = new LongLongHashtableOpen();
+        for (long key : keys) {
+            table.put(key, key);
+        }
+        return table;
+    }
+
+    @Benchmark
+    public void boxedGet(Blackhole bh) {
+        for (long key : keys) {
+            bh.consume(boxed.get(key));
+        }
+    }
+
+    @Benchmark
+    public void primitiveGet(Blackhole bh) {
+        for (long key : keys) {
+            bh.consume(primitive.get(key));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,121 @@
+package com.caparniyazi.ds.maps;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures HashtableOpen for every combination of HashMixer, Sizing and Probing, across key distributions:
+ * <pre>
+ *     RANDOM       Random Integer keys.
+ *     SEQUENTIAL   Integer ids 0, 1, 2, ...
+ *     STRIDED      Integer ids 0, 1024, 2048, ...; the low ten bits are always zero.
+ *     TRANSACTION  Transaction objects with few customers, sequential dates and repeating amounts.
+ * </pre>
+ * The lookups report throughput; the mean and max. probe length of each table is printed when the trial
+ * starts, so that the throughput can be related to the clustering of the probe sequence.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.maps.HashtableOpenProbingBenchmark
+ * Restrict the matrix with, e.g., "-p distribution=STRIDED -p sizing=POWER_OF_TWO".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4G", "-Xmx4G"})
+public class HashtableOpenProbingBenchmark {
+    // Data fields
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"RANDOM", "SEQUENTIAL", "STRIDED", "TRANSACTION"})
+    private String distribution;
+
+    @Param({"IDENTITY", "MURMUR3", "XXHASH"})
+    private HashMixer mixer;
+
+    @Param({"MODULO", "POWER_OF_TWO"})
+    private HashtableOpen.Sizing sizing;
+
+    @Param({"LINEAR", "QUADRATIC", "DOUBLE_HASHING"})
+    private HashtableOpen.Probing probing;
+
+    private Object[] keys;  // The keys in the table.
+    private Object[] misses;    // Keys of the same distribution that are not in the table.
+    private HashtableOpen<Object, Object> table;
+    private int hitIndex;
+    private int missIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = keys(0, size);
+        misses = keys(size, size);
+        table = build();
+
+        System.out.printf("%n%s %s %s %s: mean probe length = %.3f, max. probe length = %d%n",
+                distribution, mixer, sizing, probing, table.getMeanProbeLength(), table.getMaxProbeLength());
+    }
+
+    /**
+     * Creates count keys of the distribution, starting with the key number first.
+     */
+    private Object[] keys(int first, int count) {
+        Random random = new Random(42 + first);
+        Object[] result = new Object[count];
+        long epoch = 1_700_000_000_000L;
+
+        for (int i = 0; i < count; i++) {
+            int n = first + i;
+            result[i] = switch (distribution) {
+                case "RANDOM" -> random.nextInt();
+                case "SEQUENTIAL" -> n;
+                case "STRIDED" -> n * 1024;
+                case "TRANSACTION" -> new Transaction("customer" + n % 100, new Date(epoch + n * 1000L), n % 50);
+                default -> throw new IllegalArgumentException("Unknown distribution: " + distribution);
+            };
+        }
+        return result;
+    }
+
+    private HashtableOpen<Object, Object> build() {
+        HashtableOpen<Object, Object> result =
+                new HashtableOpen<>(HashtableOpen.Mode.TOMBSTONE, RehashMode.IMMEDIATE, mixer, sizing, probing);
+
+        for (Object key : keys) {
+            result.put(key, key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Object getHit() {
+        Object key = keys[hitIndex];
+        if (++hitIndex == keys.length) {
+            hitIndex = 0;
+        }
+        return table.get(key);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        Object key = misses[missIndex];
+        if (++missIndex == misses.length) {
+            missIndex = 0;
+        }
+        return table.get(key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public HashtableOpen<Object, Object> put() {
+        return build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
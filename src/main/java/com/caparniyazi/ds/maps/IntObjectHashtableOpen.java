@@ -0,0 +1,363 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.Arrays;
+
+/**
+ * Hash table implementation using open addressing for primitive int keys and object values.
+ * <p/>
+ * HashtableOpen stores every key-value pair in an Entry object, so an int-to-object mapping
+ * costs a boxed Integer key and the Entry itself on top of the value object.
+ * Every probe in find() also follows a reference to an Entry and then to the key, which scatters
+ * the memory accesses across the heap.
+ * <p/>
+ * This class keeps the keys in a primitive array and the values in a parallel array instead:
+ * <pre>
+ *      keys[i]    The key stored at slot i.
+ *      values[i]  The value stored at slot i.
+ *      states[i]  FREE, FULL or REMOVED.
+ * </pre>
+ * A probe sequence therefore walks consecutive array elements, which is very cache friendly.
+ * <p/>
+ * Since every int value is a legal key, we cannot reserve a key value to mark an empty or
+ * a deleted slot. The byte REMOVED in the states array plays the role of the DELETED Entry
+ * of HashtableOpen: it tells the search algorithm to keep looking.
+ * Unlike HashtableOpen, a REMOVED slot is reused by a later insertion of a new key.
+ * <p/>
+ * Only the key is primitive, so get() and remove() return null when the key is not in the table.
+ *
+ * @param <V> Value type
+ */
+public class IntObjectHashtableOpen<V> implements KWIntObjectMap<V> {
+    // Data fields
+    private static final byte FREE = 0;     // The slot was never occupied.
+    private static final byte FULL = 1;     // The slot contains a key-value pair.
+    private static final byte REMOVED = 2;  // The slot contained a key-value pair that has been deleted.
+
+    private static final int START_CAPACITY = 101;
+    private static final double LOAD_THRESHOLD = 0.75; // The max. load factor.
+
+    private int[] keys;    // The keys.
+    private Object[] values;  // The values, values[i] belongs to keys[i].
+    private byte[] states;  // The state of each slot.
+    private int numKeys;    // The number of keys in the table excluding the keys that were deleted.
+    private int numDeletes; // The number of REMOVED slots.
+
+    // Constructors
+    public IntObjectHashtableOpen() {
+        this(START_CAPACITY);
+    }
+
+    /**
+     * Creates a table large enough to hold the expected number of keys without rehashing.
+     *
+     * @param expectedKeys The number of keys expected to be stored.
+     */
+    public IntObjectHashtableOpen(int expectedKeys) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("Expected number of keys must not be negative: " + expectedKeys);
+        }
+
+        int capacity = Math.max(START_CAPACITY, (int) Math.min(Integer.MAX_VALUE - 8, (long) (expectedKeys / LOAD_THRESHOLD) + 1));
+        capacity |= 1;  // Keep the table size odd.
+        keys = new int[capacity];
+        values = new Object[capacity];
+        states = new byte[capacity];
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key The key being sought.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = find(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    /**
+     * Returns true if the key is in the table.
+     *
+     * @param key The key being sought.
+     * @return true if the key is found.
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Inserts the key-value pair, or replaces the value if the key is already in the table.
+     *
+     * @param key   The key of item being inserted.
+     * @param value The value for this key.
+     * @return Old value associated with this key if found; otherwise, null.
+     * @post If the LOAD_THRESHOLD is exceeded, the table is expanded.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int index = findSlot(key);
+
+        // The key was found, replace its value.
+        if (index >= 0) {
+            V oldValue = (V) values[index];
+            values[index] = value;
+            return oldValue;
+        }
+
+        // Assert: The key is not in the table, index encodes the slot to insert into.
+        index = -index - 1;
+
+        if (states[index] == REMOVED) {
+            numDeletes--;   // Reuse a deleted slot.
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        states[index] = FULL;
+        numKeys++;
+
+        // Check whether rehash is needed.
+        double loadFactor = (double) (numKeys + numDeletes) / keys.length;
+
+        if (loadFactor > LOAD_THRESHOLD) {
+            rehash();
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes the key by marking its slot as REMOVED.
+     *
+     * @param key The key of item being deleted.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int index = find(key);
+
+        if (index < 0) {
+            return null;
+        }
+
+        V oldValue = (V) values[index];
+        values[index] = null;   // Let the value be garbage collected.
+        states[index] = REMOVED;
+        numKeys--;
+        numDeletes++;
+        return oldValue;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return numKeys == 0;
+    }
+
+    @Override
+    public int size() {
+        return numKeys;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(states, FREE);
+        Arrays.fill(values, null);
+        numKeys = 0;
+        numDeletes = 0;
+    }
+
+    /**
+     * Permanently removes the REMOVED slots. The table doubles in size only if its keys fill more than half
+     * of the LOAD_THRESHOLD; if the REMOVED slots made most of the load, it keeps its size and is rebuilt in place,
+     * so a constant number of keys that are removed and inserted over and over does not grow the table.
+     */
+    private void rehash() {
+        if (numKeys > LOAD_THRESHOLD / 2 * keys.length) {
+            resize(2 * keys.length + 1);    // Double the capacity of this table, keeping it odd.
+        } else {
+            purgeRemoved();
+        }
+    }
+
+    /**
+     * Moves the keys into new arrays of the given capacity.
+     *
+     * @param capacity The new number of slots.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldStates = states;
+
+        keys = new int[capacity];
+        values = new Object[capacity];
+        states = new byte[capacity];
+        numKeys = 0;
+        numDeletes = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == FULL) {
+                insertNew(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the table in its own arrays without the REMOVED slots: the keys, fewer than half of the slots,
+     * are copied out, every slot is made FREE, and the keys are inserted again.
+     */
+    private void purgeRemoved() {
+        int[] liveKeys = new int[numKeys];
+        Object[] liveValues = new Object[numKeys];
+        int count = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == FULL) {
+                liveKeys[count] = keys[i];
+                liveValues[count++] = values[i];
+            }
+        }
+
+        Arrays.fill(states, FREE);
+        Arrays.fill(values, null);  // Let the removed values be garbage collected.
+        numKeys = 0;
+        numDeletes = 0;
+
+        for (int i = 0; i < count; i++) {
+            insertNew(liveKeys[i], liveValues[i]);
+        }
+    }
+
+    /**
+     * Inserts a key into a table without REMOVED slots that does not contain it: the first FREE slot is its slot.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    private void insertNew(int key, Object value) {
+        int index = hashIndex(key);
+
+        while (states[index] != FREE) {
+            if (++index >= keys.length) {
+                index = 0;
+            }
+        }
+        keys[index] = key;
+        values[index] = value;
+        states[index] = FULL;
+        numKeys++;
+    }
+
+    /**
+     * Returns the start of the search chain of the key.
+     *
+     * @param key The key.
+     * @return The index of the home slot of the key.
+     */
+    private int hashIndex(int key) {
+        int index = key % keys.length;
+
+        if (index < 0) {
+            index += keys.length;   // Make it positive.
+        }
+        return index;
+    }
+
+    /**
+     * Finds the index of the key using linear probing.
+     * The search skips the REMOVED slots and stops at the first FREE slot.
+     *
+     * @param key The key of the target.
+     * @return The position of the key or -1 if the key is not in the table.
+     */
+    private int find(int key) {
+        int index = hashIndex(key);
+        int firstIndex = index;
+
+        while (states[index] != FREE) {
+            if (states[index] == FULL && keys[index] == key) {
+                return index;
+            }
+
+            if (++index >= keys.length) {
+                index = 0;  // Wrap around if we reached the end.
+            }
+
+            if (index == firstIndex) {
+                return -1;  // full cycle, not found
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the index of the key, or the slot into which the key should be inserted.
+     * The first REMOVED slot in the search chain is remembered so that it can be reused,
+     * but the search continues to the first FREE slot to make sure the key is not already present.
+     *
+     * @param key The key of the target.
+     * @return The position of the key if found; otherwise, (-(insertion slot) - 1).
+     */
+    private int findSlot(int key) {
+        int index = hashIndex(key);
+        int firstIndex = index;
+        int firstRemoved = -1;
+
+        while (states[index] != FREE) {
+            if (states[index] == FULL) {
+                if (keys[index] == key) {
+                    return index;
+                }
+            } else if (firstRemoved == -1) {
+                firstRemoved = index;
+            }
+
+            if (++index >= keys.length) {
+                index = 0;
+            }
+
+            if (index == firstIndex) {
+                if (firstRemoved == -1) {
+                    throw new IllegalStateException("Hashtable is full - cannot insert new key.");
+                }
+                break;
+            }
+        }
+        return -(firstRemoved != -1 ? firstRemoved : index) - 1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == FULL) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(keys[i]).append("=").append(values[i]);
+                first = false;
+            }
+        }
+        return sb.append("}").toString();
+    }
+
+    // Display the internal table state.
+    public void printTable() {
+        System.out.println("Hash table state: ");
+        for (int i = 0; i < keys.length; i++) {
+            System.out.printf("%2d -> %s%n", i, switch (states[i]) {
+                case FULL -> "(" + keys[i] + ", " + values[i] + ")";
+                case REMOVED -> "REMOVED";
+                default -> "null";
+            });
+        }
+        System.out.println();
+    }
+}
@@ -1,5 +1,10 @@
 package com.caparniyazi.ds.maps;
 
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
 /**
  * Because we want to show more than one way to implement a hash table,
  * we introduce KWHashMap<K, V>.
@@ -34,4 +39,63 @@ public interface KWHashMap<K, V> {
      Returns the size of the table.
      */
     int size();
+
+    /*
+     Performs the action for each key-value pair of this table, in no particular order.
+     The action must not modify this table.
+     */
+    void forEach(BiConsumer<? super K, ? super V> action);
+
+    /*
+     Performs the action for each key of this table, in no particular order.
+     The action must not modify this table.
+     */
+    default void forEachKey(Consumer<? super K> action) {
+        forEach((key, value) -> action.accept(key));
+    }
+
+    /*
+     If the key is not present (or is mapped to null), computes its value with the mapping function and
+     enters it into this table unless it is null. Returns the current (existing or computed) value, or null.
+     The mapping function must not modify this table.
+     This default implementation searches the table twice (get, then put) and is not atomic;
+     the hash tables of this package override it to search only once.
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = get(key);
+
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /*
+     If the key is not present (or is mapped to null), associates it with the value. Otherwise, replaces
+     its value with the result of the remapping function applied to the old value and the given value,
+     or removes the key if the result is null. Returns the new value, or null if the key was removed.
+     This default implementation searches the table twice and is not atomic.
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        V oldValue = get(key);
+        V newValue = oldValue == null ? value : remappingFunction.apply(oldValue, value);
+
+        if (newValue == null) {
+            remove(key);
+        } else {
+            put(key, newValue);
+        }
+        return newValue;
+    }
+
+    /*
+     Copies all of the mappings of the other table into this table.
+     Implementations may expand the table once for all the new keys instead of rehashing repeatedly.
+     */
+    default void putAll(KWHashMap<? extends K, ? extends V> other) {
+        other.forEach(this::put);
+    }
 }
@@ -0,0 +1,31 @@
+package com.caparniyazi.ds.maps;
+
+/**
+ * KWHashMap contract for int keys mapped to object values.
+ * Only the key is primitive, so a missing mapping is still reported as null.
+ *
+ * @param <V> Value type
+ */
+public interface KWIntObjectMap<V> extends KWPrimitiveMap {
+    /*
+     Returns the value associated with the specified key. Returns null if the key is not present.
+     */
+    V get(int key);
+
+    /*
+    Associates the specified value with the specified key. Returns the previous value
+    associated with the specified key, or null if there is no mapping for the key.
+     */
+    V put(int key, V value);
+
+    /*
+     Removes the mapping for this key from this table if it is present.
+     Returns the previous value associated with the specified key, or null if there was no mapping.
+     */
+    V remove(int key);
+
+    /*
+     Returns true if this table contains a mapping for the specified key.
+     */
+    boolean containsKey(int key);
+}
@@ -0,0 +1,34 @@
+package com.caparniyazi.ds.maps;
+
+/**
+ * KWHashMap contract for long keys mapped to long values without boxing.
+ */
+public interface KWLongLongMap extends KWPrimitiveMap {
+    /*
+     Returns the value associated with the specified key.
+     Returns getNoEntryValue() if the key is not present.
+     */
+    long get(long key);
+
+    /*
+    Associates the specified value with the specified key. Returns the previous value
+    associated with the specified key, or getNoEntryValue() if there was no mapping for the key.
+     */
+    long put(long key, long value);
+
+    /*
+     Removes the mapping for this key from this table if it is present.
+     Returns the previous value associated with the specified key, or getNoEntryValue() if there was no mapping.
+     */
+    long remove(long key);
+
+    /*
+     Returns true if this table contains a mapping for the specified key.
+     */
+    boolean containsKey(long key);
+
+    /*
+     Returns the value that stands for "no mapping" (the primitive counterpart of null).
+     */
+    long getNoEntryValue();
+}
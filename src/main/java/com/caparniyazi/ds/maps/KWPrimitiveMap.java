@@ -0,0 +1,24 @@
+package com.caparniyazi.ds.maps;
+
+/**
+ * The common part of the KWHashMap contract for hash tables whose keys (and possibly values)
+ * are primitives.
+ * Since a primitive cannot be null, each primitive map defines its own "no entry" value that
+ * is returned where KWHashMap would return null.
+ */
+public interface KWPrimitiveMap {
+    /*
+    Returns true if this table contains no key-value mappings.
+     */
+    boolean isEmpty();
+
+    /*
+     Returns the size of the table.
+     */
+    int size();
+
+    /*
+     Removes all of the mappings from this table.
+     */
+    void clear();
+}
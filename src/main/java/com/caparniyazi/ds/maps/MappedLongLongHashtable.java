@@ -0,0 +1,576 @@
+package com.caparniyazi.ds.maps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Hash table implementation using open addressing, stored off-heap in a memory-mapped file.
+ * <p/>
+ * A HashtableOpen lives on the Java heap, so it is lost when the process exits and must be
+ * rebuilt key by key after a restart. This table keeps its slots in a file that is mapped into memory
+ * with FileChannel.map(): reading and writing a slot is reading and writing the file,
+ * and the operating system writes the dirty pages back to the disk.
+ * Reopening the file after a restart only maps it again; nothing is deserialized or rehashed.
+ * <p/>
+ * The file layout uses fixed-width fields, so the position of slot i is computed, never searched:
+ * <pre>
+ *      0                       header (HEADER_SIZE bytes): magic, capacity, numKeys, numDeletes
+ *      HEADER_SIZE             states[capacity]: one byte per slot, FREE, FULL or REMOVED
+ *      slotsOffset             slots[capacity]: 8-byte key followed by 8-byte value
+ * </pre>
+ * The search algorithm is the linear probing of LongLongHashtableOpen, and REMOVED plays the role of DELETED.
+ * <p/>
+ * Rehashing builds the new table in a temporary file next to the table file, flushes it, and then atomically
+ * renames it over the table file and maps it instead of the old one.
+ * A crash during a rehash therefore leaves either the old or the new table, never a half-built one.
+ * The new table has twice the size only if the keys themselves fill more than half of the LOAD_THRESHOLD;
+ * if the REMOVED slots made most of the load, it has the same size, so the file does not grow when a constant
+ * number of keys is removed and inserted over and over.
+ * <p/>
+ * Since a single mapping is limited to 2 GB, the capacity is limited to about 126 million slots.
+ * The keys and values are also available without boxing through the KWLongLongMap methods.
+ * Call flush() to force the changes to the disk, and close() when the table is no longer used.
+ */
+public class MappedLongLongHashtable implements KWHashMap<Long, Long>, KWLongLongMap, Closeable {
+    // Data fields
+    private static final byte FREE = 0;     // The slot was never occupied.
+    private static final byte FULL = 1;     // The slot contains a key-value pair.
+    private static final byte REMOVED = 2;  // The slot contained a key-value pair that has been deleted.
+
+    private static final long MAGIC = 0x4B57484153483031L;  // "KWHASH01"
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int NUM_KEYS_OFFSET = 12;
+    private static final int NUM_DELETES_OFFSET = 16;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 16;    // An 8-byte key and an 8-byte value.
+
+    private static final int START_CAPACITY = 1021;
+    private static final double LOAD_THRESHOLD = 0.75; // The max. load factor.
+
+    private final Path file;    // The table file.
+    private FileChannel channel;
+    private MappedByteBuffer buffer;    // The mapping of the whole table file, null once closed.
+    private int capacity;   // The number of slots.
+    private int slotsOffset;    // The position of slot 0 in the file.
+    private int numKeys;    // The number of keys in the table excluding the keys that were deleted.
+    private int numDeletes; // The number of REMOVED slots.
+
+    // Constructors
+
+    /**
+     * Opens the table stored in the file, or creates an empty table if the file does not exist.
+     *
+     * @param file The table file.
+     */
+    public MappedLongLongHashtable(Path file) {
+        this(file, 0);
+    }
+
+    /**
+     * Opens the table stored in the file, or creates a table large enough to hold
+     * the expected number of keys without rehashing if the file does not exist.
+     *
+     * @param file         The table file.
+     * @param expectedKeys The number of keys expected to be stored in a new table.
+     */
+    public MappedLongLongHashtable(Path file, int expectedKeys) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("Expected number of keys must not be negative: " + expectedKeys);
+        }
+        this.file = file;
+
+        try {
+            if (Files.exists(file) && Files.size(file) > 0) {
+                open();
+            } else {
+                int newCapacity = Math.max(START_CAPACITY, (int) Math.min(Integer.MAX_VALUE - 8, (long) (expectedKeys / LOAD_THRESHOLD) + 1));
+                create(file, newCapacity | 1);  // Keep the table size odd.
+                open();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open hash table file " + file, e);
+        }
+    }
+
+    /**
+     * Maps the table file and reads its header.
+     *
+     * @throws IOException If the file cannot be mapped.
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+
+        if (buffer.capacity() < HEADER_SIZE || buffer.getLong(0) != MAGIC) {
+            channel.close();
+            buffer = null;
+            throw new IOException("Not a hash table file: " + file);
+        }
+
+        capacity = buffer.getInt(CAPACITY_OFFSET);
+        numKeys = buffer.getInt(NUM_KEYS_OFFSET);
+        numDeletes = buffer.getInt(NUM_DELETES_OFFSET);
+        slotsOffset = slotsOffset(capacity);
+
+        if (buffer.capacity() < fileSize(capacity)) {
+            channel.close();
+            buffer = null;
+            throw new IOException("Truncated hash table file: " + file);
+        }
+    }
+
+    /**
+     * Creates (or overwrites) a file that contains an empty table.
+     *
+     * @param path        The file.
+     * @param newCapacity The number of slots.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void create(Path path, int newCapacity) throws IOException {
+        long size = fileSize(newCapacity);
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Hashtable is too large to be mapped: " + newCapacity + " slots");
+        }
+
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Mapping beyond the end of the file extends it with zeros, i.e., every state is FREE.
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            map.putLong(0, MAGIC);
+            map.putInt(CAPACITY_OFFSET, newCapacity);
+            map.putInt(NUM_KEYS_OFFSET, 0);
+            map.putInt(NUM_DELETES_OFFSET, 0);
+            map.force();
+        }
+    }
+
+    /**
+     * Returns the position of slot 0 in a table with the given capacity: after the states, aligned to 8 bytes.
+     */
+    private static int slotsOffset(int capacity) {
+        return (HEADER_SIZE + capacity + 7) & ~7;
+    }
+
+    /**
+     * Returns the size of the file of a table with the given capacity.
+     */
+    private static long fileSize(int capacity) {
+        return slotsOffset(capacity) + (long) capacity * SLOT_SIZE;
+    }
+
+    // Accessors of the mapped slots.
+    private byte state(int index) {
+        return buffer.get(HEADER_SIZE + index);
+    }
+
+    private void setState(int index, byte state) {
+        buffer.put(HEADER_SIZE + index, state);
+    }
+
+    private long key(int index) {
+        return buffer.getLong(slotsOffset + index * SLOT_SIZE);
+    }
+
+    private long value(int index) {
+        return buffer.getLong(slotsOffset + index * SLOT_SIZE + 8);
+    }
+
+    private void setSlot(int index, long key, long value) {
+        buffer.putLong(slotsOffset + index * SLOT_SIZE, key);
+        buffer.putLong(slotsOffset + index * SLOT_SIZE + 8, value);
+    }
+
+    /**
+     * Writes the counters into the header, so that the file is consistent after every operation.
+     */
+    private void writeCounters() {
+        buffer.putInt(NUM_KEYS_OFFSET, numKeys);
+        buffer.putInt(NUM_DELETES_OFFSET, numDeletes);
+    }
+
+    private void ensureOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("Hashtable file is closed: " + file);
+        }
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key The key being sought.
+     * @return The value associated with this key if found; otherwise, 0.
+     */
+    @Override
+    public long get(long key) {
+        ensureOpen();
+        int index = find(key);
+        return index >= 0 ? value(index) : 0L;
+    }
+
+    /**
+     * Returns the value associated with the key.
+     *
+     * @param key The key being sought, a Long.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    @Override
+    public Long get(Object key) {
+        ensureOpen();
+
+        if (!(key instanceof Long k)) {
+            return null;
+        }
+
+        int index = find(k);
+        return index >= 0 ? value(index) : null;
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        ensureOpen();
+        return find(key) >= 0;
+    }
+
+    /**
+     * Inserts the key-value pair, or replaces the value if the key is already in the table.
+     *
+     * @param key   The key of item being inserted.
+     * @param value The value for this key.
+     * @return Old value associated with this key if found; otherwise, 0.
+     * @post If the LOAD_THRESHOLD is exceeded, the table is expanded.
+     */
+    @Override
+    public long put(long key, long value) {
+        ensureOpen();
+        int index = findSlot(key);
+
+        // The key was found, replace its value.
+        if (index >= 0) {
+            long oldValue = value(index);
+            setSlot(index, key, value);
+            return oldValue;
+        }
+
+        // Assert: The key is not in the table, index encodes the slot to insert into.
+        insertAt(-index - 1, key, value);
+        return 0L;
+    }
+
+    /**
+     * Inserts the key-value pair, or replaces the value if the key is already in the table.
+     *
+     * @param key   The key of item being inserted.
+     * @param value The value for this key.
+     * @return Old value associated with this key if found; otherwise, null.
+     */
+    @Override
+    public Long put(Long key, Long value) {
+        ensureOpen();
+        int index = findSlot(key);
+
+        // The same as put(long, long), except that a new key returns null: the chain is searched only once.
+        if (index >= 0) {
+            long oldValue = value(index);
+            setSlot(index, key, value);
+            return oldValue;
+        }
+
+        insertAt(-index - 1, key, value);
+        return null;
+    }
+
+    /**
+     * Inserts a new key-value pair into the slot found by findSlot(), and rehashes if needed.
+     *
+     * @param index The FREE or REMOVED slot.
+     * @param key   The key, which is not in the table.
+     * @param value The value.
+     */
+    private void insertAt(int index, long key, long value) {
+        if (state(index) == REMOVED) {
+            numDeletes--;   // Reuse a deleted slot.
+        }
+
+        setSlot(index, key, value);
+        setState(index, FULL);
+        numKeys++;
+        writeCounters();
+
+        // Check whether rehash is needed.
+        double loadFactor = (double) (numKeys + numDeletes) / capacity;
+
+        if (loadFactor > LOAD_THRESHOLD) {
+            rehash();
+        }
+    }
+
+    /**
+     * Removes the key by marking its slot as REMOVED.
+     *
+     * @param key The key of item being deleted.
+     * @return The value associated with this key if found; otherwise, 0.
+     */
+    @Override
+    public long remove(long key) {
+        ensureOpen();
+        int index = find(key);
+        return index >= 0 ? removeAt(index) : 0L;
+    }
+
+    /**
+     * Removes the key by marking its slot as REMOVED.
+     *
+     * @param key The key of item being deleted, a Long.
+     * @return The value associated with this key if found; otherwise, null.
+     */
+    @Override
+    public Long remove(Object key) {
+        ensureOpen();
+
+        if (!(key instanceof Long k)) {
+            return null;
+        }
+
+        int index = find(k);
+        return index >= 0 ? removeAt(index) : null;
+    }
+
+    /**
+     * Marks a FULL slot as REMOVED.
+     *
+     * @param index The slot.
+     * @return The value of the slot.
+     */
+    private long removeAt(int index) {
+        setState(index, REMOVED);
+        numKeys--;
+        numDeletes++;
+        writeCounters();
+        return value(index);
+    }
+
+    /**
+     * Performs the action for each key-value pair, in slot order.
+     *
+     * @param action The action; it must not modify this table.
+     */
+    @Override
+    public void forEach(BiConsumer<? super Long, ? super Long> action) {
+        ensureOpen();
+
+        for (int i = 0; i < capacity; i++) {
+            if (state(i) == FULL) {
+                action.accept(key(i), value(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the value that stands for "no mapping" in the primitive methods, which is 0.
+     */
+    @Override
+    public long getNoEntryValue() {
+        return 0L;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return numKeys == 0;
+    }
+
+    @Override
+    public int size() {
+        return numKeys;
+    }
+
+    @Override
+    public void clear() {
+        ensureOpen();
+
+        for (int i = 0; i < capacity; i++) {
+            setState(i, FREE);
+        }
+        numKeys = 0;
+        numDeletes = 0;
+        writeCounters();
+    }
+
+    /**
+     * Permanently removes the REMOVED slots, and doubles the table size if the keys fill more than half
+     * of the LOAD_THRESHOLD. The new table is built in a temporary file that then replaces the table file.
+     */
+    private void rehash() {
+        Path tmp = file.resolveSibling(file.getFileName() + ".rehash");
+        MappedByteBuffer oldBuffer = buffer;
+        int oldCapacity = capacity;
+        int oldSlotsOffset = slotsOffset;
+
+        // If the REMOVED slots made most of the load, the keys fit in a table of the same size.
+        int newCapacity = numKeys > LOAD_THRESHOLD / 2 * oldCapacity ? 2 * oldCapacity + 1 : oldCapacity;
+
+        try {
+            create(tmp, newCapacity);   // The capacity stays odd.
+            FileChannel oldChannel = channel;
+
+            channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            capacity = buffer.getInt(CAPACITY_OFFSET);
+            slotsOffset = slotsOffset(capacity);
+            numKeys = 0;
+            numDeletes = 0;
+
+            for (int i = 0; i < oldCapacity; i++) {
+                if (oldBuffer.get(HEADER_SIZE + i) == FULL) {
+                    long key = oldBuffer.getLong(oldSlotsOffset + i * SLOT_SIZE);
+                    long value = oldBuffer.getLong(oldSlotsOffset + i * SLOT_SIZE + 8);
+
+                    // The key cannot be in the new table yet, so the first FREE slot is its slot.
+                    int index = hashIndex(key);
+
+                    while (state(index) != FREE) {
+                        if (++index >= capacity) {
+                            index = 0;
+                        }
+                    }
+                    setSlot(index, key, value);
+                    setState(index, FULL);
+                    numKeys++;
+                }
+            }
+
+            writeCounters();
+            buffer.force();
+            oldChannel.close();
+            // The mapping stays valid after the rename, since it refers to the file, not to its name.
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rehash hash table file " + file, e);
+        }
+    }
+
+    /**
+     * Returns the start of the search chain of the key.
+     *
+     * @param key The key.
+     * @return The index of the home slot of the key.
+     */
+    private int hashIndex(long key) {
+        int index = Long.hashCode(key) % capacity;
+
+        if (index < 0) {
+            index += capacity;  // Make it positive.
+        }
+        return index;
+    }
+
+    /**
+     * Finds the index of the key using linear probing.
+     * The search skips the REMOVED slots and stops at the first FREE slot.
+     *
+     * @param key The key of the target.
+     * @return The position of the key or -1 if the key is not in the table.
+     */
+    private int find(long key) {
+        int index = hashIndex(key);
+        int firstIndex = index;
+
+        while (state(index) != FREE) {
+            if (state(index) == FULL && key(index) == key) {
+                return index;
+            }
+
+            if (++index >= capacity) {
+                index = 0;  // Wrap around if we reached the end.
+            }
+
+            if (index == firstIndex) {
+                return -1;  // full cycle, not found
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the index of the key, or the slot into which the key should be inserted.
+     * The first REMOVED slot in the search chain is remembered so that it can be reused.
+     *
+     * @param key The key of the target.
+     * @return The position of the key if found; otherwise, (-(insertion slot) - 1).
+     */
+    private int findSlot(long key) {
+        int index = hashIndex(key);
+        int firstIndex = index;
+        int firstRemoved = -1;
+
+        while (state(index) != FREE) {
+            if (state(index) == FULL) {
+                if (key(index) == key) {
+                    return index;
+                }
+            } else if (firstRemoved == -1) {
+                firstRemoved = index;
+            }
+
+            if (++index >= capacity) {
+                index = 0;
+            }
+
+            if (index == firstIndex) {
+                if (firstRemoved == -1) {
+                    throw new IllegalStateException("Hashtable is full - cannot insert new key.");
+                }
+                break;
+            }
+        }
+        return -(firstRemoved != -1 ? firstRemoved : index) - 1;
+    }
+
+    /**
+     * Forces the changes to the disk.
+     */
+    public void flush() {
+        ensureOpen();
+        buffer.force();
+    }
+
+    /**
+     * Flushes the table and closes the file. The table cannot be used afterwards.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        ensureOpen();
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+
+        for (int i = 0; i < capacity; i++) {
+            if (state(i) == FULL) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(key(i)).append("=").append(value(i));
+                first = false;
+            }
+        }
+        return sb.append("}").toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.caparniyazi.ds.maps;
+
+/**
+ * How a hash table moves its entries into a larger table when the load factor exceeds its threshold.
+ * <pre>
+ *     IMMEDIATE    The put() that crosses the threshold reinserts every entry before it returns.
+ *                  The cost of a put() is O(1) on average but O(n) in the worst case.
+ *     INCREMENTAL  The put() that crosses the threshold only allocates the larger table.
+ *                  Both tables stay alive, and each subsequent operation migrates a bounded number
+ *                  of slots (buckets) from the old table to the new one.
+ *                  Lookups consult both tables until the migration is complete.
+ *                  The cost of every operation is bounded, at the price of keeping both tables in memory
+ *                  during the migration.
+ * </pre>
+ */
+public enum RehashMode {
+    IMMEDIATE,
+    INCREMENTAL
+}
@@ -0,0 +1,43 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestConcurrentHashtableChain {
+    public static void main(String[] args) throws InterruptedException {
+        KWHashMap<Integer, Integer> map = new ConcurrentHashtableChain<>();
+        int numThreads = 8;
+        int keysPerThread = 100_000;
+        List<Thread> threads = new ArrayList<>();
+
+        // Each thread inserts its own range of keys and removes every other one.
+        for (int t = 0; t < numThreads; t++) {
+            int first = t * keysPerThread;
+            Thread thread = new Thread(() -> {
+                for (int key = first; key < first + keysPerThread; key++) {
+                    map.put(key, key);
+                }
+                for (int key = first; key < first + keysPerThread; key += 2) {
+                    map.remove(key);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int missing = 0;
+        for (int key = 1; key < numThreads * keysPerThread; key += 2) {
+            if (map.get(key) == null || map.get(key) != key) {
+                missing++;
+            }
+        }
+
+        System.out.println("Expected size = " + numThreads * keysPerThread / 2);
+        System.out.println("Actual size = " + map.size());
+        System.out.println("Missing keys = " + missing);
+    }
+}
@@ -0,0 +1,62 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exercises ConcurrentSkipList from several threads, then runs range queries on the result.
+ */
+public class TestConcurrentSkipList {
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentSkipList<Integer, String> sl = new ConcurrentSkipList<>();
+        int threads = 4;
+        int perThread = 50_000;
+        List<Thread> workers = new ArrayList<>();
+
+        // Each thread inserts its own keys and then removes the odd ones.
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(new Thread(() -> {
+                for (int i = id; i < threads * perThread; i += threads) {
+                    sl.put(i, "v" + i);
+                }
+                for (int i = id; i < threads * perThread; i += threads) {
+                    if (i % 2 == 1) {
+                        sl.remove(i);
+                    }
+                }
+            }));
+        }
+
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        System.out.println("size: " + sl.size() + " (expected " + threads * perThread / 2 + ")");
+        System.out.println("get(10) = " + sl.get(10) + ", get(11) = " + sl.get(11));
+        System.out.println("floorKey(11) = " + sl.floorKey(11) + ", ceilingKey(11) = " + sl.ceilingKey(11));
+        System.out.println("floorEntry(-1) = " + sl.floorEntry(-1) + ", ceilingEntry(1_000_000) = " + sl.ceilingEntry(1_000_000));
+
+        System.out.print("entriesInRange(10, true, 20, false):");
+        for (Map.Entry<Integer, String> entry : sl.entriesInRange(10, true, 20, false)) {
+            System.out.print(" " + entry);
+        }
+        System.out.println();
+
+        System.out.print("entriesTo(6, true):");
+        for (Map.Entry<Integer, String> entry : sl.entriesTo(6, true)) {
+            System.out.print(" " + entry);
+        }
+        System.out.println();
+
+        int count = 0;
+        for (Map.Entry<Integer, String> ignored : sl.entriesFrom(199_990, false)) {
+            count++;
+        }
+        System.out.println("entriesFrom(199_990, false) has " + count + " entries");
+    }
+}
@@ -0,0 +1,84 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Compares the memory footprint and a rough add/contains time of HashsetOpen, CuckooHashset and java.util.HashSet.
+ * The footprint is the growth of the used heap after a full GC, so the keys themselves are allocated beforehand
+ * and are not counted. Run with a fixed heap, e.g., -Xms2g -Xmx2g.
+ */
+public class TestCuckooHashset {
+    private static final int N = 990_000;  // Just below the threshold of a 2^20 slot cuckoo table.
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Integer[] keys = new Integer[N];
+
+        for (int i = 0; i < N; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        // All sets are kept alive until the end, so each measurement only sees the growth caused by one set.
+        HashsetOpen<Integer> open = new HashsetOpen<>();
+        CuckooHashset<Integer> cuckoo = new CuckooHashset<>();
+        HashSet<Integer> javaSet = new HashSet<>();
+
+        measure("HashsetOpen  ", () -> {
+            for (Integer key : keys) {
+                open.add(key);
+            }
+        });
+        measure("CuckooHashset", () -> {
+            for (Integer key : keys) {
+                cuckoo.add(key);
+            }
+        });
+        measure("HashSet      ", () -> {
+            for (Integer key : keys) {
+                javaSet.add(key);
+            }
+        });
+
+        System.out.printf("CuckooHashset load factor = %.3f%n", cuckoo.getLoadFactor());
+        System.out.println("Sizes = " + open.size() + ", " + cuckoo.size() + ", " + javaSet.size());
+
+        for (String label : new String[]{"HashsetOpen", "CuckooHashset", "HashSet"}) {
+            long start = System.nanoTime();
+            int found = 0;
+
+            for (int round = 0; round < 5; round++) {
+                for (Integer key : keys) {
+                    boolean hit = switch (label) {
+                        case "HashsetOpen" -> open.containsKey(key);
+                        case "CuckooHashset" -> cuckoo.containsKey(key);
+                        default -> javaSet.contains(key);
+                    };
+                    found += hit ? 1 : 0;
+                }
+            }
+            System.out.printf("%-13s %4d ms for %d lookups%n", label, (System.nanoTime() - start) / 1_000_000, found);
+        }
+    }
+
+    /**
+     * Runs the action and reports the growth of the heap and the time it took.
+     */
+    private static void measure(String label, Runnable action) {
+        long before = usedHeap();
+        long start = System.nanoTime();
+        action.run();
+        long time = System.nanoTime() - start;
+        long after = usedHeap();
+
+        System.out.printf("%s %5.1f MB, %4d ms to add %d keys%n", label, (after - before) / 1e6, time / 1_000_000, N);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
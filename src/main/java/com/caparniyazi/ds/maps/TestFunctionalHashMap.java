@@ -0,0 +1,65 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Demonstrates the functional operations of KWHashMap: counting words with merge(), grouping them
+ * with computeIfAbsent(), combining tables with putAll() and traversing them with forEach().
+ */
+public class TestFunctionalHashMap {
+    private static final String TEXT = """
+            the quick brown fox jumps over the lazy dog
+            the dog barks and the fox runs over the hill
+            a quick dog and a lazy fox meet at the hill""";
+
+    public static void main(String[] args) {
+        String[] words = TEXT.split("\\s+");
+
+        // Word count: one probe per word instead of a get() followed by a put().
+        KWHashMap<String, Integer> counts = new HashtableOpen<>();
+        for (String word : words) {
+            counts.merge(word, 1, Integer::sum);
+        }
+        System.out.println("Word counts:");
+        counts.forEach((word, count) -> System.out.println("  " + word + " = " + count));
+
+        // Group the words by their first letter.
+        KWHashMap<Character, List<String>> byLetter = new HashtableChain<>();
+        counts.forEachKey(word -> byLetter.computeIfAbsent(word.charAt(0), c -> new ArrayList<>()).add(word));
+        System.out.println("Words by first letter:");
+        byLetter.forEach((letter, list) -> System.out.println("  " + letter + " -> " + list));
+
+        // Decrement a count down to zero; a null result of the remapping function removes the key.
+        counts.merge("hill", -1, (a, b) -> a + b == 0 ? null : a + b);
+        counts.merge("hill", -1, (a, b) -> a + b == 0 ? null : a + b);
+        System.out.println("After removing 'hill' twice: " + counts.get("hill") + ", size = " + counts.size());
+
+        // Count the same text concurrently; merge() is atomic in ConcurrentHashtableChain.
+        ConcurrentHashtableChain<String, Integer> shared = new ConcurrentHashtableChain<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (String word : words) {
+                    shared.merge(word, 1, Integer::sum);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        System.out.println("Concurrent count of 'the' with " + threads.length + " threads: " + shared.get("the"));
+
+        // Combine two tables: putAll() grows the target table at most once.
+        KWHashMap<String, Integer> all = new HashtableChain<>();
+        all.putAll(counts);
+        all.putAll(shared);
+        System.out.println("Merged table size = " + all.size() + ", 'the' = " + all.get("the"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.function.Supplier;
+
+/**
+ * Compares the slowest put() of the two rehash modes.
+ * Run with a large fixed heap (e.g., -Xms4g -Xmx4g), otherwise garbage collection pauses hide the rehash pauses.
+ */
+public class TestIncrementalRehash {
+    public static void main(String[] args) {
+        int n = 2_000_000;
+
+        measure("HashtableOpen  IMMEDIATE  ", () -> new HashtableOpen<>(HashtableOpen.Mode.TOMBSTONE, RehashMode.IMMEDIATE), n);
+        measure("HashtableOpen  INCREMENTAL", () -> new HashtableOpen<>(HashtableOpen.Mode.TOMBSTONE, RehashMode.INCREMENTAL), n);
+        measure("HashtableChain IMMEDIATE  ", () -> new HashtableChain<>(RehashMode.IMMEDIATE), n);
+        measure("HashtableChain INCREMENTAL", () -> new HashtableChain<>(RehashMode.INCREMENTAL), n);
+    }
+
+    /**
+     * Inserts n keys and reports the slowest single put().
+     */
+    private static void measure(String label, Supplier<KWHashMap<Integer, Integer>> factory, int n) {
+        KWHashMap<Integer, Integer> map = factory.get();
+        long worst = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < n; i++) {
+            long before = System.nanoTime();
+            map.put(i * 31, i);
+            worst = Math.max(worst, System.nanoTime() - before);
+        }
+
+        long total = System.nanoTime() - start;
+        System.out.printf("%s total = %5d ms, slowest put = %8.3f ms, get(31) = %d%n",
+                label, total / 1_000_000, worst / 1e6, map.get(31));
+    }
+}
@@ -0,0 +1,62 @@
+package com.caparniyazi.ds.maps;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds a MappedLongLongHashtable, closes it, and reopens it as a restarted process would.
+ */
+public class TestMappedHashtable {
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("kwhash", ".tbl");
+        Files.delete(file); // Let the table create the file.
+        int n = 1_000_000;
+
+        long start = System.nanoTime();
+        try (MappedLongLongHashtable table = new MappedLongLongHashtable(file)) {
+            for (long i = 0; i < n; i++) {
+                table.put(i * 31, i);
+            }
+            table.remove(31L);
+            System.out.printf("Built %d keys in %d ms, file size = %.1f MB%n",
+                    table.size(), (System.nanoTime() - start) / 1_000_000, Files.size(file) / 1e6);
+        }
+
+        start = System.nanoTime();
+        try (MappedLongLongHashtable table = new MappedLongLongHashtable(file)) {
+            long reopen = System.nanoTime() - start;
+            System.out.printf("Reopened %d keys in %.3f ms%n", table.size(), reopen / 1e6);
+
+            // The KWHashMap view returns null for a missing key, the primitive view returns 0.
+            KWHashMap<Long, Long> map = table;
+            System.out.println("get(62) = " + table.get(62L) + ", get(31) = " + map.get(31L)
+                    + ", containsKey(31) = " + table.containsKey(31L));
+
+            long sum = 0;
+            for (long i = 0; i < n; i++) {
+                sum += table.get(i * 31);
+            }
+            System.out.println("Sum of values = " + sum + " (expected " + ((long) n * (n - 1) / 2 - 1) + ")");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // Remove and insert keys over and over: the number of keys is constant, and so is the file size.
+        try (MappedLongLongHashtable table = new MappedLongLongHashtable(file)) {
+            for (long i = 0; i < 1000; i++) {
+                table.put(i, i);
+            }
+            long before = Files.size(file);
+
+            for (long i = 1000; i < 1_000_000; i++) {
+                table.remove(i - 1000);
+                table.put(i, i);
+            }
+            System.out.printf("After 999,000 removals and insertions: %d keys, file size %d bytes (was %d)%n",
+                    table.size(), Files.size(file), before);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
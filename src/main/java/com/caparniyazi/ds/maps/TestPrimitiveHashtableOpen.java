@@ -0,0 +1,35 @@
+package com.caparniyazi.ds.maps;
+
+public class TestPrimitiveHashtableOpen {
+    public static void main(String[] args) {
+        LongLongHashtableOpen longs = new LongLongHashtableOpen(10, -1L);
+
+        for (long i = 0; i < 20; i++) {
+            longs.put(i * 101, i);  // All keys have the same home slot in a 101 slot table.
+        }
+        System.out.println("Size = " + longs.size());
+        System.out.println("Get 505 = " + longs.get(505));
+        System.out.println("Remove 505: " + longs.remove(505));
+        System.out.println("Get 505 = " + longs.get(505));
+        System.out.println("Put 505 again: " + longs.put(505, 55));
+        System.out.println("Size = " + longs.size());
+        System.out.println(longs);
+
+        IntObjectHashtableOpen<String> names = new IntObjectHashtableOpen<>();
+        names.put(1, "Ahmet");
+        names.put(2, "Bahri");
+        names.put(-3, "Cahit");
+        System.out.println("-3 = " + names.get(-3));
+        System.out.println("Removing 2: " + names.remove(2));
+        System.out.println("Contains 2: " + names.containsKey(2));
+        System.out.println(names);
+
+        LongDoubleHashtableOpen prices = new LongDoubleHashtableOpen();
+        prices.put(Long.MIN_VALUE, 1.5);
+        prices.put(0L, 2.5);
+        prices.put(Long.MAX_VALUE, 3.5);
+        System.out.println("Long.MIN_VALUE = " + prices.get(Long.MIN_VALUE));
+        System.out.println("Missing = " + prices.get(7L));
+        System.out.println(prices);
+    }
+}
@@ -0,0 +1,49 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.Date;
+
+/**
+ * Prints the mean and max. probe length of HashtableOpen for every combination of HashMixer, Sizing and
+ * Probing, for sequential, strided and Transaction keys, whose hash codes are clustered.
+ * See HashtableOpenProbingBenchmark for the throughput of the same combinations.
+ */
+public class TestProbingStrategies {
+    private static final int N = 500_000;
+
+    public static void main(String[] args) {
+        Object[][] distributions = new Object[3][N];
+        String[] names = {"SEQUENTIAL", "STRIDED", "TRANSACTION"};
+
+        for (int i = 0; i < N; i++) {
+            distributions[0][i] = i;
+            distributions[1][i] = i * 1024;
+            distributions[2][i] = new Transaction("customer" + i % 100, new Date(1_700_000_000_000L + i * 1000L), i % 50);
+        }
+
+        for (int d = 0; d < names.length; d++) {
+            System.out.println(names[d] + " keys:");
+            System.out.printf("  %-8s %-12s %-14s %10s %6s %8s%n", "mixer", "sizing", "probing", "mean", "max", "ms");
+
+            for (HashMixer mixer : HashMixer.values()) {
+                for (HashtableOpen.Sizing sizing : HashtableOpen.Sizing.values()) {
+                    for (HashtableOpen.Probing probing : HashtableOpen.Probing.values()) {
+                        HashtableOpen<Object, Object> table =
+                                new HashtableOpen<>(HashtableOpen.Mode.TOMBSTONE, RehashMode.IMMEDIATE, mixer, sizing, probing);
+                        long start = System.nanoTime();
+
+                        for (Object key : distributions[d]) {
+                            table.put(key, key);
+                        }
+                        for (Object key : distributions[d]) {
+                            table.get(key);
+                        }
+
+                        System.out.printf("  %-8s %-12s %-14s %10.3f %6d %8d%n", mixer, sizing, probing,
+                                table.getMeanProbeLength(), table.getMaxProbeLength(),
+                                (System.nanoTime() - start) / 1_000_000);
+                    }
+                }
+            }
+        }
+    }
+}
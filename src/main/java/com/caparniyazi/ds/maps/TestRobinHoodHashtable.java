@@ -0,0 +1,38 @@
+package com.caparniyazi.ds.maps;
+
+import java.util.Random;
+
+public class TestRobinHoodHashtable {
+    public static void main(String[] args) {
+        // A pool of random keys, so that the keys do not map to consecutive slots.
+        int[] pool = new Random(3).ints(20_000).toArray();
+
+        // Churn both tables with the same delete-heavy workload.
+        for (HashtableOpen.Mode mode : HashtableOpen.Mode.values()) {
+            HashtableOpen<Integer, Integer> table = new HashtableOpen<>(mode);
+            Random random = new Random(7);
+
+            for (int i = 0; i < 200_000; i++) {
+                int key = pool[random.nextInt(pool.length)];
+
+                if (random.nextInt(3) == 0) {
+                    table.remove(key);
+                } else {
+                    table.put(key, i);
+                }
+            }
+
+            System.out.printf("%-10s size = %d, max probe length = %d, mean probe length = %.3f%n",
+                    mode, table.size(), table.getMaxProbeLength(), table.getMeanProbeLength());
+        }
+
+        HashtableOpen<String, Integer> table = new HashtableOpen<>(HashtableOpen.Mode.ROBIN_HOOD);
+        table.put("Ahmet", 10);
+        table.put("Bahri", 20);
+        table.put("Cahit", 30);
+        System.out.println("Removing Bahri: " + table.remove("Bahri"));
+        System.out.println("Bahri = " + table.get("Bahri"));
+        System.out.println("Cahit = " + table.get("Cahit"));
+        System.out.println("Size = " + table.size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.caparniyazi.ds.maps;
+
+/**
+ * Fills HashtableChain with keys that all have the same hash code, with and without tree buckets.
+ */
+public class TestTreeifiedHashtableChain {
+    /**
+     * A key that collides with every other key and whose compareTo() is not consistent with equals():
+     * the keys 2n and 2n + 1 compare as equal.
+     */
+    private record Pair(int id) implements Comparable<Pair> {
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public int compareTo(Pair other) {
+            return Integer.compare(id / 2, other.id / 2);
+        }
+    }
+
+    public static void main(String[] args) {
+        String[] keys = CollisionAttackBenchmark.collidingKeys(20_000);
+
+        for (boolean treeify : new boolean[]{false, true}) {
+            HashtableChain<String, Integer> table = new HashtableChain<>(RehashMode.IMMEDIATE, treeify);
+            long start = System.nanoTime();
+
+            for (int i = 0; i < keys.length; i++) {
+                table.put(keys[i], i);
+            }
+
+            long sum = 0;
+            for (String key : keys) {
+                sum += table.get(key);
+            }
+
+            System.out.printf("treeify = %-5b tree buckets = %d, time = %5d ms, sum = %d%n",
+                    treeify, table.getTreeBucketCount(), (System.nanoTime() - start) / 1_000_000, sum);
+
+            // Remove all but 5 keys: the tree bucket shrinks back into a list.
+            for (int i = 5; i < keys.length; i++) {
+                table.remove(keys[i]);
+            }
+            System.out.println("After removals: " + table + ", tree buckets = " + table.getTreeBucketCount());
+        }
+
+        HashtableChain<Pair, Integer> pairs = new HashtableChain<>();
+        int wrong = 0;
+
+        // The even keys make a tree bucket, then each odd key compares as equal to one of them.
+        for (int i = 0; i < 40; i++) {
+            int id = i < 20 ? 2 * i : 2 * (i - 20) + 1;
+            pairs.put(new Pair(id), id);
+        }
+        for (int i = 0; i < 40; i++) {
+            wrong += Integer.valueOf(i).equals(pairs.get(new Pair(i))) ? 0 : 1;
+        }
+        for (int i = 0; i < 40; i += 2) {
+            wrong += Integer.valueOf(i).equals(pairs.remove(new Pair(i))) ? 0 : 1;
+        }
+        for (int i = 1; i < 40; i += 2) {
+            wrong += Integer.valueOf(i).equals(pairs.get(new Pair(i))) ? 0 : 1;
+        }
+        System.out.println("Keys with compareTo() inconsistent with equals(): size = " + pairs.size()
+                + " (expected 20), wrong values = " + wrong);
+    }
+}
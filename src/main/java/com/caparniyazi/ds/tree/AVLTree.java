@@ -2,6 +2,8 @@ package com.caparniyazi.ds.tree;
 
 import lombok.Getter;
 
+import java.util.concurrent.ForkJoinTask;
+
 /**
  * Self-balancing binary search tree using algorithm defined by Adelson-Velskii and Landis.
  * <p/>
@@ -35,10 +37,17 @@ import lombok.Getter;
  *      Red-Black Tree	    ~2× of perfectly balanced	            Node color (red/black)
  *      B-tree	            Branching factors kept within range	    Node degree
  * </pre>
+ * <p/>
+ * Besides adding and removing one item at a time, two trees can be combined at once by the join-based
+ * operations (Blelloch, Ferizovic and Sun, Just Join for Parallel Ordered Sets, 2016):
+ * join() links two trees and a key between them in O(|height difference| + 1), split() cuts a tree at a
+ * key in O(log n), and union(), intersection() and difference() are built from them in
+ * O(m log(n/m + 1)) for trees of sizes m <= n, instead of O(m log(n + m)) for m calls of add().
+ * Their two recursive halves are independent, so large inputs run them in parallel (fork-join).
  *
  * @param <E> The type parameter.
  */
-public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate<E> {
+public class AVLTree<E extends Comparable<E>> extends OrderStatisticTree<E> {
     // Data fields
     // Flag to indicate whether the current subtree height has increased as a result of the insertion.
     private boolean increase;
@@ -51,7 +60,7 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
      * @param <E>
      */
     @Getter
-    protected static class AVLNode<E> extends Node<E> {
+    protected static class AVLNode<E> extends SizedNode<E> {
         // Data fields
         public static final int LEFT_HEAVY = -1;
         public static final int BALANCED = 0;
@@ -84,6 +93,59 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
      */
     @Override
     public boolean add(E item) {
+        int depth = findPath(item);
+
+        if (depth < 0) {
+            // Item is already in the tree.
+            addReturn = false;
+            return false;
+        }
+        setChildOnPath(depth, new AVLNode<>(item));
+        increase = true;
+
+        // Walk back up the recorded path, doing what the recursive add() does after each call returns.
+        for (int i = depth - 1; i >= 0; i--) {
+            AVLNode<E> localRoot = (AVLNode<E>) path[i];
+            updateSize(localRoot);
+
+            if (!increase) {
+                continue;   // Only the sizes of the remaining ancestors change.
+            }
+            AVLNode<E> newLocalRoot = localRoot;
+
+            if (wentLeft[i]) {
+                decrementBalance(localRoot);
+
+                if (localRoot.balance < AVLNode.LEFT_HEAVY) {
+                    increase = false;
+                    newLocalRoot = rebalanceLeft(localRoot);
+                }
+            } else {
+                incrementBalance(localRoot);
+
+                if (localRoot.balance > AVLNode.RIGHT_HEAVY) {
+                    increase = false;
+                    newLocalRoot = rebalanceRight(localRoot);
+                }
+            }
+
+            if (newLocalRoot != localRoot) {
+                setChildOnPath(i, newLocalRoot);
+            }
+        }
+        clearPath(depth);
+        addReturn = true;
+        return true;
+    }
+
+    /**
+     * The recursive version of add(), which returns the new local root up the call stack.
+     *
+     * @param item The item being inserted.
+     * @return true if the item is inserted; false if it already exists.
+     */
+    @Override
+    public boolean addRecursive(E item) {
         increase = false;
         root = add((AVLNode<E>) root, item);
         return addReturn;
@@ -111,6 +173,7 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
             return localRoot;
         } else if (item.compareTo(localRoot.data) < 0) {    // item < data
             localRoot.left = add((AVLNode<E>) localRoot.left, item);
+            updateSize(localRoot);
 
             if (increase) {
                 decrementBalance(localRoot);
@@ -125,6 +188,7 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
             return localRoot;
         } else {    // item > data
             localRoot.right = add((AVLNode<E>) localRoot.right, item);
+            updateSize(localRoot);
 
             if (increase) {
                 incrementBalance(localRoot);
@@ -174,13 +238,13 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
             // Adjust the balances to be their new values after the rotations are performed.
 
             if (leftRightChild.balance < AVLNode.BALANCED) {
-                leftChild.balance = AVLNode.LEFT_HEAVY;
-                leftRightChild.balance = AVLNode.BALANCED;
-                localRoot.balance = AVLNode.BALANCED;
-            } else if (leftRightChild.balance > AVLNode.BALANCED) {
                 leftChild.balance = AVLNode.BALANCED;
                 leftRightChild.balance = AVLNode.BALANCED;
                 localRoot.balance = AVLNode.RIGHT_HEAVY;
+            } else if (leftRightChild.balance > AVLNode.BALANCED) {
+                leftChild.balance = AVLNode.LEFT_HEAVY;
+                leftRightChild.balance = AVLNode.BALANCED;
+                localRoot.balance = AVLNode.BALANCED;
             } else {
                 leftChild.balance = AVLNode.BALANCED;
                 localRoot.balance = AVLNode.BALANCED;
@@ -247,6 +311,26 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
         return deleteReturn;
     }
 
+    /**
+     * The deletion of an AVL tree is recursive only.
+     *
+     * @param target The target item to be deleted.
+     * @return The item removed from the tree or null if the item was not in the tree.
+     */
+    @Override
+    public E deleteRecursive(E target) {
+        return delete(target);
+    }
+
+    /**
+     * Returns the number of items in the tree.
+     *
+     * @return The size, stored in the root.
+     */
+    public int size() {
+        return size(root);
+    }
+
     /**
      * We can adapt the algorithm for removal from a binary search tree to become
      * an algorithm for removal from an AVL tree.
@@ -267,6 +351,7 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
 
         if (comp < 0) {
             localRoot.left = delete((AVLNode<E>) localRoot.left, item);
+            updateSize(localRoot);
 
             if (decrease) {
                 return rebalanceRightAfterDelete(localRoot);
@@ -275,6 +360,7 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
             return localRoot;
         } else if (comp > 0) {
             localRoot.right = delete((AVLNode<E>) localRoot.right, item);
+            updateSize(localRoot);
 
             if (decrease) {
                 return rebalanceLeftAfterDelete(localRoot);
@@ -283,49 +369,37 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
             return localRoot;
         } else {
             // Item is at local root.
-            deleteReturn = localRoot.data;
-            decrease = true;
-            return removeNode(localRoot);
-        }
-    }
-
-    private AVLNode<E> removeNode(AVLNode<E> node) {
-        if (node.left == null) {
-            return (AVLNode<E>) node.right;
-        } else if (node.right == null) {
-            return (AVLNode<E>) node.left;
-        } else {
-            // Node with two children
-            if (node.left.right == null) {
-                node.data = node.left.data;
-                node.left = node.left.left;
-                return node;
-            } else {
-                node.data = findLargestChild(node.left);
-
-                if (decrease) {
-                    return rebalanceRightAfterDelete(node);
-                }
+            E deleted = localRoot.data;
+
+            if (localRoot.left == null) {
+                deleteReturn = deleted;
+                decrease = true;
+                return (AVLNode<E>) localRoot.right;
+            } else if (localRoot.right == null) {
+                deleteReturn = deleted;
+                decrease = true;
+                return (AVLNode<E>) localRoot.left;
+            }
 
-                return node;
+            // The node has two children: replace its data with the inorder predecessor,
+            // which is deleted from the left subtree by the same recursive method so that
+            // every node on the way down to it is re-balanced as well.
+            Node<E> predecessor = localRoot.left;
+            while (predecessor.right != null) {
+                predecessor = predecessor.right;
             }
-        }
-    }
 
-    private E findLargestChild(Node<E> parent) {
-        if (parent.right.right == null) {
-            E returnValue = parent.right.data;
-            parent.right = parent.right.left;
-            decrease = true;
-            return returnValue;
-        } else {
-            E returnValue = findLargestChild(parent.right);
+            E replacement = predecessor.data;
+            localRoot.left = delete((AVLNode<E>) localRoot.left, replacement);
+            localRoot.data = replacement;
+            updateSize(localRoot);
+            deleteReturn = deleted;
 
-            if (decrease) { // Rotations may change subtree root, must update reference.
-                parent = rebalanceLeftAfterDelete((AVLNode<E>) parent);
+            if (decrease) {
+                return rebalanceRightAfterDelete(localRoot);
             }
 
-            return returnValue;
+            return localRoot;
         }
     }
 
@@ -353,6 +427,20 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
                         ((AVLNode<E>) localRoot.left).balance = AVLNode.BALANCED;
                     }
                 } else {
+                    // Right-Left case: adjust the balances to be their values after the double rotation.
+                    AVLNode<E> rightLeftChild = (AVLNode<E>) rightChild.left;
+
+                    if (rightLeftChild.balance > AVLNode.BALANCED) {
+                        localRoot.balance = AVLNode.LEFT_HEAVY;
+                        rightChild.balance = AVLNode.BALANCED;
+                    } else if (rightLeftChild.balance < AVLNode.BALANCED) {
+                        localRoot.balance = AVLNode.BALANCED;
+                        rightChild.balance = AVLNode.RIGHT_HEAVY;
+                    } else {
+                        localRoot.balance = AVLNode.BALANCED;
+                        rightChild.balance = AVLNode.BALANCED;
+                    }
+                    rightLeftChild.balance = AVLNode.BALANCED;
                     localRoot = (AVLNode<E>) rotateRightLeft(localRoot);
                 }
                 break;
@@ -384,10 +472,338 @@ public class AVLTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate
                         ((AVLNode<E>) localRoot.right).balance = AVLNode.BALANCED;
                     }
                 } else {
+                    // Left-Right case: adjust the balances to be their values after the double rotation.
+                    AVLNode<E> leftRightChild = (AVLNode<E>) leftChild.right;
+
+                    if (leftRightChild.balance < AVLNode.BALANCED) {
+                        localRoot.balance = AVLNode.RIGHT_HEAVY;
+                        leftChild.balance = AVLNode.BALANCED;
+                    } else if (leftRightChild.balance > AVLNode.BALANCED) {
+                        localRoot.balance = AVLNode.BALANCED;
+                        leftChild.balance = AVLNode.LEFT_HEAVY;
+                    } else {
+                        localRoot.balance = AVLNode.BALANCED;
+                        leftChild.balance = AVLNode.BALANCED;
+                    }
+                    leftRightChild.balance = AVLNode.BALANCED;
                     localRoot = (AVLNode<E>) rotateLeftRight(localRoot);
                 }
                 break;
         }
         return localRoot;
     }
+
+    // Join-based operations.
+
+    private static final int PARALLEL_THRESHOLD = 1 << 12;  // Smaller inputs are processed sequentially.
+
+    /**
+     * The result of split(): the items less than the key, whether the key was in the tree,
+     * and the items greater than the key.
+     */
+    public record Split<E extends Comparable<E>>(AVLTree<E> left, boolean found, AVLTree<E> right) {
+    }
+
+    /**
+     * A subtree and its height (0 if empty). The nodes store only balance factors,
+     * so the join-based operations pass the heights along.
+     */
+    private record Rooted<E>(AVLNode<E> node, int height) {
+    }
+
+    private record Parts<E>(Rooted<E> left, boolean found, Rooted<E> right) {
+    }
+
+    /**
+     * Links two trees and a key between them into one tree.
+     * The two trees are consumed: their nodes are reused, and they are left empty.
+     *
+     * @param left  The tree of the items less than the key.
+     * @param key   The key.
+     * @param right The tree of the items greater than the key.
+     * @param <E>   The type of the items.
+     * @return The tree of all the items.
+     * @throws IllegalArgumentException if the items of left are not all less than the key,
+     *                                  or the items of right not all greater.
+     */
+    public static <E extends Comparable<E>> AVLTree<E> join(AVLTree<E> left, E key, AVLTree<E> right) {
+        if ((left.root != null && max(left.root).compareTo(key) >= 0)
+                || (right.root != null && min(right.root).compareTo(key) <= 0)) {
+            throw new IllegalArgumentException("The key must be greater than all items of left and less than all items of right");
+        }
+        return consume(join(rooted(left), new AVLNode<>(key), rooted(right)), left, right);
+    }
+
+    /**
+     * Cuts a tree at a key. The tree is consumed: its nodes are reused, and it is left empty.
+     *
+     * @param tree The tree.
+     * @param key  The key.
+     * @param <E>  The type of the items.
+     * @return The tree of the items less than the key, whether the key was in the tree,
+     * and the tree of the items greater than the key.
+     */
+    public static <E extends Comparable<E>> Split<E> split(AVLTree<E> tree, E key) {
+        Parts<E> parts = split(rooted(tree), key);
+        tree.root = null;
+        return new Split<>(consume(parts.left()), parts.found(), consume(parts.right()));
+    }
+
+    /**
+     * Returns the union of two trees. Both trees are consumed: their nodes are reused, and they are left empty.
+     *
+     * @param a   The first tree.
+     * @param b   The second tree.
+     * @param <E> The type of the items.
+     * @return The tree of the items that are in a or in b.
+     */
+    public static <E extends Comparable<E>> AVLTree<E> union(AVLTree<E> a, AVLTree<E> b) {
+        return consume(a == b ? rooted(a) : union(rooted(a), rooted(b)), a, b);
+    }
+
+    /**
+     * Returns the intersection of two trees. Both trees are consumed: their nodes are reused, and they are left empty.
+     *
+     * @param a   The first tree.
+     * @param b   The second tree.
+     * @param <E> The type of the items.
+     * @return The tree of the items that are both in a and in b.
+     */
+    public static <E extends Comparable<E>> AVLTree<E> intersection(AVLTree<E> a, AVLTree<E> b) {
+        return consume(a == b ? rooted(a) : intersection(rooted(a), rooted(b)), a, b);
+    }
+
+    /**
+     * Returns the difference of two trees. Both trees are consumed: their nodes are reused, and they are left empty.
+     *
+     * @param a   The first tree.
+     * @param b   The second tree.
+     * @param <E> The type of the items.
+     * @return The tree of the items of a that are not in b.
+     */
+    public static <E extends Comparable<E>> AVLTree<E> difference(AVLTree<E> a, AVLTree<E> b) {
+        return consume(a == b ? new Rooted<>(null, 0) : difference(rooted(a), rooted(b)), a, b);
+    }
+
+    /**
+     * Returns the height of an AVL tree by following the taller child, in O(log n).
+     */
+    private static <E> int height(AVLNode<E> node) {
+        int height = 0;
+
+        for (; node != null; height++) {
+            node = (AVLNode<E>) (node.balance < 0 ? node.left : node.right);
+        }
+        return height;
+    }
+
+    private static <E extends Comparable<E>> Rooted<E> rooted(AVLTree<E> tree) {
+        return new Rooted<>((AVLNode<E>) tree.root, height((AVLNode<E>) tree.root));
+    }
+
+    @SafeVarargs
+    private static <E extends Comparable<E>> AVLTree<E> consume(Rooted<E> result, AVLTree<E>... inputs) {
+        for (AVLTree<E> input : inputs) {
+            input.root = null;
+        }
+        AVLTree<E> tree = new AVLTree<>();
+        tree.root = result.node();
+        return tree;
+    }
+
+    private static <E> E min(Node<E> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.data;
+    }
+
+    private static <E> E max(Node<E> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.data;
+    }
+
+    private static <E> Rooted<E> left(Rooted<E> tree) {
+        AVLNode<E> node = tree.node();
+        return new Rooted<>((AVLNode<E>) node.left, node.balance > 0 ? tree.height() - 2 : tree.height() - 1);
+    }
+
+    private static <E> Rooted<E> right(Rooted<E> tree) {
+        AVLNode<E> node = tree.node();
+        return new Rooted<>((AVLNode<E>) node.right, node.balance < 0 ? tree.height() - 2 : tree.height() - 1);
+    }
+
+    /**
+     * Makes node the parent of two subtrees whose heights differ by at most one.
+     */
+    private static <E> Rooted<E> link(Rooted<E> left, AVLNode<E> node, Rooted<E> right) {
+        node.left = left.node();
+        node.right = right.node();
+        node.balance = right.height() - left.height();
+        updateSize(node);
+        return new Rooted<>(node, Math.max(left.height(), right.height()) + 1);
+    }
+
+    /**
+     * Joins two subtrees with a node between them. If one subtree is more than one level taller, the
+     * other one is linked in along its spine, at the first node that is at most one level taller,
+     * and the spine is re-balanced on the way back up.
+     */
+    private static <E> Rooted<E> join(Rooted<E> left, AVLNode<E> node, Rooted<E> right) {
+        if (left.height() > right.height() + 1) {
+            return joinRight(left, node, right);
+        }
+
+        if (right.height() > left.height() + 1) {
+            return joinLeft(left, node, right);
+        }
+        return link(left, node, right);
+    }
+
+    private static <E> Rooted<E> joinRight(Rooted<E> left, AVLNode<E> node, Rooted<E> right) {
+        Rooted<E> leftLeft = left(left);
+        Rooted<E> leftRight = right(left);
+
+        if (leftRight.height() <= right.height() + 1) {
+            Rooted<E> joined = link(leftRight, node, right);
+
+            if (joined.height() <= leftLeft.height() + 1) {
+                return link(leftLeft, left.node(), joined);
+            }
+            // Right-Left case: rotate right around node, then left around the root of left.
+            Rooted<E> middleLeft = left(leftRight);
+            Rooted<E> middleRight = right(leftRight);
+            return link(link(leftLeft, left.node(), middleLeft), leftRight.node(), link(middleRight, node, right));
+        }
+        Rooted<E> joined = joinRight(leftRight, node, right);
+
+        if (joined.height() <= leftLeft.height() + 1) {
+            return link(leftLeft, left.node(), joined);
+        }
+        // Right-Right case: rotate left around the root of left.
+        return link(link(leftLeft, left.node(), left(joined)), joined.node(), right(joined));
+    }
+
+    private static <E> Rooted<E> joinLeft(Rooted<E> left, AVLNode<E> node, Rooted<E> right) {
+        Rooted<E> rightLeft = left(right);
+        Rooted<E> rightRight = right(right);
+
+        if (rightLeft.height() <= left.height() + 1) {
+            Rooted<E> joined = link(left, node, rightLeft);
+
+            if (joined.height() <= rightRight.height() + 1) {
+                return link(joined, right.node(), rightRight);
+            }
+            // Left-Right case: rotate left around node, then right around the root of right.
+            Rooted<E> middleLeft = left(rightLeft);
+            Rooted<E> middleRight = right(rightLeft);
+            return link(link(left, node, middleLeft), rightLeft.node(), link(middleRight, right.node(), rightRight));
+        }
+        Rooted<E> joined = joinLeft(left, node, rightLeft);
+
+        if (joined.height() <= rightRight.height() + 1) {
+            return link(joined, right.node(), rightRight);
+        }
+        // Left-Left case: rotate right around the root of right.
+        return link(left(joined), joined.node(), link(right(joined), right.node(), rightRight));
+    }
+
+    /**
+     * Cuts a subtree at a key: on the way back up the search path, each node is joined with its
+     * subtree on the other side of the key to the part on its own side.
+     */
+    private static <E extends Comparable<E>> Parts<E> split(Rooted<E> tree, E key) {
+        if (tree.node() == null) {
+            return new Parts<>(tree, false, tree);
+        }
+        AVLNode<E> node = tree.node();
+        Rooted<E> left = left(tree);
+        Rooted<E> right = right(tree);
+        int comp = key.compareTo(node.data);
+
+        if (comp == 0) {
+            return new Parts<>(left, true, right);
+        } else if (comp < 0) {
+            Parts<E> parts = split(left, key);
+            return new Parts<>(parts.left(), parts.found(), join(parts.right(), node, right));
+        }
+        Parts<E> parts = split(right, key);
+        return new Parts<>(join(left, node, parts.left()), parts.found(), parts.right());
+    }
+
+    /**
+     * Joins two subtrees without a node between them: the maximum of left is split off and becomes that node.
+     */
+    private static <E extends Comparable<E>> Rooted<E> join2(Rooted<E> left, Rooted<E> right) {
+        if (left.node() == null) {
+            return right;
+        }
+        AVLNode<E> last = left.node();
+
+        while (last.right != null) {
+            last = (AVLNode<E>) last.right;
+        }
+        return join(split(left, last.data).left(), last, right);
+    }
+
+    /**
+     * Splits b at the root of a, unites the two halves recursively (in parallel if the inputs are large),
+     * and joins the results with the root of a.
+     */
+    private static <E extends Comparable<E>> Rooted<E> union(Rooted<E> a, Rooted<E> b) {
+        if (a.node() == null) {
+            return b;
+        }
+
+        if (b.node() == null) {
+            return a;
+        }
+        AVLNode<E> node = a.node();
+        boolean parallel = size(node) + size(b.node()) >= PARALLEL_THRESHOLD;
+        Rooted<E> aLeft = left(a);
+        Rooted<E> aRight = right(a);
+        Parts<E> parts = split(b, node.data);
+
+        ForkJoinTask<Rooted<E>> leftTask = parallel ? ForkJoinTask.adapt(() -> union(aLeft, parts.left())).fork() : null;
+        Rooted<E> right = union(aRight, parts.right());
+        Rooted<E> left = leftTask != null ? leftTask.join() : union(aLeft, parts.left());
+        return join(left, node, right);
+    }
+
+    private static <E extends Comparable<E>> Rooted<E> intersection(Rooted<E> a, Rooted<E> b) {
+        if (a.node() == null || b.node() == null) {
+            return new Rooted<>(null, 0);
+        }
+        AVLNode<E> node = a.node();
+        boolean parallel = size(node) + size(b.node()) >= PARALLEL_THRESHOLD;
+        Rooted<E> aLeft = left(a);
+        Rooted<E> aRight = right(a);
+        Parts<E> parts = split(b, node.data);
+
+        ForkJoinTask<Rooted<E>> leftTask = parallel ? ForkJoinTask.adapt(() -> intersection(aLeft, parts.left())).fork() : null;
+        Rooted<E> right = intersection(aRight, parts.right());
+        Rooted<E> left = leftTask != null ? leftTask.join() : intersection(aLeft, parts.left());
+        return parts.found() ? join(left, node, right) : join2(left, right);
+    }
+
+    /**
+     * Splits a at the root of b, which is not in the result, and subtracts the halves of b from the halves of a.
+     */
+    private static <E extends Comparable<E>> Rooted<E> difference(Rooted<E> a, Rooted<E> b) {
+        if (a.node() == null || b.node() == null) {
+            return a;
+        }
+        AVLNode<E> node = b.node();
+        boolean parallel = size(a.node()) + size(node) >= PARALLEL_THRESHOLD;
+        Rooted<E> bLeft = left(b);
+        Rooted<E> bRight = right(b);
+        Parts<E> parts = split(a, node.data);
+
+        ForkJoinTask<Rooted<E>> leftTask = parallel ? ForkJoinTask.adapt(() -> difference(parts.left(), bLeft)).fork() : null;
+        Rooted<E> right = difference(parts.right(), bRight);
+        Rooted<E> left = leftTask != null ? leftTask.join() : difference(parts.left(), bLeft);
+        return join2(left, right);
+    }
 }
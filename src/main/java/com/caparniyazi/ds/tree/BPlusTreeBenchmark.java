@@ -0,0 +1,94 @@
+package com.caparniyazi.ds.tree;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the point and range lookup throughput of BPlusTree by order.
+ * A low order gives a deep tree with a pointer dereference (and a likely cache miss) per level;
+ * a high order gives a shallow tree with more comparisons per node, done by binary search.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.tree.BPlusTreeBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4G", "-Xmx4G"})
+public class BPlusTreeBenchmark {
+    // Data fields
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"4", "16", "64", "128", "256", "512"})
+    private int order;
+
+    @Param({"100"})
+    private int rangeLength;    // The number of keys of a range lookup.
+
+    private Integer[] lookups;  // The keys 0, 2, 4, ... in random order; odd keys are misses.
+    private BPlusTree<Integer, Integer> tree;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        lookups = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            lookups[i] = 2 * i;
+        }
+
+        for (int i = size - 1; i > 0; i--) {    // Fisher-Yates shuffle.
+            int j = random.nextInt(i + 1);
+            Integer tmp = lookups[i];
+            lookups[i] = lookups[j];
+            lookups[j] = tmp;
+        }
+
+        tree = build();
+        System.out.printf("%norder %d: height = %d%n", order, tree.getHeight());
+    }
+
+    private BPlusTree<Integer, Integer> build() {
+        BPlusTree<Integer, Integer> result = new BPlusTree<>(order);
+
+        for (Integer key : lookups) {
+            result.insert(key, key);
+        }
+        return result;
+    }
+
+    private Integer nextKey() {
+        Integer key = lookups[next];
+        if (++next == lookups.length) {
+            next = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    public Integer pointLookup() {
+        return tree.search(nextKey());
+    }
+
+    @Benchmark
+    public int rangeLookup() {
+        int from = nextKey();
+        return tree.findRange(from, from + 2 * rangeLength - 1).size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BPlusTree<Integer, Integer> insert() {
+        return build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
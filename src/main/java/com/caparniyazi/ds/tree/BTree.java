@@ -3,8 +3,11 @@ package com.caparniyazi.ds.tree;
 import lombok.Getter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * An implementation of the B-tree.In the B-tree, the maximum number of children is the "order"
@@ -235,6 +238,147 @@ public class BTree<E extends Comparable<E>> {
         return new SplitResult<>(median, left, right);
     }
 
+    /**
+     * Builds the tree from sorted keys, sequentially.
+     *
+     * @param sorted     The keys, in strictly ascending order.
+     * @param fillFactor The fraction of the key slots of each node to fill, in (0, 1].
+     * @see #bulkLoad(Iterator, double, boolean)
+     */
+    public void bulkLoad(Iterator<E> sorted, double fillFactor) {
+        bulkLoad(sorted, fillFactor, false);
+    }
+
+    /**
+     * Builds the tree from sorted keys, bottom-up in O(n), instead of adding them one by one.
+     * <p>
+     * Unlike in a B+Tree, every key is stored exactly once, and the keys of the internal nodes are the
+     * separators between their children. So the leaves take about fillFactor * (ORDER - 1) keys each,
+     * and the key that follows a leaf (except the last one) is held back as the separator between that
+     * leaf and the next. Each level of internal nodes then groups about fillFactor * (ORDER - 1) + 1 nodes
+     * of the level below, with the separators between them as its keys; the separators between two
+     * groups are held back for the next level up, until a single node (the root) is left.
+     * </p>
+     * The node sizes are evened out so that every node other than the root has at least
+     * ceil(ORDER / 2) - 1 keys, so the tree is a valid B-tree on which add() and remove() work as usual.
+     * In parallel mode, the leaves are built by tasks of the common fork-join pool. As in BPlusTree.bulkLoad(),
+     * this only pays off on several cores and for large inputs, so sequential is the default.
+     *
+     * @param sorted     The keys, in strictly ascending order.
+     * @param fillFactor The fraction of the key slots of each node to fill, in (0, 1].
+     * @param parallel   true to build the leaves in parallel.
+     * @throws IllegalStateException    if the tree is not empty.
+     * @throws IllegalArgumentException if the keys are not strictly ascending or the fill factor is not in (0, 1].
+     */
+    @SuppressWarnings("unchecked")
+    public void bulkLoad(Iterator<E> sorted, double fillFactor, boolean parallel) {
+        if (size != 0) {
+            throw new IllegalStateException("Bulk load requires an empty tree");
+        }
+        BulkLoad.checkFillFactor(fillFactor);
+
+        // Read the input into an array, checking the order of the keys.
+        E[] input = (E[]) new Comparable[16];
+        int n = 0;
+
+        while (sorted.hasNext()) {
+            E key = sorted.next();
+
+            if (n > 0 && input[n - 1].compareTo(key) >= 0) {
+                throw new IllegalArgumentException("Keys must be strictly ascending: " + input[n - 1] + ", " + key);
+            }
+
+            if (n == input.length) {
+                input = Arrays.copyOf(input, 2 * n);
+            }
+            input[n++] = key;
+        }
+
+        if (n == 0) {
+            return;
+        }
+
+        // A leaf of k keys and the separator that follows it take k + 1 input keys;
+        // with an imaginary separator after the last leaf, n + 1 slots are divided among the leaves,
+        // exactly as the children are divided among the internal nodes.
+        int targetChildren = (int) Math.round(fillFactor * (ORDER - 1)) + 1;
+        int minChildren = (ORDER + 1) / 2;
+        int[] slots = BulkLoad.groupSizes(n + 1, targetChildren, minChildren, ORDER);
+        int[] offsets = new int[slots.length];
+
+        for (int i = 1; i < slots.length; i++) {
+            offsets[i] = offsets[i - 1] + slots[i - 1];
+        }
+
+        Node<E>[] leaves = (Node<E>[]) new Node[slots.length];
+        E[] keys = input;
+
+        IntConsumer buildLeaf = i -> {
+            Node<E> leaf = new Node<>();
+            leaf.keys.addAll(Arrays.asList(keys).subList(offsets[i], offsets[i] + slots[i] - 1));
+            leaves[i] = leaf;
+        };
+
+        if (parallel) {
+            BulkLoad.parallelFor(slots.length, buildLeaf);
+        } else {
+            for (int i = 0; i < slots.length; i++) {
+                buildLeaf.accept(i);
+            }
+        }
+
+        // separators[i] separates level[i] and level[i + 1].
+        E[] separators = (E[]) new Comparable[slots.length - 1];
+        for (int i = 0; i < separators.length; i++) {
+            separators[i] = keys[offsets[i] + slots[i] - 1];
+        }
+
+        // Build the internal levels bottom-up.
+        Node<E>[] level = leaves;
+        while (level.length > 1) {
+            int[] groups = BulkLoad.groupSizes(level.length, targetChildren, minChildren, ORDER);
+            Node<E>[] parents = (Node<E>[]) new Node[groups.length];
+            E[] parentSeparators = (E[]) new Comparable[groups.length - 1];
+            int child = 0;
+
+            for (int g = 0; g < groups.length; g++) {
+                Node<E> parent = new Node<>();
+
+                for (int j = 0; j < groups[g]; j++, child++) {
+                    parent.children.add(level[child]);
+
+                    if (j > 0) {
+                        parent.keys.add(separators[child - 1]);
+                    }
+                }
+
+                if (g + 1 < groups.length) {
+                    parentSeparators[g] = separators[child - 1];   // Between this group and the next.
+                }
+                parents[g] = parent;
+            }
+            level = parents;
+            separators = parentSeparators;
+        }
+
+        root = level[0];
+        size = n;
+    }
+
+    /**
+     * Returns the number of levels of the tree.
+     *
+     * @return The height; 0 if the tree is empty.
+     */
+    public int getHeight() {
+        int height = 0;
+
+        for (Node<E> node = root; node != null; node = node.isLeaf() ? null : node.children.get(0)) {
+            height++;
+        }
+        return height;
+    }
+
     /**
      * Searching a B-tree is very similar to searching a binary search tree.
      *
@@ -339,11 +483,11 @@ public class BTree<E extends Comparable<E>> {
                 Node<E> leftChild = node.children.get(index);
                 Node<E> rightChild = node.children.get(index + 1);
 
-                if (leftChild.keys.size() >= (ORDER / 2)) {
+                if (leftChild.keys.size() > minKeys()) {
                     E predecessor = getMax(leftChild);
                     node.keys.set(index, predecessor);
                     return remove(leftChild, predecessor);
-                } else if (rightChild.keys.size() >= (ORDER / 2)) {
+                } else if (rightChild.keys.size() > minKeys()) {
                     E successor = getMin(rightChild);
                     node.keys.set(index, successor);
                     return remove(rightChild, successor);
@@ -363,7 +507,7 @@ public class BTree<E extends Comparable<E>> {
             Node<E> child = node.children.get(childIndex);
             boolean result = remove(child, key);
 
-            if (child.keys.size() < (ORDER / 2 - 1)) {
+            if (child.keys.size() < minKeys()) {
                 fixUnderflow(node, childIndex);
             }
 
@@ -371,6 +515,16 @@ public class BTree<E extends Comparable<E>> {
         }
     }
 
+    /**
+     * Returns the min. number of keys of a node other than the root: ceil(ORDER / 2) - 1.
+     * (With ORDER / 2 - 1, a node of a 2-3 tree could become empty.)
+     *
+     * @return The min. number of keys.
+     */
+    private int minKeys() {
+        return (ORDER + 1) / 2 - 1;
+    }
+
     /**
      * Handle underflow by borrowing or merging.
      */
@@ -381,7 +535,7 @@ public class BTree<E extends Comparable<E>> {
         if (index > 0) {
             Node<E> leftSibling = parent.children.get(index - 1);
 
-            if (leftSibling.keys.size() > (ORDER / 2 - 1)) {
+            if (leftSibling.keys.size() > minKeys()) {
                 // rotate right
                 child.keys.add(0, parent.keys.get(index - 1));
                 parent.keys.set(index - 1, leftSibling.keys.remove(leftSibling.keys.size() - 1));
@@ -398,7 +552,7 @@ public class BTree<E extends Comparable<E>> {
         if (index < parent.children.size() - 1) {
             Node<E> rightSibling = parent.children.get(index + 1);
 
-            if (rightSibling.keys.size() > (ORDER / 2 - 1)) {
+            if (rightSibling.keys.size() > minKeys()) {
                 // rotate left
                 child.keys.add(parent.keys.get(index));
                 parent.keys.set(index, rightSibling.keys.remove(0));
@@ -55,6 +55,48 @@ public class BinarySearchTree<E extends Comparable<? super E>> extends BinaryTre
      */
     @Override
     public boolean add(E item) {
+        if (root == null) {
+            root = new Node<>(item);
+            addReturn = true;
+            return true;
+        }
+        Node<E> node = root;
+
+        // Walk down to the null reference the new leaf replaces, without recursion.
+        while (true) {
+            int compResult = item.compareTo(node.data);
+
+            if (compResult == 0) {
+                // The item is already in the tree, do nothing.
+                addReturn = false;
+                return false;
+            } else if (compResult < 0) {
+                if (node.left == null) {
+                    node.left = new Node<>(item);
+                    break;
+                }
+                node = node.left;
+            } else {
+                if (node.right == null) {
+                    node.right = new Node<>(item);
+                    break;
+                }
+                node = node.right;
+            }
+        }
+        addReturn = true;
+        return true;
+    }
+
+    /**
+     * The recursive version of add(): each call returns the modified local root to its caller.
+     * It needs one stack frame per level, so a degenerate tree of a few thousand sorted items overflows
+     * the stack; it is kept to compare both styles (see TreeTimingBenchmark).
+     *
+     * @param item The item being inserted.
+     * @return true if the object is inserted, false if the object already exists in the tree.
+     */
+    public boolean addRecursive(E item) {
         root = add(root, item);
         return addReturn;
     }
@@ -112,6 +154,27 @@ public class BinarySearchTree<E extends Comparable<? super E>> extends BinaryTre
      */
     @Override
     public E find(E target) {
+        Node<E> node = root;
+
+        // A loop instead of tail recursion: no stack frame per level, no allocation.
+        while (node != null) {
+            int compResult = target.compareTo(node.data);
+
+            if (compResult == 0) {
+                return node.data;
+            }
+            node = compResult < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * The recursive version of find().
+     *
+     * @param target The Comparable item being sought.
+     * @return The item, if found, otherwise null.
+     */
+    public E findRecursive(E target) {
         return find(root, target);
     }
 
@@ -164,6 +227,65 @@ public class BinarySearchTree<E extends Comparable<? super E>> extends BinaryTre
      */
     @Override
     public E delete(E target) {
+        Node<E> parent = null;
+        Node<E> node = root;
+
+        // Search for the item and its parent.
+        while (node != null) {
+            int compResult = target.compareTo(node.data);
+
+            if (compResult == 0) {
+                break;
+            }
+            parent = node;
+            node = compResult < 0 ? node.left : node.right;
+        }
+
+        if (node == null) { // Item is not in the tree.
+            deleteReturn = null;
+            return null;
+        }
+        deleteReturn = node.data;
+
+        if (node.left != null && node.right != null) {
+            // Two children: replace the data with the inorder predecessor, and unlink the predecessor,
+            // which has no right child.
+            Node<E> predecessorParent = node;
+            Node<E> predecessor = node.left;
+
+            while (predecessor.right != null) {
+                predecessorParent = predecessor;
+                predecessor = predecessor.right;
+            }
+            node.data = predecessor.data;
+
+            if (predecessorParent == node) {
+                predecessorParent.left = predecessor.left;
+            } else {
+                predecessorParent.right = predecessor.left;
+            }
+        } else {
+            // At most one child: the parent references the child instead of the node.
+            Node<E> child = node.left != null ? node.left : node.right;
+
+            if (parent == null) {
+                root = child;
+            } else if (parent.left == node) {
+                parent.left = child;
+            } else {
+                parent.right = child;
+            }
+        }
+        return deleteReturn;
+    }
+
+    /**
+     * The recursive version of delete().
+     *
+     * @param target The item to be deleted.
+     * @return The item deleted from the tree or null if the item was not in the tree.
+     */
+    public E deleteRecursive(E target) {
         root = delete(root, target);
         return deleteReturn;
     }
@@ -261,6 +383,7 @@ public class BinarySearchTree<E extends Comparable<? super E>> extends BinaryTre
      *
      * @return the tree contents in ascending order (using an inorder traversal).
      */
+    @Override
     public List<E> toList() {
         final List<E> result = new ArrayList<>();
         inOrderTraverse((e, d) -> {
@@ -1,16 +1,135 @@
 package com.caparniyazi.ds.tree;
 
+import java.util.Arrays;
+
 /**
  * This class extends the BinarySearchTree by adding the rotate operations.
  * Rotation will change the balance of a search tree while preserving the search tree property.
  * Used for a common base class for self-balancing trees.
  * It avoids code duplication between AVL and Red-Black implementations.
+ * <p/>
+ * The nodes of a subclass may be SizedNodes, which store the number of nodes in their subtrees
+ * for the order statistics of OrderStatisticTree. The rotations recompute the sizes of the two nodes they move;
+ * the subclasses recompute the size of every node on the path of an insertion or a deletion (updateSize()).
  *
  * @param <E> The Element type parameter, must implement Comparable.
  */
 public class BinarySearchTreeWithRotate<E extends Comparable<E>> extends BinarySearchTree<E> {
+    // Data fields
+    /**
+     * The max. height of a balanced tree of up to 2^31 items: about 1.44 * 31 levels for an AVL tree,
+     * 2 * 31 for a red-black tree.
+     */
+    protected static final int MAX_HEIGHT = 64;
+
+    /**
+     * The search path of the last iterative insertion: path[0] is the root, and wentLeft[i] tells
+     * whether path[i + 1] is the left child of path[i]. The arrays are reused by every insertion,
+     * so walking back up needs neither recursion nor allocation.
+     */
+    @SuppressWarnings("unchecked")
+    protected final Node<E>[] path = (Node<E>[]) new Node[MAX_HEIGHT];
+    protected final boolean[] wentLeft = new boolean[MAX_HEIGHT];
+
+    /**
+     * A node that also stores the number of nodes in its subtree (itself included).
+     *
+     * @param <E> The type.
+     */
+    protected static class SizedNode<E> extends Node<E> {
+        // Data fields
+        private static final long serialVersionUID = 1L;
+        protected int size = 1;
+
+        public SizedNode(E data) {
+            super(data);
+        }
+    }
+
     // Methods
 
+    /**
+     * Records the search path of an item in path and wentLeft.
+     *
+     * @param item The item.
+     * @return The number of nodes on the path if the item is not in the tree (the new leaf becomes a child
+     * of path[depth - 1]), or -1 if it is.
+     */
+    protected int findPath(E item) {
+        int depth = 0;
+        Node<E> node = root;
+
+        while (node != null) {
+            int comp = item.compareTo(node.data);
+
+            if (comp == 0) {
+                clearPath(depth);
+                return -1;
+            }
+            path[depth] = node;
+            wentLeft[depth] = comp < 0;
+            depth++;
+            node = comp < 0 ? node.left : node.right;
+        }
+        return depth;
+    }
+
+    /**
+     * Replaces the subtree rooted at path[depth] (or the new leaf, if depth is the length of the path)
+     * by the given subtree, in its parent or as the root.
+     *
+     * @param depth   The depth of the replaced subtree.
+     * @param subtree The new subtree.
+     */
+    protected void setChildOnPath(int depth, Node<E> subtree) {
+        if (depth == 0) {
+            root = subtree;
+        } else if (wentLeft[depth - 1]) {
+            path[depth - 1].left = subtree;
+        } else {
+            path[depth - 1].right = subtree;
+        }
+    }
+
+    /**
+     * Clears the references of the path, so that it does not keep deleted nodes alive.
+     *
+     * @param depth The number of nodes on the path.
+     */
+    protected void clearPath(int depth) {
+        Arrays.fill(path, 0, depth, null);
+    }
+
+    /**
+     * Returns the number of nodes in a subtree.
+     *
+     * @param node The root of the subtree, or null.
+     * @return The size of the subtree.
+     * @throws UnsupportedOperationException if the tree does not store the sizes of its subtrees.
+     */
+    protected static int size(Node<?> node) {
+        if (node == null) {
+            return 0;
+        }
+
+        if (node instanceof SizedNode<?> sized) {
+            return sized.size;
+        }
+        throw new UnsupportedOperationException("The tree does not store the sizes of its subtrees");
+    }
+
+    /**
+     * Recomputes the size of a node from the sizes of its children.
+     * Does nothing if the tree does not store the sizes of its subtrees.
+     *
+     * @param node The node.
+     */
+    protected static void updateSize(Node<?> node) {
+        if (node instanceof SizedNode<?> sized) {
+            sized.size = 1 + size(node.left) + size(node.right);
+        }
+    }
+
     /**
      * Method that performs a right rotation.
      * Reusable only by subclasses.
@@ -28,6 +147,8 @@ public class BinarySearchTreeWithRotate<E extends Comparable<E>> extends BinaryS
         Node<E> temp = root.left;
         root.left = temp.right;
         temp.right = root;
+        updateSize(root);   // root is now a child of temp.
+        updateSize(temp);
         return temp;
     }
 
@@ -43,6 +164,8 @@ public class BinarySearchTreeWithRotate<E extends Comparable<E>> extends BinaryS
         Node<E> temp = root.right;
         root.right = temp.left;
         temp.left = root;
+        updateSize(root);
+        updateSize(temp);
         return temp;
     }
 
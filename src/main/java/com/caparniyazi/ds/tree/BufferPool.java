@@ -0,0 +1,218 @@
+package com.caparniyazi.ds.tree;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fixed number of in-memory frames that cache the pages of a file.
+ * <p/>
+ * A caller pins a page before it reads or writes it and unpins it afterwards; a pinned page is never
+ * evicted. When a page that is not cached is pinned, a frame is chosen with the CLOCK algorithm,
+ * an approximation of LRU: the frames form a circle, a hand sweeps over them, and every access sets
+ * the referenced bit of a frame. The hand clears the bits it passes over and stops at the first unpinned
+ * frame whose bit is already clear, i.e., a frame that has not been used for a whole turn of the hand.
+ * If the evicted page is dirty, it is written back before the frame is reused.
+ * <p/>
+ * The pool counts the page reads and writes, so that the I/O of an operation can be measured.
+ */
+final class BufferPool {
+    // Data fields
+
+    /**
+     * A frame holds one page. The pinCount counts the callers that use the page;
+     * dirty is set if the page was modified since it was read or written.
+     */
+    static final class Frame {
+        // Data fields
+        final ByteBuffer buffer;    // A heap buffer, so that entries can be moved with System.arraycopy().
+        int pageId = -1;    // -1 if the frame is free.
+        int pinCount;
+        boolean dirty;
+        boolean referenced;
+
+        Frame(int pageSize) {
+            buffer = ByteBuffer.allocate(pageSize);
+        }
+
+        void markDirty() {
+            dirty = true;
+        }
+    }
+
+    private final FileChannel channel;
+    private final int pageSize;
+    private final Frame[] frames;
+    private final Map<Integer, Frame> pageTable = new HashMap<>();  // The frame of each cached page.
+    private int hand;   // The next frame the clock hand looks at.
+    private long reads;
+    private long writes;
+
+    /**
+     * Creates a pool of the given number of frames over the file.
+     *
+     * @param channel  The file.
+     * @param pageSize The size of a page in bytes.
+     * @param capacity The number of frames.
+     */
+    BufferPool(FileChannel channel, int pageSize, int capacity) {
+        this.channel = channel;
+        this.pageSize = pageSize;
+        frames = new Frame[capacity];
+
+        for (int i = 0; i < capacity; i++) {
+            frames[i] = new Frame(pageSize);
+        }
+    }
+
+    /**
+     * Pins a page, reading it from the file if it is not cached.
+     *
+     * @param pageId The page number.
+     * @return The frame of the page.
+     * @throws IllegalStateException if every frame is pinned.
+     */
+    Frame pin(int pageId) {
+        Frame frame = pageTable.get(pageId);
+
+        if (frame == null) {
+            frame = evict();
+            read(frame.buffer, pageId);
+            frame.pageId = pageId;
+            pageTable.put(pageId, frame);
+        }
+        frame.pinCount++;
+        frame.referenced = true;
+        return frame;
+    }
+
+    /**
+     * Pins a page that is new to the file: the frame is zeroed instead of read, and marked dirty.
+     *
+     * @param pageId The page number, beyond the end of the pages written so far.
+     * @return The frame of the page.
+     */
+    Frame pinNew(int pageId) {
+        Frame frame = evict();
+        byte[] bytes = frame.buffer.array();
+        Arrays.fill(bytes, (byte) 0);
+        frame.pageId = pageId;
+        frame.dirty = true;
+        frame.pinCount = 1;
+        frame.referenced = true;
+        pageTable.put(pageId, frame);
+        return frame;
+    }
+
+    /**
+     * Unpins a page; the page may be evicted once no caller has it pinned.
+     *
+     * @param frame The frame of the page.
+     */
+    void unpin(Frame frame) {
+        if (frame.pinCount <= 0) {
+            throw new IllegalStateException("Page " + frame.pageId + " is not pinned");
+        }
+        frame.pinCount--;
+    }
+
+    /**
+     * Writes every dirty page back to the file.
+     */
+    void flush() {
+        for (Frame frame : frames) {
+            if (frame.dirty) {
+                write(frame.buffer, frame.pageId);
+                frame.dirty = false;
+            }
+        }
+    }
+
+    /**
+     * Chooses a frame with the CLOCK algorithm and writes its page back if it is dirty.
+     *
+     * @return A free frame.
+     * @throws IllegalStateException if every frame is pinned.
+     */
+    private Frame evict() {
+        // Two turns of the hand clear every referenced bit, so an unpinned frame is found within them.
+        for (int step = 0; step < 2 * frames.length; step++) {
+            Frame frame = frames[hand];
+            hand = hand + 1 < frames.length ? hand + 1 : 0;
+
+            if (frame.pinCount > 0) {
+                continue;
+            }
+
+            if (frame.referenced) {
+                frame.referenced = false;   // Give the page a second chance.
+                continue;
+            }
+
+            if (frame.pageId != -1) {
+                if (frame.dirty) {
+                    write(frame.buffer, frame.pageId);
+                    frame.dirty = false;
+                }
+                pageTable.remove(frame.pageId);
+                frame.pageId = -1;
+            }
+            return frame;
+        }
+        throw new IllegalStateException("All " + frames.length + " pages of the buffer pool are pinned");
+    }
+
+    private void read(ByteBuffer buffer, int pageId) {
+        buffer.clear();
+
+        try {
+            long position = (long) pageId * pageSize;
+
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Page " + pageId + " is beyond the end of the file");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read page " + pageId, e);
+        }
+        reads++;
+    }
+
+    private void write(ByteBuffer buffer, int pageId) {
+        buffer.clear();
+
+        try {
+            long position = (long) pageId * pageSize;
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write page " + pageId, e);
+        }
+        writes++;
+    }
+
+    /**
+     * Returns the number of pages read from the file.
+     *
+     * @return The number of reads.
+     */
+    long getReads() {
+        return reads;
+    }
+
+    /**
+     * Returns the number of pages written to the file.
+     *
+     * @return The number of writes.
+     */
+    long getWrites() {
+        return writes;
+    }
+}
@@ -0,0 +1,113 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Helpers shared by the bulk loaders of BPlusTree and BTree.
+ * <p/>
+ * A bulk load builds a tree bottom-up from sorted input: the leaves are filled left to right,
+ * then each level of internal nodes is built over the level below it, until a single node (the root)
+ * is left. Every node is written once, so the build is O(n), and no node is ever split.
+ * Inserting the same keys one by one costs O(n log n) comparisons, splits nodes constantly,
+ * and leaves most nodes about half full.
+ */
+final class BulkLoad {
+    // Data fields
+    private static final int THRESHOLD = 4096;  // The number of nodes below which a task is not split.
+
+    private BulkLoad() {
+    }
+
+    /**
+     * Divides m items (keys or children) into consecutive groups (nodes) of about target items each,
+     * such that every group has between lo and hi items.
+     * A B-tree always satisfies hi >= 2 * lo - 1, so for m >= lo such a division exists:
+     * the ranges [g * lo, g * hi] of consecutive group counts g overlap.
+     * When m < lo, a single group of m items is returned; it can only be the root.
+     *
+     * @param m      The number of items.
+     * @param target The desired number of items per group (the fill factor times the capacity).
+     * @param lo     The min. number of items per group.
+     * @param hi     The max. number of items per group.
+     * @return The sizes of the groups, which differ by at most one.
+     */
+    static int[] groupSizes(int m, int target, int lo, int hi) {
+        target = Math.max(lo, Math.min(hi, target));
+        int groups = Math.max(1, (int) Math.round((double) m / target));
+        groups = Math.max(groups, (m + hi - 1) / hi);   // No group above hi.
+        groups = Math.min(groups, Math.max(1, m / lo)); // No group below lo.
+
+        int[] sizes = new int[groups];
+        int base = m / groups;
+        int extra = m % groups;
+
+        for (int i = 0; i < groups; i++) {
+            sizes[i] = base + (i < extra ? 1 : 0);
+        }
+        return sizes;
+    }
+
+    /**
+     * Returns the fill factor, after checking that it is in (0, 1].
+     *
+     * @param fillFactor The fraction of the key slots of a node to fill.
+     * @return The fill factor.
+     * @throws IllegalArgumentException if the fill factor is not in (0, 1].
+     */
+    static double checkFillFactor(double fillFactor) {
+        if (!(fillFactor > 0 && fillFactor <= 1)) {
+            throw new IllegalArgumentException("Fill factor must be in (0, 1]: " + fillFactor);
+        }
+        return fillFactor;
+    }
+
+    /**
+     * Calls build.accept(i) for i = 0 ... count - 1, in parallel on the common fork-join pool.
+     * Building a node only copies a slice of the input, so a task gets at least THRESHOLD nodes
+     * (about 500,000 keys at order 128), and fewer nodes, or a pool of one thread, are built in this thread.
+     *
+     * @param count The number of nodes to build.
+     * @param build Builds node i; calls for different i must be independent.
+     */
+    static void parallelFor(int count, IntConsumer build) {
+        if (count <= THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            for (int i = 0; i < count; i++) {
+                build.accept(i);
+            }
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new BuildTask(build, 0, count));
+    }
+
+    /**
+     * Builds the nodes start ... end - 1, splitting the range in halves until it is below THRESHOLD.
+     */
+    private static class BuildTask extends RecursiveAction {
+        // Data fields
+        private static final long serialVersionUID = 1L;
+        private final IntConsumer build;
+        private final int start;
+        private final int end;
+
+        BuildTask(IntConsumer build, int start, int end) {
+            this.build = build;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    build.accept(i);
+                }
+                return;
+            }
+
+            int mid = (start + end) >>> 1;
+            invokeAll(new BuildTask(build, start, mid), new BuildTask(build, mid, end));
+        }
+    }
+}
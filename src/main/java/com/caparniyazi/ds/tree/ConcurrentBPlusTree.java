@@ -0,0 +1,528 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread-safe B+Tree using optimistic lock coupling.
+ * <p/>
+ * BPlusTree is not thread-safe, and guarding it with one global lock serializes every lookup,
+ * although two lookups never modify anything. Classic latch crabbing (lock the child, then release
+ * the parent) lets operations run in parallel in different subtrees, but every operation still
+ * writes the lock of the root, and that cache line moves between the cores on every access.
+ * <p/>
+ * Here every node has a StampedLock, which works like a version number:
+ * <pre>
+ *      - A reader does not lock anything. It reads the version (tryOptimisticRead()) of a node, reads the
+ *        node, and validates afterwards that the version did not change; if it did, it starts over.
+ *        Going down, the parent is validated after the version of the child was read, so the child
+ *        was really the child of the parent at that time (lock coupling without writing any lock).
+ *      - A writer goes down the same way and converts the version of the leaf into a write lock
+ *        (tryConvertToWriteLock()), which succeeds only if nobody modified the leaf in the meantime.
+ *      - Full internal nodes are split on the way down (eager splitting), so that a split leaf always
+ *        finds room in its parent. A split write-locks only the node and its parent.
+ *      - Every leaf keeps a link to its right sibling (a B-link), which is set before the
+ *        sibling becomes reachable from the parent. A range scan follows these links, so it stays correct
+ *        when the leaf it is reading splits: the moved keys are found in the new right sibling.
+ * </pre>
+ * Because readers write no shared memory, lookups scale with the number of cores.
+ * <p/>
+ * The fields of a node are read without a lock, so a reader may see a node in the middle of an update,
+ * e.g., a count of keys that is newer than the keys themselves. A reader therefore never trusts what
+ * it read before the validation succeeds, and treats a null key or value as a sign of such a race.
+ * Null keys and values are not allowed, like in ConcurrentHashtableChain.
+ * <p/>
+ * Like in many database systems, delete() does not merge underfull leaves: it removes the entry from
+ * its leaf only. Merges would make nodes obsolete while readers are in them, and the space of
+ * a leaf is reused by later inserts into the same key range anyway.
+ *
+ * @param <K> The key type parameter.
+ * @param <V> The value type parameter.
+ */
+public class ConcurrentBPlusTree<K extends Comparable<K>, V> {
+    // Data fields
+    private static final int DEFAULT_ORDER = 64;    // Large nodes make the tree shallow and splits rare.
+    private static final int INCONSISTENT = Integer.MIN_VALUE;  // indexOf() read a node during an update.
+    private final int order;    // Max. number of children per internal node.
+    private final int maxKeys;  // Max. keys per node (order - 1).
+    private volatile Node<K, V> root;
+    private final LongAdder size = new LongAdder(); // The number of keys.
+
+    // Constructors
+    public ConcurrentBPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * Creates an empty tree of the given order.
+     *
+     * @param order The max. number of children per internal node.
+     * @throws IllegalArgumentException if order is less than 4; an eagerly split internal node
+     *                                  needs at least 3 keys to leave a key in each half.
+     */
+    public ConcurrentBPlusTree(int order) {
+        if (order < 4) {
+            throw new IllegalArgumentException("Order must be at least 4: " + order);
+        }
+        this.order = order;
+        maxKeys = order - 1;
+        root = new LeafNode<>(maxKeys);
+    }
+
+
+    // Public API.
+
+    /**
+     * Returns the value of the key without taking any lock.
+     *
+     * @param key The key being sought.
+     * @return The value of the key, or null if it is not in the tree.
+     */
+    public V search(K key) {
+        Objects.requireNonNull(key);
+
+        while (true) {
+            Position<K, V> position = descend(key, false);
+
+            if (position != null) {
+                LeafNode<K, V> leaf = position.leaf;
+                int index = indexOf(leaf, key);
+                V value = index >= 0 ? leaf.values[index] : null;
+
+                if (index != INCONSISTENT && leaf.lock.validate(position.stamp)) {
+                    return value;
+                }
+            }
+            Thread.onSpinWait();    // A writer got in the way: start over.
+        }
+    }
+
+    /**
+     * Inserts a (key, value) pair, or replaces the value of the key.
+     *
+     * @param key   The key to be inserted.
+     * @param value The value to be inserted.
+     */
+    public void insert(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        while (true) {
+            Position<K, V> position = descend(key, true);
+
+            if (position == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            LeafNode<K, V> leaf = position.leaf;
+
+            if (leaf.numKeys == maxKeys) {
+                // Split the full leaf, then start over to insert into the proper half.
+                split(position.parent, position.parentStamp, leaf, position.stamp);
+                continue;
+            }
+
+            long stamp = leaf.lock.tryConvertToWriteLock(position.stamp);
+
+            if (stamp == 0) {
+                continue;   // The leaf was modified after it was read.
+            }
+
+            try {
+                if (leaf.numKeys == maxKeys) {
+                    continue;   // The unlocked read of numKeys was stale.
+                }
+                int index = indexOf(leaf, key);
+
+                if (index >= 0) {
+                    // Replace existing value.
+                    leaf.values[index] = value;
+                } else {
+                    index = -index - 1;
+                    System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.numKeys - index);
+                    System.arraycopy(leaf.values, index, leaf.values, index + 1, leaf.numKeys - index);
+                    leaf.keys[index] = key;
+                    leaf.values[index] = value;
+                    leaf.numKeys++;
+                    size.increment();
+                }
+                return;
+            } finally {
+                leaf.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Deletes the key. The leaf is not merged with a sibling if it becomes underfull.
+     *
+     * @param key The key to be deleted.
+     * @return true if the key was deleted.
+     */
+    public boolean delete(K key) {
+        Objects.requireNonNull(key);
+
+        while (true) {
+            Position<K, V> position = descend(key, false);
+            long stamp = position == null ? 0 : position.leaf.lock.tryConvertToWriteLock(position.stamp);
+
+            if (stamp == 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            LeafNode<K, V> leaf = position.leaf;
+
+            try {
+                int index = indexOf(leaf, key);
+
+                if (index < 0) {
+                    return false;
+                }
+
+                // The key stays referenced in the unused slot: setting it to null would let a concurrent
+                // reader that sees the old numKeys take it for a race, and retry needlessly.
+                System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.numKeys - index - 1);
+                System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.numKeys - index - 1);
+                leaf.numKeys--;
+                size.decrement();
+                return true;
+            } finally {
+                leaf.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Ranged query method using linked leaf nodes.
+     * <p/>
+     * Each leaf is read optimistically and validated; if it was modified in the meantime, it is read
+     * again, and the keys that were moved to a new right sibling by a split are reached through the
+     * right link. Keys that were already returned are skipped, so the result is sorted and has no
+     * duplicates, and every key that is in the range during the whole scan is returned.
+     * Keys inserted or deleted during the scan may or may not be seen (weak consistency).
+     *
+     * @param fromKey The starting key.
+     * @param toKey   The ending key.
+     * @return The list of all values for keys where fromKey <= key <= toKey.
+     */
+    public List<V> findRange(K fromKey, K toKey) {
+        Objects.requireNonNull(fromKey);
+        Objects.requireNonNull(toKey);
+        List<V> result = new ArrayList<>();
+        Position<K, V> position;
+
+        while ((position = descend(fromKey, false)) == null) {
+            Thread.onSpinWait();
+        }
+        LeafNode<K, V> leaf = position.leaf;
+        long stamp = position.stamp;
+        K lastKey = null;   // The greatest key returned so far.
+
+        while (true) {
+            int mark = result.size();
+            K leafLastKey = lastKey;
+            boolean done = false;
+            boolean consistent = true;
+
+            for (int i = 0, n = leaf.numKeys; i < n; i++) {
+                K key = leaf.keys[i];
+                V value = leaf.values[i];
+
+                if (key == null || value == null) {
+                    consistent = false;
+                    break;
+                }
+
+                if (key.compareTo(fromKey) < 0 || (lastKey != null && key.compareTo(lastKey) <= 0)) {
+                    continue;
+                }
+
+                if (key.compareTo(toKey) > 0) {
+                    done = true;
+                    break;
+                }
+                result.add(value);
+                leafLastKey = key;
+            }
+            LeafNode<K, V> next = leaf.next;
+
+            if (!consistent || !leaf.lock.validate(stamp)) {
+                // Read the leaf again.
+                result.subList(mark, result.size()).clear();
+                stamp = optimisticRead(leaf);
+                continue;
+            }
+            lastKey = leafLastKey;
+
+            if (done || next == null) {
+                return result;
+            }
+            leaf = next;
+            stamp = optimisticRead(leaf);
+        }
+    }
+
+    /**
+     * Returns the number of keys in the tree.
+     * The count is exact only if no update is in progress.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * Returns the order of the tree.
+     *
+     * @return The max. number of children per internal node.
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the number of levels of the tree.
+     *
+     * @return The height; 1 if the root is a leaf.
+     */
+    public int getHeight() {
+        int height = 1;
+        Node<K, V> node = root;
+
+        while (node instanceof InternalNode<K, V> internal && internal.children[0] != null) {
+            node = internal.children[0];
+            height++;
+        }
+        return height;
+    }
+
+
+    // Optimistic lock coupling.
+
+    /**
+     * The leaf where a key belongs, and its parent, with the versions read on the way down.
+     */
+    private record Position<K extends Comparable<K>, V>(LeafNode<K, V> leaf, long stamp,
+                                                        InternalNode<K, V> parent, long parentStamp) {
+    }
+
+    /**
+     * Goes down from the root to the leaf where the key belongs, validating every parent after the
+     * version of its child was read.
+     *
+     * @param key          The key.
+     * @param splitFullNodes true to split the full internal nodes on the way (writers).
+     * @return The position of the key, or null if a concurrent update was detected (or a node was split):
+     * the caller must start over.
+     */
+    private Position<K, V> descend(K key, boolean splitFullNodes) {
+        Node<K, V> node = root;
+        long stamp = node.lock.tryOptimisticRead();
+
+        if (stamp == 0 || node != root) {
+            return null;
+        }
+        InternalNode<K, V> parent = null;
+        long parentStamp = 0;
+
+        while (node instanceof InternalNode<K, V> internal) {
+            if (splitFullNodes && internal.numKeys == maxKeys) {
+                split(parent, parentStamp, internal, stamp);
+                return null;
+            }
+            int index = indexOf(internal, key);
+
+            if (index == INCONSISTENT) {
+                return null;
+            }
+            Node<K, V> child = internal.children[index >= 0 ? index + 1 : -index - 1];
+
+            if (child == null) {
+                return null;
+            }
+            long childStamp = child.lock.tryOptimisticRead();
+
+            if (childStamp == 0 || !internal.lock.validate(stamp)) {
+                return null;
+            }
+            parent = internal;
+            parentStamp = stamp;
+            node = child;
+            stamp = childStamp;
+        }
+        return new Position<>((LeafNode<K, V>) node, stamp, parent, parentStamp);
+    }
+
+    /**
+     * Splits a full node: write-locks the parent and the node, if neither changed since their versions
+     * were read, moves the upper half of the node to a new right sibling, and inserts the separator into
+     * the parent (or into a new root).
+     * The parent is not full, since full internal nodes are split on the way down.
+     * Returns without splitting if either lock cannot be taken; the caller starts over anyway.
+     */
+    private void split(InternalNode<K, V> parent, long parentStamp, Node<K, V> node, long stamp) {
+        long parentWrite = 0;
+
+        if (parent != null && (parentWrite = parent.lock.tryConvertToWriteLock(parentStamp)) == 0) {
+            return;
+        }
+        long nodeWrite = node.lock.tryConvertToWriteLock(stamp);
+
+        try {
+            if (nodeWrite == 0 || node.numKeys < maxKeys || (parent == null && node != root)) {
+                return;
+            }
+            K separator;
+            Node<K, V> sibling;
+
+            if (node instanceof LeafNode<K, V> leaf) {
+                // The right sibling gets the upper half; copy up its first key.
+                int mid = (leaf.numKeys + 1) / 2;
+                LeafNode<K, V> right = new LeafNode<>(maxKeys);
+                right.numKeys = leaf.numKeys - mid;
+                System.arraycopy(leaf.keys, mid, right.keys, 0, right.numKeys);
+                System.arraycopy(leaf.values, mid, right.values, 0, right.numKeys);
+                right.next = leaf.next;
+                leaf.next = right;  // The B-link: scans reach the moved keys before the parent knows them.
+                leaf.numKeys = mid;
+                separator = right.keys[0];
+                sibling = right;
+            } else {
+                // Push up the middle key.
+                InternalNode<K, V> internal = (InternalNode<K, V>) node;
+                int mid = internal.numKeys / 2;
+                InternalNode<K, V> right = new InternalNode<>(maxKeys);
+                right.numKeys = internal.numKeys - mid - 1;
+                System.arraycopy(internal.keys, mid + 1, right.keys, 0, right.numKeys);
+                System.arraycopy(internal.children, mid + 1, right.children, 0, right.numKeys + 1);
+                internal.numKeys = mid;
+                separator = internal.keys[mid];
+                sibling = right;
+            }
+
+            if (parent == null) {   // Root split.
+                InternalNode<K, V> newRoot = new InternalNode<>(maxKeys);
+                newRoot.keys[0] = separator;
+                newRoot.children[0] = node;
+                newRoot.children[1] = sibling;
+                newRoot.numKeys = 1;
+                root = newRoot;
+            } else {
+                int index = -indexOf(parent, separator) - 1;
+                System.arraycopy(parent.keys, index, parent.keys, index + 1, parent.numKeys - index);
+                System.arraycopy(parent.children, index + 1, parent.children, index + 2, parent.numKeys - index);
+                parent.keys[index] = separator;
+                parent.children[index + 1] = sibling;
+                parent.numKeys++;
+            }
+        } finally {
+            if (nodeWrite != 0) {
+                node.lock.unlockWrite(nodeWrite);
+            }
+
+            if (parent != null) {
+                parent.lock.unlockWrite(parentWrite);
+            }
+        }
+    }
+
+    /**
+     * Returns the version of a node, waiting while a writer holds its lock.
+     */
+    private static long optimisticRead(Node<?, ?> node) {
+        long stamp;
+
+        while ((stamp = node.lock.tryOptimisticRead()) == 0) {
+            Thread.onSpinWait();
+        }
+        return stamp;
+    }
+
+    /**
+     * Binary search among the keys of a node, which may be read during an update.
+     *
+     * @param node The node.
+     * @param key  The key being sought.
+     * @return The index of the key if found; otherwise, (-(insertion point) - 1),
+     * or INCONSISTENT if a key slot was read as null.
+     */
+    private static <K extends Comparable<K>> int indexOf(Node<K, ?> node, K key) {
+        int low = 0;
+        int high = node.numKeys - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            K midKey = node.keys[mid];
+
+            if (midKey == null) {
+                return INCONSISTENT;
+            }
+            int cmp = midKey.compareTo(key);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+
+    // Nodes.
+
+    /**
+     * A node keeps its keys sorted in keys[0 .. numKeys - 1]. A full node has maxKeys keys;
+     * it is split before a key is added, so the arrays need no room for an overflowing key.
+     * The fields are written only while the lock is held in write mode.
+     *
+     * @param <K> The key type parameter.
+     * @param <V> The value type parameter.
+     */
+    private static abstract class Node<K extends Comparable<K>, V> {
+        final StampedLock lock = new StampedLock();
+        final K[] keys;
+        int numKeys;
+
+        @SuppressWarnings("unchecked")
+        Node(int maxKeys) {
+            keys = (K[]) new Comparable[maxKeys];
+        }
+    }
+
+    private static class LeafNode<K extends Comparable<K>, V> extends Node<K, V> {
+        // Data fields
+        final V[] values;
+        LeafNode<K, V> next;    // The right link.
+
+        @SuppressWarnings("unchecked")
+        LeafNode(int maxKeys) {
+            super(maxKeys);
+            values = (V[]) new Object[maxKeys];
+        }
+    }
+
+    /**
+     * An internal node with numKeys keys has numKeys + 1 children:
+     * children[i] holds the keys k with keys[i - 1] <= k < keys[i].
+     *
+     * @param <K> The key type parameter.
+     * @param <V> The value type parameter.
+     */
+    private static class InternalNode<K extends Comparable<K>, V> extends Node<K, V> {
+        // Data fields
+        final Node<K, V>[] children;
+
+        @SuppressWarnings("unchecked")
+        InternalNode(int maxKeys) {
+            super(maxKeys);
+            children = (Node<K, V>[]) new Node[maxKeys + 1];
+        }
+    }
+}
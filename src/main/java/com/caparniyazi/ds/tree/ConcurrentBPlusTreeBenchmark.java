@@ -0,0 +1,108 @@
+package com.caparniyazi.ds.tree;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write throughput of a BPlusTree guarded by one global lock versus the ConcurrentBPlusTree,
+ * with 1, 2, 4, 8, 16 and 32 threads.
+ * <p/>
+ * Each operation picks a random key from KEY_RANGE; readPercent of the operations are lookups,
+ * the rest are inserts. The scan benchmarks read ranges of about 100 keys instead of single keys.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.tree.ConcurrentBPlusTreeBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentBPlusTreeBenchmark {
+    // Data fields
+    private static final int KEY_RANGE = 1_000_000;
+    private static final int ORDER = 64;
+    private static final int SCAN_WIDTH = 200;  // Every other key is present.
+
+    @Param({"100", "90", "50"})
+    private int readPercent;
+
+    private BPlusTree<Integer, Integer> locked;
+    private ConcurrentBPlusTree<Integer, Integer> concurrent;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        locked = new BPlusTree<>(ORDER);
+        concurrent = new ConcurrentBPlusTree<>(ORDER);
+
+        for (int i = 0; i < KEY_RANGE; i += 2) {
+            locked.insert(i, i);
+            concurrent.insert(i, i);
+        }
+    }
+
+    @Benchmark
+    public Object globalLock() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEY_RANGE);
+
+        synchronized (locked) {
+            if (random.nextInt(100) < readPercent) {
+                return locked.search(key);
+            }
+            locked.insert(key, key);
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Object optimisticLockCoupling() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEY_RANGE);
+
+        if (random.nextInt(100) < readPercent) {
+            return concurrent.search(key);
+        }
+        concurrent.insert(key, key);
+        return null;
+    }
+
+    @Benchmark
+    public Object globalLockScan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEY_RANGE);
+
+        synchronized (locked) {
+            if (random.nextInt(100) < readPercent) {
+                return locked.findRange(key, key + SCAN_WIDTH);
+            }
+            locked.insert(key, key);
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Object optimisticLockCouplingScan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(KEY_RANGE);
+
+        if (random.nextInt(100) < readPercent) {
+            return concurrent.findRange(key, key + SCAN_WIDTH);
+        }
+        concurrent.insert(key, key);
+        return null;
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads = 1; threads <= 32; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(ConcurrentBPlusTreeBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.caparniyazi.ds.tree;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes values of type T into a fixed number of bytes, so that the position of the i-th key
+ * or value on a page can be computed instead of searched (see PagedBPlusTree).
+ *
+ * @param <T> The type of the values.
+ */
+public interface FixedSizeCodec<T> {
+    /**
+     * Returns the number of bytes of a serialized value.
+     *
+     * @return The size in bytes.
+     */
+    int size();
+
+    /**
+     * Writes the value at the given position of the buffer.
+     *
+     * @param buffer The buffer.
+     * @param offset The position of the first byte.
+     * @param value  The value, not null.
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * Reads a value from the given position of the buffer.
+     *
+     * @param buffer The buffer.
+     * @param offset The position of the first byte.
+     * @return The value.
+     */
+    T read(ByteBuffer buffer, int offset);
+
+    FixedSizeCodec<Integer> INTEGER = new FixedSizeCodec<>() {
+        @Override
+        public int size() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    FixedSizeCodec<Long> LONG = new FixedSizeCodec<>() {
+        @Override
+        public int size() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    FixedSizeCodec<Double> DOUBLE = new FixedSizeCodec<>() {
+        @Override
+        public int size() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double value) {
+            buffer.putDouble(offset, value);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+}
@@ -0,0 +1,176 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FrozenSearchTree over an int[]: the same EYTZINGER and VAN_EMDE_BOAS layouts, but the keys are stored in
+ * the array itself instead of references to Integer objects elsewhere on the heap.
+ * A lookup therefore reads one array, and a 64-byte cache line holds 16 keys instead of 16 references.
+ * <p/>
+ * contains(int) searches without boxing. The complete tree of the VAN_EMDE_BOAS layout is padded with
+ * Integer.MAX_VALUE, so whether that value is a key is remembered separately.
+ */
+public class FrozenIntSearchTree implements SearchTree<Integer> {
+    // Data fields
+    private final FrozenSearchTree.Layout layout;
+    private final int size;
+    private final int[] keys;   // EYTZINGER: keys[1 ... size]; VAN_EMDE_BOAS: a complete tree padded with MAX_VALUE.
+    private final FrozenSearchTree.VebIndex veb;
+    private final boolean containsMaxValue;
+
+    // Constructors
+    private FrozenIntSearchTree(int[] sorted, FrozenSearchTree.Layout layout) {
+        this.layout = layout;
+        this.size = sorted.length;
+        this.containsMaxValue = size > 0 && sorted[size - 1] == Integer.MAX_VALUE;
+
+        if (layout == FrozenSearchTree.Layout.EYTZINGER) {
+            keys = new int[size + 1];
+            fillEytzinger(sorted, 0, 1);
+            veb = null;
+        } else {
+            veb = new FrozenSearchTree.VebIndex(FrozenSearchTree.VebIndex.heightFor(size));
+            keys = new int[veb.capacity()];
+            for (int i = 1; i <= veb.capacity(); i++) {
+                int rank = veb.inOrderRank(i);
+                keys[veb.position(i)] = rank < size ? sorted[rank] : Integer.MAX_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Freezes a search tree of Integers.
+     *
+     * @param tree   The tree, which is not changed.
+     * @param layout The layout of the frozen tree.
+     * @return An immutable copy of the tree.
+     */
+    public static FrozenIntSearchTree freeze(SearchTree<Integer> tree, FrozenSearchTree.Layout layout) {
+        return of(tree.toList().stream().mapToInt(Integer::intValue).toArray(), layout);
+    }
+
+    /**
+     * Creates a frozen tree from keys in ascending order.
+     *
+     * @param sorted The keys, in ascending order and without duplicates. The array is not kept.
+     * @param layout The layout of the frozen tree.
+     * @return The frozen tree.
+     * @throws IllegalArgumentException if the keys are not in strictly ascending order.
+     */
+    public static FrozenIntSearchTree of(int[] sorted, FrozenSearchTree.Layout layout) {
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] >= sorted[i]) {
+                throw new IllegalArgumentException("The keys are not in strictly ascending order at index " + i);
+            }
+        }
+        return new FrozenIntSearchTree(sorted, layout);
+    }
+
+    private int fillEytzinger(int[] sorted, int next, int k) {
+        if (k <= size) {
+            next = fillEytzinger(sorted, next, 2 * k);
+            keys[k] = sorted[next++];
+            next = fillEytzinger(sorted, next, 2 * k + 1);
+        }
+        return next;
+    }
+
+    public FrozenSearchTree.Layout getLayout() {
+        return layout;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Searches for a key without boxing it. See FrozenSearchTree for the branch-free descent.
+     *
+     * @param key The key.
+     * @return true if the key is in the tree.
+     */
+    public boolean contains(int key) {
+        if (layout == FrozenSearchTree.Layout.EYTZINGER) {
+            int[] a = keys;
+            int n = size;
+            int k = 1;
+
+            while (k <= n) {
+                k = 2 * k + (a[k] < key ? 1 : 0);
+            }
+            k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+            return k != 0 && a[k] == key;
+        }
+
+        int i = descend(key, 0, veb.height(), 1);
+        int k = i >>> (Integer.numberOfTrailingZeros(~i) + 1);
+        return k != 0 && keys[veb.position(k)] == key && (key != Integer.MAX_VALUE || containsMaxValue);
+    }
+
+    /**
+     * The descent of FrozenSearchTree.descend() over the keys.
+     */
+    private int descend(int key, int position, int h, int i) {
+        if (h == 1) {
+            return 2 * i + (keys[position] < key ? 1 : 0);
+        }
+        int topHeight = h / 2;
+        int bottomHeight = h - topHeight;
+        int exit = descend(key, position, topHeight, 1) - (1 << topHeight);
+        int bottomRoot = position + (1 << topHeight) - 1 + exit * ((1 << bottomHeight) - 1);
+        return descend(key, bottomRoot, bottomHeight, (i << topHeight) + exit);
+    }
+
+    @Override
+    public boolean contains(Integer target) {
+        return contains(target.intValue());
+    }
+
+    @Override
+    public Integer find(Integer target) {
+        return contains(target.intValue()) ? target : null;
+    }
+
+    @Override
+    public boolean add(Integer item) {
+        throw new UnsupportedOperationException("A frozen tree cannot be modified");
+    }
+
+    @Override
+    public Integer delete(Integer target) {
+        throw new UnsupportedOperationException("A frozen tree cannot be modified");
+    }
+
+    @Override
+    public boolean remove(Integer target) {
+        throw new UnsupportedOperationException("A frozen tree cannot be modified");
+    }
+
+    @Override
+    public List<Integer> toList() {
+        List<Integer> result = new ArrayList<>(size);
+
+        if (layout == FrozenSearchTree.Layout.EYTZINGER) {
+            inOrder(1, result);
+        } else {
+            for (int rank = 0; rank < size; rank++) {
+                result.add(keys[veb.position(veb.bfsIndex(rank))]);
+            }
+        }
+        return result;
+    }
+
+    private void inOrder(int k, List<Integer> result) {
+        if (k <= size) {
+            inOrder(2 * k, result);
+            result.add(keys[k]);
+            inOrder(2 * k + 1, result);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return layout + " " + toList();
+    }
+}
@@ -0,0 +1,326 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable search tree that stores its items in one array, without nodes and pointers: an implicit tree.
+ * It is created by freezing a SearchTree (e.g., a BinarySearchTree or AVLTree) that was built once
+ * and is only read afterward.
+ * <p/>
+ * A pointer-based tree needs a cache miss for almost every level of a lookup, because its nodes are
+ * scattered over the heap. The frozen tree places the items so that the nodes visited together lie
+ * close together in memory:
+ * <pre>
+ *     EYTZINGER      The breadth-first order of a heap: the children of the node at index k are at 2k and 2k + 1.
+ *                    The top levels of the tree share a few cache lines that stay in the cache, and the
+ *                    descendants of k four levels down are the 16 contiguous items at 16k ... 16k + 15,
+ *                    so the hardware prefetcher can load a level before the search reaches it.
+ *     VAN_EMDE_BOAS  The recursive layout: the tree of height h is cut in the middle into a top tree of
+ *                    height h/2 and its bottom trees, and each of them is laid out recursively, one after the other.
+ *                    Every subtree of height about log(B) fits in a block of B items, whatever the size of a
+ *                    cache line or page is (cache-oblivious), so a lookup touches O(log_B n) blocks.
+ * </pre>
+ * The lookups are branch-free: each level computes the index of the next node from the result of the
+ * comparison instead of branching on it, so the loop runs the same number of iterations for every key
+ * and the processor does not mispredict branches. The equality check happens once, at the end.
+ * <p/>
+ * The tree cannot be modified: add(), delete() and remove() throw an UnsupportedOperationException.
+ * See FrozenIntSearchTree for the same layouts over an int[], without references to boxed items.
+ *
+ * @param <E> The type of the items.
+ */
+public class FrozenSearchTree<E extends Comparable<? super E>> implements SearchTree<E> {
+    // Data fields
+    public enum Layout {
+        EYTZINGER, VAN_EMDE_BOAS
+    }
+
+    private final Layout layout;
+    private final int size;
+    private final Object[] items;   // EYTZINGER: items[1 ... size]; VAN_EMDE_BOAS: a complete tree padded with null.
+    private final VebIndex veb;     // Only for VAN_EMDE_BOAS.
+
+    // Constructors
+    private FrozenSearchTree(List<E> sorted, Layout layout) {
+        this.layout = layout;
+        this.size = sorted.size();
+
+        if (layout == Layout.EYTZINGER) {
+            items = new Object[size + 1];
+            fillEytzinger(sorted, 0, 1);
+            veb = null;
+        } else {
+            veb = new VebIndex(VebIndex.heightFor(size));
+            items = new Object[veb.capacity()];
+            for (int i = 1; i <= veb.capacity(); i++) {
+                int rank = veb.inOrderRank(i);
+                items[veb.position(i)] = rank < size ? sorted.get(rank) : null;
+            }
+        }
+    }
+
+    /**
+     * Freezes a search tree.
+     *
+     * @param tree   The tree, which is not changed.
+     * @param layout The layout of the frozen tree.
+     * @param <E>    The type of the items.
+     * @return An immutable copy of the tree.
+     * O(n) = n.
+     */
+    public static <E extends Comparable<? super E>> FrozenSearchTree<E> freeze(SearchTree<E> tree, Layout layout) {
+        return of(tree.toList(), layout);
+    }
+
+    /**
+     * Creates a frozen tree from items in ascending order.
+     *
+     * @param sorted The items, in ascending order and without duplicates.
+     * @param layout The layout of the frozen tree.
+     * @param <E>    The type of the items.
+     * @return The frozen tree.
+     * @throws IllegalArgumentException if the items are not in strictly ascending order.
+     */
+    public static <E extends Comparable<? super E>> FrozenSearchTree<E> of(List<E> sorted, Layout layout) {
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i - 1).compareTo(sorted.get(i)) >= 0) {
+                throw new IllegalArgumentException("The items are not in strictly ascending order at index " + i);
+            }
+        }
+        return new FrozenSearchTree<>(sorted, layout);
+    }
+
+    /**
+     * Places the items by an inorder traversal of the implicit tree.
+     *
+     * @param sorted The items.
+     * @param next   The index of the next item to place.
+     * @param k      The index of the node in the array.
+     * @return The index of the next item after this subtree.
+     */
+    private int fillEytzinger(List<E> sorted, int next, int k) {
+        if (k <= size) {
+            next = fillEytzinger(sorted, next, 2 * k);
+            items[k] = sorted.get(next++);
+            next = fillEytzinger(sorted, next, 2 * k + 1);
+        }
+        return next;
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(E target) {
+        return find(target) != null;
+    }
+
+    @Override
+    public E find(E target) {
+        return layout == Layout.EYTZINGER ? findEytzinger(target) : findVanEmdeBoas(target);
+    }
+
+    /**
+     * Descends to a leaf, going right when the node is less than the target: k collects the comparison
+     * results as bits. The last node where the search went left is the smallest item not less than the
+     * target (the lower bound): dropping the trailing 1 bits (right turns) and the 0 bit before them
+     * from k gives its index, or 0 if all items are less than the target.
+     */
+    @SuppressWarnings("unchecked")
+    private E findEytzinger(E target) {
+        Object[] a = items;
+        int n = size;
+        int k = 1;
+
+        while (k <= n) {
+            k = 2 * k + (((E) a[k]).compareTo(target) < 0 ? 1 : 0);
+        }
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+
+        E candidate = (E) a[k];     // a[0] is null.
+        return candidate != null && candidate.compareTo(target) == 0 ? candidate : null;
+    }
+
+    /**
+     * Descends the complete tree level by level, collecting the comparison results in the breadth-first
+     * index i as in findEytzinger(), and finds the position of the lower bound from i at the end.
+     * The padding (null) is greater than all items.
+     */
+    @SuppressWarnings("unchecked")
+    private E findVanEmdeBoas(E target) {
+        int i = descend(target, 0, veb.height(), 1);
+        int k = i >>> (Integer.numberOfTrailingZeros(~i) + 1);
+
+        E result = k != 0 ? (E) items[veb.position(k)] : null;
+        return result != null && result.compareTo(target) == 0 ? result : null;
+    }
+
+    /**
+     * Descends the h levels of the subtree whose root has the BFS index i and is at the given position:
+     * first its top tree, then the bottom tree where the top tree was left, which follows the top tree at
+     * the offset (exit - 2^(h/2)) * (size of a bottom tree). The recursion is as deep as the cuts of the
+     * layout (about log(height)), so a lookup keeps no path and allocates nothing.
+     *
+     * @return The BFS index of the child reached below the last level.
+     */
+    @SuppressWarnings("unchecked")
+    private int descend(E target, int position, int h, int i) {
+        if (h == 1) {
+            E item = (E) items[position];
+            return 2 * i + (item != null && item.compareTo(target) < 0 ? 1 : 0);
+        }
+        int topHeight = h / 2;
+        int bottomHeight = h - topHeight;
+        int exit = descend(target, position, topHeight, 1) - (1 << topHeight);
+        int bottomRoot = position + (1 << topHeight) - 1 + exit * ((1 << bottomHeight) - 1);
+        return descend(target, bottomRoot, bottomHeight, (i << topHeight) + exit);
+    }
+
+    @Override
+    public boolean add(E item) {
+        throw new UnsupportedOperationException("A frozen tree cannot be modified");
+    }
+
+    @Override
+    public E delete(E target) {
+        throw new UnsupportedOperationException("A frozen tree cannot be modified");
+    }
+
+    @Override
+    public boolean remove(E target) {
+        throw new UnsupportedOperationException("A frozen tree cannot be modified");
+    }
+
+    /**
+     * Returns the items in ascending order (an inorder traversal of the implicit tree).
+     *
+     * @return the items in ascending order.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> toList() {
+        List<E> result = new ArrayList<>(size);
+
+        if (layout == Layout.EYTZINGER) {
+            inOrder(1, result);
+        } else {
+            for (int rank = 0; rank < size; rank++) {
+                result.add((E) items[veb.position(veb.bfsIndex(rank))]);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inOrder(int k, List<E> result) {
+        if (k <= size) {
+            inOrder(2 * k, result);
+            result.add((E) items[k]);
+            inOrder(2 * k + 1, result);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return layout + " " + toList();
+    }
+
+    /**
+     * Maps the breadth-first (BFS) index of a node in a complete binary tree to its position
+     * in the van Emde Boas layout (Brodal, Fagerberg and Jacob, Cache Oblivious Search Trees via
+     * Binary Trees of Small Height, 2002).
+     * <p/>
+     * The recursive cuts of the tree depend only on the depth, so they are computed once per depth d:
+     * a node at depth d is the root of a bottom tree of size bottom[d], below a top tree of size top[d]
+     * whose root is at depth topDepth[d]. The BFS index i = 1, 2, 3, ... of a node has one bit per level,
+     * so its last log(top[d] + 1) bits tell which of the bottom trees it is, and its position is
+     * position(root of the top tree) + top[d] + (i & top[d]) * bottom[d].
+     */
+    static class VebIndex {
+        // Data fields
+        private final int height;
+        private final int[] top;
+        private final int[] bottom;
+        private final int[] topDepth;
+
+        // Constructors
+        VebIndex(int height) {
+            if (height < 1 || height > 30) {
+                throw new IllegalArgumentException("Height must be in [1, 30]: " + height);
+            }
+            this.height = height;
+            top = new int[height];
+            bottom = new int[height];
+            topDepth = new int[height];
+            cut(0, height);
+        }
+
+        /**
+         * Returns the height of the smallest complete tree with at least n nodes (at least 1).
+         */
+        static int heightFor(int n) {
+            return Math.max(1, 32 - Integer.numberOfLeadingZeros(n));
+        }
+
+        private void cut(int depth, int h) {
+            if (h == 1) {
+                return;
+            }
+            int topHeight = h / 2;
+            int bottomHeight = h - topHeight;
+            int d = depth + topHeight;  // The depth of the roots of the bottom trees.
+
+            top[d] = (1 << topHeight) - 1;
+            bottom[d] = (1 << bottomHeight) - 1;
+            topDepth[d] = depth;
+            cut(depth, topHeight);
+            cut(d, bottomHeight);
+        }
+
+        int height() {
+            return height;
+        }
+
+        int capacity() {
+            return (1 << height) - 1;
+        }
+
+        /**
+         * Returns the position of the node with BFS index i.
+         */
+        int position(int i) {
+            int depth = 31 - Integer.numberOfLeadingZeros(i);
+
+            if (depth == 0) {
+                return 0;
+            }
+            int ancestor = i >>> (depth - topDepth[depth]);
+            return position(ancestor) + top[depth] + (i & top[depth]) * bottom[depth];
+        }
+
+        /**
+         * Returns the inorder rank (0, 1, 2, ...) of the node with BFS index i.
+         */
+        int inOrderRank(int i) {
+            int depth = 31 - Integer.numberOfLeadingZeros(i);
+            int offset = i - (1 << depth);
+            return (2 * offset + 1) * (1 << (height - 1 - depth)) - 1;
+        }
+
+        /**
+         * Returns the BFS index of the node with the inorder rank (the inverse of inOrderRank).
+         */
+        int bfsIndex(int rank) {
+            int levelsAbove = Integer.numberOfTrailingZeros(rank + 1);     // The height of the node above the leaves.
+            int depth = height - 1 - levelsAbove;
+            int offset = ((rank + 1) >>> levelsAbove) >>> 1;
+            return (1 << depth) + offset;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.caparniyazi.ds.tree;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Random lookups in the pointer-based AVLTree and RedBlackTree versus their frozen copies
+ * (FrozenSearchTree over Integer objects, FrozenIntSearchTree over an int[]), with a binary search of a
+ * sorted int[] (Arrays.binarySearch) as the baseline. Half of the lookups are hits.
+ * <p/>
+ * The pointer-based trees are built by inserting the keys in random order, like a tree that was built
+ * once and is read afterward; the frozen trees are built from the sorted keys.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.tree.FrozenSearchTreeBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms6G", "-Xmx6G"})
+public class FrozenSearchTreeBenchmark {
+    // Data fields
+    public enum Kind {
+        AVL, RED_BLACK, EYTZINGER, VAN_EMDE_BOAS, INT_EYTZINGER, INT_VAN_EMDE_BOAS, SORTED_ARRAY
+    }
+
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"AVL", "RED_BLACK", "EYTZINGER", "VAN_EMDE_BOAS", "INT_EYTZINGER", "INT_VAN_EMDE_BOAS", "SORTED_ARRAY"})
+    private Kind kind;
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private int[] lookups;
+    private int next;
+    private IntPredicate contains;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int[] sorted = new int[size];   // The even numbers 0 ... 2 * (size - 1).
+
+        for (int i = 0; i < size; i++) {
+            sorted[i] = 2 * i;
+        }
+        lookups = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = random.nextInt(2 * size);
+        }
+        List<Integer> sortedList = new ArrayList<>(size);
+        for (int key : sorted) {
+            sortedList.add(key);
+        }
+
+        contains = switch (kind) {
+            case AVL -> build(new AVLTree<>(), sorted, random)::contains;
+            case RED_BLACK -> build(new RedBlackTree<>(), sorted, random)::contains;
+            case EYTZINGER -> FrozenSearchTree.of(sortedList, FrozenSearchTree.Layout.EYTZINGER)::contains;
+            case VAN_EMDE_BOAS -> FrozenSearchTree.of(sortedList, FrozenSearchTree.Layout.VAN_EMDE_BOAS)::contains;
+            case INT_EYTZINGER -> FrozenIntSearchTree.of(sorted, FrozenSearchTree.Layout.EYTZINGER)::contains;
+            case INT_VAN_EMDE_BOAS -> FrozenIntSearchTree.of(sorted, FrozenSearchTree.Layout.VAN_EMDE_BOAS)::contains;
+            case SORTED_ARRAY -> key -> Arrays.binarySearch(sorted, key) >= 0;
+        };
+    }
+
+    private static SearchTree<Integer> build(SearchTree<Integer> tree, int[] sorted, Random random) {
+        int[] keys = sorted.clone();
+
+        for (int i = keys.length - 1; i > 0; i--) {     // Fisher-Yates shuffle.
+            int j = random.nextInt(i + 1);
+            int temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+        for (int key : keys) {
+            tree.add(key);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public boolean lookup() {
+        int key = lookups[next];
+        next = (next + 1) & (LOOKUPS - 1);
+        return contains.test(key);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
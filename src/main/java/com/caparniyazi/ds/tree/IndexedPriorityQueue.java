@@ -0,0 +1,231 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A primitive version of ModifiablePriorityQueue for the items 0 ... capacity - 1 with double priorities,
+ * e.g., the vertices of a graph and their distances.
+ * <p/>
+ * ModifiablePriorityQueue finds an item through a HashMap and changes its priority by removing and
+ * re-inserting it, boxing every item. This queue stores the heap in an int[], the priorities in a double[]
+ * indexed by item, and the position of each item in the heap in an int[], so decreaseKey() finds the
+ * item in O(1) and moves it up in O(log n), without allocating.
+ * <p/>
+ * The heap is d-ary: node i has the children d * i + 1 ... d * i + d. A larger d makes the heap lower,
+ * so decreaseKey(), which moves an item up, gets cheaper, while poll(), which compares d children per
+ * level, gets more expensive. Dijkstra's algorithm calls decreaseKey() more often than poll(), and d = 4
+ * keeps the children of a node in one cache line.
+ * <p/>
+ * clear() takes O(size) time, so the queue can be reused by many searches that each touch a few items.
+ */
+public class IndexedPriorityQueue {
+    // Data fields
+    private final int arity;
+    private final int[] heap;       // The items in heap order.
+    private final int[] position;   // The index of each item in heap, or -1 if it is not in the queue.
+    private final double[] priority;
+    private int size;
+
+    // Constructors
+
+    /**
+     * Creates a 4-ary queue for the items 0 ... capacity - 1.
+     *
+     * @param capacity The number of items.
+     */
+    public IndexedPriorityQueue(int capacity) {
+        this(capacity, 4);
+    }
+
+    /**
+     * Creates a queue for the items 0 ... capacity - 1.
+     *
+     * @param capacity The number of items.
+     * @param arity    The number of children of a heap node (2 for a binary heap).
+     * @throws IllegalArgumentException if capacity is negative or arity is less than 2.
+     */
+    public IndexedPriorityQueue(int capacity, int arity) {
+        if (capacity < 0 || arity < 2) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " or arity " + arity);
+        }
+        this.arity = arity;
+        heap = new int[capacity];
+        position = new int[capacity];
+        priority = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int item) {
+        return position[item] >= 0;
+    }
+
+    /**
+     * Returns the priority of an item in the queue.
+     *
+     * @param item The item.
+     * @return The priority.
+     * @throws NoSuchElementException if the item is not in the queue.
+     */
+    public double getPriority(int item) {
+        if (position[item] < 0) {
+            throw new NoSuchElementException("Item not found in queue: " + item);
+        }
+        return priority[item];
+    }
+
+    /**
+     * Inserts an item, or lowers its priority if it is already in the queue.
+     *
+     * @param item     The item.
+     * @param priority The priority.
+     * @return true if the item was inserted or its priority lowered,
+     * false if it is already in the queue with a priority that is not higher.
+     */
+    public boolean offer(int item, double priority) {
+        if (position[item] < 0) {
+            heap[size] = item;
+            position[item] = size;
+            this.priority[item] = priority;
+            bubbleUp(size++);
+            return true;
+        }
+
+        if (priority < this.priority[item]) {
+            this.priority[item] = priority;
+            bubbleUp(position[item]);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lowers the priority of an item in the queue.
+     *
+     * @param item     The item.
+     * @param priority The new priority.
+     * @throws NoSuchElementException   if the item is not in the queue.
+     * @throws IllegalArgumentException if the new priority is higher than the current one.
+     */
+    public void decreaseKey(int item, double priority) {
+        if (position[item] < 0) {
+            throw new NoSuchElementException("Item not found in queue: " + item);
+        }
+
+        if (priority > this.priority[item]) {
+            throw new IllegalArgumentException("The new priority " + priority + " is higher than " + this.priority[item]);
+        }
+        this.priority[item] = priority;
+        bubbleUp(position[item]);
+    }
+
+    /**
+     * Returns the item with the smallest priority without removing it.
+     *
+     * @return The item.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes the item with the smallest priority.
+     *
+     * @return The item.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+        int result = heap[0];
+        position[result] = -1;
+
+        if (--size > 0) {
+            // Move the last item to the top and let it trickle down.
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            trickleDown(0);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all items, in O(size) time.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the item at index child up while it is smaller than its parent.
+     * The parents move down into the hole instead of swapping, so each level costs one write.
+     */
+    private void bubbleUp(int child) {
+        int item = heap[child];
+        double key = priority[item];
+
+        while (child > 0) {
+            int parent = (child - 1) / arity;
+            int parentItem = heap[parent];
+
+            if (priority[parentItem] <= key) {
+                break;
+            }
+            heap[child] = parentItem;
+            position[parentItem] = child;
+            child = parent;
+        }
+        heap[child] = item;
+        position[item] = child;
+    }
+
+    private void trickleDown(int parent) {
+        int item = heap[parent];
+        double key = priority[item];
+
+        while (true) {
+            int first = arity * parent + 1;
+
+            if (first >= size) {
+                break;  // Out of heap.
+            }
+            int last = Math.min(first + arity, size);
+            int minChild = first;
+            double minKey = priority[heap[first]];
+
+            for (int child = first + 1; child < last; child++) {
+                double childKey = priority[heap[child]];
+
+                if (childKey < minKey) {
+                    minChild = child;
+                    minKey = childKey;
+                }
+            }
+
+            if (key <= minKey) {
+                break;  // Heap property is restored.
+            }
+            heap[parent] = heap[minChild];
+            position[heap[parent]] = parent;
+            parent = minChild;
+        }
+        heap[parent] = item;
+        position[item] = parent;
+    }
+}
@@ -0,0 +1,95 @@
+package com.caparniyazi.ds.tree;
+
+/**
+ * A self-balancing binary search tree whose nodes are SizedNodes (AVLTree, RedBlackTree), with order statistics:
+ * every node stores the number of nodes in its subtree, so that the rank of an item, the k-th smallest item
+ * and the number of items in a range are found on a single path from the root, in O(log n).
+ * A plain BinarySearchTreeWithRotate does not store the sizes, so it does not offer these methods.
+ *
+ * @param <E> The Element type parameter, must implement Comparable.
+ */
+public abstract class OrderStatisticTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate<E> {
+    // Methods
+
+    /**
+     * Returns the number of items less than the given item,
+     * i.e., the index the item has (or would have) in the sorted order.
+     *
+     * @param item The item.
+     * @return The rank of the item, between 0 and the size of the tree.
+     * O(n) = O(log n).
+     */
+    public int rank(E item) {
+        return countLess(item, false);
+    }
+
+    /**
+     * Returns the k-th smallest item, counting from 0.
+     *
+     * @param k The index of the item in the sorted order.
+     * @return The item.
+     * @throws IndexOutOfBoundsException if k is negative or not less than the size of the tree.
+     * O(n) = O(log n).
+     */
+    public E select(int k) {
+        if (k < 0 || k >= size(root)) {
+            throw new IndexOutOfBoundsException("select(" + k + ") on a tree of size " + size(root));
+        }
+        Node<E> node = root;
+
+        while (true) {
+            int leftSize = size(node.left);
+
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;  // Skip the left subtree and the node.
+                node = node.right;
+            } else {
+                return node.data;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items x with lo <= x <= hi.
+     *
+     * @param lo The lower bound.
+     * @param hi The upper bound.
+     * @return The number of items in the range; 0 if lo > hi.
+     * O(n) = O(log n).
+     */
+    public int countInRange(E lo, E hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        }
+        return countLess(hi, true) - countLess(lo, false);
+    }
+
+    /**
+     * Counts the items less than (or equal to) the given item: going down the search path,
+     * every step to the right passes over a node and its whole left subtree.
+     *
+     * @param item      The item.
+     * @param inclusive true to count an item equal to the given item as well.
+     * @return The number of items.
+     */
+    private int countLess(E item, boolean inclusive) {
+        int count = 0;
+        Node<E> node = root;
+
+        while (node != null) {
+            int comp = item.compareTo(node.data);
+
+            if (comp < 0) {
+                node = node.left;
+            } else if (comp > 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return count + size(node.left) + (inclusive ? 1 : 0);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,687 @@
+package com.caparniyazi.ds.tree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A B+Tree stored in fixed-size pages of a single file, accessed through a buffer pool.
+ * <p/>
+ * BPlusTree lives on the Java heap, so its size is limited by the heap and it is lost when the process
+ * exits. Here every node is a page of the file (PAGE_SIZE bytes by default), and at most a configurable
+ * number of pages are cached in memory by a BufferPool. Each operation pins the pages it uses and
+ * unpins them when it is done:
+ * <pre>
+ *     search()     pins one page per level, releasing the parent as soon as the child is pinned.
+ *     findRange()  the same down to the first leaf, then one leaf at a time along the sequence set.
+ *     insert()     pins the path from the root to the leaf, because a split propagates upwards,
+ *                  plus the new sibling of a splitting node.
+ *     delete()     the same as search(); only the leaf is modified.
+ * </pre>
+ * So a search reads at most (height) pages, and a range query of k entries reads at most
+ * (height + k / leaf capacity + 1) pages, however large the file is. The internal nodes are few and are
+ * used by every operation, so the CLOCK replacement of the pool usually keeps them cached.
+ * <p/>
+ * Keys and values are serialized by FixedSizeCodecs, so a page is an array of fixed-size fields:
+ * <pre>
+ *     page 0       header: magic, page size, key size, value size, root page, page count, size
+ *     leaf         type, numKeys, next leaf page | keys[leafCapacity]     | values[leafCapacity]
+ *     internal     type, numKeys                 | keys[internalMaxKeys] | children[internalMaxKeys + 1]
+ * </pre>
+ * Page number 0 (the header) never is a node, so it also marks "no next leaf".
+ * <p/>
+ * Like in many database systems, delete() does not merge or rebalance pages: it removes the entry
+ * from its leaf, and the space is reused by later inserts into the same key range. Searches stay
+ * correct because the separators of the internal nodes still route every key to its leaf.
+ * <p/>
+ * The header and the dirty pages are written back by flush() and close(), and when a dirty page is
+ * evicted from the pool. There is no write-ahead log, so a crash between two flushes can leave the
+ * file inconsistent.
+ *
+ * @param <K> The key type parameter.
+ * @param <V> The value type parameter.
+ */
+public class PagedBPlusTree<K extends Comparable<K>, V> implements Closeable {
+    // Data fields
+    public static final int PAGE_SIZE = 8192;
+
+    private static final long MAGIC = 0x4B57425054524545L;  // "KWBPTREE"
+    private static final int PAGE_SIZE_OFFSET = 8;
+    private static final int KEY_SIZE_OFFSET = 12;
+    private static final int VALUE_SIZE_OFFSET = 16;
+    private static final int ROOT_OFFSET = 20;
+    private static final int PAGE_COUNT_OFFSET = 24;
+    private static final int SIZE_OFFSET = 28;
+    private static final int MIN_POOL_PAGES = 16;
+
+    // The node header: a type byte, numKeys and (for a leaf) the next leaf.
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int TYPE_OFFSET = 0;
+    private static final int NUM_KEYS_OFFSET = 4;
+    private static final int NEXT_OFFSET = 8;
+    private static final int NODE_HEADER_SIZE = 16;
+    private static final int NO_PAGE = 0;
+
+    private final Path file;
+    private final FixedSizeCodec<K> keyCodec;
+    private final FixedSizeCodec<V> valueCodec;
+    private final int pageSize;
+    private final int keySize;
+    private final int valueSize;
+    private final int leafCapacity; // Max. entries per leaf.
+    private final int internalMaxKeys;  // Max. keys per internal node.
+    private FileChannel channel;
+    private BufferPool pool;    // null once closed.
+    private int rootPage;
+    private int pageCount;  // The number of pages in the file, including the header.
+    private int size;   // The number of keys.
+
+    // Constructors
+
+    /**
+     * Opens the tree stored in the file, or creates an empty tree if the file does not exist,
+     * with pages of PAGE_SIZE bytes.
+     *
+     * @param file       The tree file.
+     * @param keyCodec   Serializes the keys.
+     * @param valueCodec Serializes the values.
+     * @param poolPages  The number of pages cached in memory.
+     */
+    public PagedBPlusTree(Path file, FixedSizeCodec<K> keyCodec, FixedSizeCodec<V> valueCodec, int poolPages) {
+        this(file, keyCodec, valueCodec, PAGE_SIZE, poolPages);
+    }
+
+    /**
+     * Opens the tree stored in the file, or creates an empty tree if the file does not exist.
+     *
+     * @param file       The tree file.
+     * @param keyCodec   Serializes the keys.
+     * @param valueCodec Serializes the values.
+     * @param pageSize   The size of a page in bytes; it must match the size the file was created with.
+     * @param poolPages  The number of pages cached in memory, at least MIN_POOL_PAGES.
+     * @throws IllegalArgumentException if a page cannot hold 3 entries, or the pool is too small.
+     */
+    public PagedBPlusTree(Path file, FixedSizeCodec<K> keyCodec, FixedSizeCodec<V> valueCodec, int pageSize, int poolPages) {
+        this.file = file;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.pageSize = pageSize;
+        keySize = keyCodec.size();
+        valueSize = valueCodec.size();
+        leafCapacity = (pageSize - NODE_HEADER_SIZE) / (keySize + valueSize);
+        internalMaxKeys = (pageSize - NODE_HEADER_SIZE - Integer.BYTES) / (keySize + Integer.BYTES);
+
+        if (leafCapacity < 3 || internalMaxKeys < 2) {
+            throw new IllegalArgumentException("Page size " + pageSize + " is too small for the keys and values");
+        }
+
+        if (poolPages < MIN_POOL_PAGES) {
+            throw new IllegalArgumentException("Buffer pool must have at least " + MIN_POOL_PAGES + " pages: " + poolPages);
+        }
+
+        try {
+            boolean exists = Files.exists(file) && Files.size(file) > 0;
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            pool = new BufferPool(channel, pageSize, poolPages);
+
+            if (exists) {
+                readHeader();
+            } else {
+                // An empty tree is a header and an empty root leaf.
+                pageCount = 1;
+                rootPage = allocateLeaf();
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open B+Tree file " + file, e);
+        }
+    }
+
+    /**
+     * Reads the header and checks that the file matches the page size and the codecs.
+     *
+     * @throws IOException If the file cannot be read or is not a tree file.
+     */
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SIZE_OFFSET + Integer.BYTES);
+
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // Read the whole header.
+        }
+
+        if (header.hasRemaining() || header.getLong(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a B+Tree file: " + file);
+        }
+
+        if (header.getInt(PAGE_SIZE_OFFSET) != pageSize || header.getInt(KEY_SIZE_OFFSET) != keySize
+                || header.getInt(VALUE_SIZE_OFFSET) != valueSize) {
+            channel.close();
+            throw new IOException("B+Tree file " + file + " has a different page, key or value size");
+        }
+        rootPage = header.getInt(ROOT_OFFSET);
+        pageCount = header.getInt(PAGE_COUNT_OFFSET);
+        size = header.getInt(SIZE_OFFSET);
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(pageSize);
+        header.putLong(0, MAGIC);
+        header.putInt(PAGE_SIZE_OFFSET, pageSize);
+        header.putInt(KEY_SIZE_OFFSET, keySize);
+        header.putInt(VALUE_SIZE_OFFSET, valueSize);
+        header.putInt(ROOT_OFFSET, rootPage);
+        header.putInt(PAGE_COUNT_OFFSET, pageCount);
+        header.putInt(SIZE_OFFSET, size);
+
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private void ensureOpen() {
+        if (pool == null) {
+            throw new IllegalStateException("B+Tree file is closed: " + file);
+        }
+    }
+
+
+    // Public API.
+
+    /**
+     * Returns the value of the key.
+     *
+     * @param key The key being sought.
+     * @return The value of the key, or null if it is not in the tree.
+     */
+    public V search(K key) {
+        ensureOpen();
+        BufferPool.Frame frame = findLeaf(key);
+
+        try {
+            int index = indexOf(frame.buffer, key);
+            return index >= 0 ? readValue(frame.buffer, index) : null;
+        } finally {
+            pool.unpin(frame);
+        }
+    }
+
+    /**
+     * Ranged query method using linked leaf pages.
+     * Only one leaf is pinned at a time; the next leaf is pinned before the current one is released.
+     *
+     * @param fromKey The starting key.
+     * @param toKey   The ending key.
+     * @return The list of all values for keys where fromKey <= key <= toKey.
+     */
+    public List<V> findRange(K fromKey, K toKey) {
+        ensureOpen();
+        List<V> result = new ArrayList<>();
+        BufferPool.Frame frame = findLeaf(fromKey);
+
+        try {
+            int index = indexOf(frame.buffer, fromKey);
+
+            if (index < 0) {
+                index = -index - 1;
+            }
+
+            while (true) {
+                ByteBuffer page = frame.buffer;
+
+                for (int n = numKeys(page); index < n; index++) {
+                    if (readKey(page, index).compareTo(toKey) > 0) {
+                        return result;  // Stop early.
+                    }
+                    result.add(readValue(page, index));
+                }
+
+                int next = page.getInt(NEXT_OFFSET);
+                if (next == NO_PAGE) {
+                    return result;
+                }
+
+                BufferPool.Frame nextFrame = pool.pin(next);
+                pool.unpin(frame);
+                frame = nextFrame;
+                index = 0;
+            }
+        } finally {
+            pool.unpin(frame);
+        }
+    }
+
+    /**
+     * Inserts a (key, value) pair, or replaces the value of the key.
+     *
+     * @param key   The key to be inserted.
+     * @param value The value to be inserted.
+     */
+    public void insert(K key, V value) {
+        ensureOpen();
+        Split<K> split = insert(rootPage, key, value);
+
+        if (split != null) {    // Root split.
+            int newRoot = allocate();
+            BufferPool.Frame frame = pool.pinNew(newRoot);
+            ByteBuffer page = frame.buffer;
+            page.put(TYPE_OFFSET, INTERNAL);
+            setNumKeys(page, 1);
+            keyCodec.write(page, internalKeyOffset(0), split.key);
+            setChild(page, 0, rootPage);
+            setChild(page, 1, split.page);
+            pool.unpin(frame);
+            rootPage = newRoot;
+        }
+    }
+
+    /**
+     * Deletes the key. The leaf is not merged with a sibling if it becomes underfull.
+     *
+     * @param key The key to be deleted.
+     * @return true if the key was deleted.
+     */
+    public boolean delete(K key) {
+        ensureOpen();
+        BufferPool.Frame frame = findLeaf(key);
+
+        try {
+            ByteBuffer page = frame.buffer;
+            int index = indexOf(page, key);
+
+            if (index < 0) {
+                return false;
+            }
+
+            int n = numKeys(page);
+            moveLeafEntries(page, index + 1, index, n - index - 1);
+            setNumKeys(page, n - 1);
+            frame.markDirty();
+            size--;
+            return true;
+        } finally {
+            pool.unpin(frame);
+        }
+    }
+
+    /**
+     * Returns the number of keys in the tree.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of levels of the tree.
+     *
+     * @return The height; 1 if the root is a leaf.
+     */
+    public int getHeight() {
+        ensureOpen();
+        int height = 1;
+        BufferPool.Frame frame = pool.pin(rootPage);
+
+        while (frame.buffer.get(TYPE_OFFSET) == INTERNAL) {
+            BufferPool.Frame child = pool.pin(child(frame.buffer, 0));
+            pool.unpin(frame);
+            frame = child;
+            height++;
+        }
+        pool.unpin(frame);
+        return height;
+    }
+
+    /**
+     * Returns the number of pages read from the file since the tree was opened.
+     *
+     * @return The number of page reads.
+     */
+    public long getPageReads() {
+        ensureOpen();
+        return pool.getReads();
+    }
+
+    /**
+     * Returns the number of pages written to the file since the tree was opened.
+     *
+     * @return The number of page writes.
+     */
+    public long getPageWrites() {
+        ensureOpen();
+        return pool.getWrites();
+    }
+
+    /**
+     * Writes the dirty pages and the header back and forces them to the disk.
+     */
+    public void flush() {
+        ensureOpen();
+        pool.flush();
+
+        try {
+            writeHeader();
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot flush B+Tree file " + file, e);
+        }
+    }
+
+    /**
+     * Flushes the tree and closes the file. The tree cannot be used afterwards.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (pool != null) {
+            flush();
+            pool = null;
+            channel.close();
+        }
+    }
+
+
+    // Tree algorithms.
+
+    /**
+     * The result of a split: the key to insert into the parent, and the page of the new right sibling.
+     */
+    private record Split<K>(K key, int page) {
+    }
+
+    /**
+     * Descends from the root to the leaf where the key belongs, pinning one page per level and
+     * unpinning the parent as soon as the child is pinned.
+     *
+     * @param key The key being sought.
+     * @return The pinned frame of the leaf.
+     */
+    private BufferPool.Frame findLeaf(K key) {
+        BufferPool.Frame frame = pool.pin(rootPage);
+
+        while (frame.buffer.get(TYPE_OFFSET) == INTERNAL) {
+            int childPage = child(frame.buffer, findChildIndex(frame.buffer, key));
+            BufferPool.Frame child;
+
+            try {
+                child = pool.pin(childPage);
+            } finally {
+                pool.unpin(frame);
+            }
+            frame = child;
+        }
+        return frame;
+    }
+
+    /**
+     * The recursive insert with split propagation; the page stays pinned while its child is updated.
+     *
+     * @param pageId The page of the local root.
+     * @param key    The key.
+     * @param value  The value.
+     * @return The split of the page, or null if it did not split.
+     */
+    private Split<K> insert(int pageId, K key, V value) {
+        BufferPool.Frame frame = pool.pin(pageId);
+
+        try {
+            ByteBuffer page = frame.buffer;
+
+            if (page.get(TYPE_OFFSET) == LEAF) {
+                return insertIntoLeaf(frame, key, value);
+            }
+
+            int index = findChildIndex(page, key);
+            Split<K> split = insert(child(page, index), key, value);
+
+            if (split == null) {
+                return null;
+            }
+            return insertIntoInternal(frame, index, split);
+        } finally {
+            pool.unpin(frame);
+        }
+    }
+
+    private Split<K> insertIntoLeaf(BufferPool.Frame frame, K key, V value) {
+        ByteBuffer page = frame.buffer;
+        int index = indexOf(page, key);
+        frame.markDirty();
+
+        if (index >= 0) {
+            // Replace existing value.
+            valueCodec.write(page, valueOffset(index), value);
+            return null;
+        }
+
+        index = -index - 1;
+        int n = numKeys(page);
+        size++;
+
+        if (n < leafCapacity) {
+            moveLeafEntries(page, index, index + 1, n - index);
+            keyCodec.write(page, leafKeyOffset(index), key);
+            valueCodec.write(page, valueOffset(index), value);
+            setNumKeys(page, n + 1);
+            return null;
+        }
+
+        // The leaf is full: the upper half of the n + 1 entries goes to a new right sibling.
+        int mid = (n + 2) / 2;  // The number of entries that stay; ceil half.
+        int siblingPage = allocate();
+        BufferPool.Frame siblingFrame = pool.pinNew(siblingPage);
+
+        try {
+            ByteBuffer sibling = siblingFrame.buffer;
+            sibling.put(TYPE_OFFSET, LEAF);
+
+            if (index < mid) {
+                // The new entry stays in this leaf: move entries mid - 1 ... n - 1, then insert.
+                copyLeafEntries(page, mid - 1, sibling, 0, n - mid + 1);
+                setNumKeys(sibling, n - mid + 1);
+                moveLeafEntries(page, index, index + 1, mid - 1 - index);
+                keyCodec.write(page, leafKeyOffset(index), key);
+                valueCodec.write(page, valueOffset(index), value);
+            } else {
+                // The new entry goes to the sibling.
+                int at = index - mid;
+                copyLeafEntries(page, mid, sibling, 0, at);
+                keyCodec.write(sibling, leafKeyOffset(at), key);
+                valueCodec.write(sibling, valueOffset(at), value);
+                copyLeafEntries(page, index, sibling, at + 1, n - index);
+                setNumKeys(sibling, n + 1 - mid);
+            }
+            setNumKeys(page, mid);
+
+            // Link the siblings.
+            sibling.putInt(NEXT_OFFSET, page.getInt(NEXT_OFFSET));
+            page.putInt(NEXT_OFFSET, siblingPage);
+
+            // Promote (copy up) the first key of the right sibling.
+            return new Split<>(readKey(sibling, 0), siblingPage);
+        } finally {
+            pool.unpin(siblingFrame);
+        }
+    }
+
+    /**
+     * Inserts the separator and the new child of a split child at the given index, and splits the page
+     * if it is full: the middle key of the numKeys + 1 keys is pushed up.
+     */
+    private Split<K> insertIntoInternal(BufferPool.Frame frame, int index, Split<K> childSplit) {
+        ByteBuffer page = frame.buffer;
+        int n = numKeys(page);
+        frame.markDirty();
+
+        // Build the n + 1 keys and n + 2 children in scratch arrays, then write them back.
+        byte[] bytes = page.array();
+        byte[] keys = new byte[(n + 1) * keySize];
+        int[] children = new int[n + 2];
+
+        System.arraycopy(bytes, internalKeyOffset(0), keys, 0, index * keySize);
+        System.arraycopy(bytes, internalKeyOffset(index), keys, (index + 1) * keySize, (n - index) * keySize);
+        ByteBuffer keyBuffer = ByteBuffer.wrap(keys);
+        keyCodec.write(keyBuffer, index * keySize, childSplit.key);
+
+        for (int i = 0, j = 0; i < n + 2; i++) {
+            children[i] = i == index + 1 ? childSplit.page : child(page, j++);
+        }
+
+        if (n < internalMaxKeys) {
+            System.arraycopy(keys, 0, bytes, internalKeyOffset(0), keys.length);
+            for (int i = 0; i < children.length; i++) {
+                setChild(page, i, children[i]);
+            }
+            setNumKeys(page, n + 1);
+            return null;
+        }
+
+        // Split: this page keeps keys 0 ... mid - 1, the sibling gets keys mid + 1 ... n.
+        int mid = (n + 1) / 2;
+        int siblingPage = allocate();
+        BufferPool.Frame siblingFrame = pool.pinNew(siblingPage);
+
+        try {
+            ByteBuffer sibling = siblingFrame.buffer;
+            sibling.put(TYPE_OFFSET, INTERNAL);
+
+            System.arraycopy(keys, 0, bytes, internalKeyOffset(0), mid * keySize);
+            for (int i = 0; i <= mid; i++) {
+                setChild(page, i, children[i]);
+            }
+            setNumKeys(page, mid);
+
+            int siblingKeys = n - mid;
+            System.arraycopy(keys, (mid + 1) * keySize, sibling.array(), internalKeyOffset(0), siblingKeys * keySize);
+            for (int i = 0; i <= siblingKeys; i++) {
+                setChild(sibling, i, children[mid + 1 + i]);
+            }
+            setNumKeys(sibling, siblingKeys);
+
+            return new Split<>(keyCodec.read(keyBuffer, mid * keySize), siblingPage);
+        } finally {
+            pool.unpin(siblingFrame);
+        }
+    }
+
+    /**
+     * Appends a page to the file and writes an empty leaf into it.
+     *
+     * @return The page number.
+     */
+    private int allocateLeaf() {
+        int pageId = allocate();
+        BufferPool.Frame frame = pool.pinNew(pageId);
+        frame.buffer.put(TYPE_OFFSET, LEAF);
+        pool.unpin(frame);
+        return pageId;
+    }
+
+    private int allocate() {
+        return pageCount++;
+    }
+
+
+    // Page layout.
+
+    private int numKeys(ByteBuffer page) {
+        return page.getInt(NUM_KEYS_OFFSET);
+    }
+
+    private void setNumKeys(ByteBuffer page, int n) {
+        page.putInt(NUM_KEYS_OFFSET, n);
+    }
+
+    private int leafKeyOffset(int i) {
+        return NODE_HEADER_SIZE + i * keySize;
+    }
+
+    private int valueOffset(int i) {
+        return NODE_HEADER_SIZE + leafCapacity * keySize + i * valueSize;
+    }
+
+    private int internalKeyOffset(int i) {
+        return NODE_HEADER_SIZE + i * keySize;
+    }
+
+    private int childOffset(int i) {
+        return NODE_HEADER_SIZE + internalMaxKeys * keySize + i * Integer.BYTES;
+    }
+
+    private K readKey(ByteBuffer page, int i) {
+        // Leaves and internal nodes keep their keys at the same offsets.
+        return keyCodec.read(page, leafKeyOffset(i));
+    }
+
+    private V readValue(ByteBuffer page, int i) {
+        return valueCodec.read(page, valueOffset(i));
+    }
+
+    private int child(ByteBuffer page, int i) {
+        return page.getInt(childOffset(i));
+    }
+
+    private void setChild(ByteBuffer page, int i, int pageId) {
+        page.putInt(childOffset(i), pageId);
+    }
+
+    /**
+     * Moves count entries of a leaf from index from to index to (the ranges may overlap).
+     */
+    private void moveLeafEntries(ByteBuffer page, int from, int to, int count) {
+        copyLeafEntries(page, from, page, to, count);
+    }
+
+    private void copyLeafEntries(ByteBuffer source, int from, ByteBuffer target, int to, int count) {
+        if (count <= 0) {
+            return;
+        }
+        System.arraycopy(source.array(), leafKeyOffset(from), target.array(), leafKeyOffset(to), count * keySize);
+        System.arraycopy(source.array(), valueOffset(from), target.array(), valueOffset(to), count * valueSize);
+    }
+
+    /**
+     * Binary search among the keys of a page.
+     *
+     * @param page The page.
+     * @param key  The key being sought.
+     * @return The index of the key if found; otherwise, (-(insertion point) - 1).
+     */
+    private int indexOf(ByteBuffer page, K key) {
+        int low = 0;
+        int high = numKeys(page) - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = readKey(page, mid).compareTo(key);
+
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the index of the child whose subtree holds the key.
+     * Keys equal to a separator belong to the right of the separator.
+     */
+    private int findChildIndex(ByteBuffer page, K key) {
+        int index = indexOf(page, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -36,14 +36,14 @@ package com.caparniyazi.ds.tree;
  *
  * @param <E>
  */
-public class RedBlackTree<E extends Comparable<E>> extends BinarySearchTreeWithRotate<E> {
+public class RedBlackTree<E extends Comparable<E>> extends OrderStatisticTree<E> {
     // Data fields
     private int size = 0;
 
     /**
      * Nested class to represent a Red-Black node.
      */
-    protected static class RedBlackNode<E> extends Node<E> {
+    protected static class RedBlackNode<E> extends SizedNode<E> {
         // Additional data members
         /**
          * The Color indicator, true if red, false if black.
@@ -76,7 +76,10 @@ public class RedBlackTree<E extends Comparable<E>> extends BinarySearchTreeWithR
 
 
     /**
-     * Insert an item into the tree. This is the starter method of a recursive process.
+     * Insert an item into the tree.
+     * <p/>
+     * This method is iterative: it records the search path (findPath()) and re-balances the local roots
+     * on the way back up in a loop. addRecursive() is the recursive process described below.
      * <p/>
      * In a Red-Black tree, insertion is not just a simple link operation.
      * Each recursive call to add() may perform:
@@ -99,6 +102,39 @@ public class RedBlackTree<E extends Comparable<E>> extends BinarySearchTreeWithR
      */
     @Override
     public boolean add(E item) {
+        int depth = findPath(item);
+
+        if (depth < 0) {
+            addReturn = false;
+            return false;   // Duplicate key.
+        }
+        setChildOnPath(depth, new RedBlackNode<>(item));
+        size++;
+
+        // Walk back up the recorded path and re-balance every local root, like the recursive add() does.
+        for (int i = depth - 1; i >= 0; i--) {
+            RedBlackNode<E> localRoot = (RedBlackNode<E>) path[i];
+            updateSize(localRoot);
+            RedBlackNode<E> newLocalRoot = rebalance(localRoot);
+
+            if (newLocalRoot != localRoot) {
+                setChildOnPath(i, newLocalRoot);
+            }
+        }
+        clearPath(depth);
+        ((RedBlackNode<E>) root).isRed = false;
+        addReturn = true;
+        return true;
+    }
+
+    /**
+     * The recursive version of add(), which returns the new local root up the call stack.
+     *
+     * @param item - The item to be inserted
+     * @return true if item inserted, false if item already in the tree.
+     */
+    @Override
+    public boolean addRecursive(E item) {
         int oldSize = size;
         root = add((RedBlackNode<E>) root, item);
         // Since the root of a Red-Black tree is always black, we set the newly inserted node to black.
@@ -147,6 +183,7 @@ public class RedBlackTree<E extends Comparable<E>> extends BinarySearchTreeWithR
         } else { // item > localRoot.data
             localRoot.right = add((RedBlackNode<E>) localRoot.right, item);
         }
+        updateSize(localRoot);
 
         // Perform re-balancing
         return rebalance(localRoot);
@@ -184,10 +221,19 @@ public class RedBlackTree<E extends Comparable<E>> extends BinarySearchTreeWithR
         ((RedBlackNode<E>) node.right).isRed = false;
     }
 
+    /**
+     * Flips the colors of a node and its two children: used by delete() to push a red link down
+     * the search path (a node and its children change from one 4-node into two 2-nodes, or back).
+     */
+    private void flipColors(RedBlackNode<E> node) {
+        node.isRed = !node.isRed;
+        ((RedBlackNode<E>) node.left).isRed = !((RedBlackNode<E>) node.left).isRed;
+        ((RedBlackNode<E>) node.right).isRed = !((RedBlackNode<E>) node.right).isRed;
+    }
+
+    // The rotations of the base class, which also recompute the subtree sizes, plus the colors.
     private RedBlackNode<E> rotateLeft(RedBlackNode<E> node) {
-        RedBlackNode<E> temp = (RedBlackNode<E>) node.right;
-        node.right = temp.left;
-        temp.left = node;
+        RedBlackNode<E> temp = (RedBlackNode<E>) super.rotateLeft(node);
 
         // Swap colors
         temp.isRed = node.isRed;
@@ -196,15 +242,166 @@ public class RedBlackTree<E extends Comparable<E>> extends BinarySearchTreeWithR
     }
 
     private RedBlackNode<E> rotateRight(RedBlackNode<E> node) {
-        RedBlackNode<E> temp = (RedBlackNode<E>) node.left;
-        node.left = temp.right;
-        temp.right = node;
+        RedBlackNode<E> temp = (RedBlackNode<E>) super.rotateRight(node);
 
         temp.isRed = node.isRed;
         node.isRed = true;
         return temp;
     }
 
+    /**
+     * Deletes an item from the tree, keeping it balanced.
+     * <p/>
+     * The deletion method of BinarySearchTree would unlink a node without looking at the colors, which may
+     * leave a path with one black node less than the others (invariant 4). Instead, this method follows
+     * Sedgewick's deletion for left-leaning Red-Black trees: on the way down, it makes sure with rotations
+     * and color flips that the current node or its left child is red (moveRedLeft(), moveRedRight()),
+     * so that the node finally removed is red, which does not change any black height.
+     * On the way back up, fixUp() restores the invariants like the insertion does.
+     *
+     * @param target The item to be deleted.
+     * @return The item deleted from the tree or null if the item was not in the tree.
+     */
+    @Override
+    public E delete(E target) {
+        E found = find(target);
+
+        if (found == null) {
+            deleteReturn = null;
+            return null;
+        }
+
+        // If both children of the root are black, set the root to red so that moveRed...() can use it.
+        RedBlackNode<E> rootNode = (RedBlackNode<E>) root;
+        if (!isRed(rootNode.left) && !isRed(rootNode.right)) {
+            rootNode.isRed = true;
+        }
+        root = delete(rootNode, target);
+        size--;
+
+        if (root != null) {
+            ((RedBlackNode<E>) root).isRed = false;
+        }
+        deleteReturn = found;
+        return found;
+    }
+
+    /**
+     * The deletion of a red-black tree is recursive only.
+     *
+     * @param target The item to be deleted.
+     * @return The item deleted from the tree or null if the item was not in the tree.
+     */
+    @Override
+    public E deleteRecursive(E target) {
+        return delete(target);
+    }
+
+    /**
+     * Recursive delete method.
+     *
+     * @param localRoot The root of the subtree, which contains the item.
+     * @param item      The item to be deleted.
+     * @return The new local root of the subtree without the item.
+     */
+    private RedBlackNode<E> delete(RedBlackNode<E> localRoot, E item) {
+        if (item.compareTo(localRoot.data) < 0) {
+            if (!isRed(localRoot.left) && !isRed(localRoot.left.left)) {
+                localRoot = moveRedLeft(localRoot);
+            }
+            localRoot.left = delete((RedBlackNode<E>) localRoot.left, item);
+        } else {
+            if (isRed(localRoot.left)) {
+                localRoot = rotateRight(localRoot);
+            }
+
+            if (item.compareTo(localRoot.data) == 0 && localRoot.right == null) {
+                return null;    // A red leaf.
+            }
+
+            if (!isRed(localRoot.right) && !isRed(localRoot.right.left)) {
+                localRoot = moveRedRight(localRoot);
+            }
+
+            if (item.compareTo(localRoot.data) == 0) {
+                // Replace the data with the inorder successor, and delete the successor instead.
+                Node<E> successor = localRoot.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                localRoot.data = successor.data;
+                localRoot.right = deleteMin((RedBlackNode<E>) localRoot.right);
+            } else {
+                localRoot.right = delete((RedBlackNode<E>) localRoot.right, item);
+            }
+        }
+        return fixUp(localRoot);
+    }
+
+    /**
+     * Deletes the smallest item of a subtree whose root or left child is red.
+     */
+    private RedBlackNode<E> deleteMin(RedBlackNode<E> localRoot) {
+        if (localRoot.left == null) {
+            return null;
+        }
+
+        if (!isRed(localRoot.left) && !isRed(localRoot.left.left)) {
+            localRoot = moveRedLeft(localRoot);
+        }
+        localRoot.left = deleteMin((RedBlackNode<E>) localRoot.left);
+        return fixUp(localRoot);
+    }
+
+    /**
+     * The node is red and both its left child and the left child's left child are black:
+     * make the left child or one of its children red.
+     */
+    private RedBlackNode<E> moveRedLeft(RedBlackNode<E> node) {
+        flipColors(node);
+
+        if (isRed(node.right.left)) {
+            node.right = rotateRight((RedBlackNode<E>) node.right);
+            node = rotateLeft(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /**
+     * The node is red and both its right child and the right child's left child are black:
+     * make the right child or one of its children red.
+     */
+    private RedBlackNode<E> moveRedRight(RedBlackNode<E> node) {
+        flipColors(node);
+
+        if (isRed(node.left.left)) {
+            node = rotateRight(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /**
+     * Restores the left-leaning invariants on the way up of a deletion, and recomputes the subtree size.
+     */
+    private RedBlackNode<E> fixUp(RedBlackNode<E> localRoot) {
+        updateSize(localRoot);
+
+        if (isRed(localRoot.right) && !isRed(localRoot.left)) {
+            localRoot = rotateLeft(localRoot);
+        }
+
+        if (isRed(localRoot.left) && isRed(localRoot.left.left)) {
+            localRoot = rotateRight(localRoot);
+        }
+
+        if (isRed(localRoot.left) && isRed(localRoot.right)) {
+            flipColors(localRoot);
+        }
+        return localRoot;
+    }
+
     public int size() {
         return size;
     }
@@ -1,5 +1,7 @@
 package com.caparniyazi.ds.tree;
 
+import java.util.List;
+
 /**
  * The binary search tree is a data structure that enables
  * efficient insertion, search, and retrieval of information (best case is O(log(n)).
@@ -48,4 +50,11 @@ public interface SearchTree<E> {
      * @return true if deleted from tree, otherwise, returns false.
      */
     boolean remove(E target);
+
+    /**
+     * Returns the items of the tree in ascending order.
+     *
+     * @return the items of the tree in ascending order.
+     */
+    List<E> toList();
 }
@@ -23,5 +23,43 @@ public class TestBPlusTree {
         System.out.println("\nDelete 44 → " + tree.delete(44));
         tree.printTree();
         System.out.println(tree.findRange(1, 100));
+
+        // Lazy range cursors: half-open bounds, descending order, skip and limit.
+        System.out.print("\nKeys in [25, 85), descending, skip 1, limit 3:");
+        BPlusTree<Integer, String>.Cursor cursor = tree.descendingCursor(25, true, 85, false).limit(4);
+        cursor.skip(1);
+        while (cursor.next()) {
+            System.out.print(" " + cursor.getKey() + "=" + cursor.getValue());
+        }
+        System.out.println("\nValues above 40: " + tree.values(40, false, null, false).toList());
+
+        // The height, insertion and lookup time of a tree of one million keys, by order.
+        System.out.println("\nOrder  Height  Insert(ms)  Search(ms)");
+        for (int order : new int[]{4, 16, 64, 128, 256, 512}) {
+            BPlusTree<Integer, Integer> big = new BPlusTree<>(order);
+            long start = System.nanoTime();
+
+            for (int i = 0; i < 1_000_000; i++) {
+                big.insert((int) ((long) i * 7919 % 1_000_000), i);  // 7919 is a prime, so the keys are a permutation.
+            }
+            long inserted = System.nanoTime();
+
+            for (int i = 0; i < 1_000_000; i++) {
+                big.search(i);
+            }
+            System.out.printf("%5d  %6d  %10d  %10d%n", order, big.getHeight(),
+                    (inserted - start) / 1_000_000, (System.nanoTime() - inserted) / 1_000_000);
+
+            if (order == 128) {
+                // A range aggregation without materializing the range, sequentially and in parallel.
+                for (boolean parallel : new boolean[]{false, true}) {
+                    long rangeStart = System.nanoTime();
+                    var values = big.values(100_000, true, 900_000, false);
+                    long sum = (parallel ? values.parallel() : values).mapToLong(Integer::longValue).sum();
+                    System.out.printf("       sum of 800000 values (%s): %d in %d ms%n", parallel ? "parallel" : "sequential",
+                            sum, (System.nanoTime() - rangeStart) / 1_000_000);
+                }
+            }
+        }
     }
 }
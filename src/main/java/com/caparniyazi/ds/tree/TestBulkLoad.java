@@ -0,0 +1,85 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Compares building a BPlusTree and a BTree by inserting sorted keys one by one with bulk loading them,
+ * sequentially and in parallel.
+ */
+public class TestBulkLoad {
+    private static final int N = 5_000_000;
+    private static final int ORDER = 128;
+
+    public static void main(String[] args) {
+        Integer[] keys = IntStream.range(0, N).map(i -> 2 * i).boxed().toArray(Integer[]::new);
+
+        for (int round = 0; round < 2; round++) {   // The first round warms up the JIT compiler.
+            System.out.println(round == 0 ? "Warm-up:" : "Measured:");
+
+            long start = System.nanoTime();
+            BPlusTree<Integer, Integer> inserted = new BPlusTree<>(ORDER);
+            for (Integer key : keys) {
+                inserted.insert(key, key);
+            }
+            report("BPlusTree insert()", start, inserted.getHeight());
+
+            for (boolean parallel : new boolean[]{false, true}) {
+                System.gc();    // So that the garbage of the previous build is not collected during this one.
+                start = System.nanoTime();
+                BPlusTree<Integer, Integer> loaded = new BPlusTree<>(ORDER);
+                loaded.bulkLoad(entries(keys), 1.0, parallel);
+                report("BPlusTree bulkLoad(" + (parallel ? "parallel)" : "sequential)"), start, loaded.getHeight());
+                check(loaded.search(keys[N / 2]).equals(keys[N / 2]) && loaded.search(1) == null);
+            }
+
+            start = System.nanoTime();
+            BTree<Integer> added = new BTree<>(ORDER);
+            for (Integer key : keys) {
+                added.add(key);
+            }
+            report("BTree add()", start, added.getHeight());
+
+            for (boolean parallel : new boolean[]{false, true}) {
+                System.gc();    // So that the garbage of the previous build is not collected during this one.
+                start = System.nanoTime();
+                BTree<Integer> loaded = new BTree<>(ORDER);
+                loaded.bulkLoad(Arrays.asList(keys).iterator(), 1.0, parallel);
+                report("BTree bulkLoad(" + (parallel ? "parallel)" : "sequential)"), start, loaded.getHeight());
+                check(loaded.contains(keys[N / 3]) && !loaded.contains(1));
+            }
+        }
+
+        // A lower fill factor leaves room for later inserts.
+        for (double fill : new double[]{0.5, 0.7, 1.0}) {
+            BPlusTree<Integer, Integer> loaded = new BPlusTree<>(ORDER);
+            loaded.bulkLoad(entries(keys), fill);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < N; i += 5) {
+                loaded.insert(2 * i + 1, i);  // Odd keys fall between the loaded keys.
+            }
+            System.out.printf("fill %.1f: height %d, %d ms for %d inserts after the load%n",
+                    fill, loaded.getHeight(), (System.nanoTime() - start) / 1_000_000, N / 5);
+        }
+    }
+
+    private static Iterator<Map.Entry<Integer, Integer>> entries(Integer[] keys) {
+        return Arrays.stream(keys)
+                .map(key -> (Map.Entry<Integer, Integer>) new AbstractMap.SimpleImmutableEntry<>(key, key))
+                .iterator();
+    }
+
+    private static void report(String label, long start, int height) {
+        System.out.printf("  %-30s %5d ms, height %d%n", label, (System.nanoTime() - start) / 1_000_000, height);
+    }
+
+    private static void check(boolean condition) {
+        if (!condition) {
+            throw new IllegalStateException("Lookup after bulk load failed");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestConcurrentBPlusTree {
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentBPlusTree<Integer, Integer> tree = new ConcurrentBPlusTree<>(8);
+        int numThreads = 8;
+        int keysPerThread = 100_000;
+        List<Thread> threads = new ArrayList<>();
+
+        // Each thread inserts its own interleaved keys and removes every other one,
+        // while one more thread scans the tree and checks that the scans are sorted.
+        for (int t = 0; t < numThreads; t++) {
+            int first = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < keysPerThread; i++) {
+                    int key = first + i * numThreads;
+                    tree.insert(key, key);
+                }
+                for (int i = 0; i < keysPerThread; i += 2) {
+                    tree.delete(first + i * numThreads);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        int[] unsorted = new int[1];
+        Thread scanner = new Thread(() -> {
+            while (threads.stream().anyMatch(Thread::isAlive)) {
+                List<Integer> values = tree.findRange(0, numThreads * keysPerThread);
+
+                for (int i = 1; i < values.size(); i++) {
+                    if (values.get(i - 1) >= values.get(i)) {
+                        unsorted[0]++;
+                    }
+                }
+            }
+        });
+        scanner.start();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        scanner.join();
+
+        int missing = 0;
+        for (int key = 0; key < numThreads * keysPerThread; key++) {
+            boolean deleted = (key / numThreads) % 2 == 0;
+            Integer value = tree.search(key);
+
+            if (deleted ? value != null : value == null || value != key) {
+                missing++;
+            }
+        }
+
+        System.out.println("Expected size = " + numThreads * keysPerThread / 2);
+        System.out.println("Actual size = " + tree.size());
+        System.out.println("Wrong keys = " + missing);
+        System.out.println("Unsorted scan results = " + unsorted[0]);
+        System.out.println("Height = " + tree.getHeight());
+    }
+}
@@ -0,0 +1,54 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Freezes an AVLTree into the EYTZINGER and VAN_EMDE_BOAS layouts, over Integer objects and over an int[],
+ * checks that all of them find the same keys, and times random lookups (a single run; see
+ * FrozenSearchTreeBenchmark for JMH measurements).
+ */
+public class TestFrozenSearchTree {
+    public static void main(String[] args) {
+        final int N = 1_000_000;
+        final int LOOKUPS = 5_000_000;
+        Random random = new Random(42);
+        AVLTree<Integer> avl = new AVLTree<>();
+
+        while (avl.size() < N) {
+            avl.add(random.nextInt(2 * N));
+        }
+        int[] lookups = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = random.nextInt(2 * N);
+        }
+
+        FrozenSearchTree<Integer> eytzinger = FrozenSearchTree.freeze(avl, FrozenSearchTree.Layout.EYTZINGER);
+        FrozenSearchTree<Integer> vanEmdeBoas = FrozenSearchTree.freeze(avl, FrozenSearchTree.Layout.VAN_EMDE_BOAS);
+        FrozenIntSearchTree intEytzinger = FrozenIntSearchTree.freeze(avl, FrozenSearchTree.Layout.EYTZINGER);
+        FrozenIntSearchTree intVanEmdeBoas = FrozenIntSearchTree.freeze(avl, FrozenSearchTree.Layout.VAN_EMDE_BOAS);
+
+        System.out.println("Same contents: " + (eytzinger.toList().equals(avl.toList())
+                && vanEmdeBoas.toList().equals(avl.toList()) && intEytzinger.toList().equals(avl.toList())
+                && intVanEmdeBoas.toList().equals(avl.toList())));
+
+        System.out.printf("%,d keys, %,d random lookups%n", N, LOOKUPS);
+        List<SearchTree<Integer>> trees = List.of(avl, eytzinger, vanEmdeBoas, intEytzinger, intVanEmdeBoas);
+
+        for (SearchTree<Integer> tree : trees) {
+            long start = System.nanoTime();
+            int found = 0;
+
+            for (int key : lookups) {
+                if (tree.contains(key)) {
+                    found++;
+                }
+            }
+            long time = System.nanoTime() - start;
+            String name = tree.getClass().getSimpleName()
+                    + (tree instanceof FrozenSearchTree<?> frozen ? " " + frozen.getLayout() : "")
+                    + (tree instanceof FrozenIntSearchTree frozen ? " " + frozen.getLayout() : "");
+            System.out.printf("%-35s %,d found, %.2f ms%n", name, found, time / 1e6);
+        }
+    }
+}
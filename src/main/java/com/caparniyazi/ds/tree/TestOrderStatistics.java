@@ -0,0 +1,75 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Uses rank(), select() and countInRange() of AVLTree and RedBlackTree as a leaderboard, then checks the
+ * subtree sizes against a recount after every operation of a random insert/delete workload.
+ */
+public class TestOrderStatistics {
+    public static void main(String[] args) {
+        AVLTree<Integer> scores = new AVLTree<>();
+        int[] values = {870, 420, 990, 650, 310, 760, 540, 880, 120, 700};
+
+        for (int score : values) {
+            scores.add(score);
+        }
+        System.out.println("Scores: " + scores.toList());
+        System.out.println("Rank of 760 (scores below it): " + scores.rank(760));
+        System.out.println("Place of 760 (1 = best): " + (scores.size() - scores.rank(760)));
+        System.out.println("Best score: " + scores.select(scores.size() - 1));
+        System.out.println("Median score: " + scores.select(scores.size() / 2));
+        System.out.println("Scores in [500, 800]: " + scores.countInRange(500, 800));
+
+        for (int kind = 0; kind < 2; kind++) {
+            OrderStatisticTree<Integer> tree = kind == 0 ? new AVLTree<>() : new RedBlackTree<>();
+            TreeSet<Integer> expected = new TreeSet<>();
+            Random random = new Random(42);
+            int errors = 0;
+
+            for (int i = 0; i < 100_000; i++) {
+                int key = random.nextInt(10_000);
+
+                if (random.nextBoolean()) {
+                    tree.add(key);
+                    expected.add(key);
+                } else {
+                    tree.remove(key);
+                    expected.remove(key);
+                }
+
+                if (i % 100 == 0) {
+                    int lo = random.nextInt(10_000);
+                    int hi = lo + random.nextInt(1_000);
+
+                    if (checkSizes(tree.getRoot()) < 0 || tree.rank(key) != expected.headSet(key).size()
+                            || tree.countInRange(lo, hi) != expected.subSet(lo, true, hi, true).size()
+                            || (!expected.isEmpty() && !tree.select(expected.size() / 2).equals(tree.toList().get(expected.size() / 2)))) {
+                        errors++;
+                    }
+                }
+            }
+            System.out.printf("%s: %d items, %d errors%n", tree.getClass().getSimpleName(), expected.size(), errors);
+        }
+    }
+
+    /**
+     * Recounts the nodes of a subtree and compares the counts with the stored sizes.
+     *
+     * @param node The root of the subtree.
+     * @return The number of nodes, or -1 if a stored size is wrong.
+     */
+    private static int checkSizes(BinaryTree.Node<Integer> node) {
+        if (node == null) {
+            return 0;
+        }
+        int left = checkSizes(node.left);
+        int right = checkSizes(node.right);
+
+        if (left < 0 || right < 0 || BinarySearchTreeWithRotate.size(node) != left + right + 1) {
+            return -1;
+        }
+        return left + right + 1;
+    }
+}
@@ -0,0 +1,70 @@
+package com.caparniyazi.ds.tree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds a PagedBPlusTree much larger than its buffer pool, and counts the pages that point lookups and
+ * range queries read from the file. The tree is then closed, reopened and checked.
+ */
+public class TestPagedBPlusTree {
+    private static final int N = 2_000_000;
+    private static final int POOL_PAGES = 256;  // 2 MB of an about 40 MB file.
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("bplustree", ".db");
+        Files.delete(file); // Let the tree create it.
+        Random random = new Random(42);
+
+        try {
+            long start = System.nanoTime();
+            try (PagedBPlusTree<Long, Long> tree = new PagedBPlusTree<>(file, FixedSizeCodec.LONG, FixedSizeCodec.LONG, POOL_PAGES)) {
+                for (long i = 0; i < N; i++) {
+                    long key = (i * 7919) % N;    // A permutation of 0 ... N - 1.
+                    tree.insert(key, -key);
+                }
+                System.out.printf("Inserted %d keys in %d ms: height %d, %d page reads, %d page writes%n",
+                        tree.size(), (System.nanoTime() - start) / 1_000_000, tree.getHeight(),
+                        tree.getPageReads(), tree.getPageWrites());
+
+                long reads = tree.getPageReads();
+                int lookups = 10_000;
+                for (int i = 0; i < lookups; i++) {
+                    long key = random.nextInt(N);
+                    check(tree.search(key) == -key);
+                }
+                System.out.printf("%d random lookups: %.2f page reads per lookup%n",
+                        lookups, (double) (tree.getPageReads() - reads) / lookups);
+
+                reads = tree.getPageReads();
+                List<Long> range = tree.findRange(1_000_000L, 1_099_999L);
+                check(range.size() == 100_000 && range.get(0) == -1_000_000L);
+                System.out.printf("findRange() of %d keys: %d page reads%n", range.size(), tree.getPageReads() - reads);
+
+                for (long key = 0; key < N; key += 2) {
+                    tree.delete(key);
+                }
+                System.out.printf("After deleting the even keys: %d keys%n", tree.size());
+            }
+            System.out.printf("File size: %d KB%n", Files.size(file) / 1024);
+
+            // Reopen the file and check its contents.
+            try (PagedBPlusTree<Long, Long> tree = new PagedBPlusTree<>(file, FixedSizeCodec.LONG, FixedSizeCodec.LONG, POOL_PAGES)) {
+                check(tree.size() == N / 2);
+                check(tree.search(0L) == null && tree.search(1L) == -1L && tree.search(N - 1L) == -(N - 1L));
+                System.out.printf("Reopened: %d keys, height %d%n", tree.size(), tree.getHeight());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void check(boolean condition) {
+        if (!condition) {
+            throw new IllegalStateException("Paged B+Tree returned a wrong result");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.caparniyazi.ds.tree;
+
+import java.util.Random;
+
+/**
+ * Demonstrates split(), join() and the set operations of AVLTree and TwoThreeTree, then compares the union
+ * of a large and a small tree with adding the items of the small tree to the large one one at a time.
+ */
+public class TestSetOperations {
+    public static void main(String[] args) {
+        AVLTree<Integer> odd = new AVLTree<>();
+        AVLTree<Integer> small = new AVLTree<>();
+
+        for (int i = 1; i < 20; i += 2) {
+            odd.add(i);
+        }
+        for (int i = 0; i < 20; i += 3) {
+            small.add(i);
+        }
+        System.out.println("a = " + odd.toList() + ", b = " + small.toList());
+
+        AVLTree.Split<Integer> split = AVLTree.split(odd, 9);
+        System.out.println("split(a, 9) = " + split.left().toList() + ", found: " + split.found() + ", " + split.right().toList());
+        odd = AVLTree.join(split.left(), 9, split.right());
+        System.out.println("join(left, 9, right) = " + odd.toList());
+
+        TwoThreeTree<Integer> a = new TwoThreeTree<>();
+        TwoThreeTree<Integer> b = new TwoThreeTree<>();
+        for (int i : odd.toList()) {
+            a.add(i);
+        }
+        for (int i : small.toList()) {
+            b.add(i);
+        }
+        System.out.println("2-3 union: " + TwoThreeTree.union(a, b).toList());
+
+        for (int i : odd.toList()) {
+            a.add(i);
+        }
+        for (int i : small.toList()) {
+            b.add(i);
+        }
+        System.out.println("2-3 intersection: " + TwoThreeTree.intersection(a, b).toList());
+        System.out.println("AVL difference: " + AVLTree.difference(odd, small).toList());
+
+        // A large tree and a tree with 1% of its size.
+        final int N = 1_000_000;
+        final int M = N / 100;
+        Random random = new Random(42);
+        int[] large = random.ints(N, 0, 10 * N).distinct().toArray();
+        int[] extra = random.ints(M, 0, 10 * N).distinct().toArray();
+
+        AVLTree<Integer> byAdd = new AVLTree<>();
+        AVLTree<Integer> byUnion = new AVLTree<>();
+        AVLTree<Integer> other = new AVLTree<>();
+        for (int key : large) {
+            byAdd.add(key);
+            byUnion.add(key);
+        }
+        for (int key : extra) {
+            other.add(key);
+        }
+
+        long start = System.nanoTime();
+        for (int key : extra) {
+            byAdd.add(key);
+        }
+        long addTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        AVLTree<Integer> union = AVLTree.union(byUnion, other);
+        long unionTime = System.nanoTime() - start;
+
+        System.out.printf("%,d + %,d items: add() %.2f ms, union() %.2f ms, same size: %b%n",
+                large.length, extra.length, addTime / 1e6, unionTime / 1e6, union.size() == byAdd.size());
+    }
+}
@@ -2,6 +2,10 @@ package com.caparniyazi.ds.tree;
 
 import java.util.Random;
 
+/**
+ * A quick, single-run comparison of AVLTree and RedBlackTree.
+ * See TreeTimingBenchmark for JMH measurements, which also compare the iterative and recursive variants.
+ */
 public class TestTreeTiming {
     public static void main(String[] args) {
         final int N = 100_000;
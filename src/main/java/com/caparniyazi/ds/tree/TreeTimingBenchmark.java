@@ -0,0 +1,148 @@
+package com.caparniyazi.ds.tree;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JMH successor of TestTreeTiming: compares the iterative and the recursive insert, search and delete
+ * of BinarySearchTree, AVLTree and RedBlackTree, on random and on sorted input.
+ * <p/>
+ * Each benchmark processes all the keys once. Sorted input degenerates the BinarySearchTree into a list,
+ * so its recursive variants need one stack frame per item: the forks run with a large thread stack,
+ * without which they overflow the stack at about 10,000 items.
+ * AVLTree and RedBlackTree delete recursively only, so their two delete variants measure the same code.
+ * <p/>
+ * Run with: java -cp target/classes:... com.caparniyazi.ds.tree.TreeTimingBenchmark
+ * Add "-p size=100000" for larger trees (sorted input makes BinarySearchTree quadratic).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss256m"})
+public class TreeTimingBenchmark {
+    // Data fields
+    public enum Kind {
+        BST, AVL, RED_BLACK;
+
+        BinarySearchTree<Integer> create() {
+            return switch (this) {
+                case BST -> new BinarySearchTree<>();
+                case AVL -> new AVLTree<>();
+                case RED_BLACK -> new RedBlackTree<>();
+            };
+        }
+    }
+
+    @Param({"BST", "AVL", "RED_BLACK"})
+    private Kind kind;
+
+    @Param({"RANDOM", "SORTED"})
+    private String input;
+
+    @Param({"10000"})
+    private int size;
+
+    private Integer[] keys;     // The even numbers 0 ... 2 * (size - 1), in random or ascending order.
+    private Integer[] lookups;  // Random numbers in 0 ... 2 * size - 1: half of them are hits.
+    private BinarySearchTree<Integer> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new Integer[size];
+        lookups = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = 2 * i;
+            lookups[i] = random.nextInt(2 * size);
+        }
+
+        if (input.equals("RANDOM")) {
+            for (int i = size - 1; i > 0; i--) {    // Fisher-Yates shuffle.
+                int j = random.nextInt(i + 1);
+                Integer temp = keys[i];
+                keys[i] = keys[j];
+                keys[j] = temp;
+            }
+        }
+        tree = build();
+    }
+
+    private BinarySearchTree<Integer> build() {
+        BinarySearchTree<Integer> result = kind.create();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    /**
+     * A fresh tree for every invocation of a delete benchmark.
+     */
+    @State(Scope.Thread)
+    public static class FreshTree {
+        BinarySearchTree<Integer> tree;
+
+        @Setup(Level.Invocation)
+        public void setUp(TreeTimingBenchmark benchmark) {
+            tree = benchmark.build();
+        }
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> insertIterative() {
+        BinarySearchTree<Integer> result = kind.create();
+        for (Integer key : keys) {
+            result.add(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> insertRecursive() {
+        BinarySearchTree<Integer> result = kind.create();
+        for (Integer key : keys) {
+            result.addRecursive(key);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void searchIterative(Blackhole bh) {
+        for (Integer key : lookups) {
+            bh.consume(tree.find(key));
+        }
+    }
+
+    @Benchmark
+    public void searchRecursive(Blackhole bh) {
+        for (Integer key : lookups) {
+            bh.consume(tree.findRecursive(key));
+        }
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> deleteIterative(FreshTree fresh) {
+        for (Integer key : keys) {
+            fresh.tree.delete(key);
+        }
+        return fresh.tree;
+    }
+
+    @Benchmark
+    public BinarySearchTree<Integer> deleteRecursive(FreshTree fresh) {
+        for (Integer key : keys) {
+            fresh.tree.deleteRecursive(key);
+        }
+        return fresh.tree;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
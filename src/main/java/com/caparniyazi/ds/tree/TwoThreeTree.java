@@ -1,9 +1,8 @@
 package com.caparniyazi.ds.tree;
 
-import lombok.Getter;
-
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * A 2-3 non-binary tree implementation with pretty-print visualization.
@@ -50,14 +49,20 @@ import java.util.List;
  * The number of items that a 2–3 tree of height h can hold is between 2h − 1 (all 2-nodes) and 3h − 1 (all 3-nodes).
  * Therefore, the height of a 2-3 tree is between log3^n and log2^n. Thus, the search time is O(log n),
  * since logarithms are all related by a constant factor, and constant factors are ignored in big-O notation.
+ * <p/>
+ * Since all leaves are at the same depth, two trees and a key between them are joined like an insertion:
+ * the shorter tree becomes a new child of the node of the right height on the spine of the taller one,
+ * and splits propagate up. join(), split(), union(), intersection() and difference() work as in AVLTree,
+ * with the same bounds, O(m log(n/m + 1)) for the set operations.
  *
  * @param <E> The parameter type.
  */
 public class TwoThreeTree<E extends Comparable<E>> {
     // Data fields
     private Node<E> root;   // Root node of the tree.
-    @Getter
-    private int size;
+    private int size;       // UNKNOWN after a join-based operation, until counted.
+    private static final int UNKNOWN = -1;
+    private static final int PARALLEL_HEIGHT = 12;  // Lower trees are processed sequentially.
 
     // Nested node class for 2-3 tree.
     private static class Node<E> {
@@ -77,6 +82,58 @@ public class TwoThreeTree<E extends Comparable<E>> {
 
     // Methods
 
+    /**
+     * Returns the number of keys. After a join-based operation, the keys are counted once, in O(n).
+     *
+     * @return The number of keys.
+     */
+    public int getSize() {
+        if (size == UNKNOWN) {
+            size = count(root);
+        }
+        return size;
+    }
+
+    private static <E> int count(Node<E> node) {
+        if (node == null) {
+            return 0;
+        }
+        int count = node.keys.size();
+
+        for (Node<E> child : node.children) {
+            count += count(child);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the keys in ascending order (an inorder traversal).
+     *
+     * @return the keys in ascending order.
+     */
+    public List<E> toList() {
+        List<E> result = new ArrayList<>();
+        toList(root, result);
+        return result;
+    }
+
+    private static <E> void toList(Node<E> node, List<E> result) {
+        if (node == null) {
+            return;
+        }
+
+        for (int i = 0; i < node.keys.size(); i++) {
+            if (!node.isLeaf()) {
+                toList(node.children.get(i), result);
+            }
+            result.add(node.keys.get(i));
+        }
+
+        if (!node.isLeaf()) {
+            toList(node.children.get(node.children.size() - 1), result);
+        }
+    }
+
     /**
      * Searching a 2-3 tree is very similar to searching a binary search tree.
      *
@@ -151,7 +208,10 @@ public class TwoThreeTree<E extends Comparable<E>> {
             newRoot.children.add(result.right);
             root = newRoot;
         }
-        size++;
+
+        if (size != UNKNOWN) {
+            size++;
+        }
 
         return true;
     }
@@ -222,7 +282,7 @@ public class TwoThreeTree<E extends Comparable<E>> {
      * @param node The node to be split.
      * @return the new split.
      */
-    private SplitResult<E> split(Node<E> node) {
+    private static <E> SplitResult<E> split(Node<E> node) {
         E middleKey = node.keys.get(1);
 
         Node<E> left = new Node<>();
@@ -266,7 +326,10 @@ public class TwoThreeTree<E extends Comparable<E>> {
         }
 
         root = remove(root, key);
-        size--;
+
+        if (size != UNKNOWN) {
+            size--;
+        }
 
         if (root != null && root.keys.isEmpty() && !root.isLeaf()) {
             root = root.children.get(0);    // Collapse root if it has become empty after merges.
@@ -415,7 +478,7 @@ public class TwoThreeTree<E extends Comparable<E>> {
         }
     }
 
-    private E findMax(Node<E> node) {
+    private static <E> E findMax(Node<E> node) {
         if (node.isLeaf()) {
             return node.keys.get(node.keys.size() - 1);
         }
@@ -423,6 +486,14 @@ public class TwoThreeTree<E extends Comparable<E>> {
         return findMax(node.children.get(node.children.size() - 1));
     }
 
+    private static <E> E findMin(Node<E> node) {
+        if (node.isLeaf()) {
+            return node.keys.get(0);
+        }
+
+        return findMin(node.children.get(0));
+    }
+
     public void printTree() {
         printTree(root, 0);
     }
@@ -444,4 +515,303 @@ public class TwoThreeTree<E extends Comparable<E>> {
             printTree(node.children.get(i), level + 1);
         }
     }
+
+    // Join-based operations.
+
+    /**
+     * The result of split(): the keys less than the key, whether the key was in the tree,
+     * and the keys greater than the key.
+     */
+    public record Split<E extends Comparable<E>>(TwoThreeTree<E> left, boolean found, TwoThreeTree<E> right) {
+    }
+
+    /**
+     * A subtree and its height (0 if empty, 1 for a leaf). All children of a node of height h have height h - 1.
+     */
+    private record Rooted<E>(Node<E> node, int height) {
+    }
+
+    private record Parts<E>(Rooted<E> left, boolean found, Rooted<E> right) {
+    }
+
+    /**
+     * Links two trees and a key between them into one tree.
+     * The two trees are consumed: their nodes are reused, and they are left empty.
+     *
+     * @param left  The tree of the keys less than the key.
+     * @param key   The key.
+     * @param right The tree of the keys greater than the key.
+     * @param <E>   The type of the keys.
+     * @return The tree of all the keys.
+     * @throws IllegalArgumentException if the keys of left are not all less than the key,
+     *                                  or the keys of right not all greater.
+     */
+    public static <E extends Comparable<E>> TwoThreeTree<E> join(TwoThreeTree<E> left, E key, TwoThreeTree<E> right) {
+        if ((left.root != null && findMax(left.root).compareTo(key) >= 0)
+                || (right.root != null && findMin(right.root).compareTo(key) <= 0)) {
+            throw new IllegalArgumentException("The key must be greater than all keys of left and less than all keys of right");
+        }
+        int size = left.size == UNKNOWN || right.size == UNKNOWN ? UNKNOWN : left.size + 1 + right.size;
+        TwoThreeTree<E> result = consume(join(rooted(left), key, rooted(right)), left, right);
+        result.size = size;
+        return result;
+    }
+
+    /**
+     * Cuts a tree at a key. The tree is consumed: its nodes are reused, and it is left empty.
+     *
+     * @param tree The tree.
+     * @param key  The key.
+     * @param <E>  The type of the keys.
+     * @return The tree of the keys less than the key, whether the key was in the tree,
+     * and the tree of the keys greater than the key.
+     */
+    public static <E extends Comparable<E>> Split<E> split(TwoThreeTree<E> tree, E key) {
+        Parts<E> parts = split(rooted(tree), key);
+        tree.root = null;
+        tree.size = 0;
+        return new Split<>(consume(parts.left()), parts.found(), consume(parts.right()));
+    }
+
+    /**
+     * Returns the union of two trees. Both trees are consumed: their nodes are reused, and they are left empty.
+     *
+     * @param a   The first tree.
+     * @param b   The second tree.
+     * @param <E> The type of the keys.
+     * @return The tree of the keys that are in a or in b.
+     */
+    public static <E extends Comparable<E>> TwoThreeTree<E> union(TwoThreeTree<E> a, TwoThreeTree<E> b) {
+        return consume(a == b ? rooted(a) : union(rooted(a), rooted(b)), a, b);
+    }
+
+    /**
+     * Returns the intersection of two trees. Both trees are consumed: their nodes are reused, and they are left empty.
+     *
+     * @param a   The first tree.
+     * @param b   The second tree.
+     * @param <E> The type of the keys.
+     * @return The tree of the keys that are both in a and in b.
+     */
+    public static <E extends Comparable<E>> TwoThreeTree<E> intersection(TwoThreeTree<E> a, TwoThreeTree<E> b) {
+        return consume(a == b ? rooted(a) : intersection(rooted(a), rooted(b)), a, b);
+    }
+
+    /**
+     * Returns the difference of two trees. Both trees are consumed: their nodes are reused, and they are left empty.
+     *
+     * @param a   The first tree.
+     * @param b   The second tree.
+     * @param <E> The type of the keys.
+     * @return The tree of the keys of a that are not in b.
+     */
+    public static <E extends Comparable<E>> TwoThreeTree<E> difference(TwoThreeTree<E> a, TwoThreeTree<E> b) {
+        return consume(a == b ? new Rooted<>(null, 0) : difference(rooted(a), rooted(b)), a, b);
+    }
+
+    private static <E extends Comparable<E>> Rooted<E> rooted(TwoThreeTree<E> tree) {
+        int height = 0;
+
+        for (Node<E> node = tree.root; node != null; node = node.isLeaf() ? null : node.children.get(0)) {
+            height++;
+        }
+        return new Rooted<>(tree.root, height);
+    }
+
+    @SafeVarargs
+    private static <E extends Comparable<E>> TwoThreeTree<E> consume(Rooted<E> result, TwoThreeTree<E>... inputs) {
+        for (TwoThreeTree<E> input : inputs) {
+            input.root = null;
+            input.size = 0;
+        }
+        TwoThreeTree<E> tree = new TwoThreeTree<>();
+        tree.root = result.node();
+        tree.size = result.node() == null ? 0 : UNKNOWN;
+        return tree;
+    }
+
+    /**
+     * Returns the subtree of a node between two of its keys: the keys from (inclusive) ... to (exclusive),
+     * and the children between them. Without keys, it is the only child (or empty below a leaf).
+     */
+    private static <E> Rooted<E> piece(Node<E> node, int height, int from, int to) {
+        if (from == to) {
+            return node.isLeaf() ? new Rooted<>(null, 0) : new Rooted<>(node.children.get(from), height - 1);
+        }
+        Node<E> piece = new Node<>();
+        piece.keys.addAll(node.keys.subList(from, to));
+
+        if (!node.isLeaf()) {
+            piece.children.addAll(node.children.subList(from, to + 1));
+        }
+        return new Rooted<>(piece, height);
+    }
+
+    private static <E> Rooted<E> join(Rooted<E> left, E key, Rooted<E> right) {
+        if (left.height() == right.height()) {
+            Node<E> node = new Node<>();
+            node.keys.add(key);
+
+            if (left.node() != null) {
+                node.children.add(left.node());
+                node.children.add(right.node());
+            }
+            return new Rooted<>(node, left.height() + 1);
+        }
+        SplitResult<E> result = left.height() > right.height() ? joinRight(left.node(), left.height(), key, right)
+                : joinLeft(left, key, right.node(), right.height());
+        Rooted<E> taller = left.height() > right.height() ? left : right;
+
+        if (result == null) {
+            return taller;
+        }
+        // The root was split, so create new root.
+        Node<E> newRoot = new Node<>();
+        newRoot.keys.add(result.promotedKey);
+        newRoot.children.add(result.left);
+        newRoot.children.add(result.right);
+        return new Rooted<>(newRoot, taller.height() + 1);
+    }
+
+    /**
+     * Adds the key and the shorter tree right as the last key and child of the node on the right spine
+     * whose children have the height of right, then splits full nodes on the way back up, like insert().
+     */
+    private static <E> SplitResult<E> joinRight(Node<E> node, int height, E key, Rooted<E> right) {
+        if (height == right.height() + 1) {
+            node.keys.add(key);
+
+            if (right.node() != null) {
+                node.children.add(right.node());
+            }
+        } else {
+            int last = node.children.size() - 1;
+            SplitResult<E> result = joinRight(node.children.get(last), height - 1, key, right);
+
+            if (result == null) {
+                return null;
+            }
+            node.children.set(last, result.left);
+            node.keys.add(result.promotedKey);
+            node.children.add(result.right);
+        }
+        return node.keys.size() <= 2 ? null : split(node);
+    }
+
+    private static <E> SplitResult<E> joinLeft(Rooted<E> left, E key, Node<E> node, int height) {
+        if (height == left.height() + 1) {
+            node.keys.add(0, key);
+
+            if (left.node() != null) {
+                node.children.add(0, left.node());
+            }
+        } else {
+            SplitResult<E> result = joinLeft(left, key, node.children.get(0), height - 1);
+
+            if (result == null) {
+                return null;
+            }
+            node.children.set(0, result.right);
+            node.keys.add(0, result.promotedKey);
+            node.children.add(0, result.left);
+        }
+        return node.keys.size() <= 2 ? null : split(node);
+    }
+
+    /**
+     * Cuts a subtree at a key: the keys and children of each node on the search path that are left of
+     * the key are joined to the left part, those right of it to the right part.
+     */
+    private static <E extends Comparable<E>> Parts<E> split(Rooted<E> tree, E key) {
+        if (tree.node() == null) {
+            return new Parts<>(tree, false, tree);
+        }
+        Node<E> node = tree.node();
+        int height = tree.height();
+        int keys = node.keys.size();
+        int i = 0;
+
+        while (i < keys && key.compareTo(node.keys.get(i)) > 0) {
+            i++;
+        }
+
+        if (i < keys && key.compareTo(node.keys.get(i)) == 0) {
+            return new Parts<>(piece(node, height, 0, i), true, piece(node, height, i + 1, keys));
+        }
+
+        if (node.isLeaf()) {
+            return new Parts<>(piece(node, height, 0, i), false, piece(node, height, i, keys));
+        }
+        Parts<E> parts = split(new Rooted<>(node.children.get(i), height - 1), key);
+        Rooted<E> left = i == 0 ? parts.left() : join(piece(node, height, 0, i - 1), node.keys.get(i - 1), parts.left());
+        Rooted<E> right = i == keys ? parts.right() : join(parts.right(), node.keys.get(i), piece(node, height, i + 1, keys));
+        return new Parts<>(left, parts.found(), right);
+    }
+
+    /**
+     * Joins two subtrees without a key between them: the maximum of left is split off and becomes that key.
+     */
+    private static <E extends Comparable<E>> Rooted<E> join2(Rooted<E> left, Rooted<E> right) {
+        if (left.node() == null) {
+            return right;
+        }
+        E max = findMax(left.node());
+        return join(split(left, max).left(), max, right);
+    }
+
+    /**
+     * Splits b at the first key of the root of a, unites the subtrees on both sides of that key with the
+     * parts of b (in parallel if the trees are high), and joins the results with that key.
+     */
+    private static <E extends Comparable<E>> Rooted<E> union(Rooted<E> a, Rooted<E> b) {
+        if (a.node() == null) {
+            return b;
+        }
+
+        if (b.node() == null) {
+            return a;
+        }
+        E key = a.node().keys.get(0);
+        boolean parallel = Math.max(a.height(), b.height()) >= PARALLEL_HEIGHT;
+        Rooted<E> aLeft = piece(a.node(), a.height(), 0, 0);
+        Rooted<E> aRight = piece(a.node(), a.height(), 1, a.node().keys.size());
+        Parts<E> parts = split(b, key);
+
+        ForkJoinTask<Rooted<E>> leftTask = parallel ? ForkJoinTask.adapt(() -> union(aLeft, parts.left())).fork() : null;
+        Rooted<E> right = union(aRight, parts.right());
+        Rooted<E> left = leftTask != null ? leftTask.join() : union(aLeft, parts.left());
+        return join(left, key, right);
+    }
+
+    private static <E extends Comparable<E>> Rooted<E> intersection(Rooted<E> a, Rooted<E> b) {
+        if (a.node() == null || b.node() == null) {
+            return new Rooted<>(null, 0);
+        }
+        E key = a.node().keys.get(0);
+        boolean parallel = Math.max(a.height(), b.height()) >= PARALLEL_HEIGHT;
+        Rooted<E> aLeft = piece(a.node(), a.height(), 0, 0);
+        Rooted<E> aRight = piece(a.node(), a.height(), 1, a.node().keys.size());
+        Parts<E> parts = split(b, key);
+
+        ForkJoinTask<Rooted<E>> leftTask = parallel ? ForkJoinTask.adapt(() -> intersection(aLeft, parts.left())).fork() : null;
+        Rooted<E> right = intersection(aRight, parts.right());
+        Rooted<E> left = leftTask != null ? leftTask.join() : intersection(aLeft, parts.left());
+        return parts.found() ? join(left, key, right) : join2(left, right);
+    }
+
+    private static <E extends Comparable<E>> Rooted<E> difference(Rooted<E> a, Rooted<E> b) {
+        if (a.node() == null || b.node() == null) {
+            return a;
+        }
+        E key = b.node().keys.get(0);
+        boolean parallel = Math.max(a.height(), b.height()) >= PARALLEL_HEIGHT;
+        Rooted<E> bLeft = piece(b.node(), b.height(), 0, 0);
+        Rooted<E> bRight = piece(b.node(), b.height(), 1, b.node().keys.size());
+        Parts<E> parts = split(a, key);
+
+        ForkJoinTask<Rooted<E>> leftTask = parallel ? ForkJoinTask.adapt(() -> difference(parts.left(), bLeft)).fork() : null;
+        Rooted<E> right = difference(parts.right(), bRight);
+        Rooted<E> left = leftTask != null ? leftTask.join() : difference(parts.left(), bLeft);
+        return join2(left, right);
+    }
 }